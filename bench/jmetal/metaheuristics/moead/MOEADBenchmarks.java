@@ -0,0 +1,188 @@
+//  MOEADBenchmarks.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.moead;
+
+import java.util.HashMap;
+import java.util.List;
+
+import jmetal.core.Algorithm;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.operators.crossover.CrossoverFactory;
+import jmetal.operators.mutation.MutationFactory;
+import jmetal.problems.DTLZ.DTLZ2;
+import jmetal.util.JMException;
+import jmetal.util.benchmark.Benchmark;
+import jmetal.util.benchmark.BenchmarkSuite;
+
+/**
+ * The cases of the benchmark suite measuring MOEA/D internals (see
+ * <code>jmetal.util.benchmark.BenchmarkSuite</code>): the aggregation
+ * functions and the replacement of MOEA/D, and the stable matching selection
+ * of MOEA/D-STM. They are built on DTLZ2 with the weight vectors of a data
+ * directory.
+ */
+public class MOEADBenchmarks {
+	private static final int CHILDREN = 64;	// Offspring cycled through by updateProblem
+	private static final String[] FUNCTION_TYPES = {"_TCHE1", "_TCHE2", "_PBI"};
+
+	private MOEADBenchmarks() {
+	} // MOEADBenchmarks
+
+	/**
+	 * Adds the cases to a list
+	 * @param list The list of the suite
+	 * @param dataDirectory Directory of the weight files (W3D_91.dat, ...)
+	 */
+	public static void addTo(List<Benchmark> list, String dataDirectory) {
+		int[][] sizes = {{91, 3}, {210, 5}};	// N, m: sizes of the weight files
+		for (int[] size : sizes)
+			for (String type : FUNCTION_TYPES)
+				list.add(fitnessFunction(dataDirectory, type, size[0], size[1]));
+		for (int[] size : sizes)
+			for (String type : FUNCTION_TYPES)
+				list.add(updateProblem(dataDirectory, type, size[0], size[1]));
+		for (int[] size : sizes)
+			list.add(stableMatching(dataDirectory, size[0], size[1]));
+	} // addTo
+
+	private static String params(String type, int n, int m) {
+		return ((type == null) ? "" : "type=" + type + ";") + "N=" + n + ";m=" + m;
+	} // params
+
+	private static Problem problem(int m) throws ClassNotFoundException {
+		return new DTLZ2("Real", Integer.valueOf(m + 9), Integer.valueOf(m));
+	} // problem
+
+	private static void setOperators(Algorithm algorithm, Problem problem) throws JMException {
+		HashMap<String, Object> parameters = new HashMap<String, Object>();
+		parameters.put("probability", 1.0);
+		parameters.put("distributionIndex", 20.0);
+		algorithm.addOperator("crossover",
+				CrossoverFactory.getCrossoverOperator("SBXCrossover", parameters));
+		parameters = new HashMap<String, Object>();
+		parameters.put("probability", 1.0 / problem.getNumberOfVariables());
+		parameters.put("distributionIndex", 20.0);
+		algorithm.addOperator("mutation",
+				MutationFactory.getMutationOperator("PolynomialMutation", parameters));
+	} // setOperators
+
+	/**
+	 * Initializes a MOEA/D (population, weights, neighborhoods and ideal point)
+	 */
+	private static MOEAD moead(String dataDirectory, String type, int n, int m)
+			throws JMException, ClassNotFoundException {
+		Problem problem = problem(m);
+		MOEAD moead = new MOEAD(problem);
+		moead.setInputParameter("populationSize", n);
+		moead.setInputParameter("dataDirectory", dataDirectory);
+		setOperators(moead, problem);
+		moead.functionType_ = type;
+		moead.initialize();
+		return moead;
+	} // moead
+
+	private static Solution[] children(Problem problem) throws JMException, ClassNotFoundException {
+		Solution[] children = new Solution[CHILDREN];
+		for (int i = 0; i < CHILDREN; i++) {
+			children[i] = new Solution(problem);
+			problem.evaluate(children[i]);
+		}
+		return children;
+	} // children
+
+	/**
+	 * <code>MOEAD.fitnessFunction</code>: one solution on one weight vector,
+	 * the pairs changing from a call to the next
+	 */
+	static Benchmark fitnessFunction(final String dataDirectory, final String type,
+			final int n, final int m) {
+		return new Benchmark("MOEAD.fitnessFunction", params(type, n, m)) {
+			private MOEAD moead_;
+			private Solution[] solutions_;
+			private int i_, j_;
+
+			public void setUp() throws JMException, ClassNotFoundException {
+				BenchmarkSuite.seed();
+				moead_ = moead(dataDirectory, type, n, m);
+				solutions_ = children(moead_.getProblem());
+				i_ = j_ = 0;
+			}
+
+			public double run() {
+				i_ = (i_ + 1 == CHILDREN) ? 0 : i_ + 1;
+				j_ = (j_ + 7) % n;
+				return moead_.fitnessFunction(solutions_[i_], moead_.lambda_[j_]);
+			}
+		};
+	} // fitnessFunction
+
+	/**
+	 * <code>MOEAD.updateProblem</code> in the neighborhood of a subproblem,
+	 * for offspring cycled through a fixed set. The neighborhoods keep the
+	 * best of them, so after the warm-up a call mostly compares aggregations
+	 * and replaces little, as late in a run
+	 */
+	static Benchmark updateProblem(final String dataDirectory, final String type,
+			final int n, final int m) {
+		return new Benchmark("MOEAD.updateProblem", params(type, n, m)) {
+			private MOEAD moead_;
+			private Solution[] children_;
+			private int i_, id_;
+
+			public void setUp() throws JMException, ClassNotFoundException {
+				BenchmarkSuite.seed();
+				moead_ = moead(dataDirectory, type, n, m);
+				children_ = children(moead_.getProblem());
+				i_ = id_ = 0;
+			}
+
+			public double run() {
+				i_ = (i_ + 1 == CHILDREN) ? 0 : i_ + 1;
+				id_ = (id_ + 1 == n) ? 0 : id_ + 1;
+				moead_.updateProblem(children_[i_], id_, 1);
+				return id_;
+			}
+		};
+	} // updateProblem
+
+	/**
+	 * <code>MOEAD_STM.selection</code>: the stable matching of a population
+	 * and its offspring (2N solutions), after one generation
+	 */
+	static Benchmark stableMatching(final String dataDirectory, final int n, final int m) {
+		return new Benchmark("MOEAD_STM.selection", params(null, n, m)) {
+			private MOEAD_STM stm_;
+
+			public void setUp() throws JMException, ClassNotFoundException {
+				BenchmarkSuite.seed();
+				Problem problem = problem(m);
+				stm_ = new MOEAD_STM(problem);
+				stm_.setInputParameter("populationSize", n);
+				stm_.setInputParameter("maxEvaluations", n);	// One generation
+				stm_.setInputParameter("dataDirectory", dataDirectory);
+				stm_.setInputParameter("numberOfThreads", 1);
+				setOperators(stm_, problem);
+				stm_.execute();
+			}
+
+			public double run() {
+				stm_.selection();
+				return stm_.z_[0];
+			}
+		};
+	} // stableMatching
+} // MOEADBenchmarks
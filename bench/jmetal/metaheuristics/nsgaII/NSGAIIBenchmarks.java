@@ -0,0 +1,118 @@
+//  NSGAIIBenchmarks.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.nsgaII;
+
+import java.util.HashMap;
+import java.util.List;
+
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.operators.crossover.CrossoverFactory;
+import jmetal.operators.mutation.MutationFactory;
+import jmetal.operators.selection.SelectionFactory;
+import jmetal.problems.DTLZ.DTLZ2;
+import jmetal.util.JMException;
+import jmetal.util.benchmark.Benchmark;
+import jmetal.util.benchmark.BenchmarkSuite;
+
+/**
+ * The cases of the benchmark suite measuring the efficient non-domination
+ * level update of ssNSGA-II (see <code>jmetal.util.benchmark.BenchmarkSuite</code>),
+ * on random DTLZ2 populations.
+ */
+public class NSGAIIBenchmarks {
+	private static final int CHILDREN = 64;	// Offspring cycled through by the update
+
+	private NSGAIIBenchmarks() {
+	} // NSGAIIBenchmarks
+
+	/**
+	 * Adds the cases to a list
+	 * @param list The list of the suite
+	 */
+	public static void addTo(List<Benchmark> list) {
+		for (int m : new int[] {2, 3, 5})
+			list.add(nondominatedSortingAdd(100, m));
+	} // addTo
+
+	/**
+	 * <code>ssNSGAII_ENLU.nondominated_sorting_add</code> of an offspring to
+	 * the initial population. <code>nondominated_sorting_delete</code> is not
+	 * its inverse (it expects the population without the deleted solution), so
+	 * the levels of the population are put back after each call from a copy
+	 * of the ranks: a pass over the population, much cheaper than the update.
+	 */
+	static Benchmark nondominatedSortingAdd(final int n, final int m) {
+		return new Benchmark("ssNSGAII_ENLU.nondominated_sorting_add", "N=" + n + ";m=" + m) {
+			private ssNSGAII_ENLU enlu_;
+			private SolutionSet population_;
+			private int[] ranks_;
+			private Solution[] children_;
+			private int i_;
+
+			public void setUp() throws JMException, ClassNotFoundException {
+				BenchmarkSuite.seed();
+				Problem problem = new DTLZ2("Real", Integer.valueOf(m + 9), Integer.valueOf(m));
+				enlu_ = new ssNSGAII_ENLU(problem);
+				enlu_.setInputParameter("populationSize", n);
+				enlu_.setInputParameter("maxEvaluations", n);	// The initial population only
+				setOperators(enlu_, problem);
+				population_ = enlu_.execute();
+				ranks_ = new int[n];
+				for (int i = 0; i < n; i++)
+					ranks_[i] = population_.get(i).getRank();
+
+				children_ = new Solution[CHILDREN];
+				for (int i = 0; i < CHILDREN; i++) {
+					children_[i] = new Solution(problem);
+					problem.evaluate(children_[i]);
+				}
+				i_ = 0;
+			}
+
+			public double run() {
+				i_ = (i_ + 1 == CHILDREN) ? 0 : i_ + 1;
+				int numRanks = enlu_.nondominated_sorting_add(children_[i_]);
+				for (int i = 0; i < n; i++) {
+					Solution solution = population_.get(i);
+					int rank = solution.getRank();
+					if (rank != ranks_[i]) {
+						enlu_.rankIdx_[rank][i] = 0;
+						enlu_.rankIdx_[ranks_[i]][i] = 1;
+						solution.setRank(ranks_[i]);
+					}
+				}
+				return numRanks;
+			}
+		};
+	} // nondominatedSortingAdd
+
+	private static void setOperators(ssNSGAII_ENLU algorithm, Problem problem) throws JMException {
+		HashMap<String, Object> parameters = new HashMap<String, Object>();
+		parameters.put("probability", 1.0);
+		parameters.put("distributionIndex", 20.0);
+		algorithm.addOperator("crossover",
+				CrossoverFactory.getCrossoverOperator("SBXCrossover", parameters));
+		parameters = new HashMap<String, Object>();
+		parameters.put("probability", 1.0 / problem.getNumberOfVariables());
+		parameters.put("distributionIndex", 20.0);
+		algorithm.addOperator("mutation",
+				MutationFactory.getMutationOperator("PolynomialMutation", parameters));
+		algorithm.addOperator("selection",
+				SelectionFactory.getSelectionOperator("BinaryTournament2", null));
+	} // setOperators
+} // NSGAIIBenchmarks
@@ -0,0 +1,96 @@
+//  WFGBenchmarks.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+
+package jmetal.problems.WFG;
+
+import java.util.List;
+
+import jmetal.core.Solution;
+import jmetal.util.JMException;
+import jmetal.util.benchmark.Benchmark;
+import jmetal.util.benchmark.BenchmarkSuite;
+
+/**
+ * The cases of the benchmark suite measuring the evaluation of WFG1..WFG9
+ * (see <code>jmetal.util.benchmark.BenchmarkSuite</code>): the reference
+ * implementation, used by default, against the allocation-free pipeline
+ * chosen by <code>setFusedEvaluation(true)</code>.
+ */
+public class WFGBenchmarks {
+  private static final int CYCLE = 64 ;  // Solutions cycled through by the evaluations
+
+  private WFGBenchmarks() {
+  } // WFGBenchmarks
+
+  /**
+   * Adds the cases to a list
+   * @param list The list of the suite
+   */
+  public static void addTo(List<Benchmark> list) {
+    int[][] settings = {{4, 20, 3}, {10, 100, 5}} ;  // k, l, M
+    for (int[] setting : settings)
+      for (int p = 1; p <= 9; p++)
+        for (boolean fused : new boolean[] {false, true})
+          list.add(evaluation(p, setting[0], setting[1], setting[2], fused)) ;
+  } // addTo
+
+  /**
+   * Returns the problem WFGp with real variables
+   */
+  static WFG problem(int p, int k, int l, int m) throws ClassNotFoundException {
+    Integer k1 = Integer.valueOf(k), l1 = Integer.valueOf(l), m1 = Integer.valueOf(m) ;
+    switch (p) {
+    case 1: return new WFG1("Real", k1, l1, m1) ;
+    case 2: return new WFG2("Real", k1, l1, m1) ;
+    case 3: return new WFG3("Real", k1, l1, m1) ;
+    case 4: return new WFG4("Real", k1, l1, m1) ;
+    case 5: return new WFG5("Real", k1, l1, m1) ;
+    case 6: return new WFG6("Real", k1, l1, m1) ;
+    case 7: return new WFG7("Real", k1, l1, m1) ;
+    case 8: return new WFG8("Real", k1, l1, m1) ;
+    default: return new WFG9("Real", k1, l1, m1) ;
+    } // switch
+  } // problem
+
+  /**
+   * <code>WFGp.evaluate</code> of a random solution
+   */
+  static Benchmark evaluation(final int p, final int k, final int l, final int m,
+      final boolean fused) {
+    return new Benchmark("WFG" + p + ".evaluate", "k=" + k + ";l=" + l + ";m=" + m +
+        ";path=" + (fused ? "fused" : "reference")) {
+      private WFG problem_ ;
+      private Solution[] solutions_ ;
+      private int i_ ;
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        BenchmarkSuite.seed() ;
+        problem_ = problem(p, k, l, m) ;
+        problem_.setFusedEvaluation(fused) ;
+        solutions_ = new Solution[CYCLE] ;
+        for (int i = 0; i < CYCLE; i++)
+          solutions_[i] = new Solution(problem_) ;
+        i_ = 0 ;
+      } // setUp
+
+      public double run() throws JMException {
+        i_ = (i_ + 1 == CYCLE) ? 0 : i_ + 1 ;
+        problem_.evaluate(solutions_[i_]) ;
+        return solutions_[i_].getObjective(0) ;
+      } // run
+    } ;
+  } // evaluation
+} // WFGBenchmarks
@@ -0,0 +1,157 @@
+//  ArchiveBenchmarks.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+
+package jmetal.util.archive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jmetal.core.Solution;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import jmetal.util.benchmark.Benchmark;
+import jmetal.util.benchmark.BenchmarkSuite;
+
+/**
+ * The cases of the benchmark suite measuring the crowding archives fed by
+ * several producers (see <code>jmetal.util.benchmark.BenchmarkSuite</code>):
+ * <code>ConcurrentCrowdingArchive.add</code> against
+ * <code>CrowdingArchive.add</code> behind a lock, as pMOCell used it.
+ * <p>
+ * An operation is a batch of <code>BATCH</code> additions, split among the
+ * producer threads of a pool created by <code>setUp</code>. The solutions
+ * lie near the unit sphere, so a good part of them reach the archive. The
+ * allocation counts only cover the thread of the runner, not the producers.
+ */
+public class ArchiveBenchmarks {
+  public static final int BATCH = 1024 ;         // Additions per operation
+  private static final int SOLUTIONS = 1 << 16 ;  // Solutions cycled through
+  private static final int MAX_SIZE = 100 ;
+
+  private ArchiveBenchmarks() {
+  } // ArchiveBenchmarks
+
+  /**
+   * Adds the cases to a list
+   * @param list The list of the suite
+   */
+  public static void addTo(List<Benchmark> list) {
+    for (int threads : new int[] {1, 4, 8}) {
+      list.add(add("synchronized", threads, 3)) ;
+      list.add(add("concurrent", threads, 3)) ;
+      list.add(add("concurrent-eager", threads, 3)) ;
+    } // for
+  } // addTo
+
+  /**
+   * Returns objective-only solutions near the unit sphere
+   */
+  static Solution[] points(int n, int m) {
+    Solution[] points = new Solution[n] ;
+    for (int i = 0; i < n; i++) {
+      points[i] = new Solution(m) ;
+      double norm = 0 ;
+      for (int j = 0; j < m; j++) {
+        double value = PseudoRandom.randDouble() ;
+        points[i].setObjective(j, value) ;
+        norm += value * value ;
+      } // for
+      norm = Math.sqrt(norm) / (1.0 + 0.05 * PseudoRandom.randDouble()) ;
+      for (int j = 0; j < m; j++)
+        points[i].setObjective(j, points[i].getObjective(j) / norm) ;
+    } // for
+    return points ;
+  } // points
+
+  /**
+   * A batch of additions to an archive of 100 solutions
+   * @param kind synchronized (<code>CrowdingArchive</code> behind a lock),
+   * concurrent (<code>ConcurrentCrowdingArchive</code>, truncated at twice
+   * its size) or concurrent-eager (truncated at its size)
+   * @param threads Number of producers
+   * @param m Number of objectives
+   */
+  static Benchmark add(final String kind, final int threads, final int m) {
+    String name = kind.equals("synchronized") ? "CrowdingArchive.add" :
+        "ConcurrentCrowdingArchive.add" ;
+    return new Benchmark(name, "kind=" + kind + ";threads=" + threads +
+        ";maxSize=" + MAX_SIZE + ";m=" + m + ";batch=" + BATCH) {
+      private ExecutorService executor_ ;
+      private List<Callable<Integer>> tasks_ ;
+      private Solution[] points_ ;
+      private CrowdingArchive archive_ ;
+      private ConcurrentCrowdingArchive concurrent_ ;
+      private int next_ ;   // First solution of the next batch
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        BenchmarkSuite.seed() ;
+        points_ = points(SOLUTIONS, m) ;
+        if (kind.equals("synchronized"))
+          archive_ = new CrowdingArchive(MAX_SIZE, m) ;
+        else
+          concurrent_ = new ConcurrentCrowdingArchive(MAX_SIZE, m,
+              kind.equals("concurrent") ? 2 * MAX_SIZE : MAX_SIZE) ;
+        executor_ = Executors.newFixedThreadPool(threads) ;
+        tasks_ = new ArrayList<Callable<Integer>>() ;
+        for (int t = 0; t < threads; t++) {
+          final int from = t * BATCH / threads ;
+          final int to = (t + 1) * BATCH / threads ;
+          tasks_.add(new Callable<Integer>() {
+            public Integer call() {
+              int accepted = 0 ;
+              int first = next_ ;
+              for (int i = from; i < to; i++) {
+                Solution solution = points_[(first + i) & (SOLUTIONS - 1)] ;
+                if (archive_ != null) {
+                  synchronized (archive_) {
+                    if (archive_.add(solution))
+                      accepted++ ;
+                  } // synchronized
+                } else if (concurrent_.add(solution))
+                  accepted++ ;
+              } // for
+              return accepted ;
+            } // call
+          }) ;
+        } // for
+        next_ = 0 ;
+      } // setUp
+
+      public double run() throws JMException {
+        int accepted = 0 ;
+        try {
+          for (Future<Integer> f : executor_.invokeAll(tasks_))
+            accepted += f.get() ;
+        } catch (InterruptedException e) {
+          throw new JMException("ArchiveBenchmarks: interrupted") ;
+        } catch (ExecutionException e) {
+          throw new JMException("ArchiveBenchmarks: " + e.getCause()) ;
+        } // catch
+        next_ = (next_ + BATCH) & (SOLUTIONS - 1) ;
+        return accepted ;
+      } // run
+
+      public void tearDown() {
+        executor_.shutdownNow() ;
+      } // tearDown
+    } ;
+  } // add
+} // ArchiveBenchmarks
@@ -0,0 +1,78 @@
+//  Benchmark.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.benchmark;
+
+import jmetal.util.JMException;
+
+/**
+ * A case of the benchmark suite (see <code>BenchmarkRunner</code>): an
+ * operation measured on data prepared by <code>setUp</code>. The runner calls
+ * <code>run</code> many times in a row; an operation which changes its data
+ * must leave it as it was, or in an equivalent state, so that every call
+ * does the same work.
+ * <p>
+ * <code>run</code> returns a value computed from the result (a count, an
+ * objective, an indicator), which the runner consumes so that the JIT cannot
+ * drop the operation.
+ */
+public abstract class Benchmark {
+  private final String name_ ;
+  private final String params_ ;
+
+  /**
+   * Constructor
+   * @param name Name of the operation, e.g. <code>Ranking</code>
+   * @param params Parameters of the case, e.g. <code>N=500;m=3</code>
+   */
+  public Benchmark(String name, String params) {
+    name_   = name ;
+    params_ = params ;
+  } // Benchmark
+
+  public String getName() {
+    return name_ ;
+  } // getName
+
+  public String getParams() {
+    return params_ ;
+  } // getParams
+
+  /**
+   * Returns the name and the parameters, which identify the case in a
+   * baseline
+   */
+  public String getId() {
+    return params_.isEmpty() ? name_ : name_ + "(" + params_ + ")" ;
+  } // getId
+
+  /**
+   * Prepares the data, before the first call of <code>run</code>
+   */
+  public void setUp() throws JMException, ClassNotFoundException {
+  } // setUp
+
+  /**
+   * Performs the operation once
+   * @return A value depending on the result
+   */
+  public abstract double run() throws JMException ;
+
+  /**
+   * Releases the data, after the last call of <code>run</code>
+   */
+  public void tearDown() {
+  } // tearDown
+} // Benchmark
@@ -0,0 +1,368 @@
+//  BenchmarkRunner.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import jmetal.util.JMException;
+import jmetal.util.telemetry.Telemetry;
+
+/**
+ * Runs the benchmark suite (<code>BenchmarkSuite</code>) and writes the
+ * results as a baseline, which a later run can be compared with to catch the
+ * performance regressions.
+ * <p>
+ * Each case is warmed up, then measured over several iterations of a fixed
+ * duration. The time per operation is the mean over the iterations (with
+ * their standard deviation as error); the bytes allocated per operation are
+ * counted by <code>com.sun.management.ThreadMXBean</code> for the running
+ * thread (-1 if the JVM cannot count them). The results are written to
+ * <code>prefix.csv</code> and <code>prefix.jsonl</code>, one row per case.
+ * <p>
+ * A case is a regression of a baseline if its time per operation grew by
+ * more than the tolerance and by more than the combined error of the two
+ * measures (the square root of the sum of their squared errors), so that the
+ * noise of a case is not reported; or if its bytes allocated per operation
+ * grew by more than the tolerance and by at least 16 (the smallest object),
+ * when both are known.
+ * <p>
+ * The suite and this class are in the <code>bench</code> source root, apart
+ * from the library: they are compiled with
+ * <code>-sourcepath src:bench</code>. The baseline of the tree is
+ * <code>bench/baseline.csv</code> (and <code>.jsonl</code>), a run of the
+ * whole suite with <code>-time 200 -iterations 10</code> from the root of
+ * the repository. The times depend on the machine, so a
+ * comparison with it is meaningful on a similar one and with the same
+ * options; a change which is meant to alter them rewrites it
+ * (<code>-o bench/baseline</code>).
+ * <p>
+ * Usage: <code>java jmetal.util.benchmark.BenchmarkRunner [options]</code>
+ * <ul>
+ * <li><code>-o prefix</code>: the files of the results (default
+ * <code>benchmark</code>);</li>
+ * <li><code>-baseline file.csv</code>: a previous result to compare with; the
+ * exit status is 2 if a case is a regression of it;</li>
+ * <li><code>-tolerance percent</code>: the tolerance (default 10);</li>
+ * <li><code>-filter regex</code>: only the cases whose name and parameters
+ * contain a match;</li>
+ * <li><code>-warmup ms</code>, <code>-time ms</code>,
+ * <code>-iterations n</code>: the warm-up time (default 1000), the time of an
+ * iteration (default 1000) and the number of iterations (default 5);</li>
+ * <li><code>-data dir</code>: the directory of the weight vectors of the
+ * MOEA/D cases (default <code>weight</code>);</li>
+ * <li><code>-list</code>: prints the cases without running them.</li>
+ * </ul>
+ */
+public class BenchmarkRunner {
+  public static final String CSV_HEADER =
+      "benchmark,params,ns_per_op,ns_per_op_error,ops_per_s,alloc_bytes_per_op,iterations,ops" ;
+
+  private static volatile double sink_ ;  // Consumes the values returned by the cases
+
+  private final long warmupNanos_ ;
+  private final long iterationNanos_ ;
+  private final int iterations_ ;
+  private final com.sun.management.ThreadMXBean threads_ ;  // null: no allocation counts
+
+  /**
+   * The measures of a case
+   */
+  public static class Result {
+    public final String id ;
+    public final String name ;
+    public final String params ;
+    public final double nanosPerOp ;
+    public final double error ;
+    public final double bytesPerOp ;   // -1 if unknown
+    public final int iterations ;
+    public final long ops ;
+
+    Result(Benchmark benchmark, double nanosPerOp, double error,
+           double bytesPerOp, int iterations, long ops) {
+      this(benchmark.getName(), benchmark.getParams(), nanosPerOp, error,
+          bytesPerOp, iterations, ops) ;
+    } // Result
+
+    Result(String name, String params, double nanosPerOp, double error,
+           double bytesPerOp, int iterations, long ops) {
+      this.id         = params.isEmpty() ? name : name + "(" + params + ")" ;
+      this.name       = name ;
+      this.params     = params ;
+      this.nanosPerOp = nanosPerOp ;
+      this.error      = error ;
+      this.bytesPerOp = bytesPerOp ;
+      this.iterations = iterations ;
+      this.ops        = ops ;
+    } // Result
+
+    public double getOpsPerSecond() {
+      return 1e9 / nanosPerOp ;
+    } // getOpsPerSecond
+
+    /**
+     * Checks if the time per operation grew from a baseline by more than a
+     * tolerance and by more than the combined error of the two measures
+     * @param baseline The measures of the same case in the baseline
+     * @param tolerance The tolerance, in percent
+     */
+    public boolean isSlowerThan(Result baseline, double tolerance) {
+      double increase = nanosPerOp - baseline.nanosPerOp ;
+      return (increase > baseline.nanosPerOp * tolerance / 100) &&
+          (increase > Math.sqrt(error * error + baseline.error * baseline.error)) ;
+    } // isSlowerThan
+
+    /**
+     * Checks if the bytes allocated per operation grew from a baseline by more
+     * than a tolerance and by at least 16, when both are known
+     * @param baseline The measures of the same case in the baseline
+     * @param tolerance The tolerance, in percent
+     */
+    public boolean allocatesMoreThan(Result baseline, double tolerance) {
+      if ((bytesPerOp < 0) || (baseline.bytesPerOp < 0))
+        return false ;
+      double increase = bytesPerOp - baseline.bytesPerOp ;
+      return (increase > baseline.bytesPerOp * tolerance / 100) && (increase >= 16) ;
+    } // allocatesMoreThan
+  } // Result
+
+  /**
+   * Constructor
+   * @param warmupMillis Warm-up time of a case
+   * @param iterationMillis Time of an iteration
+   * @param iterations Number of measured iterations of a case
+   */
+  public BenchmarkRunner(long warmupMillis, long iterationMillis, int iterations) {
+    if ((iterationMillis < 1) || (iterations < 1))
+      throw new IllegalArgumentException("BenchmarkRunner: " + iterationMillis +
+          " ms, " + iterations + " iterations") ;
+    warmupNanos_    = warmupMillis * 1000000L ;
+    iterationNanos_ = iterationMillis * 1000000L ;
+    iterations_     = iterations ;
+    threads_        = Telemetry.allocationCounter() ;
+  } // BenchmarkRunner
+
+  /**
+   * Measures a case
+   */
+  public Result measure(Benchmark benchmark) throws JMException, ClassNotFoundException {
+    long threadId = Thread.currentThread().getId() ;
+    benchmark.setUp() ;
+    try {
+      // Warm-up, which also sizes the batches between two clock readings
+      int batch = 1 ;
+      long start = System.nanoTime() ;
+      do {
+        long t = System.nanoTime() ;
+        run(benchmark, batch) ;
+        if ((System.nanoTime() - t < iterationNanos_ / 100) && (batch < (1 << 24)))
+          batch *= 2 ;
+      } while (System.nanoTime() - start < warmupNanos_) ;
+
+      double[] nanos = new double[iterations_] ;
+      double bytes = 0 ;
+      long totalOps = 0 ;
+      for (int i = 0; i < iterations_; i++) {
+        long ops = 0 ;
+        long bytes0 = (threads_ == null) ? 0 : threads_.getThreadAllocatedBytes(threadId) ;
+        long t0 = System.nanoTime() ;
+        long t ;
+        do {
+          run(benchmark, batch) ;
+          ops += batch ;
+          t = System.nanoTime() ;
+        } while (t - t0 < iterationNanos_) ;
+        long bytes1 = (threads_ == null) ? 0 : threads_.getThreadAllocatedBytes(threadId) ;
+        nanos[i] = (double) (t - t0) / ops ;
+        bytes += (double) (bytes1 - bytes0) / ops ;
+        totalOps += ops ;
+      } // for
+
+      double mean = 0 ;
+      for (int i = 0; i < iterations_; i++)
+        mean += nanos[i] ;
+      mean /= iterations_ ;
+      double variance = 0 ;
+      for (int i = 0; i < iterations_; i++)
+        variance += (nanos[i] - mean) * (nanos[i] - mean) ;
+      double error = (iterations_ > 1) ? Math.sqrt(variance / (iterations_ - 1)) : 0 ;
+
+      return new Result(benchmark, mean, error,
+          (threads_ == null) ? -1 : bytes / iterations_, iterations_, totalOps) ;
+    } finally {
+      benchmark.tearDown() ;
+    } // finally
+  } // measure
+
+  private static void run(Benchmark benchmark, int times) throws JMException {
+    double sum = 0 ;
+    for (int i = 0; i < times; i++)
+      sum += benchmark.run() ;
+    sink_ += sum ;
+  } // run
+
+  /**
+   * Writes results to <code>prefix.csv</code> and <code>prefix.jsonl</code>
+   */
+  public static void write(List<Result> results, String prefix) throws JMException {
+    try {
+      Writer csv = open(prefix + ".csv") ;
+      Writer json = open(prefix + ".jsonl") ;
+      try {
+        csv.write(CSV_HEADER + "\n") ;
+        for (Result r : results) {
+          csv.write(r.name + "," + r.params + "," + r.nanosPerOp + "," + r.error +
+              "," + r.getOpsPerSecond() + "," + r.bytesPerOp + "," + r.iterations +
+              "," + r.ops + "\n") ;
+          json.write("{\"benchmark\":\"" + r.name + "\",\"params\":\"" + r.params +
+              "\",\"ns_per_op\":" + r.nanosPerOp + ",\"ns_per_op_error\":" + r.error +
+              ",\"ops_per_s\":" + r.getOpsPerSecond() +
+              ",\"alloc_bytes_per_op\":" + r.bytesPerOp +
+              ",\"iterations\":" + r.iterations + ",\"ops\":" + r.ops + "}\n") ;
+        } // for
+      } finally {
+        csv.close() ;
+        json.close() ;
+      } // finally
+    } catch (IOException e) {
+      throw new JMException("BenchmarkRunner: cannot write " + prefix + " (" +
+          e.getMessage() + ")") ;
+    } // catch
+  } // write
+
+  private static Writer open(String path) throws IOException {
+    return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path), "UTF-8")) ;
+  } // open
+
+  /**
+   * Reads the results of a baseline written by <code>write</code>
+   * @return The results, by case identifier
+   */
+  public static Map<String, Result> readBaseline(String path) throws JMException {
+    Map<String, Result> baseline = new HashMap<String, Result>() ;
+    try {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(
+          new FileInputStream(path), "UTF-8")) ;
+      try {
+        String line = reader.readLine() ;
+        if ((line == null) || !line.startsWith("benchmark,params,ns_per_op"))
+          throw new JMException("BenchmarkRunner: " + path + " is not a baseline") ;
+        while ((line = reader.readLine()) != null) {
+          String[] fields = line.split(",", -1) ;
+          if (fields.length < 8)
+            continue ;
+          Result r = new Result(fields[0], fields[1], Double.parseDouble(fields[2]),
+              Double.parseDouble(fields[3]), Double.parseDouble(fields[5]),
+              Integer.parseInt(fields[6]), Long.parseLong(fields[7])) ;
+          baseline.put(r.id, r) ;
+        } // while
+      } finally {
+        reader.close() ;
+      } // finally
+    } catch (IOException e) {
+      throw new JMException("BenchmarkRunner: cannot read " + path + " (" +
+          e.getMessage() + ")") ;
+    } catch (NumberFormatException e) {
+      throw new JMException("BenchmarkRunner: " + path + ": " + e.getMessage()) ;
+    } // catch
+    return baseline ;
+  } // readBaseline
+
+  public static void main(String[] args) throws Exception {
+    String prefix = "benchmark" ;
+    String baselinePath = null ;
+    double tolerance = 10 ;
+    Pattern filter = null ;
+    long warmup = 1000, time = 1000 ;
+    int iterations = 5 ;
+    String dataDirectory = "weight" ;
+    boolean list = false ;
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("-o"))
+        prefix = args[++i] ;
+      else if (args[i].equals("-baseline"))
+        baselinePath = args[++i] ;
+      else if (args[i].equals("-tolerance"))
+        tolerance = Double.parseDouble(args[++i]) ;
+      else if (args[i].equals("-filter"))
+        filter = Pattern.compile(args[++i]) ;
+      else if (args[i].equals("-warmup"))
+        warmup = Long.parseLong(args[++i]) ;
+      else if (args[i].equals("-time"))
+        time = Long.parseLong(args[++i]) ;
+      else if (args[i].equals("-iterations"))
+        iterations = Integer.parseInt(args[++i]) ;
+      else if (args[i].equals("-data"))
+        dataDirectory = args[++i] ;
+      else if (args[i].equals("-list"))
+        list = true ;
+      else {
+        System.err.println("BenchmarkRunner: unknown option " + args[i]) ;
+        System.exit(1) ;
+      } // else
+    } // for
+
+    Map<String, Result> baseline = (baselinePath == null) ? null : readBaseline(baselinePath) ;
+    BenchmarkRunner runner = new BenchmarkRunner(warmup, time, iterations) ;
+    List<Result> results = new java.util.ArrayList<Result>() ;
+    int regressions = 0 ;
+    for (Benchmark benchmark : BenchmarkSuite.all(dataDirectory)) {
+      if ((filter != null) && !filter.matcher(benchmark.getId()).find())
+        continue ;
+      if (list) {
+        System.out.println(benchmark.getId()) ;
+        continue ;
+      } // if
+      Result r = runner.measure(benchmark) ;
+      results.add(r) ;
+      String line = String.format("%-48s %14.1f ns/op %8.1f %14.1f ops/s %12.0f B/op",
+          r.id, r.nanosPerOp, r.error, r.getOpsPerSecond(), r.bytesPerOp) ;
+      Result before = (baseline == null) ? null : baseline.get(r.id) ;
+      if (before != null) {
+        line += String.format(" %+7.1f %%", 100.0 * (r.nanosPerOp / before.nanosPerOp - 1)) ;
+        boolean slower = r.isSlowerThan(before, tolerance) ;
+        boolean allocates = r.allocatesMoreThan(before, tolerance) ;
+        if (slower || allocates) {
+          line += " REGRESSION (" + (slower ? (allocates ? "time, allocation" : "time") :
+              "allocation") + ")" ;
+          regressions++ ;
+        } // if
+      } // if
+      System.out.println(line) ;
+    } // for
+
+    if (!list) {
+      write(results, prefix) ;
+      System.out.println(results.size() + " cases written to " + prefix + ".csv and " +
+          prefix + ".jsonl") ;
+    } // if
+    if (regressions > 0) {
+      System.out.println(regressions + " regressions of the baseline (tolerance " +
+          tolerance + " %)") ;
+      System.exit(2) ;
+    } // if
+  } // main
+} // BenchmarkRunner
@@ -0,0 +1,673 @@
+//  BenchmarkSuite.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import jmetal.core.Operator;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.core.Variable;
+import jmetal.metaheuristics.moead.MOEADBenchmarks;
+import jmetal.metaheuristics.nsgaII.NSGAIIBenchmarks;
+import jmetal.operators.crossover.CrossoverFactory;
+import jmetal.operators.mutation.MutationFactory;
+import jmetal.problems.EBEs;
+import jmetal.problems.DTLZ.DTLZ1;
+import jmetal.problems.DTLZ.DTLZ2;
+import jmetal.problems.WFG.WFG1;
+import jmetal.problems.WFG.WFG4;
+import jmetal.problems.WFG.WFGBenchmarks;
+import jmetal.qualityIndicator.Hypervolume;
+import jmetal.qualityIndicator.InvertedGenerationalDistance;
+import jmetal.qualityIndicator.fastHypervolume.FastHypervolume;
+import jmetal.qualityIndicator.fastHypervolume.wfg.Front;
+import jmetal.qualityIndicator.fastHypervolume.wfg.WFGHV;
+import jmetal.util.Distance;
+import jmetal.util.JMException;
+import jmetal.util.MersenneTwisterFast;
+import jmetal.util.NDTreeSolutionList;
+import jmetal.util.NonDominatedSolutionList;
+import jmetal.util.PseudoRandom;
+import jmetal.util.Ranking;
+import jmetal.util.archive.ArchiveBenchmarks;
+import jmetal.util.ranking.DebNonDominatedSorting;
+import jmetal.util.ranking.DivideAndConquerNonDominatedSorting;
+import jmetal.util.ranking.ENSNonDominatedSorting;
+import jmetal.util.ranking.INonDominatedSorting;
+import jmetal.util.ranking.TwoObjectiveNonDominatedSorting;
+
+/**
+ * The cases run by <code>BenchmarkRunner</code>: the hot paths of the
+ * algorithms (non-dominated sorting, crowding distance, ENLU, the MOEA/D
+ * aggregation, replacement and stable matching), the quality indicators, the
+ * variation operators and the evaluation of the test problems.
+ * <p>
+ * The data are random but seeded, so two runs measure the same work. The
+ * fronts are points of the DTLZ2 front (the unit sphere), the populations
+ * random DTLZ2 solutions, which spread over several fronts.
+ * <p>
+ * The archive cases hold up to 10^6 objective-only solutions; they need a
+ * heap of about 2 GB (<code>-Xmx2g</code>).
+ */
+public class BenchmarkSuite {
+  public static final long SEED = 20140105L ;
+
+  private static final int CYCLE = 64 ;  // Solutions cycled through by the operators
+
+  // The previous Ranking and the non-dominated sorting engines
+  private static final String[] ENGINES = {"legacy", "Deb", "ENS-SS", "ENS-BS", "DC", "sweep"} ;
+
+  private BenchmarkSuite() {
+  } // BenchmarkSuite
+
+  /**
+   * Returns the cases, the MOEA/D ones reading the weight vectors of the
+   * directory <code>weight</code>
+   */
+  public static List<Benchmark> all() {
+    return all("weight") ;
+  } // all
+
+  /**
+   * Returns the cases
+   * @param dataDirectory Directory of the weight vectors of MOEA/D
+   */
+  public static List<Benchmark> all(String dataDirectory) {
+    List<Benchmark> list = new ArrayList<Benchmark>() ;
+    for (int n : new int[] {100, 500, 2000})
+      for (int m : new int[] {2, 3, 5, 10})
+        list.add(ranking(n, m)) ;
+    for (int m : new int[] {2, 3, 5})
+      for (String engine : ENGINES)
+        if (!engine.equals("sweep") || (m == 2)) {
+          for (int n : new int[] {1000, 5000})
+            list.add(rankingEngine(engine, n, m)) ;
+          if (!engine.equals("legacy") && !engine.equals("Deb"))
+            list.add(rankingEngine(engine, 20000, m)) ;
+        } // if
+    for (int n : new int[] {100, 1000})
+      for (int m : new int[] {2, 3, 5})
+        list.add(crowdingDistance(n, m)) ;
+    for (int size : new int[] {10000, 100000, 1000000})
+      list.add(archiveInsertion(true, size, 3)) ;
+    for (int size : new int[] {10000, 100000})
+      list.add(archiveInsertion(true, size, 5)) ;
+    for (int m : new int[] {3, 5})
+      list.add(archiveInsertion(false, 10000, m)) ;
+    ArchiveBenchmarks.addTo(list) ;
+    NSGAIIBenchmarks.addTo(list) ;
+    MOEADBenchmarks.addTo(list, dataDirectory) ;
+    for (int m : new int[] {3, 5})
+      list.add(wfgHypervolume(100, m)) ;
+    for (int m : new int[] {3, 5})
+      list.add(hypervolume(100, m)) ;
+    for (int m : new int[] {2, 3})
+      list.add(fastHypervolume(100, m)) ;
+    for (int m : new int[] {3, 5})
+      list.add(igd(100, 1000, m)) ;
+    list.add(sbx(30)) ;
+    list.add(polynomialMutation(30)) ;
+    list.add(evaluation("DTLZ1", 3)) ;
+    list.add(evaluation("DTLZ2", 3)) ;
+    list.add(evaluation("DTLZ2", 10)) ;
+    list.add(evaluation("WFG1", 3)) ;
+    list.add(evaluation("WFG4", 3)) ;
+    for (int floors : new int[] {1, 4})
+      list.add(ebesEvaluation(floors)) ;
+    WFGBenchmarks.addTo(list) ;
+    return list ;
+  } // all
+
+  private static String params(int n, int m) {
+    return "N=" + n + ";m=" + m ;
+  } // params
+
+  /**
+   * Seeds the generator used by the random data and the operators; each case
+   * calls it first in <code>setUp</code>
+   */
+  public static void seed() {
+    PseudoRandom.setRandomGenerator(new MersenneTwisterFast(SEED)) ;
+  } // seed
+
+  private static Problem dtlz2(int m) throws ClassNotFoundException {
+    return new DTLZ2("Real", Integer.valueOf(m + 9), Integer.valueOf(m)) ;
+  } // dtlz2
+
+  /**
+   * Returns n random solutions of a problem, evaluated
+   */
+  static SolutionSet population(Problem problem, int n) throws JMException, ClassNotFoundException {
+    SolutionSet set = new SolutionSet(n) ;
+    for (int i = 0; i < n; i++) {
+      Solution solution = new Solution(problem) ;
+      problem.evaluate(solution) ;
+      set.add(solution) ;
+    } // for
+    return set ;
+  } // population
+
+  static Solution[] array(SolutionSet set) {
+    Solution[] array = new Solution[set.size()] ;
+    for (int i = 0; i < array.length; i++)
+      array[i] = set.get(i) ;
+    return array ;
+  } // array
+
+  /**
+   * Returns n points of the DTLZ2 front: solutions whose distance variables
+   * are 0.5
+   */
+  static SolutionSet front(int n, int m) throws JMException, ClassNotFoundException {
+    Problem problem = dtlz2(m) ;
+    SolutionSet set = new SolutionSet(n) ;
+    for (int i = 0; i < n; i++) {
+      Solution solution = new Solution(problem) ;
+      Variable[] x = solution.getDecisionVariables() ;
+      for (int j = m - 1; j < x.length; j++)
+        x[j].setValue(0.5) ;
+      problem.evaluate(solution) ;
+      set.add(solution) ;
+    } // for
+    return set ;
+  } // front
+
+  /**
+   * Returns the objectives of a set, or their complements to
+   * <code>1 + offset</code> when <code>invert</code> is true
+   */
+  static double[][] objectives(SolutionSet set, boolean invert, double offset) {
+    int m = set.get(0).getNumberOfObjectives() ;
+    double[][] points = new double[set.size()][m] ;
+    for (int i = 0; i < set.size(); i++)
+      for (int j = 0; j < m; j++)
+        points[i][j] = invert ? 1.0 + offset - set.get(i).getObjective(j) :
+            set.get(i).getObjective(j) ;
+    return points ;
+  } // objectives
+
+  /**
+   * <code>Ranking</code>: non-dominated sorting with the engine chosen for the
+   * size
+   */
+  static Benchmark ranking(final int n, final int m) {
+    return new Benchmark("Ranking", params(n, m)) {
+      private SolutionSet population_ ;
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        seed() ;
+        population_ = population(dtlz2(m), n) ;
+      } // setUp
+
+      public double run() {
+        return new Ranking(population_).getNumberOfSubfronts() ;
+      } // run
+    } ;
+  } // ranking
+
+  private static INonDominatedSorting engine(String name) {
+    if (name.equals("Deb"))
+      return new DebNonDominatedSorting() ;
+    else if (name.equals("ENS-SS"))
+      return new ENSNonDominatedSorting(false) ;
+    else if (name.equals("ENS-BS"))
+      return new ENSNonDominatedSorting(true) ;
+    else if (name.equals("DC"))
+      return new DivideAndConquerNonDominatedSorting() ;
+    else
+      return new TwoObjectiveNonDominatedSorting() ;
+  } // engine
+
+  /**
+   * <code>Ranking</code> with a given engine, or the previous implementation
+   * (<code>LegacyRanking</code>) when the engine is <code>legacy</code>
+   * @param engine legacy, Deb, ENS-SS, ENS-BS, DC or sweep
+   */
+  static Benchmark rankingEngine(final String engine, final int n, final int m) {
+    return new Benchmark("Ranking", "engine=" + engine + ";" + params(n, m)) {
+      private SolutionSet population_ ;
+      private INonDominatedSorting engine_ ;
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        seed() ;
+        population_ = population(dtlz2(m), n) ;
+        engine_     = engine.equals("legacy") ? null : engine(engine) ;
+      } // setUp
+
+      public double run() {
+        if (engine_ == null)
+          return new LegacyRanking(population_).getNumberOfSubfronts() ;
+        return new Ranking(population_, engine_).getNumberOfSubfronts() ;
+      } // run
+    } ;
+  } // rankingEngine
+
+  /**
+   * <code>Distance.crowdingDistanceAssignment</code> on a front
+   */
+  static Benchmark crowdingDistance(final int n, final int m) {
+    return new Benchmark("Distance.crowdingDistanceAssignment", params(n, m)) {
+      private SolutionSet front_ ;
+      private Distance distance_ ;
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        seed() ;
+        front_    = front(n, m) ;
+        distance_ = new Distance() ;
+      } // setUp
+
+      public double run() {
+        distance_.crowdingDistanceAssignment(front_, m) ;
+        return front_.get(n / 2).getCrowdingDistance() ;
+      } // run
+    } ;
+  } // crowdingDistance
+
+  /**
+   * Returns a random point of the DTLZ2 front as an objective-only solution.
+   * The points of the front (the positive part of the unit sphere) do not
+   * dominate each other
+   */
+  static Solution spherePoint(int m) {
+    Solution solution = new Solution(m) ;
+    double norm = 0 ;
+    for (int j = 0; j < m; j++) {
+      double value = PseudoRandom.randDouble() ;
+      solution.setObjective(j, value) ;
+      norm += value * value ;
+    } // for
+    norm = Math.sqrt(norm) ;
+    for (int j = 0; j < m; j++)
+      solution.setObjective(j, solution.getObjective(j) / norm) ;
+    return solution ;
+  } // spherePoint
+
+  /**
+   * <code>NDTreeSolutionList.add</code> of a point of the DTLZ2 front to an
+   * archive of <code>size</code> such points, or
+   * <code>NonDominatedSolutionList.add</code> when <code>tree</code> is
+   * false. The point is accepted (no point of the front dominates another),
+   * then removed, so that the archive keeps its size: the times include the
+   * removal, which is cheap next to the search of the tree or the scan of
+   * the list
+   */
+  static Benchmark archiveInsertion(final boolean tree, final int size, final int m) {
+    return new Benchmark(tree ? "NDTreeSolutionList.add" : "NonDominatedSolutionList.add",
+        "size=" + size + ";m=" + m) {
+      private NonDominatedSolutionList archive_ ;
+      private Solution[] points_ ;
+      private int i_ ;
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        seed() ;
+        archive_ = tree ? new NDTreeSolutionList() : new NonDominatedSolutionList() ;
+        for (int i = 0; i < size; i++)
+          archive_.add(spherePoint(m)) ;
+        points_ = new Solution[CYCLE] ;
+        for (int i = 0; i < CYCLE; i++)
+          points_[i] = spherePoint(m) ;
+        i_ = 0 ;
+      } // setUp
+
+      public double run() {
+        i_ = (i_ + 1 == CYCLE) ? 0 : i_ + 1 ;
+        archive_.add(points_[i_]) ;
+        archive_.remove(archive_.size() - 1) ;
+        return archive_.size() ;
+      } // run
+
+      public void tearDown() {
+        archive_ = null ;
+        points_  = null ;
+      } // tearDown
+    } ;
+  } // archiveInsertion
+
+  /**
+   * <code>WFGHV.getHV</code> of a front
+   */
+  static Benchmark wfgHypervolume(final int n, final int m) {
+    return new Benchmark("WFGHV.getHV", params(n, m)) {
+      private WFGHV hv_ ;
+      private Front front_ ;
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        seed() ;
+        SolutionSet set = front(n, m) ;
+        Solution reference = new Solution(m) ;
+        for (int j = 0; j < m; j++)
+          reference.setObjective(j, 1.1) ;
+        hv_    = new WFGHV(m, n, reference) ;
+        front_ = new Front(n, m, set) ;
+      } // setUp
+
+      public double run() {
+        return hv_.getHV(front_) ;
+      } // run
+    } ;
+  } // wfgHypervolume
+
+  /**
+   * <code>Hypervolume.calculateHypervolume</code> of a front (as
+   * <code>hypervolume</code> calls it, on the complements of the objectives)
+   */
+  static Benchmark hypervolume(final int n, final int m) {
+    return new Benchmark("Hypervolume.calculateHypervolume", params(n, m)) {
+      private Hypervolume hv_ ;
+      private double[][] points_ ;
+      private double[][] front_ ;  // The rows of points_, reordered by each call
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        seed() ;
+        hv_     = new Hypervolume() ;
+        points_ = objectives(front(n, m), true, 0.1) ;
+        front_  = new double[n][] ;
+      } // setUp
+
+      public double run() {
+        System.arraycopy(points_, 0, front_, 0, n) ;
+        return hv_.calculateHypervolume(front_, n, m) ;
+      } // run
+    } ;
+  } // hypervolume
+
+  /**
+   * <code>FastHypervolume.computeHypervolume</code> of a front
+   */
+  static Benchmark fastHypervolume(final int n, final int m) {
+    return new Benchmark("FastHypervolume.computeHypervolume", params(n, m)) {
+      private FastHypervolume hv_ ;
+      private SolutionSet front_ ;
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        seed() ;
+        hv_    = new FastHypervolume() ;
+        front_ = front(n, m) ;
+      } // setUp
+
+      public double run() {
+        return hv_.computeHypervolume(front_) ;
+      } // run
+    } ;
+  } // fastHypervolume
+
+  /**
+   * <code>InvertedGenerationalDistance</code> of a front to a reference front
+   */
+  static Benchmark igd(final int n, final int reference, final int m) {
+    return new Benchmark("InvertedGenerationalDistance", params(n, m) + ";ref=" + reference) {
+      private InvertedGenerationalDistance igd_ ;
+      private double[][] front_ ;
+      private double[][] trueFront_ ;
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        seed() ;
+        igd_       = new InvertedGenerationalDistance() ;
+        front_     = objectives(population(dtlz2(m), n), false, 0) ;
+        trueFront_ = objectives(front(reference, m), false, 0) ;
+      } // setUp
+
+      public double run() {
+        return igd_.invertedGenerationalDistance(front_, trueFront_, m) ;
+      } // run
+    } ;
+  } // igd
+
+  private static Operator operator(String name, Problem problem) throws JMException {
+    HashMap<String, Object> parameters = new HashMap<String, Object>() ;
+    parameters.put("distributionIndex", 20.0) ;
+    if (name.equals("SBXCrossover")) {
+      parameters.put("probability", 1.0) ;
+      return CrossoverFactory.getCrossoverOperator(name, parameters) ;
+    } // if
+    parameters.put("probability", 1.0 / problem.getNumberOfVariables()) ;
+    return MutationFactory.getMutationOperator(name, parameters) ;
+  } // operator
+
+  /**
+   * <code>SBXCrossover</code> of two parents
+   */
+  static Benchmark sbx(final int variables) {
+    return new Benchmark("SBXCrossover", "n=" + variables) {
+      private Operator crossover_ ;
+      private Solution[] parents_ ;
+      private Solution[] pair_ ;
+      private int i_ ;
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        seed() ;
+        Problem problem = new DTLZ2("Real", Integer.valueOf(variables), Integer.valueOf(3)) ;
+        crossover_ = operator("SBXCrossover", problem) ;
+        parents_   = array(population(problem, CYCLE)) ;
+        pair_      = new Solution[2] ;
+        i_ = 0 ;
+      } // setUp
+
+      public double run() throws JMException {
+        i_ = (i_ + 1 == CYCLE) ? 0 : i_ + 1 ;
+        pair_[0] = parents_[i_] ;
+        pair_[1] = parents_[(i_ + 1 == CYCLE) ? 0 : i_ + 1] ;
+        Solution[] offspring = (Solution[]) crossover_.execute(pair_) ;
+        return offspring[0].getDecisionVariables()[0].getValue() ;
+      } // run
+    } ;
+  } // sbx
+
+  /**
+   * <code>PolynomialMutation</code> of a solution, with the probability
+   * 1/n of the algorithms
+   */
+  static Benchmark polynomialMutation(final int variables) {
+    return new Benchmark("PolynomialMutation", "n=" + variables) {
+      private Operator mutation_ ;
+      private Solution[] solutions_ ;
+      private int i_ ;
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        seed() ;
+        Problem problem = new DTLZ2("Real", Integer.valueOf(variables), Integer.valueOf(3)) ;
+        mutation_  = operator("PolynomialMutation", problem) ;
+        solutions_ = array(population(problem, CYCLE)) ;
+        i_ = 0 ;
+      } // setUp
+
+      public double run() throws JMException {
+        i_ = (i_ + 1 == CYCLE) ? 0 : i_ + 1 ;
+        mutation_.execute(solutions_[i_]) ;
+        return solutions_[i_].getDecisionVariables()[0].getValue() ;
+      } // run
+    } ;
+  } // polynomialMutation
+
+  /**
+   * The evaluation of a solution of a test problem
+   * @param name DTLZ1, DTLZ2, WFG1 or WFG4
+   * @param m Number of objectives
+   */
+  static Benchmark evaluation(final String name, final int m) {
+    return new Benchmark(name + ".evaluate", "m=" + m) {
+      private Problem problem_ ;
+      private Solution[] solutions_ ;
+      private int i_ ;
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        seed() ;
+        if (name.equals("DTLZ1"))
+          problem_ = new DTLZ1("Real", Integer.valueOf(m + 4), Integer.valueOf(m)) ;
+        else if (name.equals("DTLZ2"))
+          problem_ = dtlz2(m) ;
+        else if (name.equals("WFG1"))
+          problem_ = new WFG1("Real", Integer.valueOf(2 * (m - 1)), Integer.valueOf(20), Integer.valueOf(m)) ;
+        else
+          problem_ = new WFG4("Real", Integer.valueOf(2 * (m - 1)), Integer.valueOf(20), Integer.valueOf(m)) ;
+        solutions_ = new Solution[CYCLE] ;
+        for (int i = 0; i < CYCLE; i++)
+          solutions_[i] = new Solution(problem_) ;
+        i_ = 0 ;
+      } // setUp
+
+      public double run() throws JMException {
+        i_ = (i_ + 1 == CYCLE) ? 0 : i_ + 1 ;
+        problem_.evaluate(solutions_[i_]) ;
+        return solutions_[i_].getObjective(0) ;
+      } // run
+    } ;
+  } // evaluation
+
+  /**
+   * The evaluation of a solution of EBEs (the stiffness analysis of a space
+   * frame), on a tower of square floors of 4 x 4 x 3 m: each floor has 4
+   * columns, 4 beams and 4 braces of steel tubes, the 4 base nodes are fixed
+   * and the 4 top nodes loaded. The structure is written to a temporary file,
+   * as EBEs reads its data from a file.
+   * @param floors Number of floors
+   */
+  static Benchmark ebesEvaluation(final int floors) {
+    return new Benchmark("EBEs.evaluate", "floors=" + floors) {
+      private Problem problem_ ;
+      private Solution[] solutions_ ;
+      private int i_ ;
+
+      public void setUp() throws JMException, ClassNotFoundException {
+        seed() ;
+        problem_   = ebes(floors) ;
+        solutions_ = new Solution[CYCLE] ;
+        for (int i = 0; i < CYCLE; i++)
+          solutions_[i] = new Solution(problem_) ;
+        i_ = 0 ;
+      } // setUp
+
+      public double run() throws JMException {
+        i_ = (i_ + 1 == CYCLE) ? 0 : i_ + 1 ;
+        problem_.evaluate(solutions_[i_]) ;
+        return solutions_[i_].getObjective(0) ;
+      } // run
+    } ;
+  } // ebesEvaluation
+
+  /**
+   * Returns EBEs on the tower of <code>ebesEvaluation</code>
+   */
+  static Problem ebes(int floors) throws JMException, ClassNotFoundException {
+    File file ;
+    try {
+      file = File.createTempFile("EBEs", ".ebe") ;
+      Writer writer = new FileWriter(file) ;
+      try {
+        writer.write(ebesStructure(floors)) ;
+      } finally {
+        writer.close() ;
+      } // finally
+    } catch (IOException e) {
+      throw new JMException("BenchmarkSuite: cannot write the EBEs structure (" +
+          e.getMessage() + ")") ;
+    } // catch
+
+    // EBEs takes the name of its file (without .ebe) from EBEs.txt, and
+    // prints a line every 1000 evaluations
+    final String path = file.getPath() ;
+    Problem problem = new EBEs("Real") {
+      public String EBEsReadProblems() {
+        return path.substring(0, path.length() - 4) ;
+      } // EBEsReadProblems
+
+      public void evaluate(Solution solution) throws JMException {
+        numberOfEval_ = 1 ;
+        super.evaluate(solution) ;
+      } // evaluate
+    } ;
+    file.delete() ;
+    return problem ;
+  } // ebes
+
+  /**
+   * Returns the file of the tower of <code>ebesEvaluation</code>, in the
+   * format read by <code>EBEs.EBEsReadDataFile</code>: two groups (columns
+   * and beams with braces) of hollow circular sections of F-24 steel, whose
+   * diameter and thickness are the variables, with buckling; units are kN
+   * and m
+   */
+  static String ebesStructure(int floors) {
+    int nodes = 4 * (floors + 1) ;
+    int bars = 12 * floors ;
+    double[][] corner = {{0, 0}, {4, 0}, {4, 4}, {0, 4}} ;
+    StringBuilder s = new StringBuilder() ;
+    s.append("EBEs benchmark tower\n\n\n\n") ;
+    s.append("Nodes " + nodes + "\nRestricted nodes 4\nGroups 2\nBars " + bars + "\n") ;
+    s.append("\n\n\n\nLoad hypotheses 1\nOwn weight false\nBar loads 0\nNode loads 4\n") ;
+    s.append("\n\n\nChecked nodes 4\nCut false\nSecond order false\nBuckling true\n") ;
+    s.append("\n\nNODES\n") ;
+    for (int i = 0; i < nodes; i++)
+      s.append("N" + i + " " + corner[i % 4][0] + " " + corner[i % 4][1] + " " +
+          3.0 * (i / 4) + " " + ((i < 4) ? "111111" : "0") + " 0 0 0 0 0 0\n") ;
+    s.append("GROUPS\n") ;
+    for (int g = 0; g < 2; g++) {
+      double[] group = new double[44] ;
+      group[0]  = g ;        // Index
+      group[1]  = g ;        // Group
+      group[2]  = 1 ;        // Hollow circle
+      group[11] = 2 ;        // F-24 steel
+      group[12] = 2.1e8 ;    // E
+      group[13] = 8.1e7 ;    // G
+      group[14] = 1 ;        // Buckling coefficients
+      group[15] = 1 ;
+      group[19] = 2 ;        // Variables
+      group[28] = 1 ;        // Constraints
+      group[29] = 50 ;       // Ratio of diameter and thickness
+      group[30] = 78.5 ;     // Density
+      group[31] = 2.4e5 ;    // Stresses
+      group[32] = -2.4e5 ;
+      group[33] = 1.4e5 ;
+      group[36] = 0.05 ;     // Diameter
+      group[37] = 0.5 ;
+      group[38] = 0.05 ;
+      group[39] = 0.5 ;
+      group[40] = 0.002 ;    // Thickness
+      group[41] = 0.02 ;
+      group[42] = 0.002 ;
+      group[43] = 0.02 ;
+      for (double value : group)
+        s.append(value).append(' ') ;
+      s.append((g == 0) ? "columns\n" : "beams\n") ;
+    } // for
+    s.append("BARS\n") ;
+    int bar = 0 ;
+    for (int f = 0; f < floors; f++) {
+      int base = 4 * f, top = 4 * (f + 1) ;
+      for (int i = 0; i < 4; i++)
+        s.append("B" + bar++ + " 0 " + (base + i) + " " + (top + i) + " 0 0 0 0\n") ;
+      for (int i = 0; i < 4; i++)
+        s.append("B" + bar++ + " 1 " + (top + i) + " " + (top + (i + 1) % 4) + " 0 0 0 0\n") ;
+      for (int i = 0; i < 4; i++)
+        s.append("B" + bar++ + " 1 " + (base + i) + " " + (top + (i + 1) % 4) + " 0 0 0 0\n") ;
+    } // for
+    s.append("BAR LOADS\nNODE LOADS\n") ;
+    for (int i = nodes - 4; i < nodes; i++)
+      s.append("Q" + i + " 0 " + i + " 10 0 -20 0 0 0\n") ;
+    s.append("\n\n\nCHECKED NODES\n") ;
+    for (int i = nodes - 4; i < nodes; i++)
+      s.append(i + " 0.01\n") ;
+    return s.toString() ;
+  } // ebesStructure
+} // BenchmarkSuite
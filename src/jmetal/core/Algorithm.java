@@ -22,6 +22,8 @@
 package jmetal.core ;
 
 import jmetal.util.JMException;
+import jmetal.util.telemetry.Telemetry;
+import jmetal.util.telemetry.TelemetryExporter;
 
 import java.io.Serializable;
 import java.util.HashMap;
@@ -59,6 +61,12 @@ public abstract class Algorithm implements Serializable {
    * obtain information from an algorithm.
    */
   private Map<String,Object> outPutParameters_ = null;
+
+  /**
+   * Measures the phases of the running execution (see <code>Telemetry</code>);
+   * disabled unless asked for by the input parameters
+   */
+  protected transient Telemetry telemetry_ = Telemetry.DISABLED;
   
   /**
    * Constructor
@@ -156,6 +164,33 @@ public abstract class Algorithm implements Serializable {
       return null ;
   } // getOutputParameter   
   
+  /**
+   * Creates the telemetry of an execution, at its start, from the input
+   * parameters <code>telemetryFile</code> and <code>telemetryInterval</code>
+   * (see <code>TelemetryExporter</code>), or <code>telemetry</code> set to
+   * true to measure without exporting
+   */
+  protected void startTelemetry() throws JMException {
+    telemetry_ = TelemetryExporter.forAlgorithm(this);
+  } // startTelemetry
+
+  /**
+   * Exports the last totals of the telemetry, at the end of an execution,
+   * and makes it the output parameter <code>telemetry</code>
+   */
+  protected void stopTelemetry() throws JMException {
+    telemetry_.close();
+    if (telemetry_.isEnabled())
+      setOutputParameter("telemetry", telemetry_);
+  } // stopTelemetry
+
+  /**
+   * Returns the telemetry of the last execution
+   */
+  public Telemetry getTelemetry() {
+    return (telemetry_ == null) ? Telemetry.DISABLED : telemetry_;
+  } // getTelemetry
+
   /**
    * Returns the problem to solve
   * @return Problem The problem to solve
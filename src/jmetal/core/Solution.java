@@ -23,7 +23,9 @@
 
 package jmetal.core;
 
+import jmetal.encodings.variable.ArrayReal;
 import jmetal.encodings.variable.Binary;
+import jmetal.encodings.variable.Real;
 
 import java.io.Serializable;
 
@@ -126,6 +128,18 @@ public class Solution implements Serializable {
 	 */
 	private double distanceToSolutionSet_;
 
+	/**
+	 * Stores the objectives translated by the ideal point of an algorithm, and
+	 * possibly normalized, with their squared norm. They are valid while the
+	 * reference points have the version they were computed with (0: none).
+	 * Used in MOEA/D (see <code>jmetal.metaheuristics.moead.ReferencePoints</code>).
+	 * They are not serialized: the versions are those of the reference points
+	 * of one run, so a deserialized solution has none.
+	 */
+	private transient double[] normalized_;
+	private transient double normalizedNorm2_;
+	private transient long normalizedVersion_;
+
 	/**
 	 * Constructor.
 	 */
@@ -236,8 +250,76 @@ public class Solution implements Serializable {
 		rank_ 						 = solution.getRank();
 		location_ 					 = solution.getLocation();
 		translated_					 = solution.isTranslated();
+		copyNormalizedObjectives(solution);
 	} // Solution
 
+	/**
+	 * Copies a solution of the same problem into this one, as the copy
+	 * constructor does, but reusing the arrays and the decision variables of
+	 * this solution when possible (real, array of reals and binary variables),
+	 * so that a solution can be recycled as an offspring buffer.
+	 * 
+	 * @param solution
+	 *            Solution to copy.
+	 */
+	public void copy(Solution solution) {
+		problem_ = solution.problem_;
+		type_ 	 = solution.type_;
+
+		if (numberOfObjectives_ != solution.getNumberOfObjectives())
+			throw new IllegalArgumentException("Solution.copy: different number of objectives");
+		for (int i = 0; i < objective_.length; i++) {
+			objective_[i] = solution.objective_[i];
+			if (nonTranslateObjective_ != null && solution.nonTranslateObjective_ != null)
+				nonTranslateObjective_[i] = solution.nonTranslateObjective_[i];
+		} // for
+
+		Variable[] source = solution.variable_;
+		if (variable_ == null || variable_.length != source.length)
+			variable_ = new Variable[source.length];
+		for (int i = 0; i < source.length; i++) {
+			Variable target = variable_[i];
+			if (target == null || target.getClass() != source[i].getClass())
+				variable_[i] = source[i].deepCopy();
+			else if (target instanceof Real)
+				((Real) target).setValue(((Real) source[i]).getValue());
+			else if (target instanceof ArrayReal
+					&& ((ArrayReal) target).array_.length == ((ArrayReal) source[i]).array_.length)
+				System.arraycopy(((ArrayReal) source[i]).array_, 0,
+						((ArrayReal) target).array_, 0, ((ArrayReal) target).array_.length);
+			else if (target.getClass() == Binary.class) {
+				((Binary) target).bits_.clear();
+				((Binary) target).bits_.or(((Binary) source[i]).bits_);
+			} else
+				variable_[i] = source[i].deepCopy();
+		} // for
+
+		overallConstraintViolation_  = solution.getOverallConstraintViolation();
+		numberOfViolatedConstraints_ = solution.getNumberOfViolatedConstraint();
+		distanceToSolutionSet_ 		 = solution.getDistanceToSolutionSet();
+		crowdingDistance_ 			 = solution.getCrowdingDistance();
+		kDistance_ 					 = solution.getKDistance();
+		fitness_ 					 = solution.getFitness();
+		marked_ 					 = solution.isMarked();
+		rank_ 						 = solution.getRank();
+		location_ 					 = solution.getLocation();
+		translated_					 = solution.isTranslated();
+		diversity_ 					 = 0.0;
+		associateDist_ 				 = 0.0;
+		region_ 					 = 0;
+		copyNormalizedObjectives(solution);
+	} // copy
+
+	private void copyNormalizedObjectives(Solution solution) {
+		normalizedVersion_ = solution.normalizedVersion_;
+		if (normalizedVersion_ == 0)
+			return;
+		if (normalized_ == null)
+			normalized_ = new double[numberOfObjectives_];
+		System.arraycopy(solution.normalized_, 0, normalized_, 0, numberOfObjectives_);
+		normalizedNorm2_ = solution.normalizedNorm2_;
+	} // copyNormalizedObjectives
+
 	/**
 	 * Sets the distance between this solution and a <code>SolutionSet</code>.
 	 * The value is stored in <code>distanceToSolutionSet_</code>.
@@ -279,7 +361,7 @@ public class Solution implements Serializable {
 	 * 
 	 * @return the distance to k-nearest neighbor.
 	 */
-	double getKDistance() {
+	public double getKDistance() {
 		return kDistance_;
 	} // getKDistance
 
@@ -338,6 +420,7 @@ public class Solution implements Serializable {
 	 */
 	public void setObjective(int i, double value) {
 		objective_[i] = value;
+		normalizedVersion_ = 0;
 	} // setObjective
 	
 	public void setNonTranslateObjecitve(int i, double value) {
@@ -354,6 +437,60 @@ public class Solution implements Serializable {
 		return objective_[i];
 	} // getObjective
 	
+	/**
+	 * Returns the array storing the objective values (not a copy), for
+	 * loops that compare many solutions. It is read-only: a value is changed
+	 * by <code>setObjective</code>, which also invalidates the normalized
+	 * objectives, whereas a write through the array would leave them stale.
+	 * 
+	 * @return The objective values, or null if the solution has none.
+	 */
+	public double[] getObjectives() {
+		return objective_;
+	} // getObjectives
+
+	/**
+	 * Returns the normalized objectives, if they have been computed with the
+	 * given version of the reference points.
+	 * 
+	 * @param version
+	 * @return The normalized objectives (not a copy), or null.
+	 */
+	public double[] getNormalizedObjectives(long version) {
+		return (version == normalizedVersion_) ? normalized_ : null;
+	} // getNormalizedObjectives
+
+	/**
+	 * Returns the array where the normalized objectives are computed, before
+	 * <code>setNormalizedObjectives</code>.
+	 */
+	public double[] normalizedObjectivesBuffer() {
+		if (normalized_ == null)
+			normalized_ = new double[numberOfObjectives_];
+		return normalized_;
+	} // normalizedObjectivesBuffer
+
+	/**
+	 * Marks the normalized objectives as computed with a version of the
+	 * reference points.
+	 * 
+	 * @param version
+	 *            The version, not 0.
+	 * @param norm2
+	 *            Their squared norm.
+	 */
+	public void setNormalizedObjectives(long version, double norm2) {
+		normalizedVersion_ = version;
+		normalizedNorm2_   = norm2;
+	} // setNormalizedObjectives
+
+	/**
+	 * Returns the squared norm of the normalized objectives.
+	 */
+	public double getNormalizedNorm2() {
+		return normalizedNorm2_;
+	} // getNormalizedNorm2
+	
 	public double getNonTranslateObjective(int i) {
 		return nonTranslateObjective_[i];
 	}
@@ -385,11 +522,11 @@ public class Solution implements Serializable {
 	 * @return The string.
 	 */
 	public String toString() {
-		String aux = "";
+		StringBuilder aux = new StringBuilder();
 		for (int i = 0; i < this.numberOfObjectives_; i++)
-			aux = aux + this.getObjective(i) + " ";
+			aux.append(this.getObjective(i)).append(' ');
 
-		return aux;
+		return aux.toString();
 	} // toString
 
 	/**
@@ -267,8 +267,10 @@ public class SolutionSet implements Serializable {
       if (size()>0) {
         int numberOfVariables = solutionsList_.get(0).getDecisionVariables().length ;
         for (Solution aSolutionsList_ : solutionsList_) {
-          for (int j = 0; j < numberOfVariables; j++)
-            bw.write(aSolutionsList_.getDecisionVariables()[j].toString() + " ");
+          for (int j = 0; j < numberOfVariables; j++) {
+            bw.write(aSolutionsList_.getDecisionVariables()[j].toString());
+            bw.write(' ');
+          }
           bw.newLine();
         }
       }
@@ -21,11 +21,13 @@
 
 package jmetal.core;
 
+import java.io.Serializable;
+
 /**
  * Abstract class representing solution types, which define the types of the
  * variables constituting a solution
  */
-public abstract class SolutionType {
+public abstract class SolutionType implements Serializable {
 
 	public final Problem problem_;
 
@@ -0,0 +1,426 @@
+//  pMOCell.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.mocell;
+
+import jmetal.core.Algorithm;
+import jmetal.core.Operator;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.Configuration;
+import jmetal.util.IRandomGenerator;
+import jmetal.util.JMException;
+import jmetal.util.Neighborhood;
+import jmetal.util.PseudoRandom;
+import jmetal.util.RandomGenerator;
+import jmetal.util.archive.ConcurrentCrowdingArchive;
+import jmetal.util.comparators.DominanceComparator;
+import jmetal.util.comparators.DominanceKernel;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous cellular MOEA (MOCell, Nebro et al.) on the toroidal grid of
+ * <code>jmetal.util.Neighborhood</code>, run by several worker threads.
+ * <p>
+ * The grid is split into bands of rows (tiles), one per worker, and each
+ * worker sweeps its cells in order. A cell is updated in place as soon as
+ * its offspring is evaluated: the two parents are chosen by the selection
+ * operator among the eight neighbors and the cell, and in the archive; the
+ * offspring replaces the cell if it dominates it or, if both are
+ * non-dominated, the worst solution of the neighborhood (by rank and
+ * crowding distance), and it is offered to a
+ * <code>ConcurrentCrowdingArchive</code>.
+ * <p>
+ * Cells having a neighbor in another tile are read and written under one of
+ * a fixed set of striped locks; the other cells are only touched by their
+ * owner. The archive filters the offspring against its last snapshot, and
+ * merges the survivors under a lock taken by whichever worker gets it first;
+ * the parents are chosen in the snapshot. Every worker draws its
+ * random numbers from its own <code>RandomGenerator</code>, seeded from
+ * <code>PseudoRandom</code> (the operators rely on its
+ * <code>nextInt(n)</code> including n). The problem and the operators are shared, so
+ * they must not keep per-call state (the evaluation of a <code>Problem</code>
+ * is called concurrently, as with <code>MultithreadedEvaluator</code>).
+ * <p>
+ * With one thread (the default) the cells are swept in the calling thread
+ * with <code>PseudoRandom</code>, so a run is reproducible for a given seed.
+ * <p>
+ * Input parameters: populationSize (a square number), archiveSize,
+ * maxEvaluations and numberOfThreads (1 by default; 0 for one per core).
+ * Operators: crossover, mutation and selection.
+ */
+public class pMOCell extends Algorithm {
+
+  /**
+   * Number of locks guarding the boundary cells (a power of 2)
+   */
+  private static final int STRIPES = 64 ;
+
+  private int populationSize_ ;
+  private int maxEvaluations_ ;
+
+  private Solution [] cells_ ;
+  private int [][] neighbors_ ;     // Eight neighbors of each cell
+  private boolean [] boundary_ ;    // Cells shared by several tiles
+  private Object [] stripes_ ;
+
+  private ConcurrentCrowdingArchive archive_ ;
+
+  private AtomicInteger evaluations_ ;
+
+  private Operator crossover_ ;
+  private Operator mutation_ ;
+  private Operator selection_ ;
+  private Comparator dominance_ ;
+
+  private volatile Throwable failure_ ;
+
+  /**
+   * Constructor
+   * @param problem Problem to solve
+   */
+  public pMOCell(Problem problem) {
+    super (problem) ;
+  } // pMOCell
+
+  /**
+   * Runs the algorithm.
+   * @return The archive
+   * @throws JMException
+   */
+  public SolutionSet execute() throws JMException, ClassNotFoundException {
+    populationSize_ = ((Integer) getInputParameter("populationSize")).intValue() ;
+    int archiveSize = ((Integer) getInputParameter("archiveSize")).intValue() ;
+    maxEvaluations_ = ((Integer) getInputParameter("maxEvaluations")).intValue() ;
+    int threads = 1 ;
+    if (getInputParameter("numberOfThreads") != null)
+      threads = ((Integer) getInputParameter("numberOfThreads")).intValue() ;
+    if (threads == 0)
+      threads = Runtime.getRuntime().availableProcessors() ;
+
+    int rowSize = (int) Math.sqrt((double) populationSize_) ;
+    if ((rowSize * rowSize != populationSize_) || (threads < 0)) {
+      Configuration.logger_.severe("pMOCell.execute: the population size (" +
+          populationSize_ + ") must be a square number and the number of " +
+          "threads (" + threads + ") cannot be negative") ;
+      throw new JMException("Exception in pMOCell.execute()") ;
+    }
+    threads = Math.max(1, Math.min(threads, rowSize)) ;
+
+    crossover_ = operators_.get("crossover") ;
+    mutation_  = operators_.get("mutation") ;
+    selection_ = operators_.get("selection") ;
+    dominance_ = new DominanceComparator() ;
+
+    // Truncated at every insertion, as a CrowdingArchive: the parents are
+    // taken from the archive, and a lazy truncation dilutes the selection
+    archive_     = new ConcurrentCrowdingArchive(archiveSize,
+        problem_.getNumberOfObjectives(), archiveSize) ;
+    evaluations_ = new AtomicInteger() ;
+    failure_     = null ;
+
+    // Tiles: worker t owns the rows [first[t], first[t + 1])
+    int [] first = new int[threads + 1] ;
+    for (int t = 0; t <= threads; t++)
+      first[t] = t * rowSize / threads ;
+    int [] owner = new int[populationSize_] ;
+    for (int t = 0; t < threads; t++)
+      for (int cell = first[t] * rowSize; cell < first[t + 1] * rowSize; cell++)
+        owner[cell] = t ;
+
+    Neighborhood neighborhood = new Neighborhood(populationSize_) ;
+    neighbors_ = new int[populationSize_][8] ;
+    boundary_  = new boolean[populationSize_] ;
+    for (int cell = 0; cell < populationSize_; cell++) {
+      neighborhood.getEightNeighbors(cell, neighbors_[cell]) ;
+      for (int k = 0; k < 8; k++)
+        if (owner[neighbors_[cell][k]] != owner[cell])
+          boundary_[cell] = true ;
+    }
+    stripes_ = new Object[STRIPES] ;
+    for (int i = 0; i < STRIPES; i++)
+      stripes_[i] = new Object() ;
+
+    // Initial population
+    cells_ = new Solution[populationSize_] ;
+    for (int cell = 0; cell < populationSize_; cell++) {
+      Solution solution = new Solution(problem_) ;
+      evaluate(solution) ;
+      evaluations_.incrementAndGet() ;
+      cells_[cell] = solution ;
+    }
+
+    if (threads == 1)
+      new Worker(first[0] * rowSize, first[1] * rowSize, null).run() ;
+    else {
+      Thread [] workers = new Thread[threads] ;
+      for (int t = 0; t < threads; t++) {
+        workers[t] = new Thread(new Worker(first[t] * rowSize,
+                                           first[t + 1] * rowSize,
+                                           new RandomGenerator(PseudoRandom.randDouble())),
+                                "pMOCell-" + t) ;
+        workers[t].start() ;
+      }
+      for (int t = 0; t < threads; t++) {
+        try {
+          workers[t].join() ;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt() ;
+          throw new JMException("pMOCell.execute: interrupted") ;
+        }
+      }
+    }
+
+    if (failure_ != null) {
+      Configuration.logger_.severe("pMOCell.execute: " + failure_) ;
+      if (failure_ instanceof JMException)
+        throw (JMException) failure_ ;
+      throw new JMException("Exception in pMOCell.execute(): " + failure_) ;
+    }
+
+    return archive_.getArchive() ;
+  } // execute
+
+  /**
+   * Returns the current solutions of the cells (the grid)
+   */
+  public SolutionSet getPopulation() {
+    SolutionSet population = new SolutionSet(populationSize_) ;
+    for (int cell = 0; cell < populationSize_; cell++)
+      population.add(cells_[cell]) ;
+    return population ;
+  } // getPopulation
+
+  private void evaluate(Solution solution) throws JMException {
+    problem_.evaluate(solution) ;
+    if (problem_.getNumberOfConstraints() > 0)
+      problem_.evaluateConstraints(solution) ;
+  } // evaluate
+
+  private Solution read(int cell) {
+    if (!boundary_[cell])
+      return cells_[cell] ;
+    synchronized (stripes_[cell & (STRIPES - 1)]) {
+      return cells_[cell] ;
+    }
+  } // read
+
+  private void write(int cell, Solution solution) {
+    if (!boundary_[cell]) {
+      cells_[cell] = solution ;
+      return ;
+    }
+    synchronized (stripes_[cell & (STRIPES - 1)]) {
+      cells_[cell] = solution ;
+    }
+  } // write
+
+  /**
+   * Offers a copy of an offspring to the archive
+   */
+  private void offer(Solution solution) {
+    archive_.add(new Solution(solution)) ;
+  } // offer
+
+  /**
+   * Selects a solution of the archive, or returns null if it is empty
+   */
+  private Solution selectFromArchive() throws JMException {
+    SolutionSet snapshot = archive_.getSnapshot() ;
+    if (snapshot.size() == 0)
+      return null ;
+    return (Solution) selection_.execute(snapshot) ;
+  } // selectFromArchive
+
+  /**
+   * Sweeps the cells of a tile until the evaluations are exhausted
+   */
+  private class Worker implements Runnable {
+    private final int begin_ ;
+    private final int end_ ;
+    private final IRandomGenerator generator_ ;
+
+    private final SolutionSet neighborhood_ = new SolutionSet(9) ;
+    private final Solution [] parents_ = new Solution[2] ;
+
+    // Scratch arrays of the replacement (eight neighbors, cell, offspring)
+    private final double [][] objectives_ = new double[10][] ;
+    private final double [] violation_ = new double[10] ;
+    private final int [] rank_ = new int[10] ;
+    private final double [] crowding_ = new double[10] ;
+    private final int [] order_ = new int[10] ;
+
+    /**
+     * @param generator Generator of the worker thread, or null to use the
+     *                  shared one
+     */
+    Worker(int begin, int end, IRandomGenerator generator) {
+      begin_     = begin ;
+      end_       = end ;
+      generator_ = generator ;
+    } // Worker
+
+    public void run() {
+      if (generator_ != null)
+        PseudoRandom.setThreadRandomGenerator(generator_) ;
+      try {
+        while (true) {
+          for (int cell = begin_; cell < end_; cell++) {
+            if ((failure_ != null) ||
+                (evaluations_.getAndIncrement() >= maxEvaluations_))
+              return ;
+            update(cell) ;
+          }
+        }
+      } catch (Throwable e) {
+        if (failure_ == null)
+          failure_ = e ;
+      } finally {
+        if (generator_ != null)
+          PseudoRandom.setThreadRandomGenerator(null) ;
+      }
+    } // run
+
+    private void update(int cell) throws JMException {
+      int [] neighbors = neighbors_[cell] ;
+      Solution individual = read(cell) ;
+
+      neighborhood_.clear() ;
+      for (int k = 0; k < 8; k++)
+        neighborhood_.add(read(neighbors[k])) ;
+      neighborhood_.add(individual) ;
+
+      parents_[0] = (Solution) selection_.execute(neighborhood_) ;
+      parents_[1] = selectFromArchive() ;
+      if (parents_[1] == null)
+        parents_[1] = (Solution) selection_.execute(neighborhood_) ;
+
+      Solution [] offspring = (Solution []) crossover_.execute(parents_) ;
+      Solution child = offspring[0] ;
+      mutation_.execute(child) ;
+      evaluate(child) ;
+
+      int flag = dominance_.compare(individual, child) ;
+      if (flag == 1) {          // The offspring dominates the individual
+        write(cell, child) ;
+        offer(child) ;
+      } else if (flag == 0) {   // Both are non-dominated
+        int worst = worst(child) ;
+        if (worst < 8)
+          write(neighbors[worst], child) ;
+        else if (worst == 8)
+          write(cell, child) ;
+        offer(child) ;
+      }
+    } // update
+
+    /**
+     * Position in the neighborhood (8 for the cell, 9 for the offspring) of
+     * the worst solution according to a <code>CrowdingComparator</code>
+     * after ranking the neighborhood with the offspring and assigning the
+     * crowding distances, as <code>Ranking</code> and <code>Distance</code>
+     * would do. It works on local copies of the values, so the shared
+     * solutions are not modified.
+     */
+    private int worst(Solution child) {
+      int size = 10 ;
+      for (int i = 0; i < 9; i++) {
+        Solution solution = neighborhood_.get(i) ;
+        objectives_[i] = solution.getObjectives() ;
+        violation_[i]  = solution.getOverallConstraintViolation() ;
+      }
+      objectives_[9] = child.getObjectives() ;
+      violation_[9]  = child.getOverallConstraintViolation() ;
+
+      // Non-dominated sorting by peeling the fronts
+      for (int i = 0; i < size; i++)
+        rank_[i] = -1 ;
+      int ranked = 0 ;
+      int front = 0 ;
+      while (ranked < size) {
+        for (int i = 0; i < size; i++) {
+          if (rank_[i] >= 0)
+            continue ;
+          boolean dominated = false ;
+          for (int j = 0; j < size && !dominated; j++)
+            if ((j != i) && ((rank_[j] < 0) || (rank_[j] >= size)) &&
+                (DominanceKernel.compare(objectives_[j], violation_[j],
+                                         objectives_[i], violation_[i]) == -1))
+              dominated = true ;
+          if (!dominated)
+            rank_[i] = front + size ;   // Marked; committed after the pass
+        }
+        for (int i = 0; i < size; i++)
+          if (rank_[i] == front + size) {
+            rank_[i] = front ;
+            ranked++ ;
+          }
+        front++ ;
+      }
+
+      // Crowding distance of the last front
+      int last = front - 1 ;
+      int count = 0 ;
+      for (int i = 0; i < size; i++)
+        if (rank_[i] == last)
+          order_[count++] = i ;
+      crowding(count) ;
+
+      int worst = 0 ;
+      for (int i = 1; i < size; i++) {
+        if ((rank_[i] > rank_[worst]) ||
+            ((rank_[i] == rank_[worst]) && (crowding_[i] < crowding_[worst])))
+          worst = i ;
+      }
+      return worst ;
+    } // worst
+
+    /**
+     * Crowding distances of the solutions order_[0..count)
+     */
+    private void crowding(int count) {
+      if (count <= 2) {
+        for (int k = 0; k < count; k++)
+          crowding_[order_[k]] = Double.POSITIVE_INFINITY ;
+        return ;
+      }
+      for (int k = 0; k < count; k++)
+        crowding_[order_[k]] = 0.0 ;
+      int objectives = objectives_[order_[0]].length ;
+      for (int m = 0; m < objectives; m++) {
+        // Stable insertion sort by objective m
+        for (int k = 1; k < count; k++) {
+          int value = order_[k] ;
+          int l = k - 1 ;
+          while ((l >= 0) && (objectives_[order_[l]][m] > objectives_[value][m])) {
+            order_[l + 1] = order_[l] ;
+            l-- ;
+          }
+          order_[l + 1] = value ;
+        }
+        double min = objectives_[order_[0]][m] ;
+        double max = objectives_[order_[count - 1]][m] ;
+        crowding_[order_[0]] = Double.POSITIVE_INFINITY ;
+        crowding_[order_[count - 1]] = Double.POSITIVE_INFINITY ;
+        for (int k = 1; k < count - 1; k++)
+          crowding_[order_[k]] += (objectives_[order_[k + 1]][m] -
+                                   objectives_[order_[k - 1]][m]) / (max - min) ;
+      }
+    } // crowding
+  } // Worker
+} // pMOCell
@@ -0,0 +1,128 @@
+//  pMOCell_main.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.mocell;
+
+import jmetal.core.Algorithm;
+import jmetal.core.Operator;
+import jmetal.core.Problem;
+import jmetal.core.SolutionSet;
+import jmetal.operators.crossover.CrossoverFactory;
+import jmetal.operators.mutation.MutationFactory;
+import jmetal.operators.selection.SelectionFactory;
+import jmetal.problems.ProblemFactory;
+import jmetal.problems.ZDT.ZDT1;
+import jmetal.qualityIndicator.QualityIndicator;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.logging.FileHandler;
+import java.util.logging.Logger;
+
+public class pMOCell_main {
+  public static Logger      logger_ ;      // Logger object
+  public static FileHandler fileHandler_ ; // FileHandler object
+
+  /**
+   * @param args Command line arguments.
+   * @throws JMException
+   * @throws IOException
+   * @throws SecurityException
+   * Usage: three options
+   *      - jmetal.metaheuristics.mocell.pMOCell_main
+   *      - jmetal.metaheuristics.mocell.pMOCell_main problemName numberOfThreads
+   *      - jmetal.metaheuristics.mocell.pMOCell_main problemName numberOfThreads paretoFrontFile
+   */
+  public static void main(String [] args) throws JMException,
+      SecurityException, IOException, ClassNotFoundException {
+    Problem   problem   ; // The problem to solve
+    Algorithm algorithm ; // The algorithm to use
+    Operator  crossover ; // Crossover operator
+    Operator  mutation  ; // Mutation operator
+    Operator  selection ; // Selection operator
+
+    HashMap  parameters ; // Operator parameters
+
+    QualityIndicator indicators ; // Object to get quality indicators
+
+    // Logger object and file to store log messages
+    logger_      = Configuration.logger_ ;
+    fileHandler_ = new FileHandler("pMOCell.log");
+    logger_.addHandler(fileHandler_) ;
+
+    int threads = 1 ; // 1: deterministic mode; 0: one thread per core
+    indicators = null ;
+    if (args.length >= 2) {
+      Object [] params = {"Real"};
+      problem = (new ProblemFactory()).getProblem(args[0],params);
+      threads = Integer.parseInt(args[1]) ;
+      if (args.length == 3)
+        indicators = new QualityIndicator(problem, args[2]) ;
+    } else { // Default problem
+      problem = new ZDT1("Real");
+    } // else
+
+    algorithm = new pMOCell(problem) ;
+
+    // Algorithm parameters
+    algorithm.setInputParameter("populationSize", 100);
+    algorithm.setInputParameter("archiveSize", 100);
+    algorithm.setInputParameter("maxEvaluations", 25000);
+    algorithm.setInputParameter("numberOfThreads", threads);
+
+    // Mutation and Crossover for Real codification
+    parameters = new HashMap() ;
+    parameters.put("probability", 0.9) ;
+    parameters.put("distributionIndex", 20.0) ;
+    crossover = CrossoverFactory.getCrossoverOperator("SBXCrossover", parameters);
+
+    parameters = new HashMap() ;
+    parameters.put("probability", 1.0/problem.getNumberOfVariables()) ;
+    parameters.put("distributionIndex", 20.0) ;
+    mutation = MutationFactory.getMutationOperator("PolynomialMutation", parameters);
+
+    // Selection Operator
+    parameters = null ;
+    selection = SelectionFactory.getSelectionOperator("BinaryTournament", parameters) ;
+
+    // Add the operators to the algorithm
+    algorithm.addOperator("crossover",crossover);
+    algorithm.addOperator("mutation",mutation);
+    algorithm.addOperator("selection",selection);
+
+    // Execute the Algorithm
+    long initTime = System.currentTimeMillis();
+    SolutionSet population = algorithm.execute();
+    long estimatedTime = System.currentTimeMillis() - initTime;
+
+    // Result messages
+    logger_.info("Total execution time: "+estimatedTime + "ms");
+    logger_.info("Variables values have been writen to file VAR");
+    population.printVariablesToFile("VAR");
+    logger_.info("Objectives values have been writen to file FUN");
+    population.printObjectivesToFile("FUN");
+
+    if (indicators != null) {
+      logger_.info("Quality indicators") ;
+      logger_.info("Hypervolume: " + indicators.getHypervolume(population)) ;
+      logger_.info("GD         : " + indicators.getGD(population)) ;
+      logger_.info("IGD        : " + indicators.getIGD(population)) ;
+      logger_.info("Spread     : " + indicators.getSpread(population)) ;
+      logger_.info("Epsilon    : " + indicators.getEpsilon(population)) ;
+    } // if
+  } //main
+} // pMOCell_main
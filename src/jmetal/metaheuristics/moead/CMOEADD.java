@@ -43,7 +43,6 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
-import java.util.StringTokenizer;
 import java.util.Vector;
 
 import jmetal.core.Algorithm;
@@ -58,6 +57,8 @@ import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
 import jmetal.util.Ranking;
 import jmetal.util.comparators.CrowdingComparator;
+import jmetal.util.snapshot.FrontReader;
+import jmetal.util.telemetry.Telemetry;
 
 
 public class CMOEADD extends Algorithm {
@@ -89,6 +90,7 @@ public class CMOEADD extends Algorithm {
 	/***********************************************************************************/
 	double[] zp_; 	// ideal point for Pareto-based population
 	double[] nzp_; 	// nadir point for Pareto-based population
+	ReferencePoints referencePoints_;	// tracker of zp_ and nzp_
 
 	/***********************************************************************************/
 	/**
@@ -133,6 +135,7 @@ public class CMOEADD extends Algorithm {
 		/*****************************************************************************/
 		zp_  = new double[problem_.getNumberOfObjectives()]; // ideal point for Pareto-based population
 		nzp_ = new double[problem_.getNumberOfObjectives()]; // nadir point for Pareto-based population
+		referencePoints_ = new ReferencePoints(zp_, nzp_);
 
 		rankIdx		  = new int[populationSize_][populationSize_];
 		subregionIdx  = new int[populationSize_][populationSize_];
@@ -140,16 +143,19 @@ public class CMOEADD extends Algorithm {
 
 		/**************************************************************************************/
 		
+		startTelemetry();
+
 		// STEP 1. Initialization
 		initUniformWeight();
 		initNeighborhood();
+		normalizeWeights();
 		initPopulation();
 		initIdealPoint();
 		initNadirPoint();
 
 		// initialize the distance
 		for (int i = 0; i < populationSize_; i++) {
-			double distance = calculateDistance2(population_.get(i), lambda_[i], zp_, nzp_);
+			double distance = calculateDistance2(population_.get(i), lambda_[i]);
 			subregionDist[i][i] = distance;
 		}
 		
@@ -194,34 +200,46 @@ public class CMOEADD extends Algorithm {
 				Solution[] parents   = new Solution[2];
 				Solution[] offSpring = new Solution[2];
 				//parents = matingSelection(cid, type);
+				telemetry_.begin(Telemetry.SELECTION);
 				parents = matingSelection_constraint(cid, type);
+				telemetry_.end(Telemetry.SELECTION);
 
 				// SBX crossover
+				telemetry_.begin(Telemetry.VARIATION);
 				offSpring = (Solution[]) crossover_.execute(parents);
 
 				// polynomial mutation
 				mutation_.execute(offSpring[0]);
 				mutation_.execute(offSpring[1]);
+				telemetry_.end(Telemetry.VARIATION);
 
 				// evaluation
+				telemetry_.begin(Telemetry.EVALUATION);
 				problem_.evaluate(offSpring[0]);
 				problem_.evaluate(offSpring[1]);
+				telemetry_.end(Telemetry.EVALUATION);
+				telemetry_.count(Telemetry.EVALUATIONS, 2);
 				evaluations_ += 2;
 
 				// update ideal points
-				updateReference(offSpring[0], zp_);
-				updateReference(offSpring[1], zp_);
+				telemetry_.begin(Telemetry.UPDATE);
+				updateReference(offSpring[0]);
+				updateReference(offSpring[1]);
 
 				// update nadir points
-				updateNadirPoint(offSpring[0], nzp_);
-				updateNadirPoint(offSpring[1], nzp_);
+				updateNadirPoint(offSpring[0]);
+				updateNadirPoint(offSpring[1]);
+				telemetry_.end(Telemetry.UPDATE);
 
+				telemetry_.begin(Telemetry.ARCHIVE);
 				updateArchive(offSpring[0]);
 				updateArchive(offSpring[1]);
+				telemetry_.end(Telemetry.ARCHIVE);
 			} // for
 			++gen;
-			System.out.println(gen);
+			telemetry_.endGeneration();
 		} while (evaluations_ < maxEvaluations);
+		stopTelemetry();
 
 		return population_;
 	}
@@ -236,27 +254,8 @@ public class CMOEADD extends Algorithm {
 				+ populationSize_ + ".dat";
 
 		try {
-			// Open the file
-			FileInputStream fis = new FileInputStream(dataDirectory_ + "/"
-					+ dataFileName);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			int i = 0;
-			int j = 0;
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				j = 0;
-				while (st.hasMoreTokens()) {
-					double value = (new Double(st.nextToken())).doubleValue();
-					lambda_[i][j] = value;
-					j++;
-				}
-				aux = br.readLine();
-				i++;
-			}
-			br.close();
+			// Read the file (text or snapshot)
+			FrontReader.read(dataDirectory_ + "/" + dataFileName).copyTo(lambda_);
 		} catch (Exception e) {
 			System.out
 					.println("initUniformWeight: failed when reading for file: "
@@ -269,23 +268,19 @@ public class CMOEADD extends Algorithm {
 	 * Initialize the neighborhood structure
 	 */
 	public void initNeighborhood() {
-		double[] x = new double[populationSize_];
-		int[] idx = new int[populationSize_];
+		new NeighborhoodBuilder(this).build(lambda_, neighborhood_);
+	} // initNeighborhood
 
+	/**
+	 * Scale the weight vectors to norm 1, once the neighborhoods are built
+	 */
+	void normalizeWeights() {
 		for (int i = 0; i < populationSize_; i++) {
-			// calculate the distances based on weight vectors
-			for (int j = 0; j < populationSize_; j++) {
-				x[j] = Utils.distVector(lambda_[i], lambda_[j]);
-				idx[j] = j;
-			} // for
-
-			// find 'niche' nearest neighboring subproblems
-			Utils.minFastSort(x, idx, populationSize_, T_);
-			for (int k = 0; k < T_; k++) {
-				neighborhood_[i][k] = idx[k];
-			}
-		} // for
-	} // initNeighborhood
+			double nd = norm_vector(lambda_[i]);
+			for (int j = 0; j < problem_.getNumberOfObjectives(); j++)
+				lambda_[i][j] = lambda_[i][j] / nd;
+		}
+	} // normalizeWeights
 
 	/**
 	 * Initialize the population
@@ -296,7 +291,10 @@ public class CMOEADD extends Algorithm {
 	public void initPopulation() throws JMException, ClassNotFoundException {
 		for (int i = 0; i < populationSize_; i++) {
 			Solution newSolution = new Solution(problem_);
+			telemetry_.begin(Telemetry.EVALUATION);
 			problem_.evaluate(newSolution);
+			telemetry_.end(Telemetry.EVALUATION);
+			telemetry_.count(Telemetry.EVALUATIONS);
 			evaluations_++;
 			population_.add(newSolution);
 			subregionIdx[i][i] = 1;
@@ -310,11 +308,9 @@ public class CMOEADD extends Algorithm {
 	 * @throws ClassNotFoundException
 	 */
 	void initIdealPoint() throws JMException, ClassNotFoundException {
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			zp_[i] = 1.0e+30;
-
+		referencePoints_.resetIdealPoint();
 		for (int i = 0; i < populationSize_; i++)
-			updateReference(population_.get(i), zp_);
+			updateReference(population_.get(i));
 	} // initIdealPoint
 
 	/**
@@ -324,11 +320,9 @@ public class CMOEADD extends Algorithm {
 	 * @throws ClassNotFoundException
 	 */
 	void initNadirPoint() throws JMException, ClassNotFoundException {
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			nzp_[i] = -1.0e+30;
-
+		referencePoints_.resetNadirPoint();
 		for (int i = 0; i < populationSize_; i++)
-			updateNadirPoint(population_.get(i), nzp_);
+			updateNadirPoint(population_.get(i));
 	} // initNadirPoint
 
 	/**
@@ -336,12 +330,8 @@ public class CMOEADD extends Algorithm {
 	 * 
 	 * @param indiv
 	 */
-	void updateReference(Solution indiv, double[] z_) {
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-			if (indiv.getObjective(i) < z_[i]) {
-				z_[i] = indiv.getObjective(i);
-			}
-		}
+	void updateReference(Solution indiv) {
+		referencePoints_.updateIdealPoint(indiv);
 	} // updateReference
 
 	/**
@@ -349,20 +339,17 @@ public class CMOEADD extends Algorithm {
 	 * 
 	 * @param indiv
 	 */
-	void updateNadirPoint(Solution indiv, double[] nz_) {
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-			if (indiv.getObjective(i) > nz_[i])
-				nz_[i] = indiv.getObjective(i);
-		}
+	void updateNadirPoint(Solution indiv) {
+		referencePoints_.updateNadirPoint(indiv);
 	} // updateNadirPoint
 	
+	/**
+	 * Recompute the nadir point from the current population, which may have
+	 * lost the worst solutions
+	 */
 	void RefreshNadirPoint() throws JMException, ClassNotFoundException {
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			nzp_[i] = -1.0e+30;
-			
-		for (int i = 0; i < populationSize_; i++)			
-			updateNadirPoint(population_.get(i), nzp_);
-	} // initNadirPoint
+		referencePoints_.refreshNadirPoint(population_, populationSize_);
+	} // RefreshNadirPoint
 
 	/**
 	 * Select two parents for reproduction
@@ -539,7 +526,9 @@ public class CMOEADD extends Algorithm {
 	public void updateArchive(Solution indiv) {
 
 		// find the indiv's location
-		setLocation(indiv, zp_, nzp_);
+		telemetry_.begin(Telemetry.ASSOCIATION);
+		setLocation(indiv);
+		telemetry_.end(Telemetry.ASSOCIATION);
 		int location = indiv.readRegion();
 		
 		// find the infeasible solutions in the population
@@ -557,7 +546,9 @@ public class CMOEADD extends Algorithm {
 				originalUpdate(indiv, location);
 			} else {
 				// get indiv's non-domination level
+				telemetry_.begin(Telemetry.RANKING);
 				nondominated_sorting_add(indiv);
+				telemetry_.end(Telemetry.RANKING);
 				
 				int singleTargetIdx   = infeasibleList.get(0);
 				int multipleTargetIdx = singleTargetIdx;
@@ -591,11 +582,13 @@ public class CMOEADD extends Algorithm {
 				if (flag == 1) {
 					targetRegion = findRegion(multipleTargetIdx);
 					population_.replace(multipleTargetIdx, indiv);
+					telemetry_.count(Telemetry.REPLACEMENTS);
 					subregionIdx[targetRegion][multipleTargetIdx] = 0;
 					subregionIdx[location][multipleTargetIdx]  	  = 1;
 				} else {
 					targetRegion = findRegion(singleTargetIdx);
 					population_.replace(singleTargetIdx, indiv);
+					telemetry_.count(Telemetry.REPLACEMENTS);
 					subregionIdx[targetRegion][singleTargetIdx] = 0;
 					subregionIdx[location][singleTargetIdx]  	= 1;
 				}
@@ -645,6 +638,7 @@ public class CMOEADD extends Algorithm {
 					if (indiv.getOverallConstraintViolation() < multipleMax) {
 						targetRegion = findRegion(multipleTargetIdx);
 						population_.replace(multipleTargetIdx, indiv);
+						telemetry_.count(Telemetry.REPLACEMENTS);
 						subregionIdx[targetRegion][multipleTargetIdx] = 0;
 						subregionIdx[location][multipleTargetIdx]  	  = 1;
 					}
@@ -653,6 +647,7 @@ public class CMOEADD extends Algorithm {
 					if (indiv.getOverallConstraintViolation() < singleMax) {
 						targetRegion = findRegion(singleTargetIdx);
 						population_.replace(singleTargetIdx, indiv);
+						telemetry_.count(Telemetry.REPLACEMENTS);
 						subregionIdx[targetRegion][singleTargetIdx] = 0;
 						subregionIdx[location][singleTargetIdx]  	= 1;
 					}
@@ -672,7 +667,9 @@ public class CMOEADD extends Algorithm {
 	public void updateArchive2(Solution indiv) {
 
 		// find the indiv's location
-		setLocation(indiv, zp_, nzp_);
+		telemetry_.begin(Telemetry.ASSOCIATION);
+		setLocation(indiv);
+		telemetry_.end(Telemetry.ASSOCIATION);
 		int location = indiv.readRegion();
 		
 		// find the infeasible solutions in the population
@@ -690,7 +687,9 @@ public class CMOEADD extends Algorithm {
 				originalUpdate(indiv, location);
 			} else {
 				// get indiv's non-domination level
+				telemetry_.begin(Telemetry.RANKING);
 				nondominated_sorting_add(indiv);
+				telemetry_.end(Telemetry.RANKING);
 				
 				int targetIdx = infeasibleList.get(0);
 				double maxCV  = population_.get(targetIdx).getOverallConstraintViolation();
@@ -705,6 +704,7 @@ public class CMOEADD extends Algorithm {
 				int targetRegion = findRegion(targetIdx);
 
 				population_.replace(targetIdx, indiv);
+				telemetry_.count(Telemetry.REPLACEMENTS);
 				subregionIdx[targetRegion][targetIdx] = 0;
 				subregionIdx[location][targetIdx]  	  = 1;
 			}
@@ -728,6 +728,7 @@ public class CMOEADD extends Algorithm {
 					int targetRegion = findRegion(targetIdx);
 					
 					population_.replace(targetIdx, indiv);
+					telemetry_.count(Telemetry.REPLACEMENTS);
 					subregionIdx[targetRegion][targetIdx] = 0;
 					subregionIdx[location][targetIdx]  	  = 1;
 				}
@@ -745,7 +746,9 @@ public class CMOEADD extends Algorithm {
 	 */
 	public void originalUpdate(Solution indiv, int location) {
 
+		telemetry_.begin(Telemetry.RANKING);
 		numRanks = nondominated_sorting_add(indiv);
+		telemetry_.end(Telemetry.RANKING);
 		
 		if (numRanks == 1) {
 			deleteRankOne(indiv, location);
@@ -796,6 +799,7 @@ public class CMOEADD extends Algorithm {
 					Solution targetSol = new Solution(population_.get(targetIdx));
 					
 					population_.replace(targetIdx, indiv);
+					telemetry_.count(Telemetry.REPLACEMENTS);
 					subregionIdx[parentLocation][targetIdx] = 0;
 					subregionIdx[location][targetIdx]  	    = 1;
 					
@@ -904,6 +908,7 @@ public class CMOEADD extends Algorithm {
 							Solution targetSol = new Solution(population_.get(idxArray[targetIdx]));
 							
 							population_.replace(idxArray[targetIdx], indiv);
+							telemetry_.count(Telemetry.REPLACEMENTS);
 							subregionIdx[crowdIdx][idxArray[targetIdx]] = 0;
 							subregionIdx[location][idxArray[targetIdx]] = 1;
 							
@@ -1238,7 +1243,9 @@ public class CMOEADD extends Algorithm {
 	public void updateArchive1(Solution indiv) {
 
 		// identify the location of 'indiv'
-		setLocation(indiv, zp_, nzp_);
+		telemetry_.begin(Telemetry.ASSOCIATION);
+		setLocation(indiv);
+		telemetry_.end(Telemetry.ASSOCIATION);
 		int location = indiv.readRegion();
 		
 		SolutionSet indPop = new SolutionSet(1);
@@ -1346,6 +1353,7 @@ public class CMOEADD extends Algorithm {
 						return;
 					} else {
 						population_.replace(idxArray[targetIdx], indiv);
+						telemetry_.count(Telemetry.REPLACEMENTS);
 						subregionIdx[crowdIdx][idxArray[targetIdx]] = 0;
 						subregionIdx[location][idxArray[targetIdx]] = 1;
 					}
@@ -1437,6 +1445,7 @@ public class CMOEADD extends Algorithm {
 		}
 		
 		population_.replace(targetIdx, indiv);
+		telemetry_.count(Telemetry.REPLACEMENTS);
 		subregionIdx[crowdIdx][targetIdx] = 0;
 		subregionIdx[location][targetIdx] = 1;
 		
@@ -1553,6 +1562,7 @@ public class CMOEADD extends Algorithm {
 			return;
 		} else {
 			population_.replace(targetIdx, indiv);
+			telemetry_.count(Telemetry.REPLACEMENTS);
 			subregionIdx[crowdIdx][targetIdx] = 0;
 			subregionIdx[location][targetIdx] = 1;
 		}
@@ -1623,6 +1633,7 @@ public class CMOEADD extends Algorithm {
 			double prev_func = fitnessFunction(population_.get(targetIdx), lambda_[location]);
 			if (indivFitness < prev_func)
 				population_.replace(targetIdx, indiv);
+				telemetry_.count(Telemetry.REPLACEMENTS);
 		} else {
 			if (location == crowdIdx) {	// if 'indiv' locates in the most crowded subregion
 				deleteCrowdIndiv_same(location, nicheCount, indivFitness, indiv);
@@ -1701,6 +1712,7 @@ public class CMOEADD extends Algorithm {
 		// if 'indiv' has a better fitness, use 'indiv' to replace the one with the worst fitness
 		if (indivFitness < maxFitness)
 			population_.replace(worstIdx, indiv);
+			telemetry_.count(Telemetry.REPLACEMENTS);
 		
 	}
 	
@@ -1735,6 +1747,7 @@ public class CMOEADD extends Algorithm {
 		
 		// use 'indiv' to replace the worst solution
 		population_.replace(worstIdx, indiv);
+		telemetry_.count(Telemetry.REPLACEMENTS);
 		subregionIdx[crowdIdx][worstIdx]    = 0;
 		subregionIdx[curLocation][worstIdx] = 1;
 		
@@ -1782,6 +1795,7 @@ public class CMOEADD extends Algorithm {
 				}
 			}
 			population_.replace(idxArray[targetIdx], indiv);
+			telemetry_.count(Telemetry.REPLACEMENTS);
 			subregionIdx[crowdIdx][idxArray[targetIdx]]  = 0;
 			subregionDist[crowdIdx][idxArray[targetIdx]] = 0;
 			subregionIdx[indiv.readRegion()][idxArray[targetIdx]]  = 0;
@@ -1841,16 +1855,16 @@ public class CMOEADD extends Algorithm {
 	 * 
 	 * @param indiv
 	 */
-	public void setLocation(Solution indiv, double[] z_, double[] nz_) {
+	public void setLocation(Solution indiv) {
 
 		int minIdx;
 		double distance, minDist;
 
 		minIdx   = 0;
-		distance = calculateDistance2(indiv, lambda_[0], z_, nz_);
+		distance = calculateDistance2(indiv, lambda_[0]);
 		minDist  = distance;
 		for (int i = 1; i < populationSize_; i++) {
-			distance = calculateDistance2(indiv, lambda_[i], z_, nz_);
+			distance = calculateDistance2(indiv, lambda_[i]);
 			if (distance < minDist) {
 				minIdx  = i;
 				minDist = distance;
@@ -1926,32 +1940,26 @@ public class CMOEADD extends Algorithm {
 		return distance;
 	}
 
-	public double calculateDistance2(Solution indiv, double[] lambda,
-			double[] z_, double[] nz_) {
-
-		// normalize the weight vector (line segment)
-		double nd = norm_vector(lambda);
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			lambda[i] = lambda[i] / nd;
-
-		double[] realA = new double[problem_.getNumberOfObjectives()];
-		double[] realB = new double[problem_.getNumberOfObjectives()];
-
-		// difference between current point and reference point
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			realA[i] = (indiv.getObjective(i) - z_[i]);
+	/**
+	 * Calculate the perpendicular distance between a solution, translated by
+	 * the ideal point, and the line of a weight vector (of norm 1, see
+	 * <code>normalizeWeights</code>). The translated objectives and their norm
+	 * are cached on the solution by <code>referencePoints_</code>, so the
+	 * distance to each weight vector only takes a dot product.
+	 * 
+	 * @param indiv
+	 * @param lambda
+	 * @return
+	 */
+	public double calculateDistance2(Solution indiv, double[] lambda) {
+		double[] realA = referencePoints_.translatedObjectives(indiv);
 
 		// distance along the line segment
 		double d1 = Math.abs(innerproduct(realA, lambda));
 
 		// distance to the line segment
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			realB[i] = (indiv.getObjective(i) - (z_[i] + d1 * lambda[i]));
-
-		double distance = norm_vector(realB);
-
-		return distance;
-	}
+		return Math.sqrt(Math.max(indiv.getNormalizedNorm2() - d1 * d1, 0.0));
+	} // calculateDistance2
 	
 	/**
 	 * Calculate the dot product of two vectors
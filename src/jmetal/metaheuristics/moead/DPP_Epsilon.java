@@ -38,13 +38,9 @@
 
 package jmetal.metaheuristics.moead;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.StringTokenizer;
 import java.util.Vector;
 
 import jmetal.core.Algorithm;
@@ -55,6 +51,8 @@ import jmetal.core.SolutionSet;
 import jmetal.util.Distance;
 import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
+import jmetal.util.snapshot.FrontReader;
+import jmetal.util.telemetry.Telemetry;
 
 public class DPP_Epsilon extends Algorithm {
 	int gen = 0;
@@ -148,6 +146,8 @@ public class DPP_Epsilon extends Algorithm {
 		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
 			epsion[i] = 1.0 / divide;
 		
+		startTelemetry();
+
 		// STEP 1. Initialization
 		initUniformWeight();
 		initNeighborhood();
@@ -159,7 +159,9 @@ public class DPP_Epsilon extends Algorithm {
 			int[] permutation = new int[populationSize_];
 			Utils.randomPermutation(permutation, populationSize_);
 
+			telemetry_.begin(Telemetry.SELECTION);
 			List<Integer> order = tour_selection(10);
+			telemetry_.end(Telemetry.SELECTION);
 
 			for (int i = 0; i < order.size(); i++) {
 				int n = order.get(i);
@@ -175,7 +177,9 @@ public class DPP_Epsilon extends Algorithm {
 				else
 					type = 2; // whole population
 				Vector<Integer> p = new Vector<Integer>();
+				telemetry_.begin(Telemetry.SELECTION);
 				matingSelection(p, n, 2, type);
+				telemetry_.end(Telemetry.SELECTION);
 
 				// STEP 2.2. Reproduction
 				Solution child;
@@ -194,32 +198,48 @@ public class DPP_Epsilon extends Algorithm {
 					parents[1] = mSet.get(0);
 
 				// Apply DE crossover
+				telemetry_.begin(Telemetry.VARIATION);
 				child = (Solution) crossover_.execute(new Object[] {population_.get(n), parents });
 
 				// Apply mutation
 				mutation_.execute(child);
+				telemetry_.end(Telemetry.VARIATION);
 
 				// Evaluation
+				telemetry_.begin(Telemetry.EVALUATION);
 				problem_.evaluate(child);
+				telemetry_.end(Telemetry.EVALUATION);
+				telemetry_.count(Telemetry.EVALUATIONS);
 
 				evaluations_++;
 
 				// STEP 2.3. Repair. Not necessary
 
 				// STEP 2.4. Update z_
+				telemetry_.begin(Telemetry.UPDATE);
 				updateReference(child);
 
 				// STEP 2.5. Update of solutions
 				updateProblem(child, n, type);
+				telemetry_.end(Telemetry.UPDATE);
+				telemetry_.begin(Telemetry.ARCHIVE);
 				updateArchive(child, archive_pop);
+				telemetry_.end(Telemetry.ARCHIVE);
 			} // for
 
 			gen++;
-			if (gen % 30 == 0)
+			if (gen % 30 == 0) {
+				telemetry_.begin(Telemetry.UPDATE);
 				comp_utility();
+				telemetry_.end(Telemetry.UPDATE);
+			}
+			telemetry_.endGeneration();
 		} while (evaluations_ < maxEvaluations);
 		
+		telemetry_.begin(Telemetry.ARCHIVE);
 		final_pop = filtering(populationSize_);
+		telemetry_.end(Telemetry.ARCHIVE);
+		stopTelemetry();
 		
 		return final_pop;
 	}
@@ -233,7 +253,10 @@ public class DPP_Epsilon extends Algorithm {
 		for (int i = 0; i < populationSize_; i++) {
 			Solution newSolution = new Solution(problem_);
 
+			telemetry_.begin(Telemetry.EVALUATION);
 			problem_.evaluate(newSolution);
+			telemetry_.end(Telemetry.EVALUATION);
+			telemetry_.count(Telemetry.EVALUATIONS);
 			evaluations_++;
 			population_.add(newSolution);
 			savedValues_[i] = new Solution(newSolution);
@@ -253,7 +276,10 @@ public class DPP_Epsilon extends Algorithm {
 		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
 			z_[i] = 1.0e+30;
 			indArray_[i] = new Solution(problem_);
+			telemetry_.begin(Telemetry.EVALUATION);
 			problem_.evaluate(indArray_[i]);
+			telemetry_.end(Telemetry.EVALUATION);
+			telemetry_.count(Telemetry.EVALUATIONS);
 			evaluations_++;
 		} // for
 
@@ -284,29 +310,8 @@ public class DPP_Epsilon extends Algorithm {
 				+ populationSize_ + ".dat";
 
 		try {
-			// Open the file
-			FileInputStream fis = new FileInputStream(dataDirectory_ + "/"
-					+ dataFileName);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			int i = 0;
-			int j = 0;
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				j = 0;
-				while (st.hasMoreTokens()) {
-					double value = (new Double(st.nextToken())).doubleValue();
-					lambda_[i][j] = value;
-					// System.out.println("lambda["+i+","+j+"] = " + value)
-					// ;
-					j++;
-				}
-				aux = br.readLine();
-				i++;
-			}
-			br.close();
+			// Read the file (text or snapshot)
+			FrontReader.read(dataDirectory_ + "/" + dataFileName).copyTo(lambda_);
 		} catch (Exception e) {
 			System.out
 					.println("initUniformWeight: failed when reading for file: "
@@ -319,22 +324,7 @@ public class DPP_Epsilon extends Algorithm {
 	 * Initialize neighborhood structure
 	 */
 	public void initNeighborhood() {
-		double[] x = new double[populationSize_];
-		int[] idx = new int[populationSize_];
-
-		for (int i = 0; i < populationSize_; i++) {
-			// calculate the distances based on weight vectors
-			for (int j = 0; j < populationSize_; j++) {
-				x[j] = Utils.distVector(lambda_[i], lambda_[j]);
-				idx[j] = j;
-			} // for
-
-			// find 'niche' nearest neighboring subproblems
-			Utils.minFastSort(x, idx, populationSize_, T_);
-			for (int k = 0; k < T_; k++) {
-				neighborhood_[i][k] = idx[k];
-			}
-		} // for
+		new NeighborhoodBuilder(this).build(lambda_, neighborhood_);
 	} // initNeighborhood
 	
 	/**
@@ -519,6 +509,7 @@ public class DPP_Epsilon extends Algorithm {
 		f[1] = fitnessFunction(pSolution, lambda_[pSolution.read_location()]);
 		if (f[0] < f[1]) {
 			population_.replace(indiv.read_location(), indiv);
+			telemetry_.count(Telemetry.REPLACEMENTS);
 		}		
 
 	} // updateProblem
@@ -35,13 +35,7 @@
 
 package jmetal.metaheuristics.moead;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
 import java.util.LinkedList;
-import java.util.List;
-import java.util.StringTokenizer;
 import java.util.Vector;
 
 import jmetal.core.Algorithm;
@@ -52,6 +46,8 @@ import jmetal.core.SolutionSet;
 import jmetal.util.Distance;
 import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
+import jmetal.util.snapshot.FrontReader;
+import jmetal.util.telemetry.Telemetry;
 
 public class DPP_Grid extends Algorithm {
 	int gen = 0;
@@ -62,13 +58,13 @@ public class DPP_Grid extends Algorithm {
 	private SolutionSet archive_pop;	// convergence archive
 	private SolutionSet mixed_pop;
 	private SolutionSet final_pop;      // output population
-	private Solution[] savedValues_;	// Stores the values of the individuals
+	private UtilityScheduler scheduler_; // Utilities and saved objective values
 
-	private double[] utility_;
 	private int[] frequency_;
 
 	double[] z_;				// ideal objective vector
 	double[] nz_;				// nadir objective vector
+	ReferencePoints referencePoints_;	// tracker of z_ and nz_
 	double[][] lambda_;			// weight vector
 	
 	int T_;						// neighborhood size
@@ -88,6 +84,7 @@ public class DPP_Grid extends Algorithm {
 	double[] lb;		// lower boundary
 	double[] ub;		// upper boundary
 	double divide;
+	long boundaryVersion_;	// version of z_ and nz_ the boundaries were computed with
 	
 	LinkedList<SolutionSet> epsilon_neighbour = new LinkedList<SolutionSet>();
 	
@@ -117,11 +114,11 @@ public class DPP_Grid extends Algorithm {
 
 		population_  = new SolutionSet(populationSize_);
 		archive_pop  = new SolutionSet(10 * populationSize_);
-		savedValues_ = new Solution[populationSize_];
-		utility_ 	 = new double[populationSize_];
+		scheduler_ = new UtilityScheduler(populationSize_,
+				problem_.getNumberOfObjectives(),
+				Boolean.TRUE.equals(this.getInputParameter("prioritySelection")));
 		frequency_ 	 = new int[populationSize_];
-		for (int i = 0; i < utility_.length; i++) {
-			utility_[i] = 1.0;
+		for (int i = 0; i < populationSize_; i++) {
 			frequency_[i] = 0;
 		}
 		indArray_ = new Solution[problem_.getNumberOfObjectives()];
@@ -135,6 +132,7 @@ public class DPP_Grid extends Algorithm {
 
 		z_ 		= new double[problem_.getNumberOfObjectives()];
 		nz_     = new double[problem_.getNumberOfObjectives()];
+		referencePoints_ = new ReferencePoints(z_, nz_);
 		lambda_ = new double[populationSize_][problem_.getNumberOfObjectives()];
 
 		crossover_ = operators_.get("crossover");
@@ -146,6 +144,8 @@ public class DPP_Grid extends Algorithm {
 		for (int i = 0; i < populationSize_; i++)
 			epsilon_neighbour.add(new SolutionSet(populationSize_));
 		
+		startTelemetry();
+
 		// STEP 1. Initialization
 		initUniformWeight();
 		initNeighborhood();
@@ -159,10 +159,12 @@ public class DPP_Grid extends Algorithm {
 			int[] permutation = new int[populationSize_];
 			Utils.randomPermutation(permutation, populationSize_);
 
-			List<Integer> order = tour_selection(10);
+			telemetry_.begin(Telemetry.SELECTION);
+			int[] order = tour_selection(10);
+			telemetry_.end(Telemetry.SELECTION);
 
-			for (int i = 0; i < order.size(); i++) {
-				int n = order.get(i);
+			for (int i = 0; i < order.length; i++) {
+				int n = order[i];
 				frequency_[n]++;
 
 				int type;
@@ -175,7 +177,9 @@ public class DPP_Grid extends Algorithm {
 				else
 					type = 2; // whole population
 				Vector<Integer> p = new Vector<Integer>();
+				telemetry_.begin(Telemetry.SELECTION);
 				matingSelection(p, n, 2, type);
+				telemetry_.end(Telemetry.SELECTION);
 
 				// STEP 2.2. Reproduction
 				Solution child;
@@ -194,34 +198,50 @@ public class DPP_Grid extends Algorithm {
 					parents[1] = mSet.get(0);
 
 				// Apply DE crossover
+				telemetry_.begin(Telemetry.VARIATION);
 				child = (Solution) crossover_.execute(new Object[] {population_.get(n), parents });
 
 				// Apply mutation
 				mutation_.execute(child);
+				telemetry_.end(Telemetry.VARIATION);
 
 				// Evaluation
+				telemetry_.begin(Telemetry.EVALUATION);
 				problem_.evaluate(child);
+				telemetry_.end(Telemetry.EVALUATION);
+				telemetry_.count(Telemetry.EVALUATIONS);
 
 				evaluations_++;
 
 				// STEP 2.3. Repair. Not necessary
 
 				// STEP 2.4. Update z_
+				telemetry_.begin(Telemetry.UPDATE);
 				updateReference(child);
 				updateNadirPoint(child);
 				updateBoundary();
 
 				// STEP 2.5. Update of solutions
 				updateProblem(child, n, type);
+				telemetry_.end(Telemetry.UPDATE);
+				telemetry_.begin(Telemetry.ARCHIVE);
 				updateArchive(child, archive_pop);
+				telemetry_.end(Telemetry.ARCHIVE);
 			} // for
 
 			gen++;
-			if (gen % 30 == 0)
+			if (gen % 30 == 0) {
+				telemetry_.begin(Telemetry.UPDATE);
 				comp_utility();
+				telemetry_.end(Telemetry.UPDATE);
+			}
+			telemetry_.endGeneration();
 		} while (evaluations_ < maxEvaluations);
 		
+		telemetry_.begin(Telemetry.ARCHIVE);
 		final_pop = filtering(populationSize_);
+		telemetry_.end(Telemetry.ARCHIVE);
+		stopTelemetry();
 		
 		return final_pop;
 	}
@@ -235,10 +255,13 @@ public class DPP_Grid extends Algorithm {
 		for (int i = 0; i < populationSize_; i++) {
 			Solution newSolution = new Solution(problem_);
 
+			telemetry_.begin(Telemetry.EVALUATION);
 			problem_.evaluate(newSolution);
+			telemetry_.end(Telemetry.EVALUATION);
+			telemetry_.count(Telemetry.EVALUATIONS);
 			evaluations_++;
 			population_.add(newSolution);
-			savedValues_[i] = new Solution(newSolution);
+			scheduler_.saveObjectives(i, newSolution);
 
 			newSolution.Set_location(i);
 			archive_pop.add(newSolution);
@@ -252,10 +275,13 @@ public class DPP_Grid extends Algorithm {
 	 * @throws ClassNotFoundException
 	 */
 	void initIdealPoint() throws JMException, ClassNotFoundException {
+		referencePoints_.resetIdealPoint();
 		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-			z_[i] = 1.0e+30;
 			indArray_[i] = new Solution(problem_);
+			telemetry_.begin(Telemetry.EVALUATION);
 			problem_.evaluate(indArray_[i]);
+			telemetry_.end(Telemetry.EVALUATION);
+			telemetry_.count(Telemetry.EVALUATIONS);
 			evaluations_++;
 		} // for
 
@@ -270,11 +296,10 @@ public class DPP_Grid extends Algorithm {
 	 */
 	void updateReference(Solution individual) {
 		for (int n = 0; n < problem_.getNumberOfObjectives(); n++) {
-			if (individual.getObjective(n) < z_[n]) {
-				z_[n] = individual.getObjective(n);
+			if (individual.getObjective(n) < z_[n])
 				indArray_[n] = individual;
-			}
 		}
+		referencePoints_.updateIdealPoint(individual);
 	} // updateReference
 	
 	/**
@@ -284,9 +309,7 @@ public class DPP_Grid extends Algorithm {
 	 * @throws ClassNotFoundException
 	 */
 	void initNadirPoint() throws JMException, ClassNotFoundException {
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			nz_[i] = -1.0e+30;
-
+		referencePoints_.resetNadirPoint();
 		for (int i = 0; i < populationSize_; i++)
 			updateNadirPoint(population_.get(i));
 		
@@ -298,16 +321,17 @@ public class DPP_Grid extends Algorithm {
   	 * @param individual
   	 */
 	void updateNadirPoint(Solution individual) {
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-			if (individual.getObjective(i) > nz_[i])
-				nz_[i] = individual.getObjective(i);
-		}
+		referencePoints_.updateNadirPoint(individual);
 	} // updateNadirPoint
 	
 	/**
-	 * Update lower boundary and upper boundary
+	 * Update lower boundary and upper boundary, if the ideal or the nadir
+	 * point has moved since the last update
 	 */
 	void updateBoundary() {
+		if (boundaryVersion_ == referencePoints_.getVersion())
+			return;
+		boundaryVersion_ = referencePoints_.getVersion();
 		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
 			lb[i] = z_[i] - (nz_[i] - z_[i]) / (2 * divide);
 			ub[i] = nz_[i] + (nz_[i] - z_[i]) / (2 * divide);
@@ -323,27 +347,8 @@ public class DPP_Grid extends Algorithm {
 				+ populationSize_ + ".dat";
 
 		try {
-			// Open the file
-			FileInputStream fis = new FileInputStream(dataDirectory_ + "/"
-					+ dataFileName);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			int i = 0;
-			int j = 0;
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				j = 0;
-				while (st.hasMoreTokens()) {
-					double value = (new Double(st.nextToken())).doubleValue();
-					lambda_[i][j] = value;
-					j++;
-				}
-				aux = br.readLine();
-				i++;
-			}
-			br.close();
+			// Read the file (text or snapshot)
+			FrontReader.read(dataDirectory_ + "/" + dataFileName).copyTo(lambda_);
 		} catch (Exception e) {
 			System.out
 					.println("initUniformWeight: failed when reading for file: "
@@ -356,22 +361,7 @@ public class DPP_Grid extends Algorithm {
 	 * Initialize neighborhood structure
 	 */
 	public void initNeighborhood() {
-		double[] x = new double[populationSize_];
-		int[] idx = new int[populationSize_];
-
-		for (int i = 0; i < populationSize_; i++) {
-			// calculate the distances based on weight vectors
-			for (int j = 0; j < populationSize_; j++) {
-				x[j] = Utils.distVector(lambda_[i], lambda_[j]);
-				idx[j] = j;
-			} // for
-
-			// find 'niche' nearest neighboring subproblems
-			Utils.minFastSort(x, idx, populationSize_, T_);
-			for (int k = 0; k < T_; k++) {
-				neighborhood_[i][k] = idx[k];
-			}
-		} // for
+		new NeighborhoodBuilder(this).build(lambda_, neighborhood_);
 	} // initNeighborhood
 	
 	/**
@@ -381,15 +371,15 @@ public class DPP_Grid extends Algorithm {
 		double f1, f2, uti, delta;
 		for (int n = 0; n < populationSize_; n++) {
 			f1 = fitnessFunction(population_.get(n), lambda_[n]);
-			f2 = fitnessFunction(savedValues_[n], lambda_[n]);
+			f2 = fitnessFunction(scheduler_.getSavedObjectives(n), lambda_[n]);
 			delta = f2 - f1;
 			if (delta > 0.001)
-				utility_[n] = 1.0;
+				scheduler_.setUtility(n, 1.0);
 			else {
-				uti = (0.95 + (0.05 * delta / 0.001)) * utility_[n];
-				utility_[n] = uti < 1.0 ? uti : 1.0;
+				uti = (0.95 + (0.05 * delta / 0.001)) * scheduler_.getUtility(n);
+				scheduler_.setUtility(n, uti < 1.0 ? uti : 1.0);
 			}
-			savedValues_[n] = new Solution(population_.get(n));
+			scheduler_.saveObjectives(n, population_.get(n));
 		}
 	}
 	
@@ -398,36 +388,9 @@ public class DPP_Grid extends Algorithm {
 	 * @param depth
 	 * @return
 	 */
-	public List<Integer> tour_selection(int depth) {
-
-		// selection based on utility
-		List<Integer> selected = new ArrayList<Integer>();
-		List<Integer> candidate = new ArrayList<Integer>();
-
-		for (int k = 0; k < problem_.getNumberOfObjectives(); k++)
-			selected.add(k); // WARNING! HERE YOU HAVE TO USE THE WEIGHT PROVIDED BY QINGFU (NOT SORTED!!!!)
-
-		for (int n = problem_.getNumberOfObjectives(); n < populationSize_; n++)
-			candidate.add(n); // set of unselected weights
-
-		while (selected.size() < (int) (populationSize_ / 5.0)) {
-			int best_idd = (int) (PseudoRandom.randDouble() * candidate.size());
-			int i2;
-			int best_sub = candidate.get(best_idd);
-			int s2;
-			for (int i = 1; i < depth; i++) {
-				i2 = (int) (PseudoRandom.randDouble() * candidate.size());
-				s2 = candidate.get(i2);
-				if (utility_[s2] > utility_[best_sub]) {
-					best_idd = i2;
-					best_sub = s2;
-				}
-			}
-			selected.add(best_sub);
-			candidate.remove(best_idd);
-		}
-		return selected;
-	}
+	public int[] tour_selection(int depth) {
+		return scheduler_.select(depth);
+	} // tour_selection
 	
 	/**
 	 * Mating selection
@@ -547,11 +510,12 @@ public class DPP_Grid extends Algorithm {
 		f[1] = fitnessFunction(pSolution, lambda_[pSolution.read_location()]);
 		if (f[0] < f[1]) {
 			population_.replace(indiv.read_location(), indiv);
+			telemetry_.count(Telemetry.REPLACEMENTS);
 		}		
 
 	} // updateProblem
 
-	double fitnessFunction(Solution individual, double[] lambda) {
+	double fitnessFunction(double[] objectives, double[] lambda) {
 		double fitness;
 		fitness = 0.0;
 	
@@ -559,7 +523,7 @@ public class DPP_Grid extends Algorithm {
 			double maxFun = -1.0e+30;
 	
 			for (int n = 0; n < problem_.getNumberOfObjectives(); n++) {
-				double diff = Math.abs(individual.getObjective(n) - z_[n]);
+				double diff = Math.abs(objectives[n] - z_[n]);
 	
 				double feval;
 				if (lambda[n] == 0) {
@@ -577,7 +541,7 @@ public class DPP_Grid extends Algorithm {
 			double maxFun = -1.0e+30;
 	
 			for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-				double diff = Math.abs(individual.getObjective(i) - z_[i]);
+				double diff = Math.abs(objectives[i] - z_[i]);
 	
 				double feval;
 				if (lambda[i] == 0) {
@@ -604,14 +568,14 @@ public class DPP_Grid extends Algorithm {
 
 				// difference between current point and reference point
 				for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
-					realA[n] = (individual.getObjective(n) - z_[n]);
+					realA[n] = (objectives[n] - z_[n]);
 
 				// distance along the line segment
 				double d1 = Math.abs(Utils.innerproduct(realA, lambda));
 
 				// distance to the line segment
 				for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
-					realB[n] = (individual.getObjective(n) - (z_[n] + d1 * lambda[n]));
+					realB[n] = (objectives[n] - (z_[n] + d1 * lambda[n]));
 				double d2 = Utils.norm_vector(realB, problem_.getNumberOfObjectives());
 
 				fitness = d1 + theta * d2;
@@ -623,6 +587,10 @@ public class DPP_Grid extends Algorithm {
 		return fitness;
 	} // fitnessEvaluation
 
+	double fitnessFunction(Solution individual, double[] lambda) {
+		return fitnessFunction(individual.getObjectives(), lambda);
+	} // fitnessFunction
+
 	/**
 	 * Add a solution into the register
 	 * @param Child
@@ -38,14 +38,10 @@
 
 package jmetal.metaheuristics.moead;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
-import java.util.StringTokenizer;
 import java.util.Vector;
 
 import jmetal.core.Algorithm;
@@ -59,6 +55,8 @@ import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
 import jmetal.util.Ranking;
 import jmetal.util.comparators.CrowdingComparator;
+import jmetal.util.snapshot.FrontReader;
+import jmetal.util.telemetry.Telemetry;
 
 public class DPP_Pareto extends Algorithm {
 	
@@ -139,6 +137,8 @@ public class DPP_Pareto extends Algorithm {
 		for (int i = 0; i < populationSize_; i++)
 			subregionMatrix_[i][i] = 1;
 		
+		startTelemetry();
+
 		// STEP 1. Initialization
 		initUniformWeight();
 		initNeighborhood();
@@ -167,23 +167,31 @@ public class DPP_Pareto extends Algorithm {
 				Solution child;
 				Solution[] parents = new Solution[3];
 				Vector<Integer> p  = new Vector<Integer>();
+				telemetry_.begin(Telemetry.SELECTION);
 				parents = matingSelection(p, n, 2, type);
+				telemetry_.end(Telemetry.SELECTION);
 
 				// STEP 2.2. Reproduction
 				// Apply DE crossover
+				telemetry_.begin(Telemetry.VARIATION);
 				child = (Solution) crossover_.execute(new Object[] {population_.get(n), parents });
 
 				// Apply mutation
 				mutation_.execute(child);
+				telemetry_.end(Telemetry.VARIATION);
 
 				// Evaluation
+				telemetry_.begin(Telemetry.EVALUATION);
 				problem_.evaluate(child);
+				telemetry_.end(Telemetry.EVALUATION);
+				telemetry_.count(Telemetry.EVALUATIONS);
 
 				evaluations_++;
 
 				// STEP 2.3. Repair. Not necessary
 
 				// STEP 2.4. Update z_
+				telemetry_.begin(Telemetry.UPDATE);
 				updateReference(child, zp_);
 				updateReference(child, zd_);
 				
@@ -192,12 +200,19 @@ public class DPP_Pareto extends Algorithm {
 				
 				// STEP 2.5. Update of solutions
 				updateProblem(child);
+				telemetry_.end(Telemetry.UPDATE);
 
+				telemetry_.begin(Telemetry.ARCHIVE);
 				updateArchive(child);
+				telemetry_.end(Telemetry.ARCHIVE);
 			} // for
+			telemetry_.endGeneration();
 		} while (evaluations_ < maxEvaluations);
 		
+		telemetry_.begin(Telemetry.ARCHIVE);
 		final_pop = filtering(populationSize_);
+		telemetry_.end(Telemetry.ARCHIVE);
+		stopTelemetry();
 		
 		return final_pop;
 	}
@@ -211,27 +226,8 @@ public class DPP_Pareto extends Algorithm {
 				+ populationSize_ + ".dat";
 
 		try {
-			// Open the file
-			FileInputStream fis = new FileInputStream(dataDirectory_ + "/"
-					+ dataFileName);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			int i = 0;
-			int j = 0;
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				j = 0;
-				while (st.hasMoreTokens()) {
-					double value = (new Double(st.nextToken())).doubleValue();
-					lambda_[i][j] = value;
-					j++;
-				}
-				aux = br.readLine();
-				i++;
-			}
-			br.close();
+			// Read the file (text or snapshot)
+			FrontReader.read(dataDirectory_ + "/" + dataFileName).copyTo(lambda_);
 		} catch (Exception e) {
 			System.out
 					.println("initUniformWeight: failed when reading for file: "
@@ -244,22 +240,7 @@ public class DPP_Pareto extends Algorithm {
 	 * Initialize the neighborhood structure
 	 */
 	public void initNeighborhood() {
-		double[] x = new double[populationSize_];
-		int[] idx = new int[populationSize_];
-
-		for (int i = 0; i < populationSize_; i++) {
-			// calculate the distances based on weight vectors
-			for (int j = 0; j < populationSize_; j++) {
-				x[j] = Utils.distVector(lambda_[i], lambda_[j]);
-				idx[j] = j;
-			} // for
-
-			// find 'niche' nearest neighboring subproblems
-			Utils.minFastSort(x, idx, populationSize_, T_);
-			for (int k = 0; k < T_; k++) {
-				neighborhood_[i][k] = idx[k];
-			}
-		} // for
+		new NeighborhoodBuilder(this).build(lambda_, neighborhood_);
 	} // initNeighborhood
 	
 	/**
@@ -272,7 +253,10 @@ public class DPP_Pareto extends Algorithm {
 		for (int i = 0; i < populationSize_; i++) {
 			Solution newSolution = new Solution(problem_);
 
+			telemetry_.begin(Telemetry.EVALUATION);
 			problem_.evaluate(newSolution);
+			telemetry_.end(Telemetry.EVALUATION);
+			telemetry_.count(Telemetry.EVALUATIONS);
 			evaluations_++;
 
 			population_.add(newSolution);
@@ -469,8 +453,10 @@ public class DPP_Pareto extends Algorithm {
 		Solution prevSol = population_.get(location);
 		cur_func  = fitnessFunction(indiv, lambda_[location]);
 		prev_func = fitnessFunction(prevSol, lambda_[location]);
-		if (cur_func < prev_func)
+		if (cur_func < prev_func) {
 			population_.replace(location, indiv);
+			telemetry_.count(Telemetry.REPLACEMENTS);
+		}
 
 	} // updateProblem
 
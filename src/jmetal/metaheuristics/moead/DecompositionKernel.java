@@ -0,0 +1,248 @@
+//  DecompositionKernel.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.moead;
+
+import jmetal.core.SolutionSet;
+
+/**
+ * Geometry of the decomposition shared by the selections of MOEA/D-STM,
+ * MOEA/D-IR and MOEA/D-DRA-ASTM, which compare every solution of a set with
+ * every subproblem.
+ * <p>
+ * The norms of the weight vectors (and the unit weight vectors of PBI) are
+ * computed once. <code>cache</code> stores, for each solution of the set, its
+ * objectives translated by the ideal point, normalized by the ideal and nadir
+ * points, and projected on the unit simplex; the pairwise measures then run
+ * without allocating anything. The arithmetic is that of the former
+ * per-pair methods, so the values are the same bit for bit.
+ */
+public class DecompositionKernel {
+	private final int numberOfObjectives_;
+
+	private final double[][] lambda_;		// Weight vectors
+	private final double[]   lambdaNorm2_;	// Squared norms of the weight vectors
+	private final double[][] unitLambda_;	// Weight vectors of norm 1
+
+	private double[]   z_;					// Ideal point of the cached set
+	private double[][] objectives_;
+	private double[][] shifted_;			// f - z
+	private double[][] normalized_;			// (f - z) / (nz - z)
+	private double[][] simplex_;			// f / sum(f)
+	private int size_;
+
+	/**
+	 * Constructor
+	 *
+	 * @param lambda The weight vectors (they must not change afterwards)
+	 */
+	public DecompositionKernel(double[][] lambda) {
+		numberOfObjectives_ = lambda[0].length;
+		lambda_      = lambda;
+		lambdaNorm2_ = new double[lambda.length];
+		unitLambda_  = new double[lambda.length][numberOfObjectives_];
+		for (int j = 0; j < lambda.length; j++) {
+			double sum = 0;
+			for (int k = 0; k < numberOfObjectives_; k++)
+				sum += lambda[j][k] * lambda[j][k];
+			lambdaNorm2_[j] = sum;
+			double norm = Math.sqrt(sum);
+			for (int k = 0; k < numberOfObjectives_; k++)
+				unitLambda_[j][k] = lambda[j][k] / norm;
+		}
+
+		objectives_ = new double[0][];
+		shifted_    = new double[0][];
+		normalized_ = new double[0][];
+		simplex_    = new double[0][];
+		size_       = 0;
+	} // DecompositionKernel
+
+	/**
+	 * Caches the vectors of the solutions of a set; the index of a solution in
+	 * the set identifies it in the pairwise measures.
+	 *
+	 * @param solutions The solutions
+	 * @param z The ideal point
+	 * @param nz The nadir point
+	 */
+	public void cache(SolutionSet solutions, double[] z, double[] nz) {
+		size_ = solutions.size();
+		if (shifted_.length < size_) {
+			int capacity = Math.max(size_, 2 * shifted_.length);
+			objectives_ = new double[capacity][];
+			shifted_    = new double[capacity][numberOfObjectives_];
+			normalized_ = new double[capacity][numberOfObjectives_];
+			simplex_    = new double[capacity][numberOfObjectives_];
+		}
+
+		z_ = z;
+		for (int i = 0; i < size_; i++) {
+			double[] f = solutions.get(i).getObjectives();
+			objectives_[i] = f;
+
+			double sum = 0.0;
+			for (int k = 0; k < numberOfObjectives_; k++) {
+				shifted_[i][k]    = f[k] - z[k];
+				normalized_[i][k] = (f[k] - z[k]) / (nz[k] - z[k]);
+				sum += f[k];
+			}
+			for (int k = 0; k < numberOfObjectives_; k++)
+				simplex_[i][k] = f[k] / sum;
+		}
+	} // cache
+
+	/**
+	 * Returns the number of cached solutions
+	 */
+	public int size() {
+		return size_;
+	} // size
+
+	/**
+	 * Returns the squared norm of a weight vector
+	 */
+	public double getNorm2(int subproblem) {
+		return lambdaNorm2_[subproblem];
+	} // getNorm2
+
+	/**
+	 * Returns the normalized objectives, (f - z) / (nz - z), of a cached solution
+	 */
+	public double[] getNormalized(int solution) {
+		return normalized_[solution];
+	} // getNormalized
+
+	/**
+	 * Weighted Tchebycheff, max |f - z| * lambda (_TCHE1 of MOEA/D-IR)
+	 */
+	public double tchebycheff1(int solution, int subproblem) {
+		double[] diff   = shifted_[solution];
+		double[] lambda = lambda_[subproblem];
+		double maxFun = -1.0e+30;
+		for (int k = 0; k < numberOfObjectives_; k++) {
+			double feval = (lambda[k] == 0) ? 0.000001 * Math.abs(diff[k]) :
+					Math.abs(diff[k]) * lambda[k];
+			if (feval > maxFun)
+				maxFun = feval;
+		}
+		return maxFun;
+	} // tchebycheff1
+
+	/**
+	 * Tchebycheff, max |f - z| / lambda (_TCHE2 of MOEA/D-IR)
+	 */
+	public double tchebycheff2(int solution, int subproblem) {
+		return tchebycheff(shifted_[solution], lambda_[subproblem]);
+	} // tchebycheff2
+
+	/**
+	 * Tchebycheff on the normalized objectives (_TCH2 of MOEA/D-DRA-ASTM)
+	 */
+	public double normalizedTchebycheff(int solution, int subproblem) {
+		return tchebycheff(normalized_[solution], lambda_[subproblem]);
+	} // normalizedTchebycheff
+
+	private double tchebycheff(double[] diff, double[] lambda) {
+		double maxFun = -1.0e+30;
+		for (int k = 0; k < numberOfObjectives_; k++) {
+			double feval = (lambda[k] == 0) ? Math.abs(diff[k]) / 0.000001 :
+					Math.abs(diff[k]) / lambda[k];
+			if (feval > maxFun)
+				maxFun = feval;
+		}
+		return maxFun;
+	} // tchebycheff
+
+	/**
+	 * Penalty-based boundary intersection, d1 + theta * d2, on f - z (_PBI of
+	 * MOEA/D-IR)
+	 */
+	public double pbi(int solution, int subproblem, double theta) {
+		double[] f      = objectives_[solution];
+		double[] realA  = shifted_[solution];
+		double[] lambda = unitLambda_[subproblem];
+
+		double d1 = 0;
+		for (int k = 0; k < numberOfObjectives_; k++)
+			d1 += realA[k] * lambda[k];
+		d1 = Math.abs(d1);
+
+		double d2 = 0;
+		for (int k = 0; k < numberOfObjectives_; k++) {
+			double realB = f[k] - (z_[k] + d1 * lambda[k]);
+			d2 += realB * realB;
+		}
+		return d1 + theta * Math.sqrt(d2);
+	} // pbi
+
+	/**
+	 * Penalty-based boundary intersection on the normalized objectives (_PBI of
+	 * MOEA/D-DRA-ASTM)
+	 */
+	public double normalizedPBI(int solution, int subproblem, double theta) {
+		double[] realA  = normalized_[solution];
+		double[] lambda = unitLambda_[subproblem];
+
+		double d1 = 0;
+		for (int k = 0; k < numberOfObjectives_; k++)
+			d1 += realA[k] * lambda[k];
+		d1 = Math.abs(d1);
+
+		double d2 = 0;
+		for (int k = 0; k < numberOfObjectives_; k++) {
+			double realB = realA[k] - d1 * lambda[k];
+			d2 += realB * realB;
+		}
+		return d1 + theta * Math.sqrt(d2);
+	} // normalizedPBI
+
+	/**
+	 * Distance between the normalized objectives and the line of a weight
+	 * vector (<code>MOEAD_DRA_ASTM.calculateDistance</code>)
+	 */
+	public double perpendicularDistance(int solution, int subproblem) {
+		double[] vecInd = normalized_[solution];
+		double[] lambda = lambda_[subproblem];
+
+		double product = 0;
+		for (int k = 0; k < numberOfObjectives_; k++)
+			product += vecInd[k] * lambda[k];
+		double scale = product / lambdaNorm2_[subproblem];
+
+		double sum = 0;
+		for (int k = 0; k < numberOfObjectives_; k++) {
+			double vecProj = vecInd[k] - scale * lambda[k];
+			sum += vecProj * vecProj;
+		}
+		return Math.sqrt(sum);
+	} // perpendicularDistance
+
+	/**
+	 * Distance between the objectives projected on the unit simplex and a
+	 * weight vector (<code>MOEAD_IR.calculateDistance2</code>)
+	 */
+	public double simplexDistance(int solution, int subproblem) {
+		double[] normalizedObj = simplex_[solution];
+		double[] lambda        = lambda_[subproblem];
+
+		double sum = 0;
+		for (int k = 0; k < numberOfObjectives_; k++) {
+			double vecInd = normalizedObj[k] - lambda[k];
+			sum += vecInd * vecInd;
+		}
+		return Math.sqrt(sum);
+	} // simplexDistance
+} // DecompositionKernel
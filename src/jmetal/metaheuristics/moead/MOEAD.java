@@ -11,13 +11,9 @@
 
 package jmetal.metaheuristics.moead;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.StringTokenizer;
 
 import jmetal.util.*;
 
@@ -25,6 +21,11 @@ import java.util.Vector;
 
 import jmetal.core.*;
 import jmetal.util.PseudoRandom;
+import jmetal.operators.crossover.DifferentialEvolutionCrossover;
+import jmetal.util.snapshot.FrontReader;
+import jmetal.util.snapshot.SnapshotFormat;
+import jmetal.util.snapshot.SnapshotWriter;
+import jmetal.util.telemetry.Telemetry;
 
 public class MOEAD extends Algorithm {
 	
@@ -46,6 +47,24 @@ public class MOEAD extends Algorithm {
 	Operator crossover_;
 	Operator mutation_;
 
+	// Buffers of the main loop, reused for every offspring
+	private int[]      permutation_;	// Order of the subproblems
+	private int[]      perm_;			// Order of the subproblems to update
+	private boolean[]  flag_;			// Scratch array of Utils.randomPermutation
+	private int[]      matingIndex_;	// Indexes of the mating parents
+	private Solution[] parents_;
+	private Solution   child_;			// Offspring, rewritten by a DE crossover
+	private SolutionPool pool_;			// Replaced solutions, rewritten by the next copies
+	private SnapshotWriter snapshots_;	// Writer of medianPrint, created on its first snapshot
+	private boolean binarySnapshots_;	// medianPrint writes binary snapshots instead of text
+
+	// Objectives cached on the solutions (see ReferencePoints): translated by
+	// z_ (_PBI), or also scaled by the bounds of the population (_TCHE2)
+	private double[] min_;				// Bounds of the objectives of the population
+	private double[] max_;
+	private long idealVersion_;			// Version of z_
+	private long scaleVersion_;			// Version of z_ and of the bounds
+
 	String dataDirectory_;
 	
 	/**
@@ -64,38 +83,15 @@ public class MOEAD extends Algorithm {
 		
 		int maxEvaluations;
 
-		evaluations_ = 0;
 		maxEvaluations = ((Integer) this.getInputParameter("maxEvaluations")).intValue();
-		populationSize_ = ((Integer) this.getInputParameter("populationSize")).intValue();
-		dataDirectory_ = this.getInputParameter("dataDirectory").toString();
-		System.out.println("POPSIZE: " + populationSize_);
-
-		population_ = new SolutionSet(populationSize_);
-		indArray_ = new Solution[problem_.getNumberOfObjectives()];
-
-		T_ = 20;
-		delta_ = 0.9;
-		nr_ = 2;
-				
-		neighborhood_ = new int[populationSize_][T_];
+		binarySnapshots_ = Boolean.TRUE.equals(this.getInputParameter("binarySnapshots"));
 
-		z_ = new double[problem_.getNumberOfObjectives()];
-		lambda_ = new double[populationSize_][problem_.getNumberOfObjectives()];
-
-		crossover_ = operators_.get("crossover"); 	// default: DE crossover
-		mutation_ = operators_.get("mutation"); 	// default: polynomial mutation
+		startTelemetry();
 
 		// STEP 1. Initialization
-		// STEP 1.1. Compute Euclidean distances between weight vectors and find T
-		initUniformWeight();
-		initNeighborhood();
-
-		// STEP 1.2. Initialize population
-		initPopulation();
+		initialize();
+		System.out.println("POPSIZE: " + populationSize_);
 
-		// STEP 1.3. Initialize z_
-		initIdealPoint();
-		
 		int idx = 0;
 		String str1 = "FUN";
 		String str2 = str1 + Integer.toString(idx);
@@ -103,11 +99,10 @@ public class MOEAD extends Algorithm {
 					
 		// STEP 2. Update
 		do {		
-			int[] permutation = new int[populationSize_];
-			Utils.randomPermutation(permutation, populationSize_);
+			Utils.randomPermutation(permutation_, populationSize_, flag_);
 
 			for (int i = 0; i < populationSize_; i++) {
-				int n = permutation[i];
+				int n = permutation_[i];
 				int type;
 				double rnd = PseudoRandom.randDouble();
 
@@ -118,46 +113,130 @@ public class MOEAD extends Algorithm {
 				} else {
 					type = 2; // whole population
 				}
-				Vector<Integer> p = new Vector<Integer>();
-				matingSelection(p, n, 2, type);
+				telemetry_.begin(Telemetry.SELECTION);
+				matingSelection(matingIndex_, n, 2, type);
+				telemetry_.end(Telemetry.SELECTION);
 
 				// STEP 2.2. Reproduction
 				Solution child;
-				Solution[] parents = new Solution[3];
 
-				parents[0] = population_.get(p.get(0));
-				parents[1] = population_.get(p.get(1));
-				parents[2] = population_.get(n);
+				parents_[0] = population_.get(matingIndex_[0]);
+				parents_[1] = population_.get(matingIndex_[1]);
+				parents_[2] = population_.get(n);
 
 				// Apply DE crossover
-				child = (Solution) crossover_.execute(new Object[] {
-						population_.get(n), parents });
+				telemetry_.begin(Telemetry.VARIATION);
+				if (crossover_ instanceof DifferentialEvolutionCrossover) {
+					child_ = ((DifferentialEvolutionCrossover) crossover_).execute(
+							population_.get(n), parents_, child_);
+					child = child_;
+				} else {
+					child = (Solution) crossover_.execute(new Object[] {
+							population_.get(n), parents_ });
+				}
 
 				// Apply mutation
 				mutation_.execute(child);
+				telemetry_.end(Telemetry.VARIATION);
 
 				// Evaluation
+				telemetry_.begin(Telemetry.EVALUATION);
 				problem_.evaluate(child);
+				telemetry_.end(Telemetry.EVALUATION);
+				telemetry_.count(Telemetry.EVALUATIONS);
 
 				evaluations_++;
 
 				// STEP 2.3. Repair. Not necessary
 
 				// STEP 2.4. Update z_
+				telemetry_.begin(Telemetry.UPDATE);
 				updateReference(child);
 
 				// STEP 2.5. Update of solutions
 				updateProblem(child, n, type);
+				telemetry_.end(Telemetry.UPDATE);
 			} // for
 //			idx = medianPrint(idx);
-			System.out.println(evaluations_);
+			telemetry_.endGeneration();
 		} while (evaluations_ < maxEvaluations);
 
+		if (snapshots_ != null) {
+			snapshots_.close();
+			snapshots_ = null;
+		}
+		stopTelemetry();
+
 		return population_;
 	}
+
+	/**
+	 * Reads the parameters, allocates the buffers of the main loop and
+	 * initializes the weights, the neighborhoods, the population and z_
+	 * (STEP 1 of <code>execute</code>)
+	 * 
+	 * @throws JMException
+	 * @throws ClassNotFoundException
+	 */
+	void initialize() throws JMException, ClassNotFoundException {
+		evaluations_ = 0;
+		populationSize_ = ((Integer) this.getInputParameter("populationSize")).intValue();
+		dataDirectory_ = this.getInputParameter("dataDirectory").toString();
+
+		population_ = new SolutionSet(populationSize_);
+		indArray_ = new Solution[problem_.getNumberOfObjectives()];
+
+		T_ = 20;
+		delta_ = 0.9;
+		nr_ = 2;
+				
+		neighborhood_ = new int[populationSize_][T_];
+
+		z_ = new double[problem_.getNumberOfObjectives()];
+		lambda_ = new double[populationSize_][problem_.getNumberOfObjectives()];
+
+		crossover_ = operators_.get("crossover"); 	// default: DE crossover
+		mutation_ = operators_.get("mutation"); 	// default: polynomial mutation
+
+		permutation_ = new int[populationSize_];
+		perm_        = new int[populationSize_];
+		flag_        = new boolean[populationSize_];
+		matingIndex_ = new int[2];
+		parents_     = new Solution[3];
+		child_       = null;
+		pool_        = new SolutionPool(nr_);
+
+		// STEP 1.1. Compute Euclidean distances between weight vectors and find T
+		initUniformWeight();
+		initNeighborhood();
+		if (functionType_.equals("_PBI"))
+			normalizeWeights();
+
+		// STEP 1.2. Initialize population
+		initPopulation();
+
+		// STEP 1.3. Initialize z_ and the bounds of the population
+		initIdealPoint();
+		initBounds();
+	} // initialize
+
+	/**
+	 * Scale the weight vectors to norm 1 (_PBI), once the neighborhoods are built
+	 */
+	void normalizeWeights() {
+		for (int i = 0; i < populationSize_; i++) {
+			double nd = norm_vector(lambda_[i]);
+			for (int j = 0; j < problem_.getNumberOfObjectives(); j++)
+				lambda_[i][j] = lambda_[i][j] / nd;
+		}
+	} // normalizeWeights
 	
 	/**
-	 * print the median result
+	 * print the median result (FUN<idx>). If the input parameter
+	 * "binarySnapshots" of execute() is true, a binary snapshot
+	 * (FUN<idx>.snap) is written in the background instead; SnapshotConverter
+	 * turns it into the text format. If the snapshot fails, the text file is
+	 * written.
 	 * @param idx
 	 */
 	public int medianPrint(int idx) {
@@ -166,7 +245,19 @@ public class MOEAD extends Algorithm {
 			String str1 = "FUN";
 			String str2 = str1 + Integer.toString(idx);
 			
-			population_.printObjectivesToFile(str2);
+			boolean written = false;
+			if (binarySnapshots_) {
+				try {
+					if (snapshots_ == null)
+						snapshots_ = new SnapshotWriter();
+					snapshots_.write(population_, str2 + SnapshotFormat.EXTENSION);
+					written = true;
+				} catch (JMException e) {
+					Configuration.logger_.warning("MOEAD.medianPrint: " + e.getMessage());
+				}
+			}
+			if (!written)
+				population_.printObjectivesToFile(str2);
 		}
 		
 		return idx;
@@ -183,27 +274,8 @@ public class MOEAD extends Algorithm {
 				+ populationSize_ + ".dat";
 
 		try {
-			// Open the file
-			FileInputStream fis = new FileInputStream(dataDirectory_ + "/"
-					+ dataFileName);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			int i = 0;
-			int j = 0;
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				j = 0;
-				while (st.hasMoreTokens()) {
-					double value = (new Double(st.nextToken())).doubleValue();
-					lambda_[i][j] = value;
-					j++;
-				}
-				aux = br.readLine();
-				i++;
-			}
-			br.close();
+			// Read the file (text or snapshot)
+			FrontReader.read(dataDirectory_ + "/" + dataFileName).copyTo(lambda_);
 		} catch (Exception e) {
 			System.out
 					.println("initUniformWeight: failed when reading for file: "
@@ -218,22 +290,7 @@ public class MOEAD extends Algorithm {
 	 * 
 	 */
 	public void initNeighborhood() {
-		int[] idx  = new int[populationSize_];
-		double[] x = new double[populationSize_];
-
-		for (int i = 0; i < populationSize_; i++) {
-			/* calculate the distances based on weight vectors */
-			for (int j = 0; j < populationSize_; j++) {
-				x[j] = Utils.distVector(lambda_[i], lambda_[j]);
-				idx[j] = j;
-			}
-			/* find 'niche' nearest neighboring subproblems */
-			Utils.minFastSort(x, idx, populationSize_, T_);
-
-			for (int k = 0; k < T_; k++) {
-				neighborhood_[i][k] = idx[k];
-			}
-		}
+		new NeighborhoodBuilder(this).build(lambda_, neighborhood_);
 	} // initNeighborhood
 
 	/**
@@ -246,7 +303,10 @@ public class MOEAD extends Algorithm {
 		for (int i = 0; i < populationSize_; i++) {
 			Solution newSolution = new Solution(problem_);
 
+			telemetry_.begin(Telemetry.EVALUATION);
 			problem_.evaluate(newSolution);
+			telemetry_.end(Telemetry.EVALUATION);
+			telemetry_.count(Telemetry.EVALUATIONS);
 			evaluations_++;
 			population_.add(newSolution);
 		}
@@ -303,21 +363,168 @@ public class MOEAD extends Algorithm {
 		}
 	} // matingSelection
 
+	/**
+	 * Select the mating parents, depending on the selection 'type', as
+	 * <code>matingSelection(Vector, int, int, int)</code> does but without
+	 * allocating anything
+	 * 
+	 * @param list : array receiving the indexes of the selected mating parents
+	 * @param cid  : the id of current subproblem
+	 * @param size : the number of selected mating parents
+	 * @param type : 1 - neighborhood; otherwise - whole population
+	 */
+	public void matingSelection(int[] list, int cid, int size, int type) {
+		int ss;
+		int r;
+		int p;
+
+		ss = neighborhood_[cid].length;
+		int selected = 0;
+		while (selected < size) {
+			if (type == 1) {
+				r = PseudoRandom.randInt(0, ss - 1);
+				p = neighborhood_[cid][r];
+			} else {
+				p = PseudoRandom.randInt(0, populationSize_ - 1);
+			}
+			boolean flag = true;
+			for (int i = 0; i < selected; i++) {
+				if (list[i] == p) // p is in the list
+				{
+					flag = false;
+					break;
+				}
+			}
+
+			if (flag) {
+				list[selected] = p;
+				selected++;
+			}
+		}
+	} // matingSelection
+
 	/**
 	 * Update the current ideal point
 	 * 
 	 * @param individual
 	 */
 	void updateReference(Solution individual) {
+		boolean changed = false;
 		for (int n = 0; n < problem_.getNumberOfObjectives(); n++) {
 			if (individual.getObjective(n) < z_[n]) {
 				z_[n] = individual.getObjective(n);
 
 				indArray_[n] = individual;
+				changed = true;
 			}
 		}
+		if (changed) {
+			idealVersion_ = ReferencePoints.nextVersion();
+			scaleVersion_ = ReferencePoints.nextVersion();
+		}
 	} // updateReference
 
+	/**
+	 * Initialize the bounds of the objectives of the population
+	 */
+	void initBounds() {
+		min_ = new double[problem_.getNumberOfObjectives()];
+		max_ = new double[problem_.getNumberOfObjectives()];
+		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
+			min_[i] = minimum(i);
+			max_[i] = maximum(i);
+		}
+		scaleVersion_ = ReferencePoints.nextVersion();
+	} // initBounds
+
+	/**
+	 * Update the bounds of the objectives of the population, after a solution
+	 * has replaced another one; a bound held by the replaced solution alone is
+	 * searched again
+	 * 
+	 * @param replaced
+	 * @param solution
+	 */
+	void updateBounds(Solution replaced, Solution solution) {
+		boolean changed = false;
+		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
+			double value = solution.getObjective(i);
+			double old   = replaced.getObjective(i);
+			if (value > max_[i]) {
+				max_[i] = value;
+				changed = true;
+			} else if ((old == max_[i]) && (value < old)) {
+				max_[i] = maximum(i);
+				changed |= (max_[i] != old);
+			}
+			if (value < min_[i]) {
+				min_[i] = value;
+				changed = true;
+			} else if ((old == min_[i]) && (value > old)) {
+				min_[i] = minimum(i);
+				changed |= (min_[i] != old);
+			}
+		}
+		if (changed)
+			scaleVersion_ = ReferencePoints.nextVersion();
+	} // updateBounds
+
+	private double minimum(int objective) {
+		double min = 1.0e+30;
+		for (int j = 0; j < population_.size(); j++) {
+			double tp = population_.get(j).getObjective(objective);
+			if (tp < min)
+				min = tp;
+		}
+		return min;
+	} // minimum
+
+	private double maximum(int objective) {
+		double max = -1.0e+30;
+		for (int j = 0; j < population_.size(); j++) {
+			double tp = population_.get(j).getObjective(objective);
+			if (tp > max)
+				max = tp;
+		}
+		return max;
+	} // maximum
+
+	/**
+	 * Returns the objectives of a solution minus z_, cached on the solution
+	 * with their squared norm
+	 */
+	private double[] translatedObjectives(Solution individual) {
+		double[] translated = individual.getNormalizedObjectives(idealVersion_);
+		if (translated != null)
+			return translated;
+		translated = individual.normalizedObjectivesBuffer();
+		double norm2 = 0;
+		for (int n = 0; n < problem_.getNumberOfObjectives(); n++) {
+			translated[n] = individual.getObjective(n) - z_[n];
+			norm2 += translated[n] * translated[n];
+		}
+		individual.setNormalizedObjectives(idealVersion_, norm2);
+		return translated;
+	} // translatedObjectives
+
+	/**
+	 * Returns the objectives of a solution minus z_, divided by the ranges of
+	 * the population, cached on the solution with their squared norm
+	 */
+	private double[] scaledObjectives(Solution individual) {
+		double[] scaled = individual.getNormalizedObjectives(scaleVersion_);
+		if (scaled != null)
+			return scaled;
+		scaled = individual.normalizedObjectivesBuffer();
+		double norm2 = 0;
+		for (int n = 0; n < problem_.getNumberOfObjectives(); n++) {
+			scaled[n] = (individual.getObjective(n) - z_[n]) / (max_[n] - min_[n]);
+			norm2 += scaled[n] * scaled[n];
+		}
+		individual.setNormalizedObjectives(scaleVersion_, norm2);
+		return scaled;
+	} // scaledObjectives
+
 	/**
 	 * Update the population by the current offspring
 	 * 
@@ -336,9 +543,9 @@ public class MOEAD extends Algorithm {
 		} else {
 			size = population_.size();
 		}
-		int[] perm = new int[size];
+		int[] perm = perm_;
 
-		Utils.randomPermutation(perm, size);
+		Utils.randomPermutation(perm, size, flag_);
 
 		for (int i = 0; i < size; i++) {
 			int k;
@@ -353,7 +560,11 @@ public class MOEAD extends Algorithm {
 			f2 = fitnessFunction(indiv, lambda_[k]);
 
 			if (f2 < f1) {
-				population_.replace(k, new Solution(indiv));
+				Solution replaced = population_.get(k);
+				population_.replace(k, pool_.copyOf(indiv));
+				updateBounds(replaced, population_.get(k));
+				pool_.release(replaced);
+				telemetry_.count(Telemetry.REPLACEMENTS);
 				time++;
 			}
 			// the maximal number of solutions updated is not allowed to exceed
@@ -408,25 +619,15 @@ public class MOEAD extends Algorithm {
 
 			fitness = maxFun;
 		} else if (functionType_.equals("_TCHE2")) {
-			double[] scale = new double[problem_.getNumberOfObjectives()];
-			for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-				double min = 1.0e+30, max = -1.0e+30;
-				for (int j = 0; j < population_.size(); j++) {
-					Solution individal = population_.get(j);
-					double tp = individal.getObjective(i);
-					if (tp > max)
-						max = tp;
-					if (tp < min)
-						min = tp;
-				}
-				scale[i] = max - min; // ���ÿһά��׼
-				if (max - min == 0)
+			// objectives normalized by the ranges of the population
+			for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
+				if (max_[i] - min_[i] == 0)
 					return 1.0e+30;
-			}
+			double[] scaled = scaledObjectives(individual);
 
 			double max_fun = -1.0e+30;
 			for (int n = 0; n < problem_.getNumberOfObjectives(); n++) {
-				double diff = (individual.getObjective(n) - z_[n]) / scale[n];
+				double diff = scaled[n];
 				double feval;
 				if (lambda[n] == 0)
 					feval = 0.0001 * diff;
@@ -442,26 +643,16 @@ public class MOEAD extends Algorithm {
 			double theta; // penalty parameter
 			theta = 5.0;
 
-			// normalize the weight vector (line segment)
-			double nd = norm_vector(lambda);
-			for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-				lambda[i] = lambda[i] / nd;
-
-			double[] realA = new double[problem_.getNumberOfObjectives()];
-			double[] realB = new double[problem_.getNumberOfObjectives()];
-
-			// difference beween current point and reference point
-			for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
-				realA[n] = (individual.getObjective(n) - z_[n]);
+			// lambda has norm 1 (see normalizeWeights); the difference between
+			// the current point and the reference point, and its norm, are
+			// cached on the solution
+			double[] realA = translatedObjectives(individual);
 
 			// distance along the line segment
 			double d1 = Math.abs(innerproduct(realA, lambda));
 
 			// distance to the line segment
-			for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
-				realB[n] = (individual.getObjective(n) - (z_[n] + d1
-						* lambda[n]));
-			double d2 = norm_vector(realB);
+			double d2 = Math.sqrt(Math.max(individual.getNormalizedNorm2() - d1 * d1, 0.0));
 
 			fitness = d1 + theta * d2;
 		} else {
@@ -43,7 +43,6 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
-import java.util.StringTokenizer;
 import java.util.Vector;
 
 import jmetal.core.Algorithm;
@@ -58,6 +57,11 @@ import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
 import jmetal.util.Ranking;
 import jmetal.util.comparators.CrowdingComparator;
+import jmetal.util.snapshot.CheckpointInput;
+import jmetal.util.snapshot.CheckpointOutput;
+import jmetal.util.snapshot.CheckpointWriter;
+import jmetal.util.snapshot.FrontReader;
+import jmetal.util.telemetry.Telemetry;
 
 public class MOEADD extends Algorithm {
 
@@ -88,6 +92,9 @@ public class MOEADD extends Algorithm {
 
 	double[] zp_; 	// ideal point for Pareto-based population
 	double[] nzp_; 	// nadir point for Pareto-based population
+	ReferencePoints referencePoints_;	// tracker of zp_ and nzp_
+
+	private CheckpointWriter checkpoints_;	// null: no checkpoints
 
 	/**
 	 * Constructor
@@ -127,34 +134,46 @@ public class MOEADD extends Algorithm {
 
 		zp_  = new double[problem_.getNumberOfObjectives()]; // ideal point for Pareto-based population
 		nzp_ = new double[problem_.getNumberOfObjectives()]; // nadir point for Pareto-based population
+		referencePoints_ = new ReferencePoints(zp_, nzp_);
 
 		rankIdx_	   = new int[populationSize_][populationSize_];
 		subregionIdx_  = new int[populationSize_][populationSize_];
 		subregionDist_ = new double[populationSize_][populationSize_];
 
+		startTelemetry();
+
 		// STEP 1. Initialization
 		initUniformWeight();
 		initNeighborhood();
-		initPopulation();
-		initIdealPoint();
-		initNadirPoint();
+		normalizeWeights();
 
-		// initialize the distance
-		for (int i = 0; i < populationSize_; i++) {
-			double distance = calculateDistance2(population_.get(i), lambda_[i], zp_, nzp_);
-			subregionDist_[i][i] = distance;
-		}
+		int gen = 0;
+		Object resumeFrom = this.getInputParameter("resumeFrom");
+		if (resumeFrom != null) {
+			// The state of the generation saved in the checkpoint
+			gen = readCheckpoint(resumeFrom.toString());
+		} else {
+			initPopulation();
+			initIdealPoint();
+			initNadirPoint();
 
-		Ranking ranking = new Ranking(population_);
-		int curRank;
-		for (int i = 0; i < populationSize_; i++) {
-			curRank = population_.get(i).getRank();
-			rankIdx_[curRank][i] = 1;
+			// initialize the distance
+			for (int i = 0; i < populationSize_; i++) {
+				double distance = calculateDistance2(population_.get(i), lambda_[i]);
+				subregionDist_[i][i] = distance;
+			}
+
+			Ranking ranking = new Ranking(population_);
+			int curRank;
+			for (int i = 0; i < populationSize_; i++) {
+				curRank = population_.get(i).getRank();
+				rankIdx_[curRank][i] = 1;
+			}
 		}
+		checkpoints_ = CheckpointWriter.forAlgorithm(this);
 
-		int gen = 0;
 		// main procedure
-		do {
+		while (evaluations_ < maxEvaluations) {
 			int[] permutation = new int[populationSize_];
 			Utils.randomPermutation(permutation, populationSize_);
 
@@ -172,38 +191,125 @@ public class MOEADD extends Algorithm {
 
 				Solution[] parents   = new Solution[2];
 				Solution[] offSpring = new Solution[2];
+				telemetry_.begin(Telemetry.SELECTION);
 				parents = matingSelection(cid, type);
+				telemetry_.end(Telemetry.SELECTION);
 
 				// SBX crossover
+				telemetry_.begin(Telemetry.VARIATION);
 				offSpring = (Solution[]) crossover_.execute(parents);
 
 				// polynomial mutation
 				mutation_.execute(offSpring[0]);
 				mutation_.execute(offSpring[1]);
+				telemetry_.end(Telemetry.VARIATION);
 
 				// evaluation
+				telemetry_.begin(Telemetry.EVALUATION);
 				problem_.evaluate(offSpring[0]);
 				problem_.evaluate(offSpring[1]);
+				telemetry_.end(Telemetry.EVALUATION);
+				telemetry_.count(Telemetry.EVALUATIONS, 2);
 				evaluations_ += 2;
 
 				// update ideal points
-				updateReference(offSpring[0], zp_);
-				updateReference(offSpring[1], zp_);
+				telemetry_.begin(Telemetry.UPDATE);
+				updateReference(offSpring[0]);
+				updateReference(offSpring[1]);
 
 				// update nadir points
-				updateNadirPoint(offSpring[0], nzp_);
-				updateNadirPoint(offSpring[1], nzp_);
+				updateNadirPoint(offSpring[0]);
+				updateNadirPoint(offSpring[1]);
+				telemetry_.end(Telemetry.UPDATE);
 
+				telemetry_.begin(Telemetry.ARCHIVE);
 				updateArchive(offSpring[0]);
 				updateArchive(offSpring[1]);
+				telemetry_.end(Telemetry.ARCHIVE);
 			} // for			
 			++gen;
-			System.out.println(gen);
-		} while (evaluations_ < maxEvaluations);
+			telemetry_.endGeneration();
+			if ((checkpoints_ != null) && checkpoints_.isDue(gen))
+				writeCheckpoint(gen);
+		}
+		if (checkpoints_ != null) {
+			checkpoints_.close();
+			checkpoints_ = null;
+		}
+		stopTelemetry();
 
 		return population_;
 	}
 
+	/**
+	 * Save the state of the run at the end of a generation: population,
+	 * ideal and nadir points, non-domination levels, subregions, operators
+	 * and random generator. The file is written in the background.
+	 * 
+	 * @param gen
+	 */
+	void writeCheckpoint(int gen) throws JMException {
+		CheckpointOutput out = checkpoints_.begin("MOEADD");
+		out.section("parameters");
+		out.putInt(populationSize_);
+		out.putInt(problem_.getNumberOfObjectives());
+		out.putString(functionType_);
+		out.section("counters");
+		out.putInt(gen);
+		out.putInt(evaluations_);
+		out.section("population");
+		out.putSolutionSet(population_);
+		out.putDoubles(zp_);
+		out.putDoubles(nzp_);
+		out.section("structures");
+		out.putIntMatrix(rankIdx_);
+		out.putIntMatrix(subregionIdx_);
+		out.putDoubleMatrix(subregionDist_);
+		out.section("operators");
+		out.putOperator(crossover_);
+		out.putOperator(mutation_);
+		out.section("random generator");
+		out.putRandomGenerator();
+		checkpoints_.commit(out);
+	} // writeCheckpoint
+
+	/**
+	 * Restore the state saved by <code>writeCheckpoint</code>, in place of
+	 * the initialization of the population and of its structures
+	 * 
+	 * @param path
+	 * @return the number of generations done
+	 */
+	int readCheckpoint(String path) throws JMException {
+		CheckpointInput in = CheckpointInput.open(path, "MOEADD");
+		in.section("parameters");
+		in.checkInt(populationSize_, "population size");
+		in.checkInt(problem_.getNumberOfObjectives(), "number of objectives");
+		String functionType = in.getString();
+		if (!functionType.equals(functionType_))
+			throw new JMException(path + ": decomposition " + functionType
+					+ " instead of " + functionType_);
+		in.section("counters");
+		int gen = in.getInt();
+		evaluations_ = in.getInt();
+		in.section("population");
+		in.getSolutionSet(problem_, population_);
+		in.getDoubles(zp_);
+		in.getDoubles(nzp_);
+		referencePoints_.changed();
+		in.section("structures");
+		in.getIntMatrix(rankIdx_);
+		in.getIntMatrix(subregionIdx_);
+		in.getDoubleMatrix(subregionDist_);
+		in.section("operators");
+		in.getOperator(crossover_);
+		in.getOperator(mutation_);
+		in.section("random generator");
+		in.getRandomGenerator();
+		in.close();
+		return gen;
+	} // readCheckpoint
+
 	/**
 	 * Initialize the weight vectors for subproblems (We only use the data that
 	 * are already available)
@@ -214,27 +320,8 @@ public class MOEADD extends Algorithm {
 				+ populationSize_ + ".dat";
 
 		try {
-			// Open the file
-			FileInputStream fis = new FileInputStream(dataDirectory_ + "/"
-					+ dataFileName);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			int i = 0;
-			int j = 0;
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				j = 0;
-				while (st.hasMoreTokens()) {
-					double value = (new Double(st.nextToken())).doubleValue();
-					lambda_[i][j] = value;
-					j++;
-				}
-				aux = br.readLine();
-				i++;
-			}
-			br.close();
+			// Read the file (text or snapshot)
+			FrontReader.read(dataDirectory_ + "/" + dataFileName).copyTo(lambda_);
 		} catch (Exception e) {
 			System.out
 					.println("initUniformWeight: failed when reading for file: "
@@ -247,23 +334,19 @@ public class MOEADD extends Algorithm {
 	 * Initialize the neighborhood structure
 	 */
 	public void initNeighborhood() {
-		double[] x = new double[populationSize_];
-		int[] idx = new int[populationSize_];
+		new NeighborhoodBuilder(this).build(lambda_, neighborhood_);
+	} // initNeighborhood
 
+	/**
+	 * Scale the weight vectors to norm 1, once the neighborhoods are built
+	 */
+	void normalizeWeights() {
 		for (int i = 0; i < populationSize_; i++) {
-			// calculate the distances based on weight vectors
-			for (int j = 0; j < populationSize_; j++) {
-				x[j] = Utils.distVector(lambda_[i], lambda_[j]);
-				idx[j] = j;
-			} // for
-
-			// find 'niche' nearest neighboring subproblems
-			Utils.minFastSort(x, idx, populationSize_, T_);
-			for (int k = 0; k < T_; k++) {
-				neighborhood_[i][k] = idx[k];
-			}
-		} // for
-	} // initNeighborhood
+			double nd = norm_vector(lambda_[i]);
+			for (int j = 0; j < problem_.getNumberOfObjectives(); j++)
+				lambda_[i][j] = lambda_[i][j] / nd;
+		}
+	} // normalizeWeights
 
 	/**
 	 * Initialize the population
@@ -274,7 +357,10 @@ public class MOEADD extends Algorithm {
 	public void initPopulation() throws JMException, ClassNotFoundException {
 		for (int i = 0; i < populationSize_; i++) {
 			Solution newSolution = new Solution(problem_);
+			telemetry_.begin(Telemetry.EVALUATION);
 			problem_.evaluate(newSolution);
+			telemetry_.end(Telemetry.EVALUATION);
+			telemetry_.count(Telemetry.EVALUATIONS);
 			evaluations_++;
 			population_.add(newSolution);
 			subregionIdx_[i][i] = 1;
@@ -288,11 +374,9 @@ public class MOEADD extends Algorithm {
 	 * @throws ClassNotFoundException
 	 */
 	void initIdealPoint() throws JMException, ClassNotFoundException {
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			zp_[i] = 1.0e+30;
-
+		referencePoints_.resetIdealPoint();
 		for (int i = 0; i < populationSize_; i++)
-			updateReference(population_.get(i), zp_);
+			updateReference(population_.get(i));
 	} // initIdealPoint
 
 	/**
@@ -302,11 +386,9 @@ public class MOEADD extends Algorithm {
 	 * @throws ClassNotFoundException
 	 */
 	void initNadirPoint() throws JMException, ClassNotFoundException {
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			nzp_[i] = -1.0e+30;
-
+		referencePoints_.resetNadirPoint();
 		for (int i = 0; i < populationSize_; i++)
-			updateNadirPoint(population_.get(i), nzp_);
+			updateNadirPoint(population_.get(i));
 	} // initNadirPoint
 
 	/**
@@ -314,12 +396,8 @@ public class MOEADD extends Algorithm {
 	 * 
 	 * @param indiv
 	 */
-	void updateReference(Solution indiv, double[] z_) {
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-			if (indiv.getObjective(i) < z_[i]) {
-				z_[i] = indiv.getObjective(i);
-			}
-		}
+	void updateReference(Solution indiv) {
+		referencePoints_.updateIdealPoint(indiv);
 	} // updateReference
 
 	/**
@@ -327,20 +405,17 @@ public class MOEADD extends Algorithm {
 	 * 
 	 * @param indiv
 	 */
-	void updateNadirPoint(Solution indiv, double[] nz_) {
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-			if (indiv.getObjective(i) > nz_[i])
-				nz_[i] = indiv.getObjective(i);
-		}
+	void updateNadirPoint(Solution indiv) {
+		referencePoints_.updateNadirPoint(indiv);
 	} // updateNadirPoint
 	
+	/**
+	 * Recompute the nadir point from the current population, which may have
+	 * lost the worst solutions
+	 */
 	void RefreshNadirPoint() throws JMException, ClassNotFoundException {
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			nzp_[i] = -1.0e+30;
-			
-		for (int i = 0; i < populationSize_; i++)			
-			updateNadirPoint(population_.get(i), nzp_);
-	} // initNadirPoint
+		referencePoints_.refreshNadirPoint(population_, populationSize_);
+	} // RefreshNadirPoint
 
 	/**
 	 * Select two parents for reproduction
@@ -439,10 +514,14 @@ public class MOEADD extends Algorithm {
 	public void updateArchive(Solution indiv) {
 
 		// find the location of 'indiv'
-		setLocation(indiv, zp_, nzp_);
+		telemetry_.begin(Telemetry.ASSOCIATION);
+		setLocation(indiv);
+		telemetry_.end(Telemetry.ASSOCIATION);
 		int location = indiv.readRegion();
 		
+		telemetry_.begin(Telemetry.RANKING);
 		numRanks = nondominated_sorting_add(indiv);
+		telemetry_.end(Telemetry.RANKING);
 		
 		if (numRanks == 1) {
 			deleteRankOne(indiv, location);
@@ -489,6 +568,7 @@ public class MOEADD extends Algorithm {
 					Solution targetSol = new Solution(population_.get(targetIdx));
 					
 					population_.replace(targetIdx, indiv);
+					telemetry_.count(Telemetry.REPLACEMENTS);
 					subregionIdx_[parentLocation][targetIdx] = 0;
 					subregionIdx_[location][targetIdx]  	    = 1;
 					
@@ -594,6 +674,7 @@ public class MOEADD extends Algorithm {
 							Solution targetSol = new Solution(population_.get(idxArray[targetIdx]));
 							
 							population_.replace(idxArray[targetIdx], indiv);
+							telemetry_.count(Telemetry.REPLACEMENTS);
 							subregionIdx_[crowdIdx][idxArray[targetIdx]] = 0;
 							subregionIdx_[location][idxArray[targetIdx]] = 1;
 							
@@ -1047,6 +1128,7 @@ public class MOEADD extends Algorithm {
 		Solution targetSol = new Solution(population_.get(targetIdx));
 		
 		population_.replace(targetIdx, indiv);
+		telemetry_.count(Telemetry.REPLACEMENTS);
 		subregionIdx_[crowdIdx][targetIdx] = 0;
 		subregionIdx_[location][targetIdx] = 1;
 		
@@ -1176,6 +1258,7 @@ public class MOEADD extends Algorithm {
 			Solution targetSol = new Solution(population_.get(targetIdx));
 			
 			population_.replace(targetIdx, indiv);
+			telemetry_.count(Telemetry.REPLACEMENTS);
 			subregionIdx_[crowdIdx][targetIdx] = 0;
 			subregionIdx_[location][targetIdx] = 1;
 			
@@ -1250,6 +1333,7 @@ public class MOEADD extends Algorithm {
 			double prev_func = fitnessFunction(population_.get(targetIdx), lambda_[location]);
 			if (indivFitness < prev_func)
 				population_.replace(targetIdx, indiv);
+				telemetry_.count(Telemetry.REPLACEMENTS);
 		} else {
 			if (location == crowdIdx) {	// if indiv's subregion is the most crowded one
 				deleteCrowdIndiv_same(location, nicheCount, indivFitness, indiv);
@@ -1327,6 +1411,7 @@ public class MOEADD extends Algorithm {
 		// if indiv has a better fitness, use indiv to replace the worst one
 		if (indivFitness < maxFitness)
 			population_.replace(worstIdx, indiv);
+			telemetry_.count(Telemetry.REPLACEMENTS);
 	}
 	
 	/**
@@ -1360,6 +1445,7 @@ public class MOEADD extends Algorithm {
 		
 		// use indiv to replace the worst one
 		population_.replace(worstIdx, indiv);
+		telemetry_.count(Telemetry.REPLACEMENTS);
 		subregionIdx_[crowdIdx][worstIdx]    = 0;
 		subregionIdx_[curLocation][worstIdx] = 1;
 		
@@ -1433,16 +1519,16 @@ public class MOEADD extends Algorithm {
 	 * 
 	 * @param indiv
 	 */
-	public void setLocation(Solution indiv, double[] z_, double[] nz_) {
+	public void setLocation(Solution indiv) {
 
 		int minIdx;
 		double distance, minDist;
 
 		minIdx   = 0;
-		distance = calculateDistance2(indiv, lambda_[0], z_, nz_);
+		distance = calculateDistance2(indiv, lambda_[0]);
 		minDist  = distance;
 		for (int i = 1; i < populationSize_; i++) {
-			distance = calculateDistance2(indiv, lambda_[i], z_, nz_);
+			distance = calculateDistance2(indiv, lambda_[i]);
 			if (distance < minDist) {
 				minIdx  = i;
 				minDist = distance;
@@ -1520,32 +1606,26 @@ public class MOEADD extends Algorithm {
 		return distance;
 	}
 
-	public double calculateDistance2(Solution indiv, double[] lambda,
-			double[] z_, double[] nz_) {
-
-		// normalize the weight vector (line segment)
-		double nd = norm_vector(lambda);
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			lambda[i] = lambda[i] / nd;
-
-		double[] realA = new double[problem_.getNumberOfObjectives()];
-		double[] realB = new double[problem_.getNumberOfObjectives()];
-
-		// difference between current point and reference point
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			realA[i] = (indiv.getObjective(i) - z_[i]);
+	/**
+	 * Calculate the perpendicular distance between a solution, translated by
+	 * the ideal point, and the line of a weight vector (of norm 1, see
+	 * <code>normalizeWeights</code>). The translated objectives and their norm
+	 * are cached on the solution by <code>referencePoints_</code>, so the
+	 * distance to each weight vector only takes a dot product.
+	 * 
+	 * @param indiv
+	 * @param lambda
+	 * @return
+	 */
+	public double calculateDistance2(Solution indiv, double[] lambda) {
+		double[] realA = referencePoints_.translatedObjectives(indiv);
 
 		// distance along the line segment
 		double d1 = Math.abs(innerproduct(realA, lambda));
 
 		// distance to the line segment
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			realB[i] = (indiv.getObjective(i) - (z_[i] + d1 * lambda[i]));
-
-		double distance = norm_vector(realB);
-
-		return distance;
-	}
+		return Math.sqrt(Math.max(indiv.getNormalizedNorm2() - d1 * d1, 0.0));
+	} // calculateDistance2
 	
 	/**
 	 * Calculate the dot product of two vectors
@@ -38,16 +38,10 @@
  
 package jmetal.metaheuristics.moead;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.StringTokenizer;
 import jmetal.util.*;
 
 import java.util.Vector;
@@ -55,12 +49,20 @@ import java.util.Vector;
 import jmetal.core.*;
 import jmetal.util.PseudoRandom;
 import jmetal.util.wrapper.XReal;
+import jmetal.operators.crossover.DEStrategy;
+import jmetal.operators.crossover.DifferentialEvolutionCrossover;
+import jmetal.util.offspring.FRRMABSelection;
+import jmetal.util.snapshot.CheckpointInput;
+import jmetal.util.snapshot.CheckpointOutput;
+import jmetal.util.snapshot.CheckpointWriter;
+import jmetal.util.snapshot.FrontReader;
+import jmetal.util.telemetry.Telemetry;
 
 public class MOEADDRA_MAB extends Algorithm {
 
 	private int         populationSize_;
 	private SolutionSet population_;  // Population repository
-	private Solution[]  savedValues_; // Individual repository
+	private UtilityScheduler scheduler_; // Utilities and saved objective values
 	
 	double[][] lambda_;       		  // Lambda vectors
 	int[][]    neighborhood_; 		  // Neighborhood matrix
@@ -76,7 +78,6 @@ public class MOEADDRA_MAB extends Algorithm {
 	int evaluations_; 				  // Counter for the number of function evaluations
 	
 	private int[]    frequency_;
-	private double[] utility_;
 	
 	String     functionType_;
 	Solution[] indArray_;
@@ -85,26 +86,34 @@ public class MOEADDRA_MAB extends Algorithm {
 	Operator crossover_;
 	Operator mutation_;
 	
+	DEStrategy[] strategies_;		  // DE operators, indexed by strategy_flag - 1
+	Solution[]   parents_;			  // Parents of the current child
+
+	// Buffers of the main loop, reused for every offspring
+	private int[]      permutation_;  // Order of the subproblems
+	private int[]      perm_;		  // Order of the subproblems to update
+	private boolean[]  flag_;		  // Scratch array of Utils.randomPermutation
+	private int[]      matingIndex_;  // Indexes of the mating parents
+	private Solution   child_;		  // Offspring, rewritten by the DE operators
+	private SolutionPool pool_;		  // Replaced solutions, rewritten by the next copies
+	private CheckpointWriter checkpoints_; // null: no checkpoints
+	
 	/* AOS related parameters */
-	int curSize_;					  // Current window size
 	int windowSize_;				  // Length of the sliding window
 	int numStrategies_; 			  // Number of operators
 	
-	int[] rank_;					  // Rank values of operators
-	int[] strategyUsgae_;			  // Number of usages of operators
 	int[] strategySelected_;		  // Indexes of the selected operators
 	
 	double scale_;					  // Scale factor to control the Exploration vs. Exploitation in FRRMAB model
 	double decayFactor_;			  // Decay factor
 	
-	SlidingWindow slideWin_;
+	FRRMABSelection aos_;			  // FRRMAB model (sliding window and credits)
+	
+	// Uniform choice of the operators until each one has been drawn
+	int flag1_, flag2_, flag3_, flag4_;
+	int uniformFlag_, preFlag_, latterFlag_;
 	
-	double[] reward_;				  // Rewards of the applied operators
-	double[] quality_;				  // Quality of the applied operators
-	double[] decayReward_;			  // Decayed reward values
-	double[] probability_;			  // Selection probability
 	double[] improvement_;			  // Fitness improvement of each offspring
-	double[][] slidingWindow_;		  // Sliding window
 
 	/**
 	 * Constructor
@@ -125,11 +134,8 @@ public class MOEADDRA_MAB extends Algorithm {
 		int cur_id;
 		int strategy_flag;
 
-		int flag1, flag2, flag3, flag4;
-		int uniform_flag, pre_flag, latter_flag;
-
-		flag1 = flag2 = flag3 = flag4 = -1;
-		uniform_flag = pre_flag = latter_flag = -1;
+		flag1_ = flag2_ = flag3_ = flag4_ = -1;
+		uniformFlag_ = preFlag_ = latterFlag_ = -1;
 
 		evaluations_ = 0;
 		
@@ -140,11 +146,11 @@ public class MOEADDRA_MAB extends Algorithm {
 		dataDirectory_ = this.getInputParameter("dataDirectory").toString();
 
 		population_  = new SolutionSet(populationSize_);
-		savedValues_ = new Solution[populationSize_];
-		utility_     = new double[populationSize_];
+		scheduler_ = new UtilityScheduler(populationSize_,
+				problem_.getNumberOfObjectives(),
+				Boolean.TRUE.equals(this.getInputParameter("prioritySelection")));
 		frequency_   = new int[populationSize_];
-		for (int i = 0; i < utility_.length; i++) {
-			utility_[i] = 1.0;
+		for (int i = 0; i < populationSize_; i++) {
 			frequency_[i] = 0;
 		}
 		indArray_ = new Solution[problem_.getNumberOfObjectives()];
@@ -156,7 +162,6 @@ public class MOEADDRA_MAB extends Algorithm {
 		scale_       = 5.0;
 		decayFactor_ = 1.0;
 		windowSize_  = (int) (0.5 * populationSize_);
-		curSize_     = 0;
 				
 		neighborhood_ = new int[populationSize_][T_];
 		z_            = new double[problem_.getNumberOfObjectives()];
@@ -166,36 +171,40 @@ public class MOEADDRA_MAB extends Algorithm {
 		/* AOS parameters initialization */
 		numStrategies_ = 4;
 
-		strategyUsgae_    = new int[numStrategies_];
 		strategySelected_ = new int[populationSize_];
-		reward_           = new double[numStrategies_];
-		quality_          = new double[numStrategies_];
 		improvement_      = new double[populationSize_];
-		probability_      = new double[numStrategies_];
-
-		rank_          = new int[numStrategies_];
-		decayReward_   = new double[numStrategies_];
-		slidingWindow_ = new double[2][windowSize_];
-		slideWin_      = new SlidingWindow(windowSize_);
 
-		for (int i = 0; i < numStrategies_; i++) {
-			rank_[i]        = 0;
-			decayReward_[i] = 0.0;
-		}
-		for (int i = 0; i < windowSize_; i++) {
-			slidingWindow_[0][i] = -1;
-			slidingWindow_[1][i] = -1;
-		}
-
-		/* Initialize the Adaptive system related arrays */
-		initParameter(probability_, quality_, reward_);
+		aos_ = new FRRMABSelection(numStrategies_, windowSize_, decayFactor_, scale_);
 		
 		/* Default: DE crossover */
 		crossover_ = operators_.get("crossover");
+		if (!(crossover_ instanceof DifferentialEvolutionCrossover)) {
+			Configuration.logger_.severe("MOEADDRA_MAB.execute: the crossover " +
+					"operator must be a DifferentialEvolutionCrossover");
+			throw new JMException("Exception in MOEADDRA_MAB.execute()");
+		}
+
+		/* The operators of the bandit, built once from the CR, F and K of crossover_ */
+		DifferentialEvolutionCrossover de = (DifferentialEvolutionCrossover) crossover_;
+		strategies_ = new DEStrategy[] {
+				de.getStrategy("rand/1/bin"),
+				de.getStrategy("current/2/bin"),
+				de.getStrategy("current-to-rand/2/bin"),
+				de.getStrategy("current-to-rand/1/bin") };
+		parents_ = new Solution[5];
+
+		permutation_ = new int[populationSize_];
+		perm_        = new int[populationSize_];
+		flag_        = new boolean[populationSize_];
+		matingIndex_ = new int[parents_.length];
+		child_       = null;
+		pool_        = new SolutionPool(nr_);
 		
 		/* Default: Polynomial mutation */
 		mutation_ = operators_.get("mutation");
 
+		startTelemetry();
+
 		/** 
 		 * STEP 1: Initialization 
 		 */		
@@ -203,100 +212,178 @@ public class MOEADDRA_MAB extends Algorithm {
 		initUniformWeight();
 		initNeighborhood();
 
-		/* STEP 1.2: Initialize population */
-		initPopulation();
-
-		/* STEP 1.3: Initialize z_ */
-		initIdealPoint();
-
 		int gen = 0;
+		Object resumeFrom = this.getInputParameter("resumeFrom");
+		if (resumeFrom != null) {
+			/* The state of the generation saved in the checkpoint */
+			gen = readCheckpoint(resumeFrom.toString());
+		} else {
+			/* STEP 1.2: Initialize population */
+			initPopulation();
+
+			/* STEP 1.3: Initialize z_ */
+			initIdealPoint();
+		}
+		checkpoints_ = CheckpointWriter.forAlgorithm(this);
 		
 		/** 
 		 * STEP 2: Update Procedure
 		 */
-		do {
+		while (evaluations_ < maxEvaluations) {
 			for (int i = 0; i < populationSize_; i++) {
 				improvement_[i] = 0.0;
 			}
 
-			int[] permutation = new int[populationSize_];
-			Utils.randomPermutation(permutation, populationSize_);
-			List<Integer> order = tour_selection(10);
+			Utils.randomPermutation(permutation_, populationSize_, flag_);
+			telemetry_.begin(Telemetry.SELECTION);
+			int[] order = tour_selection(10);
+			telemetry_.end(Telemetry.SELECTION);
 
-			for (int i = 0; i < order.size(); i++) {
-				cur_id = order.get(i);
+			for (int i = 0; i < order.length; i++) {
+				cur_id = order[i];
 				frequency_[cur_id]++;
 
-				if (uniform_flag == -1) {
+				if (uniformFlag_ == -1) {
 					strategy_flag = (int) Math.ceil(PseudoRandom.randDouble(
 							0.0, 1.0) * numStrategies_);
 					switch (strategy_flag) {
 					case 1:
-						flag1 = 1;
+						flag1_ = 1;
 						break;
 					case 2:
-						flag2 = 1;
+						flag2_ = 1;
 						break;
 					case 3:
-						flag3 = 1;
+						flag3_ = 1;
 						break;
 					case 4:
-						flag4 = 1;
+						flag4_ = 1;
 						break;
 					}
 
-					if (flag1 == 1 && flag2 == 1) {
-						pre_flag = 1;
+					if (flag1_ == 1 && flag2_ == 1) {
+						preFlag_ = 1;
 					}
-					if (flag3 == 1 && flag4 == 1) {
-						latter_flag = 1;
+					if (flag3_ == 1 && flag4_ == 1) {
+						latterFlag_ = 1;
 					}
-					if (pre_flag == 1 && latter_flag == 1) {
-						uniform_flag = 1;
+					if (preFlag_ == 1 && latterFlag_ == 1) {
+						uniformFlag_ = 1;
 					}
 				} else {
-					strategy_flag = AdaptiveModule.FRRMAB(quality_,
-							decayReward_, strategyUsgae_, numStrategies_,
-							scale_);
+					telemetry_.begin(Telemetry.SELECTION);
+					strategy_flag = aos_.select() + 1;
+					telemetry_.end(Telemetry.SELECTION);
 				}
 				strategySelected_[i] = strategy_flag;
 
 				matingEvolution(strategy_flag, cur_id);
 
-				Refreshment(strategyUsgae_, reward_, decayReward_,
-						numStrategies_);
-
-				Window current_element;
-
-				current_element = new Window();
-				current_element.setIndex(strategy_flag);
-				current_element.setFitness(improvement_[cur_id]);
-
-				if (curSize_ < windowSize_) {
-					slideWin_.add(current_element);
-					curSize_++;
-				} else {
-					slideWin_.remove(0);
-					slideWin_.add(current_element);
-				}
-				slideWin_.readSlidingWindow(slidingWindow_);
-
-				AdaptiveModule.update_rewards(slidingWindow_, reward_,
-						strategyUsgae_, curSize_);
-				AdaptiveModule.Rank_rewards(reward_, numStrategies_, rank_);
-				AdaptiveModule.CreaditAssignmentDecay(reward_, decayReward_,
-						numStrategies_, rank_, decayFactor_);
+				/* Credit assignment */
+				telemetry_.begin(Telemetry.UPDATE);
+				aos_.update(strategy_flag - 1, improvement_[cur_id]);
+				telemetry_.end(Telemetry.UPDATE);
 			} // for
 
 			gen++;
 			if (gen % 50 == 0) {
+				telemetry_.begin(Telemetry.UPDATE);
 				comp_utility();
+				telemetry_.end(Telemetry.UPDATE);
 			}
-		} while (evaluations_ < maxEvaluations);
+			telemetry_.endGeneration();
+			if ((checkpoints_ != null) && checkpoints_.isDue(gen))
+				writeCheckpoint(gen);
+		}
+		if (checkpoints_ != null) {
+			checkpoints_.close();
+			checkpoints_ = null;
+		}
+		stopTelemetry();
 
 		return population_;
 	}
 
+	/**
+	 * Save the state of the run at the end of a generation: population,
+	 * ideal point, utilities, selection frequencies, bandit (warm-up flags,
+	 * sliding window and credits), operators and random generator. The file
+	 * is written in the background.
+	 * 
+	 * @param gen : number of generations done
+	 */
+	void writeCheckpoint(int gen) throws JMException {
+		CheckpointOutput out = checkpoints_.begin("MOEADDRA_MAB");
+		out.section("parameters");
+		out.putInt(populationSize_);
+		out.putInt(problem_.getNumberOfObjectives());
+		out.putString(functionType_);
+		out.section("counters");
+		out.putInt(gen);
+		out.putInt(evaluations_);
+		out.section("population");
+		out.putSolutionSet(population_);
+		out.putDoubles(z_);
+		out.section("utilities");
+		scheduler_.writeState(out);
+		out.putInts(frequency_);
+		out.section("bandit");
+		out.putInts(new int[] { flag1_, flag2_, flag3_, flag4_,
+				uniformFlag_, preFlag_, latterFlag_ });
+		aos_.writeState(out);
+		out.section("operators");
+		out.putOperator(crossover_);
+		out.putOperator(mutation_);
+		out.section("random generator");
+		out.putRandomGenerator();
+		checkpoints_.commit(out);
+	} // writeCheckpoint
+
+	/**
+	 * Restore the state saved by <code>writeCheckpoint</code>, in place of
+	 * the initialization of the population and of the ideal point
+	 * 
+	 * @param path : the checkpoint file
+	 * @return the number of generations done
+	 */
+	int readCheckpoint(String path) throws JMException {
+		CheckpointInput in = CheckpointInput.open(path, "MOEADDRA_MAB");
+		in.section("parameters");
+		in.checkInt(populationSize_, "population size");
+		in.checkInt(problem_.getNumberOfObjectives(), "number of objectives");
+		String functionType = in.getString();
+		if (!functionType.equals(functionType_))
+			throw new JMException(path + ": decomposition " + functionType
+					+ " instead of " + functionType_);
+		in.section("counters");
+		int gen = in.getInt();
+		evaluations_ = in.getInt();
+		in.section("population");
+		in.getSolutionSet(problem_, population_);
+		in.getDoubles(z_);
+		in.section("utilities");
+		scheduler_.readState(in);
+		in.getInts(frequency_);
+		in.section("bandit");
+		int[] flags = new int[7];
+		in.getInts(flags);
+		flag1_       = flags[0];
+		flag2_       = flags[1];
+		flag3_       = flags[2];
+		flag4_       = flags[3];
+		uniformFlag_ = flags[4];
+		preFlag_     = flags[5];
+		latterFlag_  = flags[6];
+		aos_.readState(in);
+		in.section("operators");
+		in.getOperator(crossover_);
+		in.getOperator(mutation_);
+		in.section("random generator");
+		in.getRandomGenerator();
+		in.close();
+		return gen;
+	} // readCheckpoint
+
 	/**
 	 * Initialize the weight vectors, this function only can read from the 
 	 * existing data file, instead of generating itself.
@@ -308,27 +395,8 @@ public class MOEADDRA_MAB extends Algorithm {
 				+ populationSize_ + ".dat";
 
 		try {
-			// Open the file
-			FileInputStream fis = new FileInputStream(dataDirectory_ + "/"
-					+ dataFileName);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			int i = 0;
-			int j = 0;
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				j = 0;
-				while (st.hasMoreTokens()) {
-					double value = (new Double(st.nextToken())).doubleValue();
-					lambda_[i][j] = value;
-					j++;
-				}
-				aux = br.readLine();
-				i++;
-			}
-			br.close();
+			// Read the file (text or snapshot)
+			FrontReader.read(dataDirectory_ + "/" + dataFileName).copyTo(lambda_);
 		} catch (Exception e) {
 			System.out
 					.println("initUniformWeight: failed when reading for file: "
@@ -346,16 +414,16 @@ public class MOEADDRA_MAB extends Algorithm {
 
 		for (int i = 0; i < populationSize_; i++) {
 			f1 = fitnessFunction(population_.get(i), lambda_[i]);
-			f2 = fitnessFunction(savedValues_[i], lambda_[i]);
+			f2 = fitnessFunction(scheduler_.getSavedObjectives(i), lambda_[i]);
 
 			delta = (f2 - f1) / f2;
 			if (delta > 0.001)
-				utility_[i] = 1.0;
+				scheduler_.setUtility(i, 1.0);
 			else {
-				uti = 0.95 * (1.0 + delta / 0.001) * utility_[i];
-				utility_[i] = uti < 1.0 ? uti : 1.0;
+				uti = 0.95 * (1.0 + delta / 0.001) * scheduler_.getUtility(i);
+				scheduler_.setUtility(i, uti < 1.0 ? uti : 1.0);
 			}
-			savedValues_[i] = new Solution(population_.get(i));
+			scheduler_.saveObjectives(i, population_.get(i));
 		}
 	}
 
@@ -365,22 +433,7 @@ public class MOEADDRA_MAB extends Algorithm {
 	 * 
 	 */
 	public void initNeighborhood() {
-		int[] idx  = new int[populationSize_];
-		double[] x = new double[populationSize_];
-
-		for (int i = 0; i < populationSize_; i++) {
-			/* calculate the distances based on weight vectors */
-			for (int j = 0; j < populationSize_; j++) {
-				x[j] = Utils.distVector(lambda_[i], lambda_[j]);
-				idx[j] = j;
-			}
-			/* find 'niche' nearest neighboring subproblems */
-			Utils.minFastSort(x, idx, populationSize_, T_);
-
-			for (int k = 0; k < T_; k++) {
-				neighborhood_[i][k] = idx[k];
-			}
-		}
+		new NeighborhoodBuilder(this).build(lambda_, neighborhood_);
 	} // initNeighborhood
 
 	/**
@@ -393,10 +446,13 @@ public class MOEADDRA_MAB extends Algorithm {
 		for (int i = 0; i < populationSize_; i++) {
 			Solution newSolution = new Solution(problem_);
 
+			telemetry_.begin(Telemetry.EVALUATION);
 			problem_.evaluate(newSolution);
+			telemetry_.end(Telemetry.EVALUATION);
+			telemetry_.count(Telemetry.EVALUATIONS);
 			evaluations_++;
 			population_.add(newSolution);
-			savedValues_[i] = new Solution(newSolution);
+			scheduler_.saveObjectives(i, newSolution);
 		}
 	} // initPopulation
 
@@ -452,41 +508,54 @@ public class MOEADDRA_MAB extends Algorithm {
 	} // matingSelection
 
 	/**
-	 * Tournament selection
+	 * Select the mating parents, depending on the selection 'type', as
+	 * <code>matingSelection(Vector, int, int, int)</code> does but without
+	 * allocating anything
 	 * 
-	 * @param depth: tournament size
-	 * @return
+	 * @param list : array receiving the indexes of the selected mating parents
+	 * @param cid  : the id of current subproblem
+	 * @param size : the number of selected mating parents
+	 * @param type : 1 - neighborhood; otherwise - whole population
 	 */
-	public List<Integer> tour_selection(int depth) {
-
-		// selection based on utility
-		List<Integer> selected = new ArrayList<Integer>();
-		List<Integer> candidate = new ArrayList<Integer>();
-
-		for (int k = 0; k < problem_.getNumberOfObjectives(); k++)
-			selected.add(k); // select first m weights
-		for (int n = problem_.getNumberOfObjectives(); n < populationSize_; n++)
-			candidate.add(n); // set of unselected weights
-
-		while (selected.size() < (int) (populationSize_ / 5.0)) {
-			int best_idd = (int) (PseudoRandom.randDouble() * candidate.size());
-			int i2;
-			int best_sub = candidate.get(best_idd);
-			int s2;
-			for (int i = 1; i < depth; i++) {
-				i2 = (int) (PseudoRandom.randDouble() * candidate.size());
-				s2 = candidate.get(i2);
-				
-				if (utility_[s2] > utility_[best_sub]) {
-					best_idd = i2;
-					best_sub = s2;
+	public void matingSelection(int[] list, int cid, int size, int type) {
+		int ss;
+		int r;
+		int p;
+
+		ss = neighborhood_[cid].length;
+		int selected = 0;
+		while (selected < size) {
+			if (type == 1) {
+				r = PseudoRandom.randInt(0, ss - 1);
+				p = neighborhood_[cid][r];
+			} else {
+				p = PseudoRandom.randInt(0, populationSize_ - 1);
+			}
+			boolean flag = true;
+			for (int i = 0; i < selected; i++) {
+				if (list[i] == p) // p is in the list
+				{
+					flag = false;
+					break;
 				}
 			}
-			selected.add(best_sub);
-			candidate.remove(best_idd);
+
+			if (flag) {
+				list[selected] = p;
+				selected++;
+			}
 		}
-		return selected;
-	}
+	} // matingSelection
+
+	/**
+	 * Tournament selection
+	 * 
+	 * @param depth: tournament size
+	 * @return
+	 */
+	public int[] tour_selection(int depth) {
+		return scheduler_.select(depth);
+	} // tour_selection
 
 	/**
 	 * Update the current ideal point
@@ -528,7 +597,7 @@ public class MOEADDRA_MAB extends Algorithm {
 	 * @param lambda:     weight vector
 	 * @return
 	 */
-	double fitnessFunction(Solution individual, double[] lambda) {
+	double fitnessFunction(double[] objectives, double[] lambda) {
 		double fitness;
 		fitness = 0.0;
 
@@ -536,7 +605,7 @@ public class MOEADDRA_MAB extends Algorithm {
 			double maxFun = -1.0e+30;
 
 			for (int n = 0; n < problem_.getNumberOfObjectives(); n++) {
-				double diff = Math.abs(individual.getObjective(n) - z_[n]);
+				double diff = Math.abs(objectives[n] - z_[n]);
 
 				double feval;
 				if (lambda[n] == 0) {
@@ -554,7 +623,7 @@ public class MOEADDRA_MAB extends Algorithm {
 			double maxFun = -1.0e+30;
 
 			for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-				double diff = Math.abs(individual.getObjective(i) - z_[i]);
+				double diff = Math.abs(objectives[i] - z_[i]);
 
 				double feval;
 				if (lambda[i] == 0) {
@@ -582,14 +651,14 @@ public class MOEADDRA_MAB extends Algorithm {
 
 			// difference between current point and reference point
 			for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
-				realA[n] = (individual.getObjective(n) - z_[n]);
+				realA[n] = (objectives[n] - z_[n]);
 
 			// distance along the line segment
 			double d1 = Math.abs(innerproduct(realA, lambda));
 
 			// distance to the line segment
 			for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
-				realB[n] = (individual.getObjective(n) - (z_[n] + d1
+				realB[n] = (objectives[n] - (z_[n] + d1
 						* lambda[n]));
 			double d2 = norm_vector(realB);
 
@@ -601,45 +670,11 @@ public class MOEADDRA_MAB extends Algorithm {
 		}
 		return fitness;
 	} // fitnessEvaluation
-	
-	/**
-	 * Initialize the parameter of the AOS module
-	 * 
-	 * @param probability: selection probability of each operator
-	 * @param quality:     quality of each operator
-	 * @param reward:      reward values of each operator
-	 */
-	public void initParameter(double[] probability, double[] quality,
-			double[] reward) {
-		int i;
-
-		for (i = 0; i < numStrategies_; i++) {
-			probability[i] = 1.0 / (double) (numStrategies_);
-			quality[i] = 0.0;
-			reward[i] = 0.0;
-			strategyUsgae_[i] = 0;
-		}
-	} // AOS parameters initialization
-
-	/**
-	 * Refresh the related ingredients of the FRRMAB model
-	 * 
-	 * @param strategyUsage: number of usages for each operator
-	 * @param rewards:       reward values for each operator
-	 * @param decayRewards:  decayed reward values
-	 * @param numStrategies: number of operators
-	 */
-	public void Refreshment(int[] strategyUsage, double[] rewards,
-			double[] decayRewards, int numStrategies) {
-		int i;
-
-		for (i = 0; i < numStrategies; i++) {
-			strategyUsage[i] = 0;
-			decayRewards[i] = 0.0;
-			rewards[i] = 0.0;
-		}
-	}
 
+	double fitnessFunction(Solution individual, double[] lambda) {
+		return fitnessFunction(individual.getObjectives(), lambda);
+	} // fitnessFunction
+	
 	/**
 	 * Main function for offspring generation
 	 * 
@@ -652,10 +687,7 @@ public class MOEADDRA_MAB extends Algorithm {
 		int type;
 		double rnd;
 		
-		Solution child = null;
-		Solution[] parents;
-
-		Vector<Integer> p = new Vector<Integer>();
+		Solution child;
 
 		rnd = PseudoRandom.randDouble();
 		/* STEP 2.1: Mating selection based on probability */
@@ -665,158 +697,49 @@ public class MOEADDRA_MAB extends Algorithm {
 			type = 2; // whole population
 		}
 
-		switch (strategySelected) {
-		case 1:
-			/**
-			 * DE/rand/1/bin: u = x1 + F * (x2 - x3)
-			 */
-			matingSize_ = 3;
-			matingSelection(p, cur_id, matingSize_, type);
-
-			/* STEP 2.2: Reproduction */
-			parents = new Solution[3];
-
-			parents[0] = population_.get(p.get(0));
-			parents[1] = population_.get(p.get(1));
-			parents[2] = population_.get(p.get(2));
-
-			crossover_.setParameter("DE_VARIANT", "rand/1/bin");
-			/* Apply DE operator */
-			child = (Solution) crossover_.execute(new Object[] {
-					population_.get(cur_id), parents });
-
-			/* Apply mutation */
-			mutation_.execute(child);
-
-			/* Function evaluation */
-			problem_.evaluate(child);
-			evaluations_++;
-
-			/* STEP 2.3: Repair. Not necessary */
-
-			/* STEP 2.4: Update ideal point z_ */
-			updateReference(child);
-
-			/* STEP 2.5: Update the current subproblem */
-			updateProblemOrigin(child, cur_id, type);
-
-			p.clear();
-			break;
-		case 2:
-			/** 
-			 * DE/rand/2/bin: u = xi + F * (x1 - x2) + F * (x3 - x4) 
-			 */
-			matingSize_ = 4;
-			matingSelection(p, cur_id, matingSize_, type);
-
-			/* STEP 2.2: Reproduction */
-			parents = new Solution[5];
-
-			parents[0] = population_.get(p.get(0));
-			parents[1] = population_.get(p.get(1));
-			parents[2] = population_.get(p.get(2));
-			parents[3] = population_.get(p.get(3));
-			parents[4] = population_.get(cur_id);
-
-			crossover_.setParameter("DE_VARIANT", "DE/rand/2/bin");
-			/* Apply DE operator */
-			child = (Solution) crossover_.execute_5(new Object[] {
-					population_.get(cur_id), parents });
-
-			/* Apply mutation */
-			mutation_.execute(child);
-
-			/* Function evaluation */
-			problem_.evaluate(child);
-			evaluations_++;
-
-			/* STEP 2.3: Repair. Not necessary */
-
-			/* STEP 2.4: Update ideal point z_ */
-			updateReference(child);
-
-			/* STEP 2.5: Update the current subproblem */
-			updateProblemOrigin(child, cur_id, type);
-
-			p.clear();
-			break;
-		case 3:
-			/**
-			 * DE/current-to-rand/2/bin: u = xi + K * (x1 - xi) + F * (x2 - x3) + F * (x4 - x5)
-			 */
-			matingSize_ = 5;
-			matingSelection(p, cur_id, matingSize_, type);
-
-			/* STEP 2.2: Reproduction */
-			parents = new Solution[6];
-
-			parents[0] = population_.get(p.get(0));
-			parents[1] = population_.get(p.get(1));
-			parents[2] = population_.get(p.get(2));
-			parents[3] = population_.get(p.get(3));
-			parents[4] = population_.get(p.get(4));
-			parents[5] = population_.get(cur_id);
-
-			crossover_.setParameter("DE_VARIANT", "DE/current-to-rand/2/bin");
-			/* Apply DE operator */
-			child = (Solution) crossover_.execute_6(new Object[] {
-					population_.get(cur_id), parents });
-
-			/* Apply mutation */
-			mutation_.execute(child);
-
-			/* Function evaluation */
-			problem_.evaluate(child);
-			evaluations_++;
-
-			/* STEP 2.3: Repair. Not necessary */
-
-			/* STEP 2.4: Update ideal point z_ */
-			updateReference(child);
-
-			/* STEP 2.5: Update the current subproblem */
-			updateProblemOrigin(child, cur_id, type);
-
-			p.clear();
-			break;
-		case 4:
-			/** 
-			 * DE/current-to-rand/1/bin: u = xi + K * (xi - x1) + F * (x2 - x3)
-			 */
-			matingSize_ = 3;
-			matingSelection(p, cur_id, matingSize_, type);
-
-			/* STEP 2.2: Reproduction */
-			parents = new Solution[3];
-			parents[0] = population_.get(p.get(0));
-			parents[1] = population_.get(p.get(1));
-			parents[2] = population_.get(p.get(2));
-
-			crossover_.setParameter("DE_VARIANT", "current-to-rand/1/bin");
-
-			/* Apply DE operator */
-			child = (Solution) crossover_.execute(new Object[] {
-					population_.get(cur_id), parents });
-
-			/* Apply mutation */
-			mutation_.execute(child);
-
-			/* Function evaluation */
-			problem_.evaluate(child);
-
-			evaluations_++;
-
-			/* STEP 2.3: Repair. Not necessary */
-
-			/* STEP 2.4: Update ideal point z_ */
-			updateReference(child);
-
-			/* STEP 2.5: Update the current subproblem */
-			updateProblemOrigin(child, cur_id, type);
-
-			p.clear();
-			break;
-		}
+		/**
+		 * 1: DE/rand/1/bin: u = x1 + F * (x2 - x3)
+		 * 2: DE/rand/2/bin (current/2/bin of DEStrategy): u = xi + F * (x1 - x2) + F * (x3 - x4)
+		 * 3: DE/current-to-rand/2/bin: u = xi + K * (x1 - xi) + F * (x2 - x3) + F * (x4 - x5)
+		 * 4: DE/current-to-rand/1/bin: u = xi + K * (x1 - xi) + F * (x2 - x3)
+		 */
+		if (strategySelected < 1 || strategySelected > strategies_.length)
+			return; // Not an operator (as with the former switch)
+		DEStrategy strategy = strategies_[strategySelected - 1];
+		matingSize_ = strategy.getNumberOfParents();
+		telemetry_.begin(Telemetry.SELECTION);
+		matingSelection(matingIndex_, cur_id, matingSize_, type);
+		telemetry_.end(Telemetry.SELECTION);
+
+		/* STEP 2.2: Reproduction */
+		for (int i = 0; i < matingSize_; i++)
+			parents_[i] = population_.get(matingIndex_[i]);
+
+		/* Apply DE operator */
+		telemetry_.begin(Telemetry.VARIATION);
+		child  = strategy.execute(population_.get(cur_id), parents_, child_);
+		child_ = child;
+
+		/* Apply mutation */
+		mutation_.execute(child);
+		telemetry_.end(Telemetry.VARIATION);
+
+		/* Function evaluation */
+		telemetry_.begin(Telemetry.EVALUATION);
+		problem_.evaluate(child);
+		telemetry_.end(Telemetry.EVALUATION);
+		telemetry_.count(Telemetry.EVALUATIONS);
+		evaluations_++;
+
+		/* STEP 2.3: Repair. Not necessary */
+
+		/* STEP 2.4: Update ideal point z_ */
+		telemetry_.begin(Telemetry.UPDATE);
+		updateReference(child);
+
+		/* STEP 2.5: Update the current subproblem */
+		updateProblemOrigin(child, cur_id, type);
+		telemetry_.end(Telemetry.UPDATE);
 	}
 	
 	/**
@@ -840,9 +763,9 @@ public class MOEADDRA_MAB extends Algorithm {
 		} else {
 			size = population_.size();
 		}
-		int[] perm = new int[size];
+		int[] perm = perm_;
 
-		Utils.randomPermutation(perm, size);
+		Utils.randomPermutation(perm, size, flag_);
 
 		for (int i = 0; i < size; i++) {
 			int k;
@@ -860,7 +783,10 @@ public class MOEADDRA_MAB extends Algorithm {
 			fitnessimprovement = (f1 - f2) / f1;
 
 			if (fitnessimprovement > 0) {
-				population_.replace(k, new Solution(indiv));
+				Solution replaced = population_.get(k);
+				population_.replace(k, pool_.copyOf(indiv));
+				pool_.release(replaced);
+				telemetry_.count(Telemetry.REPLACEMENTS);
 				improvement_[id] += fitnessimprovement;
 				time++;
 			}
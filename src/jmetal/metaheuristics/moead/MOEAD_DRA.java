@@ -12,24 +12,24 @@
 
 package jmetal.metaheuristics.moead;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.StringTokenizer;
 import jmetal.util.*;
 
 import java.util.Vector;
 
 import jmetal.core.*;
 import jmetal.util.PseudoRandom;
+import jmetal.operators.crossover.DifferentialEvolutionCrossover;
+import jmetal.util.snapshot.CheckpointInput;
+import jmetal.util.snapshot.CheckpointOutput;
+import jmetal.util.snapshot.CheckpointWriter;
+import jmetal.util.snapshot.FrontReader;
+import jmetal.util.telemetry.Telemetry;
 
 public class MOEAD_DRA extends Algorithm {
 	
 	private int         populationSize_;
 	private SolutionSet population_;  		// Population repository
-	private Solution[]  savedValues_; 		// Individual repository
+	private UtilityScheduler scheduler_; // Utilities and saved objective values
 
 	int    T_;     					  		// Neighborhood size
 	int    nr_;    					  		// Maximal number of solutions replaced by each child solution
@@ -40,7 +40,6 @@ public class MOEAD_DRA extends Algorithm {
 	int[][]    neighborhood_; 		  		// Neighborhood matrix
 	double[][] lambda_; 			  		// Lambda vectors
 	
-	private double[] utility_;
 	private int[] 	 frequency_;
 	
 	Solution[] indArray_;
@@ -49,6 +48,17 @@ public class MOEAD_DRA extends Algorithm {
 	Operator crossover_;
 	Operator mutation_;
 
+	// Buffers of the main loop, reused for every offspring
+	private int[]      permutation_;	// Order of the subproblems
+	private int[]      perm_;			// Order of the subproblems to update
+	private boolean[]  flag_;			// Scratch array of Utils.randomPermutation
+	private int[]      matingIndex_;	// Indexes of the mating parents
+	private Solution[] parents_;
+	private Solution   child_;			// Offspring, rewritten by a DE crossover
+	private SolutionPool pool_;			// Replaced solutions, rewritten by the next copies
+
+	private CheckpointWriter checkpoints_;	// null: no checkpoints
+
 	String dataDirectory_;
 
 	/**
@@ -75,11 +85,11 @@ public class MOEAD_DRA extends Algorithm {
 		dataDirectory_ = this.getInputParameter("dataDirectory").toString();
 
 		population_ = new SolutionSet(populationSize_);
-		savedValues_ = new Solution[populationSize_];
-		utility_ = new double[populationSize_];
+		scheduler_ = new UtilityScheduler(populationSize_,
+				problem_.getNumberOfObjectives(),
+				Boolean.TRUE.equals(this.getInputParameter("prioritySelection")));
 		frequency_ = new int[populationSize_];
-		for (int i = 0; i < utility_.length; i++) {
-			utility_[i] = 1.0;
+		for (int i = 0; i < populationSize_; i++) {
 			frequency_[i] = 0;
 		}
 		indArray_ = new Solution[problem_.getNumberOfObjectives()];
@@ -96,26 +106,44 @@ public class MOEAD_DRA extends Algorithm {
 		crossover_ = operators_.get("crossover"); 	// default: DE crossover
 		mutation_ = operators_.get("mutation"); 	// default: polynomial mutation
 
+		permutation_ = new int[populationSize_];
+		perm_        = new int[populationSize_];
+		flag_        = new boolean[populationSize_];
+		matingIndex_ = new int[2];
+		parents_     = new Solution[3];
+		child_       = null;
+		pool_        = new SolutionPool(nr_);
+
+		startTelemetry();
+
 		// STEP 1. Initialization
 		// STEP 1.1. Compute Euclidean distances between weight vectors and find T
 		initUniformWeight();
 		initNeighborhood();
 
-		// STEP 1.2. Initialize population
-		initPopulation();
+		int gen = 0;
+		Object resumeFrom = this.getInputParameter("resumeFrom");
+		if (resumeFrom != null) {
+			// The state of the generation saved in the checkpoint
+			gen = readCheckpoint(resumeFrom.toString());
+		} else {
+			// STEP 1.2. Initialize population
+			initPopulation();
 
-		// STEP 1.3. Initialize z_
-		initIdealPoint();
+			// STEP 1.3. Initialize z_
+			initIdealPoint();
+		}
+		checkpoints_ = CheckpointWriter.forAlgorithm(this);
 
-		int gen = 0;
 		// STEP 2. Update
-		do {
-			int[] permutation = new int[populationSize_];
-			Utils.randomPermutation(permutation, populationSize_);
-			List<Integer> order = tour_selection(10);
-
-			for (int i = 0; i < order.size(); i++) {
-				int n = order.get(i);
+		while (evaluations_ < maxEvaluations) {
+			Utils.randomPermutation(permutation_, populationSize_, flag_);
+			telemetry_.begin(Telemetry.SELECTION);
+			int[] order = tour_selection(10);
+			telemetry_.end(Telemetry.SELECTION);
+
+			for (int i = 0; i < order.length; i++) {
+				int n = order[i];
 				frequency_[n]++;
 
 				int type;
@@ -128,51 +156,138 @@ public class MOEAD_DRA extends Algorithm {
 				} else {
 					type = 2; // whole population
 				}
-				Vector<Integer> p = new Vector<Integer>();
-				matingSelection(p, n, 2, type);
+				telemetry_.begin(Telemetry.SELECTION);
+				matingSelection(matingIndex_, n, 2, type);
+				telemetry_.end(Telemetry.SELECTION);
 
 				// STEP 2.2. Reproduction
 				Solution child;
-				Solution[] parents = new Solution[3];
 
-				parents[0] = population_.get(p.get(0));
-				parents[1] = population_.get(p.get(1));
-				parents[2] = population_.get(n);
+				parents_[0] = population_.get(matingIndex_[0]);
+				parents_[1] = population_.get(matingIndex_[1]);
+				parents_[2] = population_.get(n);
 
 				// Apply DE crossover
-				child = (Solution) crossover_.execute(new Object[] {
-						population_.get(n), parents });
+				telemetry_.begin(Telemetry.VARIATION);
+				if (crossover_ instanceof DifferentialEvolutionCrossover) {
+					child_ = ((DifferentialEvolutionCrossover) crossover_).execute(
+							population_.get(n), parents_, child_);
+					child = child_;
+				} else {
+					child = (Solution) crossover_.execute(new Object[] {
+							population_.get(n), parents_ });
+				}
 
 				// Apply mutation
 				mutation_.execute(child);
+				telemetry_.end(Telemetry.VARIATION);
 
 				// Evaluation
+				telemetry_.begin(Telemetry.EVALUATION);
 				problem_.evaluate(child);
+				telemetry_.end(Telemetry.EVALUATION);
+				telemetry_.count(Telemetry.EVALUATIONS);
 				evaluations_++;
 
 				// STEP 2.3. Repair. Not necessary
 
 				// STEP 2.4. Update z_
+				telemetry_.begin(Telemetry.UPDATE);
 				updateReference(child);
 
 				// STEP 2.5. Update of solutions
 				updateProblem(child, n, type);
+				telemetry_.end(Telemetry.UPDATE);
 
 			} // for
 
 			gen++;
 			if (gen % 50 == 0) {
+				telemetry_.begin(Telemetry.UPDATE);
 				comp_utility();
+				telemetry_.end(Telemetry.UPDATE);
 			}
-		} while (evaluations_ < maxEvaluations);
+			telemetry_.endGeneration();
+			if ((checkpoints_ != null) && checkpoints_.isDue(gen))
+				writeCheckpoint(gen);
+		}
+		if (checkpoints_ != null) {
+			checkpoints_.close();
+			checkpoints_ = null;
+		}
 
 		for (int i = 0; i < populationSize_; i++) {
 			System.out.println(frequency_[i]);
 		}
+		stopTelemetry();
 
 		return population_;
 	}
 
+	/**
+	 * Save the state of the run at the end of a generation: population,
+	 * ideal point, utilities, selection frequencies, operators and random
+	 * generator. The file is written in the background.
+	 * 
+	 * @param gen : number of generations done
+	 */
+	void writeCheckpoint(int gen) throws JMException {
+		CheckpointOutput out = checkpoints_.begin("MOEAD_DRA");
+		out.section("parameters");
+		out.putInt(populationSize_);
+		out.putInt(problem_.getNumberOfObjectives());
+		out.putString(functionType_);
+		out.section("counters");
+		out.putInt(gen);
+		out.putInt(evaluations_);
+		out.section("population");
+		out.putSolutionSet(population_);
+		out.putDoubles(z_);
+		out.section("utilities");
+		scheduler_.writeState(out);
+		out.putInts(frequency_);
+		out.section("operators");
+		out.putOperator(crossover_);
+		out.putOperator(mutation_);
+		out.section("random generator");
+		out.putRandomGenerator();
+		checkpoints_.commit(out);
+	} // writeCheckpoint
+
+	/**
+	 * Restore the state saved by <code>writeCheckpoint</code>, in place of
+	 * the initialization of the population and of the ideal point
+	 * 
+	 * @param path : the checkpoint file
+	 * @return the number of generations done
+	 */
+	int readCheckpoint(String path) throws JMException {
+		CheckpointInput in = CheckpointInput.open(path, "MOEAD_DRA");
+		in.section("parameters");
+		in.checkInt(populationSize_, "population size");
+		in.checkInt(problem_.getNumberOfObjectives(), "number of objectives");
+		String functionType = in.getString();
+		if (!functionType.equals(functionType_))
+			throw new JMException(path + ": decomposition " + functionType
+					+ " instead of " + functionType_);
+		in.section("counters");
+		int gen = in.getInt();
+		evaluations_ = in.getInt();
+		in.section("population");
+		in.getSolutionSet(problem_, population_);
+		in.getDoubles(z_);
+		in.section("utilities");
+		scheduler_.readState(in);
+		in.getInts(frequency_);
+		in.section("operators");
+		in.getOperator(crossover_);
+		in.getOperator(mutation_);
+		in.section("random generator");
+		in.getRandomGenerator();
+		in.close();
+		return gen;
+	} // readCheckpoint
+
 	/**
 	 * Initialize the weight vectors, this function only can read from the 
 	 * existing data file, instead of generating itself.
@@ -184,27 +299,8 @@ public class MOEAD_DRA extends Algorithm {
 				+ populationSize_ + ".dat";
 
 		try {
-			// Open the file
-			FileInputStream fis = new FileInputStream(dataDirectory_ + "/"
-					+ dataFileName);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			int i = 0;
-			int j = 0;
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				j = 0;
-				while (st.hasMoreTokens()) {
-					double value = (new Double(st.nextToken())).doubleValue();
-					lambda_[i][j] = value;
-					j++;
-				}
-				aux = br.readLine();
-				i++;
-			}
-			br.close();
+			// Read the file (text or snapshot)
+			FrontReader.read(dataDirectory_ + "/" + dataFileName).copyTo(lambda_);
 		} catch (Exception e) {
 			System.out
 					.println("initUniformWeight: failed when reading for file: "
@@ -222,16 +318,16 @@ public class MOEAD_DRA extends Algorithm {
 
 		for (int i = 0; i < populationSize_; i++) {
 			f1 = fitnessFunction(population_.get(i), lambda_[i]);
-			f2 = fitnessFunction(savedValues_[i], lambda_[i]);
+			f2 = fitnessFunction(scheduler_.getSavedObjectives(i), lambda_[i]);
 			
 			delta = (f2 - f1) / f2;
 			if (delta > 0.001)
-				utility_[i] = 1.0;
+				scheduler_.setUtility(i, 1.0);
 			else {
-				uti = 0.95 * (1.0 + delta / 0.001) * utility_[i];
-				utility_[i] = uti < 1.0 ? uti : 1.0;
+				uti = 0.95 * (1.0 + delta / 0.001) * scheduler_.getUtility(i);
+				scheduler_.setUtility(i, uti < 1.0 ? uti : 1.0);
 			}
-			savedValues_[i] = new Solution(population_.get(i));
+			scheduler_.saveObjectives(i, population_.get(i));
 		}
 	}
 
@@ -241,22 +337,7 @@ public class MOEAD_DRA extends Algorithm {
 	 * 
 	 */
 	public void initNeighborhood() {
-		int[] idx  = new int[populationSize_];
-		double[] x = new double[populationSize_];
-
-		for (int i = 0; i < populationSize_; i++) {
-			/* Calculate the distances based on weight vectors */
-			for (int j = 0; j < populationSize_; j++) {
-				x[j] = Utils.distVector(lambda_[i], lambda_[j]);
-				idx[j] = j;
-			}
-			/* Find 'niche' nearest neighboring subproblems */
-			Utils.minFastSort(x, idx, populationSize_, T_);
-
-			for (int k = 0; k < T_; k++) {
-				neighborhood_[i][k] = idx[k];
-			}
-		}
+		new NeighborhoodBuilder(this).build(lambda_, neighborhood_);
 	} // initNeighborhood
 
 	/**
@@ -269,10 +350,13 @@ public class MOEAD_DRA extends Algorithm {
 		for (int i = 0; i < populationSize_; i++) {
 			Solution newSolution = new Solution(problem_);
 
+			telemetry_.begin(Telemetry.EVALUATION);
 			problem_.evaluate(newSolution);
+			telemetry_.end(Telemetry.EVALUATION);
+			telemetry_.count(Telemetry.EVALUATIONS);
 			evaluations_++;
 			population_.add(newSolution);
-			savedValues_[i] = new Solution(newSolution);
+			scheduler_.saveObjectives(i, newSolution);
 		}
 	} // initPopulation
 
@@ -287,7 +371,10 @@ public class MOEAD_DRA extends Algorithm {
 		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
 			z_[i] = 1.0e+30;
 			indArray_[i] = new Solution(problem_);
+			telemetry_.begin(Telemetry.EVALUATION);
 			problem_.evaluate(indArray_[i]);
+			telemetry_.end(Telemetry.EVALUATION);
+			telemetry_.count(Telemetry.EVALUATIONS);
 			evaluations_++;
 		}
 			
@@ -333,41 +420,54 @@ public class MOEAD_DRA extends Algorithm {
 	} // matingSelection
 
 	/**
-	 * Tournament selection
+	 * Select the mating parents, depending on the selection 'type', as
+	 * <code>matingSelection(Vector, int, int, int)</code> does but without
+	 * allocating anything
 	 * 
-	 * @param depth
-	 * @return
+	 * @param list : array receiving the indexes of the selected mating parents
+	 * @param cid  : the id of current subproblem
+	 * @param size : the number of selected mating parents
+	 * @param type : 1 - neighborhood; otherwise - whole population
 	 */
-	public List<Integer> tour_selection(int depth) {
-
-		// selection based on utility
-		List<Integer> selected = new ArrayList<Integer>();
-		List<Integer> candidate = new ArrayList<Integer>();
-
-		for (int k = 0; k < problem_.getNumberOfObjectives(); k++)
-			selected.add(k); // select first m weights
-		for (int n = problem_.getNumberOfObjectives(); n < populationSize_; n++)
-			candidate.add(n); // set of unselected weights
-
-		while (selected.size() < (int) (populationSize_ / 5.0)) {
-			int best_idd = (int) (PseudoRandom.randDouble() * candidate.size());
-			int i2;
-			int best_sub = candidate.get(best_idd);
-			int s2;
-			for (int i = 1; i < depth; i++) {
-				i2 = (int) (PseudoRandom.randDouble() * candidate.size());
-				s2 = candidate.get(i2);
-
-				if (utility_[s2] > utility_[best_sub]) {
-					best_idd = i2;
-					best_sub = s2;
+	public void matingSelection(int[] list, int cid, int size, int type) {
+		int ss;
+		int r;
+		int p;
+
+		ss = neighborhood_[cid].length;
+		int selected = 0;
+		while (selected < size) {
+			if (type == 1) {
+				r = PseudoRandom.randInt(0, ss - 1);
+				p = neighborhood_[cid][r];
+			} else {
+				p = PseudoRandom.randInt(0, populationSize_ - 1);
+			}
+			boolean flag = true;
+			for (int i = 0; i < selected; i++) {
+				if (list[i] == p) // p is in the list
+				{
+					flag = false;
+					break;
 				}
 			}
-			selected.add(best_sub);
-			candidate.remove(best_idd);
+
+			if (flag) {
+				list[selected] = p;
+				selected++;
+			}
 		}
-		return selected;
-	}
+	} // matingSelection
+
+	/**
+	 * Tournament selection
+	 * 
+	 * @param depth
+	 * @return
+	 */
+	public int[] tour_selection(int depth) {
+		return scheduler_.select(depth);
+	} // tour_selection
 
 	/**
 	 * Update the current ideal point
@@ -399,9 +499,9 @@ public class MOEAD_DRA extends Algorithm {
 		} else {
 			size = population_.size();
 		}
-		int[] perm = new int[size];
+		int[] perm = perm_;
 
-		Utils.randomPermutation(perm, size);
+		Utils.randomPermutation(perm, size, flag_);
 
 		for (int i = 0; i < size; i++) {
 			int k;
@@ -416,7 +516,10 @@ public class MOEAD_DRA extends Algorithm {
 			f2 = fitnessFunction(indiv, lambda_[k]);
 
 			if (f2 < f1) {
-				population_.replace(k, new Solution(indiv));
+				Solution replaced = population_.get(k);
+				population_.replace(k, pool_.copyOf(indiv));
+				pool_.release(replaced);
+				telemetry_.count(Telemetry.REPLACEMENTS);
 				time++;
 			}
 			// the maximal number of solutions updated is not allowed to exceed
@@ -455,7 +558,7 @@ public class MOEAD_DRA extends Algorithm {
 	 * @param lambda:   : weight vector
 	 * @return
 	 */
-	double fitnessFunction(Solution individual, double[] lambda) {
+	double fitnessFunction(double[] objectives, double[] lambda) {
 		double fitness;
 		fitness = 0.0;
 
@@ -463,7 +566,7 @@ public class MOEAD_DRA extends Algorithm {
 			double maxFun = -1.0e+30;
 
 			for (int n = 0; n < problem_.getNumberOfObjectives(); n++) {
-				double diff = Math.abs(individual.getObjective(n) - z_[n]);
+				double diff = Math.abs(objectives[n] - z_[n]);
 
 				double feval;
 				if (lambda[n] == 0) {
@@ -481,7 +584,7 @@ public class MOEAD_DRA extends Algorithm {
 			double maxFun = -1.0e+30;
 
 			for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-				double diff = Math.abs(individual.getObjective(i) - z_[i]);
+				double diff = Math.abs(objectives[i] - z_[i]);
 
 				double feval;
 				if (lambda[i] == 0) {
@@ -509,14 +612,14 @@ public class MOEAD_DRA extends Algorithm {
 
 			// difference between current point and reference point
 			for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
-				realA[n] = (individual.getObjective(n) - z_[n]);
+				realA[n] = (objectives[n] - z_[n]);
 
 			// distance along the line segment
 			double d1 = Math.abs(innerproduct(realA, lambda));
 
 			// distance to the line segment
 			for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
-				realB[n] = (individual.getObjective(n) - (z_[n] + d1
+				realB[n] = (objectives[n] - (z_[n] + d1
 						* lambda[n]));
 			double d2 = norm_vector(realB);
 
@@ -528,6 +631,10 @@ public class MOEAD_DRA extends Algorithm {
 		}
 		return fitness;
 	} // fitnessEvaluation
+
+	double fitnessFunction(Solution individual, double[] lambda) {
+		return fitnessFunction(individual.getObjectives(), lambda);
+	} // fitnessFunction
 	
 } // MOEAD
 
@@ -41,13 +41,13 @@
 package jmetal.metaheuristics.moead; 
 
 import jmetal.core.*;
+import jmetal.operators.crossover.SingleOffspringCrossover;
 import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
 import jmetal.util.comparators.DominanceComparator;
+import jmetal.util.snapshot.FrontReader;
+import jmetal.util.telemetry.Telemetry;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
 import java.util.*;
 
 /**
@@ -61,11 +61,10 @@ public class MOEAD_DRA_ASTM extends Algorithm {
     private SolutionSet population_;
     private SolutionSet union_;
     /**
-     * Stores the values of the individuals
+     * Utilities of the subproblems and their objective values at the last
+     * utility update
      */
-    private Solution[] savedValues_;
-
-    private double[] utility_;
+    private UtilityScheduler scheduler_;
 
     /**
      * Z vector (ideal point)
@@ -77,6 +76,11 @@ public class MOEAD_DRA_ASTM extends Algorithm {
      */
     double[] nz_;
 
+    /**
+     * Tracker of z_ and nz_, with the extreme points giving nz_
+     */
+    ReferencePoints referencePoints_;
+
     /**
      * Weight vectors
      */
@@ -114,8 +118,63 @@ public class MOEAD_DRA_ASTM extends Algorithm {
     Operator mutation_;
     String crossoverName_  ;
 
+    // Offspring of the previous generation, recycled by a single-offspring
+    // crossover (the population keeps copies of the selected solutions)
+    private Solution[] offspringBuffer_;
+
     String dataDirectory_;
 
+    /**
+     * Distances and fitness values of the selection
+     */
+    DecompositionKernel kernel_;
+
+    /**
+     * Threads of the selection ("numberOfThreads", 1 by default)
+     */
+    ParallelRows rows_;
+
+    /**
+     * Ties of the preference lists in the order of Utils.minFastSort, as in
+     * the seeded runs before ("legacyTieOrder", false by default)
+     */
+    boolean legacyTieOrder_;
+
+    // Workspace of the selection, reused from one generation to the next
+    private int[][]    solPref_;
+    private double[][] solMatrix_;
+    private int[][]    subpPref_;
+    private double[][] subpMatrix_;
+    private int[]      representativeSol_;
+    private int[]      solPreferListLengths_;
+    private int[]      subpStatus_;
+    private int[]      solStatus_;
+    private DominanceComparator dominanceCheck_;
+
+    // Preference values of a subproblem (rows 0 .. N - 1) or of a solution
+    // (rows N ..), sorted to get the preference ranks
+    private final ParallelRows.Body preferenceRows_ = new ParallelRows.Body() {
+        public void run(int from, int to) {
+            for (int row = from; row < to; row++) {
+                if (row < populationSize_) {
+                    int j = row;
+                    for (int i = 0; i < union_.size(); i++) {
+                        subpMatrix_[j][i] = fitnessFunction(i, j);
+                        subpPref_[j][i]   = i;
+                    }
+                    Utils.minSort(subpMatrix_[j], subpPref_[j], union_.size(), legacyTieOrder_);
+                } else {
+                    int i = row - populationSize_;
+                    for (int j = 0; j < populationSize_; j++) {
+                        solMatrix_[i][j] = kernel_.perpendicularDistance(i, j);
+                        solPref_[i][j]   = j;
+                    }
+                    Utils.minSort(solMatrix_[i], solPref_[i], populationSize_, legacyTieOrder_);
+                }
+            }
+        }
+    };
+
     /**
      * Constructor
      * @param problem Problem to solve
@@ -140,12 +199,16 @@ public class MOEAD_DRA_ASTM extends Algorithm {
         populationSize_ = ((Integer) this.getInputParameter("populationSize")).intValue();
         functionType_ = (String) this.getInputParameter("functionType");
 
+        int threads = 1;
+        if (this.getInputParameter("numberOfThreads") != null)
+            threads = ((Integer) this.getInputParameter("numberOfThreads")).intValue();
+        rows_ = new ParallelRows(threads);
+        legacyTieOrder_ = Boolean.TRUE.equals(this.getInputParameter("legacyTieOrder"));
+
         population_  = new SolutionSet(populationSize_);
-        savedValues_ = new Solution[populationSize_];
-        utility_     = new double[populationSize_];
-        for (int i = 0; i < utility_.length; i++) {
-            utility_[i] = 1.0;
-        }
+        scheduler_ = new UtilityScheduler(populationSize_,
+                problem_.getNumberOfObjectives(),
+                Boolean.TRUE.equals(this.getInputParameter("prioritySelection")));
 
         T_ = ((Integer) this.getInputParameter("T")).intValue();
         lmax_ = ((Integer) this.getInputParameter("lmax")).intValue();
@@ -153,12 +216,16 @@ public class MOEAD_DRA_ASTM extends Algorithm {
 
         z_ 			  = new double[problem_.getNumberOfObjectives()];
         nz_ 		  = new double[problem_.getNumberOfObjectives()];
+        referencePoints_ = new ReferencePoints(z_, nz_);
         lambda_ 	  = new double[populationSize_][problem_.getNumberOfObjectives()];
         neighborhood_ = new int[populationSize_][T_];
 
         crossover_ = operators_.get("crossover");
         mutation_  = operators_.get("mutation");
         crossoverName_ = (String) this.getInputParameter("crossoverName");
+        offspringBuffer_ = new Solution[populationSize_];
+
+        startTelemetry();
 
         // STEP 1. Initialization
         // STEP 1.1. Compute Euclidean distances between weight vectors and find T
@@ -178,11 +245,13 @@ public class MOEAD_DRA_ASTM extends Algorithm {
         // STEP 2. Update
         do {
             // Select the satisfied subproblems
-            List<Integer> order = tour_selection(10);
-            currentOffspring_  = new SolutionSet(order.size());
+            telemetry_.begin(Telemetry.SELECTION);
+            int[] order = tour_selection(10);
+            telemetry_.end(Telemetry.SELECTION);
+            currentOffspring_  = new SolutionSet(order.length);
 
-            for (int i = 0; i < order.size(); i++) {
-                int n = order.get(i);
+            for (int i = 0; i < order.length; i++) {
+                int n = order[i];
 
                 double rnd = PseudoRandom.randDouble();
 
@@ -197,22 +266,35 @@ public class MOEAD_DRA_ASTM extends Algorithm {
                 Solution[] parents;
                 Vector<Integer> p = new Vector<Integer>();
 
+                telemetry_.begin(Telemetry.SELECTION);
                 parents = matingSelection(p, n, 2, type);
+                telemetry_.end(Telemetry.SELECTION);
 
                 // Apply DE crossover and polynomial mutation
+                telemetry_.begin(Telemetry.VARIATION);
                 if (crossoverName_.equals("DifferentialEvolutionCrossover")) {
                     child = (Solution) crossover_.execute(new Object[]{population_.get(n), parents});
+                } else if (crossover_ instanceof SingleOffspringCrossover) {
+                    child = ((SingleOffspringCrossover) crossover_).executeSingle(
+                            population_.get(n), parents[0], offspringBuffer_[i]);
+                    offspringBuffer_[i] = child;
                 } else {
                     child = ((Solution[])crossover_.execute(new Solution[]{population_.get(n), parents[0]}))[0];
                 }
                 mutation_.execute(child);
+                telemetry_.end(Telemetry.VARIATION);
 
                 // Evaluation
+                telemetry_.begin(Telemetry.EVALUATION);
                 problem_.evaluate(child);
+                telemetry_.end(Telemetry.EVALUATION);
+                telemetry_.count(Telemetry.EVALUATIONS);
                 evaluations_++;
 
 				/* STEP 2.3. Update the ideal point 'z_' and nadir point 'nz_' */
+                telemetry_.begin(Telemetry.UPDATE);
                 updateReference(child);
+                telemetry_.end(Telemetry.UPDATE);
 //                updateNadirPoint(child);
 
                 // Add into the offspring population
@@ -220,18 +302,27 @@ public class MOEAD_DRA_ASTM extends Algorithm {
             } // for
 
             // Combine the parent and the current offspring populations
+            telemetry_.begin(Telemetry.ARCHIVE);
             union_ = population_.union(currentOffspring_);
-            updateNadirPoint();
+            telemetry_.begin(Telemetry.UPDATE);
+            updateNadirPoint(populationSize_);
+            telemetry_.end(Telemetry.UPDATE);
 
             selection();
+            telemetry_.end(Telemetry.ARCHIVE);
 
             // Update the utility value of subproblems
             iteration++;
             if (iteration % 30 == 0) {
+                telemetry_.begin(Telemetry.UPDATE);
                 comp_utility();
+                telemetry_.end(Telemetry.UPDATE);
             } 
+            telemetry_.endGeneration();
         } while (evaluations_ <= maxEvaluations);
 
+        rows_.shutdown();
+        stopTelemetry();
         return population_;
     }
 
@@ -240,40 +331,19 @@ public class MOEAD_DRA_ASTM extends Algorithm {
      */
     public void selection() {
 
-        int[][]    solPref   = new int[union_.size()][];
-        double[][] solMatrix = new double[union_.size()][];
-        for (int i = 0; i < union_.size(); i++) {
-            solPref[i]   = new int[populationSize_];
-            solMatrix[i] = new double[populationSize_];
-        }
-        int[][]    subpPref   = new int[populationSize_][];
-        double[][] subpMatrix = new double[populationSize_][];
-        for (int i = 0; i < populationSize_; i++) {
-            subpPref[i]   = new int[union_.size()];
-            subpMatrix[i] = new double[union_.size()];
-        }
-
-        // Calculate the preference values of subproblem matrix and solution matrix
-        for (int i = 0; i < union_.size(); i++) {
-            for (int j = 0; j < populationSize_; j++) {
-                subpMatrix[j][i] = fitnessFunction(union_.get(i), lambda_[j], functionType_);
-                solMatrix[i][j]  = calculateDistance(union_.get(i), lambda_[j]);
-            }
-        }
+        allocateWorkspace(union_.size());
+        int[][]    solPref    = solPref_;
+        int[][]    subpPref   = subpPref_;
+        double[][] subpMatrix = subpMatrix_;
 
-        // Sort the preference value matrix to get the preference rank matrix
-        for (int i = 0; i < populationSize_; i++) {
-            for (int j = 0; j < union_.size(); j++)
-                subpPref[i][j] = j;
-            Utils.minFastSort(subpMatrix[i], subpPref[i], union_.size(), union_.size());
-        }
-        for (int i = 0; i < union_.size(); i++) {
-            for (int j = 0; j < populationSize_; j++)
-                solPref[i][j] = j;
-            Utils.minFastSort(solMatrix[i], solPref[i], populationSize_, populationSize_);
-        }
+        // Calculate the preference values of subproblem matrix and solution
+        // matrix, and sort them to get the preference rank matrix
+        telemetry_.begin(Telemetry.ASSOCIATION);
+        kernel_.cache(union_, z_, nz_);
+        rows_.forEach(populationSize_ + union_.size(), preferenceRows_);
+        telemetry_.end(Telemetry.ASSOCIATION);
 
-        int representativeSol[] = new int[populationSize_];
+        int representativeSol[] = representativeSol_;
         for (int i = 0; i < populationSize_; i++) {
             double representativeF = Double.MAX_VALUE;
             representativeSol[i] = -1;
@@ -287,8 +357,8 @@ public class MOEAD_DRA_ASTM extends Algorithm {
             }
         }
 
-        DominanceComparator dominanceCheck = new DominanceComparator();
-        int solPreferListLengths[] = new int[union_.size()];
+        DominanceComparator dominanceCheck = dominanceCheck_;
+        int solPreferListLengths[] = solPreferListLengths_;
         for (int i = 0; i < union_.size(); i++) {
             solPreferListLengths[i] = problem_.getNumberOfObjectives();
             for (int l = solPreferListLengths[i] + 1; l <= lmax_; l++) {
@@ -302,14 +372,39 @@ public class MOEAD_DRA_ASTM extends Algorithm {
         }
 
         StableMarriage smp = new StableMarriage(populationSize_, union_.size(), subpPref, solPref);
-        int[] subpStatus = new int[populationSize_];
-        int[] solStatus = new int[union_.size()];
+        int[] subpStatus = subpStatus_;
+        int[] solStatus = solStatus_;
         smp.stableMatchTwoLevel(subpStatus, solStatus, solPreferListLengths);
 
-        for (int i = 0; i < populationSize_; i++)
+        for (int i = 0; i < populationSize_; i++) {
             population_.replace(i, new Solution(union_.get(subpStatus[i])));
+            if (subpStatus[i] >= populationSize_)   // an offspring
+                telemetry_.count(Telemetry.REPLACEMENTS);
+        }
     }
 
+    /**
+     * Allocates the workspace of the selection for a union of a given size,
+     * unless it is already large enough
+     *
+     * @param unionSize
+     */
+    private void allocateWorkspace(int unionSize) {
+        if (representativeSol_ == null) {
+            representativeSol_ = new int[populationSize_];
+            subpStatus_        = new int[populationSize_];
+            dominanceCheck_    = new DominanceComparator();
+        }
+        if ((solStatus_ == null) || (solStatus_.length < unionSize)) {
+            solPref_              = new int[unionSize][populationSize_];
+            solMatrix_            = new double[unionSize][populationSize_];
+            subpPref_             = new int[populationSize_][unionSize];
+            subpMatrix_           = new double[populationSize_][unionSize];
+            solPreferListLengths_ = new int[unionSize];
+            solStatus_            = new int[unionSize];
+        }
+    } // allocateWorkspace
+
 
     /**
      * Calculate the perpendicular distance between the solution and reference
@@ -321,38 +416,37 @@ public class MOEAD_DRA_ASTM extends Algorithm {
      */
     public double calculateDistance(Solution individual, double[] lambda) {
         double scale;
-        double distance;
-
-        double[] vecInd  = new double[problem_.getNumberOfObjectives()];
-        double[] vecProj = new double[problem_.getNumberOfObjectives()];
+        double product = 0;
+        double sum     = 0;
 
         // vecInd has been normalized to the range [0,1]
-        for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-            vecInd[i] = (individual.getObjective(i) - z_[i]) / (nz_[i] - z_[i]);
-
-        scale = innerproduct(vecInd, lambda) / innerproduct(lambda, lambda);
-        for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-            vecProj[i] = vecInd[i] - scale * lambda[i];
+        for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
+            double vecInd = (individual.getObjective(i) - z_[i]) / (nz_[i] - z_[i]);
+            product += vecInd * lambda[i];
+        }
 
-        distance = norm_vector(vecProj);
+        scale = product / innerproduct(lambda, lambda);
+        for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
+            double vecInd  = (individual.getObjective(i) - z_[i]) / (nz_[i] - z_[i]);
+            double vecProj = vecInd - scale * lambda[i];
+            sum += vecProj * vecProj;
+        }
 
-        return distance;
+        return Math.sqrt(sum);
     }
 
     public double calculateDistanceDirect(double[] indivNorm, double[] lambda) {
 
         double scale;
-        double distance;
-
-        double[] vecProj = new double[problem_.getNumberOfObjectives()];
+        double sum = 0;
 
         scale = innerproduct(indivNorm, lambda) / innerproduct(lambda, lambda);
-        for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-            vecProj[i] = indivNorm[i] - scale * lambda[i];
-
-        distance = norm_vector(vecProj);
+        for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
+            double vecProj = indivNorm[i] - scale * lambda[i];
+            sum += vecProj * vecProj;
+        }
 
-        return distance;
+        return Math.sqrt(sum);
     }
 
     /**
@@ -370,22 +464,27 @@ public class MOEAD_DRA_ASTM extends Algorithm {
         double utility;
         double distance;
 
-        double[] vecInd  = new double[problem_.getNumberOfObjectives()];
-        double[] vecProj = new double[problem_.getNumberOfObjectives()];
-
-        double nd = norm_vector(lambda);
-        for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-            lambda[i] = lambda[i] / nd;
+        // The weight vector is used with norm 1, but it is not modified
+        double nd      = norm_vector(lambda);
+        double product = 0;
+        double norm2   = 0;
 
         // vecInd has been normalized to the range [0,1]
-        for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-            vecInd[i] = (individual.getObjective(i) - z_[i]) / (nz_[i] - z_[i]);
+        for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
+            double vecInd = (individual.getObjective(i) - z_[i]) / (nz_[i] - z_[i]);
+            product += vecInd * (lambda[i] / nd);
+            norm2   += (lambda[i] / nd) * (lambda[i] / nd);
+        }
 
-        scale = innerproduct(vecInd, lambda) / innerproduct(lambda, lambda);
-        for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-            vecProj[i] = vecInd[i] - scale * lambda[i];
+        scale = product / norm2;
+        double sum = 0;
+        for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
+            double vecInd  = (individual.getObjective(i) - z_[i]) / (nz_[i] - z_[i]);
+            double vecProj = vecInd - scale * (lambda[i] / nd);
+            sum += vecProj * vecProj;
+        }
 
-        distance = norm_vector(vecProj);
+        distance = Math.sqrt(sum);
 
         theta = 0.5;
 
@@ -415,27 +514,8 @@ public class MOEAD_DRA_ASTM extends Algorithm {
                     + populationSize_ + ".dat";
 
             try {
-                // Open the file
-                FileInputStream fis = new FileInputStream(dataDirectory_ + "/"
-                        + dataFileName);
-                InputStreamReader isr = new InputStreamReader(fis);
-                BufferedReader br = new BufferedReader(isr);
-
-                int i = 0;
-                int j = 0;
-                String aux = br.readLine();
-                while (aux != null) {
-                    StringTokenizer st = new StringTokenizer(aux);
-                    j = 0;
-                    while (st.hasMoreTokens()) {
-                        double value = (new Double(st.nextToken())).doubleValue();
-                        lambda_[i][j] = value;
-                        j++;
-                    }
-                    aux = br.readLine();
-                    i++;
-                }
-                br.close();
+                // Read the file (text or snapshot)
+                FrontReader.read(dataDirectory_ + "/" + dataFileName).copyTo(lambda_);
             } catch (Exception e) {
                 System.out
                         .println("initUniformWeight: failed when reading for file: "
@@ -443,6 +523,7 @@ public class MOEAD_DRA_ASTM extends Algorithm {
                 e.printStackTrace();
             }
         }
+        kernel_ = new DecompositionKernel(lambda_);
     } // initUniformWeight
 
     /**
@@ -454,18 +535,18 @@ public class MOEAD_DRA_ASTM extends Algorithm {
 
         for (int i = 0; i < populationSize_; i++) {
             f1    = fitnessFunction(population_.get(i), lambda_[i], functionType_);
-            f2 	  = fitnessFunction(savedValues_[i], lambda_[i], functionType_);
+            f2 	  = fitnessFunction(scheduler_.getSavedObjectives(i), lambda_[i], functionType_);
 
             delta = f2 - f1;
             if (delta > 0.001)
-                utility_[i] = 1.0;
+                scheduler_.setUtility(i, 1.0);
             else if (delta <= 0)
-                utility_[i] = 0.95 * utility_[i];
+                scheduler_.setUtility(i, 0.95 * scheduler_.getUtility(i));
             else {
-                uti 		= (0.95 + (0.05 * delta / 0.001)) * utility_[i];
-                utility_[i] = uti < 1.0 ? uti : 1.0;
+                uti 		= (0.95 + (0.05 * delta / 0.001)) * scheduler_.getUtility(i);
+                scheduler_.setUtility(i, uti < 1.0 ? uti : 1.0);
             }
-            savedValues_[i] = new Solution(population_.get(i));
+            scheduler_.saveObjectives(i, population_.get(i));
         }
     }
 
@@ -473,29 +554,7 @@ public class MOEAD_DRA_ASTM extends Algorithm {
      * Initialize the neighborhood of subproblems
      */
     public void initNeighborhood() {
-        double[] x = new double[populationSize_];
-        int[] idx = new int[populationSize_];
-
-        for (int i = 0; i < populationSize_; i++) {
-            // calculate the distances based on weight vectors
-            for (int j = 0; j < populationSize_; j++) {
-                x[j] = Utils.distVector(lambda_[i], lambda_[j]);
-                // x[j] = dist_vector(population[i].namda,population[j].namda);
-                idx[j] = j;
-                // System.out.println("x["+j+"]: "+x[j]+
-                // ". idx["+j+"]: "+idx[j]) ;
-            } // for
-
-            // find 'niche' nearest neighboring subproblems
-            Utils.minFastSort(x, idx, populationSize_, T_);
-            // minfastsort(x,idx,population.size(),niche);
-
-            for (int k = 0; k < T_; k++) {
-                neighborhood_[i][k] = idx[k];
-                // System.out.println("neg["+i+","+k+"]: "+ neighborhood_[i][k])
-                // ;
-            }
-        } // for
+        new NeighborhoodBuilder(this).build(lambda_, neighborhood_);
     } // initNeighborhood
 
     /**
@@ -506,10 +565,13 @@ public class MOEAD_DRA_ASTM extends Algorithm {
 
         for (int i = 0; i < populationSize_; i++) {
             newSolution = new Solution(problem_);
+            telemetry_.begin(Telemetry.EVALUATION);
             problem_.evaluate(newSolution);
+            telemetry_.end(Telemetry.EVALUATION);
+            telemetry_.count(Telemetry.EVALUATIONS);
             evaluations_++;
             population_.add(newSolution) ;
-            savedValues_[i] = new Solution(newSolution);
+            scheduler_.saveObjectives(i, newSolution);
         } // for
     } // initPopulation
 
@@ -519,8 +581,7 @@ public class MOEAD_DRA_ASTM extends Algorithm {
      * @throws ClassNotFoundException
      */
     void initIdealPoint() throws JMException, ClassNotFoundException {
-        for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-            z_[i] = 1.0e+30;
+        referencePoints_.resetIdealPoint();
 
         for (int i = 0; i < populationSize_; i++)
             updateReference(population_.get(i));
@@ -532,7 +593,7 @@ public class MOEAD_DRA_ASTM extends Algorithm {
      * @throws ClassNotFoundException
      */
     void initNadirPoint() throws JMException, ClassNotFoundException {
-        updateNadirPoint();
+        updateNadirPoint(0);
     } // initNadirPoint
 
     /**
@@ -578,40 +639,9 @@ public class MOEAD_DRA_ASTM extends Algorithm {
     } // matingSelection
 
 
-    public List<Integer> tour_selection(int depth) {
-
-        int i2, s2;
-        int threshold;
-
-        // selection based on utility
-        List<Integer> selected  = new ArrayList<Integer>();
-        List<Integer> candidate = new ArrayList<Integer>();
-
-        for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-            selected.add(i);
-
-        // set of unselected weights
-        for (int i = selected.size(); i < populationSize_; i++)
-            candidate.add(i);
-
-        threshold = (int) (populationSize_ / 5);
-        while (selected.size() < threshold) {
-            int best_idd = (int) (PseudoRandom.randDouble() * candidate.size());
-            int best_sub = candidate.get(best_idd);
-
-            for (int i = 1; i < depth; i++) {
-                i2 = (int) (PseudoRandom.randDouble() * candidate.size());
-                s2 = candidate.get(i2);
-                if (utility_[s2] > utility_[best_sub]) {
-                    best_idd = i2;
-                    best_sub = s2;
-                }
-            }
-            selected.add(best_sub);
-            candidate.remove(best_idd);
-        }
-        return selected;
-    }
+    public int[] tour_selection(int depth) {
+        return scheduler_.select(depth);
+    } // tour_selection
 
     /**
      * Update the ideal point, it is just an approximation with the best value for each objective
@@ -619,10 +649,7 @@ public class MOEAD_DRA_ASTM extends Algorithm {
      * @param individual
      */
     void updateReference(Solution individual) {
-        for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-            if (individual.getObjective(i) < z_[i])
-                z_[i] = individual.getObjective(i);
-        }
+        referencePoints_.updateIdealPoint(individual);
     } // updateReference
 
     /**
@@ -631,200 +658,20 @@ public class MOEAD_DRA_ASTM extends Algorithm {
      * @param individual
      */
     void updateNadirPoint(Solution individual) {
-        for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-            if (individual.getObjective(i) > nz_[i])
-                nz_[i] = individual.getObjective(i);
-        }
+        referencePoints_.updateNadirPoint(individual);
     } // updateNadirPoint
 
     /**
-     * Update the nadir point, it is just an approximation with worst value for each objective
+     * Update the nadir point: the ideal point plus the intercepts of the
+     * hyperplane formed by the extreme points of union_ (see
+     * <code>ReferencePoints.updateIntercepts</code>)
      *
+     * @param survivors Number of leading solutions of union_ selected from the previous one
      */
-    void updateNadirPoint() {
-        double intercepts[] = calculateIntercepts();
-        for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-            nz_[i] = z_[i] + intercepts[i];
-        }
+    void updateNadirPoint(int survivors) {
+        referencePoints_.updateIntercepts(union_, survivors);
     } // updateNadirPoint
 
-    /**
-     * Calculates the intercepts between the hyperplane formed by the extreme
-     * points and each axis.  The original paper (1) is unclear how to handle
-     * degenerate cases, which occurs more frequently at larger dimensions.  In
-     * this implementation, we simply use the nadir point for scaling.
-     *
-     * @return an array of the intercept points for each objective
-     */
-    private double[] calculateIntercepts() {
-        Solution[] extremePoints = extremePoints();
-        boolean degenerate = false;
-        double[] intercepts = new double[problem_.getNumberOfObjectives()];
-
-        try {
-            double[] b = new double[problem_.getNumberOfObjectives()];
-            double[][] A = new double[problem_.getNumberOfObjectives()][problem_.getNumberOfObjectives()];
-
-            for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-
-                b[i] = 1.0;
-
-                for (int j = 0; j < problem_.getNumberOfObjectives(); j++) {
-                    A[i][j] = extremePoints[i].getObjective(j) - z_[j];
-                }
-            }
-
-            double[] result = lsolve(A, b);
-
-            for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-                intercepts[i] = 1.0 / result[i];
-            }
-        } catch (RuntimeException e) {
-            degenerate = true;
-        }
-
-        if (!degenerate) {
-            // avoid small or negative intercepts
-            for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-                if (intercepts[i] < 0.001) {
-                    degenerate = true;
-                    break;
-                }
-            }
-        }
-
-        if (degenerate) {
-            Arrays.fill(intercepts, Double.NEGATIVE_INFINITY);
-
-            for (int i = 0; i < union_.size(); i++) {
-                for (int j = 0; j < problem_.getNumberOfObjectives(); j++) {
-                    intercepts[j] = Math.max(Math.max(intercepts[j], 1e-10), union_.get(i).getObjective(j));
-                }
-            }
-        }
-
-        return intercepts;
-    }
-
-    // Gaussian elimination with partial pivoting
-    // Copied from http://introcs.cs.princeton.edu/java/95linear/GaussianElimination.java.html
-    /**
-     * Gaussian elimination with partial pivoting.
-     *
-     * @param A the A matrix
-     * @param b the b vector
-     * @return the solved equation using Gaussian elimination
-     */
-    private double[] lsolve(double[][] A, double[] b) {
-        int N = b.length;
-
-        for (int p = 0; p < N; p++) {
-            // find pivot row and swap
-            int max = p;
-
-            for (int i = p + 1; i < N; i++) {
-                if (Math.abs(A[i][p]) > Math.abs(A[max][p])) {
-                    max = i;
-                }
-            }
-
-            double[] temp = A[p];
-            A[p] = A[max];
-            A[max] = temp;
-
-            double t = b[p];
-            b[p] = b[max];
-            b[max] = t;
-
-            // singular or nearly singular
-            if (Math.abs(A[p][p]) <= 1e-10) {
-                throw new RuntimeException("Matrix is singular or nearly singular");
-            }
-
-            // pivot within A and b
-            for (int i = p + 1; i < N; i++) {
-                double alpha = A[i][p] / A[p][p];
-                b[i] -= alpha * b[p];
-
-                for (int j = p; j < N; j++) {
-                    A[i][j] -= alpha * A[p][j];
-                }
-            }
-        }
-
-        // back substitution
-        double[] x = new double[N];
-
-        for (int i = N - 1; i >= 0; i--) {
-            double sum = 0.0;
-
-            for (int j = i + 1; j < N; j++) {
-                sum += A[i][j] * x[j];
-            }
-
-            x[i] = (b[i] - sum) / A[i][i];
-        }
-
-        return x;
-    }
-
-    /**
-     * Returns the extreme points for all objectives.
-     *
-     * @return an array of extreme points, each index corresponds to each
-     *         objective
-     */
-    private Solution[] extremePoints() {
-        Solution[] result = new Solution[problem_.getNumberOfObjectives()];
-
-        for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-            result[i] = findExtremePoint(i);
-        }
-
-        return result;
-    }
-
-    /**
-     * Returns the extreme point in the given objective.  The extreme point is
-     * the point that minimizes the achievement scalarizing function using a
-     * reference point near the given objective.
-     *
-     * The NSGA-III paper (1) does not provide any details on the scalarizing
-     * function, but an earlier paper by the authors (2) where some precursor
-     * experiments are performed does define a possible function, replicated
-     * below.
-     *
-     * @param objective the objective index
-     * @return the extreme point in the given objective
-     */
-    private Solution findExtremePoint(int objective) {
-        double eps = 0.000001;
-        double[] weights = new double[problem_.getNumberOfObjectives()];
-
-        for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
-            if (i == objective) {
-                weights[i] = 1.0;
-            } else {
-                weights[i] = eps;
-            }
-        }
-
-        Solution result = null;
-        double resultASF = Double.POSITIVE_INFINITY;
-
-        for (int i = 0; i < union_.size(); i++) {
-            Solution solution = union_.get(i);
-            double solutionASF = fitnessFunction(solution, weights, "_TCH2");
-
-            if (solutionASF < resultASF) {
-                result = solution;
-                resultASF = solutionASF;
-            }
-        }
-
-        return result;
-    }
-
     /**
      * Calculate the dot product of two vectors
      *
@@ -861,7 +708,7 @@ public class MOEAD_DRA_ASTM extends Algorithm {
      * @param lambda
      * @return
      */
-    double fitnessFunction(Solution individual, double[] lambda, String type) {
+    double fitnessFunction(double[] objectives, double[] lambda, String type) {
         double fitness;
         fitness = 0.0;
 
@@ -870,7 +717,7 @@ public class MOEAD_DRA_ASTM extends Algorithm {
 
             for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
                 double diff;
-                diff = Math.abs((individual.getObjective(i) - z_[i]) / (nz_[i] - z_[i]));
+                diff = Math.abs((objectives[i] - z_[i]) / (nz_[i] - z_[i]));
 
                 double feval;
                 if (lambda[i] == 0) {
@@ -887,25 +734,22 @@ public class MOEAD_DRA_ASTM extends Algorithm {
             double theta; // penalty parameter
             theta = 5.0;
 
-            // normalize the weight vector (line segment)
+            // norm of the weight vector (line segment); lambda is not modified
             double nd = norm_vector(lambda);
-            for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-                lambda[i] = lambda[i] / nd;
-
-            double[] realA = new double[problem_.getNumberOfObjectives()];
-            double[] realB = new double[problem_.getNumberOfObjectives()];
-
-            // difference between current point and reference point
-            for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
-                realA[n] = (individual.getObjective(n) - z_[n]) / (nz_[n] - z_[n]);
 
             // distance along the line segment
-            double d1 = Math.abs(innerproduct(realA, lambda));
+            double d1 = 0;
+            for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
+                d1 += ((objectives[n] - z_[n]) / (nz_[n] - z_[n])) * (lambda[n] / nd);
+            d1 = Math.abs(d1);
 
             // distance to the line segment
-            for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
-                realB[n] = realA[n] - d1 * lambda[n];
-            double d2 = norm_vector(realB);
+            double d2 = 0;
+            for (int n = 0; n < problem_.getNumberOfObjectives(); n++) {
+                double realB = (objectives[n] - z_[n]) / (nz_[n] - z_[n]) - d1 * (lambda[n] / nd);
+                d2 += realB * realB;
+            }
+            d2 = Math.sqrt(d2);
 
             fitness = d1 + theta * d2;
         } else {
@@ -916,4 +760,22 @@ public class MOEAD_DRA_ASTM extends Algorithm {
         return fitness;
     } // fitnessEvaluation
 
+    double fitnessFunction(Solution individual, double[] lambda, String type) {
+        return fitnessFunction(individual.getObjectives(), lambda, type);
+    } // fitnessFunction
+
+    /**
+     * Calculate the fitness value of a solution cached by kernel_ on a subproblem
+     * @param solution Index of the solution in the cached set
+     * @param subproblem
+     * @return
+     */
+    double fitnessFunction(int solution, int subproblem) {
+        if (functionType_.equals("_TCH2"))
+            return kernel_.normalizedTchebycheff(solution, subproblem);
+        else if (functionType_.equals("_PBI"))
+            return kernel_.normalizedPBI(solution, subproblem, 5.0);
+        return fitnessFunction(union_.get(solution), lambda_[subproblem], functionType_);
+    } // fitnessFunction
+
 }
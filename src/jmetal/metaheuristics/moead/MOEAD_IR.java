@@ -38,19 +38,18 @@
 
 package jmetal.metaheuristics.moead;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.StringTokenizer;
 import jmetal.util.*;
 
 import java.util.Vector;
 
 import jmetal.core.*;
+import jmetal.operators.crossover.SingleOffspringCrossover;
 import jmetal.util.PseudoRandom;
+import jmetal.util.snapshot.FrontReader;
+import jmetal.util.telemetry.Telemetry;
 
 public class MOEAD_IR extends Algorithm {
 
@@ -59,6 +58,10 @@ public class MOEAD_IR extends Algorithm {
 	private SolutionSet population_;
 	private SolutionSet currentOffspring_;
 	private SolutionSet union_;
+
+	// offspring of the previous generation, recycled by a single-offspring
+	// crossover (the population keeps copies of the selected solutions)
+	private Solution[] offspringBuffer_;
 	
 	private Solution[] savedValues_;
 
@@ -69,6 +72,53 @@ public class MOEAD_IR extends Algorithm {
 
 	double[][] lambda_; 	// weight vectors
 	int[][] neighborhood_;  // neighborhood structure
+
+	DecompositionKernel kernel_; // distances and fitness values of the selection
+	ParallelRows rows_;			 // threads of the selection ("numberOfThreads", 1 by default)
+	boolean legacyTieOrder_;	 // ties in the order of Utils.QuickSort ("legacyTieOrder", false by default)
+
+	// Workspace of the selection, reused from one generation to the next
+	private int[] idx_;
+	private int[] selected_;
+	private int[] emptySubp_;
+	private double[] nicheCount_;
+	private int[][] solPref_;
+	private double[][] solMatrix_;
+	private double[][] distMatrix_;
+	private double[][] fitnessMatrix_;
+	private int[][] subpPref_;
+	private int[] nearest_;			// subproblem closest to each solution
+
+	// Fitness values and distances of the solutions, with the closest subproblem
+	private final ParallelRows.Body preferenceRows_ = new ParallelRows.Body() {
+		public void run(int from, int to) {
+			for (int i = from; i < to; i++) {
+				double[] fitness  = fitnessMatrix_[i];
+				double[] distance = distMatrix_[i];
+				int minIndex = 0;
+				for (int j = 0; j < populationSize_; j++) {
+					fitness[j]  = fitnessFunction(i, j);
+					distance[j] = kernel_.simplexDistance(i, j);
+					if (distance[j] < distance[minIndex])
+						minIndex = j;
+				}
+				nearest_[i] = minIndex;
+			}
+		}
+	};
+
+	// Preference values of the subproblems on the solutions, sorted
+	private final ParallelRows.Body solutionRanks_ = new ParallelRows.Body() {
+		public void run(int from, int to) {
+			for (int i = from; i < to; i++) {
+				for (int j = 0; j < populationSize_; j++) {
+					solMatrix_[i][j] = distMatrix_[i][j] + nicheCount_[j];
+					solPref_[i][j]   = j;
+				}
+				Utils.quickSortTop(solMatrix_[i], solPref_[i], populationSize_, Kd_, legacyTieOrder_);
+			}
+		}
+	};
 	
 	int T_; 				// neighborhood size
 	double delta_;  		// probability that parent solutions are selected from neighborhood	
@@ -106,6 +156,12 @@ public class MOEAD_IR extends Algorithm {
 		populationSize_ = ((Integer) this.getInputParameter("populationSize")).intValue();
 		dataDirectory_  = this.getInputParameter("dataDirectory").toString();
 
+		int threads = 1;
+		if (this.getInputParameter("numberOfThreads") != null)
+			threads = ((Integer) this.getInputParameter("numberOfThreads")).intValue();
+		rows_ = new ParallelRows(threads);
+		legacyTieOrder_ = Boolean.TRUE.equals(this.getInputParameter("legacyTieOrder"));
+
 		population_  = new SolutionSet(populationSize_);
 		savedValues_ = new Solution[populationSize_];
 		utility_     = new double[populationSize_];
@@ -124,6 +180,9 @@ public class MOEAD_IR extends Algorithm {
 
 		crossover_ = operators_.get("crossover"); // default: DE crossover
 		mutation_  = operators_.get("mutation"); // default: polynomial mutation
+		offspringBuffer_ = new Solution[populationSize_];
+
+		startTelemetry();
 
 		// STEP 1. Initialization
 		// STEP 1.1. Compute Euclidean distances between weight vectors and find T
@@ -141,7 +200,9 @@ public class MOEAD_IR extends Algorithm {
 		// STEP 2. Update
 		do {
 			// Select the satisfied subproblems
+			telemetry_.begin(Telemetry.SELECTION);
 			List<Integer> order = tour_selection(10);
+			telemetry_.end(Telemetry.SELECTION);
 
 			currentOffspring_ = new SolutionSet(order.size());
 			
@@ -162,36 +223,58 @@ public class MOEAD_IR extends Algorithm {
 				Solution[] parents = new Solution[3];
 				Vector<Integer> p = new Vector<Integer>();
 				
+				telemetry_.begin(Telemetry.SELECTION);
 				parents = matingSelection(p, n, 2, type);
+				telemetry_.end(Telemetry.SELECTION);
 				
-				// Apply DE crossover and polynomial mutation
-				child = (Solution) crossover_.execute(new Object[] {population_.get(n), parents});
+				// Apply DE crossover (or a crossover producing a single offspring
+				// from the current solution and a mate) and polynomial mutation
+				telemetry_.begin(Telemetry.VARIATION);
+				if (crossover_ instanceof SingleOffspringCrossover) {
+					child = ((SingleOffspringCrossover) crossover_).executeSingle(
+							population_.get(n), parents[0], offspringBuffer_[i]);
+					offspringBuffer_[i] = child;
+				} else
+					child = (Solution) crossover_.execute(new Object[] {population_.get(n), parents});
 				mutation_.execute(child);
+				telemetry_.end(Telemetry.VARIATION);
 
 				// Evaluation
+				telemetry_.begin(Telemetry.EVALUATION);
 				problem_.evaluate(child);
+				telemetry_.end(Telemetry.EVALUATION);
+				telemetry_.count(Telemetry.EVALUATIONS);
 				evaluations_++;
 
 				/* STEP 2.3. Update the ideal point 'z_' and nadir point 'nz_' */
+				telemetry_.begin(Telemetry.UPDATE);
 				updateReference(child);
+				telemetry_.end(Telemetry.UPDATE);
 				
 				// Add into the offspring population
 				currentOffspring_.add(child);
 			} // for
 			
 			// Combine the parent and the current offspring populations
+			telemetry_.begin(Telemetry.ARCHIVE);
 			union_ = ((SolutionSet) population_).union(currentOffspring_);
 			
 			// Selection Procedure
 			selection();
+			telemetry_.end(Telemetry.ARCHIVE);
 
 			// Update the utility value of subproblems
 			iteration++;
 			if (iteration % 30 == 0) {
+				telemetry_.begin(Telemetry.UPDATE);
 				comp_utility();
+				telemetry_.end(Telemetry.UPDATE);
 			}
+			telemetry_.endGeneration();
 		} while (evaluations_ < maxEvaluations);
 		
+		rows_.shutdown();
+		stopTelemetry();
 		return population_;
 	}
 		
@@ -200,25 +283,16 @@ public class MOEAD_IR extends Algorithm {
   	 */
 	public void selection() {
 		
-		int[] idx 			= new int[populationSize_];		// The indices of the solutions that have finally been selected for the parents
-		int[] selected		= new int[union_.size()];       // If a solution 'i' is selected by a subproblem, selected[i] = 1, otherwise -1
-		int[] emptySubp 	= new int[populationSize_];		// The record of subproblem that has not selected solutions
-		double[] nicheCount = new double[populationSize_];
+		allocateWorkspace(union_.size());
+		int[] idx 			= idx_;				// The indices of the solutions that have finally been selected for the parents
+		int[] selected		= selected_;		// If a solution 'i' is selected by a subproblem, selected[i] = 1, otherwise -1
+		int[] emptySubp 	= emptySubp_;		// The record of subproblem that has not selected solutions
+		double[] nicheCount = nicheCount_;
+		int[] nearest		= nearest_;
 
-		int[][] solPref      	 = new int[union_.size()][];	// The indices of the subproblems that are preferred by solutions
-		double[][] solMatrix 	 = new double[union_.size()][];	// The preference values of the subproblems on solutions
-		double[][] distMatrix    = new double[union_.size()][];
-		double[][] fitnessMatrix = new double[union_.size()][];
-		for (int i = 0; i < union_.size(); i++) {
-			solPref[i]   	 = new int[populationSize_];
-			solMatrix[i] 	 = new double[populationSize_];
-			distMatrix[i]    = new double[populationSize_];
-			fitnessMatrix[i] = new double[populationSize_];
-		}
-		int[][] subpPref = new int[populationSize_][];	// The indices of the solutions that are preferred by subproblems
-		for (int i = 0; i < populationSize_; i++) {
-			subpPref[i] = new int[theta_];
-		}
+		int[][] solPref      	 = solPref_;	// The indices of the subproblems that are preferred by solutions
+		double[][] fitnessMatrix = fitnessMatrix_;
+		int[][] subpPref = subpPref_;	// The indices of the solutions that are preferred by subproblems
 
 		// Initialize the niche count and idx
 		for (int i = 0; i < populationSize_; i++) {
@@ -239,29 +313,15 @@ public class MOEAD_IR extends Algorithm {
 		}
 		
 		// Calculate the preference values of solution matrix
-		for (int i = 0; i < union_.size(); i++) {
-			int minIndex = 0;
-			for (int j = 0; j < populationSize_; j++) {
-				fitnessMatrix[i][j] = fitnessFunction(union_.get(i), lambda_[j]);
-				distMatrix[i][j]  	= calculateDistance2(union_.get(i), lambda_[j]);
-			 	if (distMatrix[i][j] < distMatrix[i][minIndex])
-			 		minIndex = j;
-			}
-			nicheCount[minIndex] = nicheCount[minIndex] + 1;
-		}
+		telemetry_.begin(Telemetry.ASSOCIATION);
+		kernel_.cache(union_, z_, nz_);
+		rows_.forEach(union_.size(), preferenceRows_);
+		for (int i = 0; i < union_.size(); i++)
+			nicheCount[nearest[i]] = nicheCount[nearest[i]] + 1;
 		
-		// Calculate the preference value of subproblems on solutions
-		for (int i = 0; i < union_.size(); i++) {
-			for (int j = 0; j < populationSize_; j++)
-				solMatrix[i][j] = distMatrix[i][j] + nicheCount[j];
-		}
-		
-		// Sort the preference value matrix of solution on subproblems
-		for (int i = 0; i < union_.size(); i++) {
-			for (int j = 0; j < populationSize_; j++)
-				solPref[i][j] = j;
-			Utils.QuickSort(solMatrix[i], solPref[i], 0, populationSize_ - 1);
-		}
+		// Calculate and sort the preference value of subproblems on solutions
+		rows_.forEach(union_.size(), solutionRanks_);
+		telemetry_.end(Telemetry.ASSOCIATION);
 		
 		for (int i = 0; i < populationSize_; i++) {
 			int length = 0;
@@ -326,9 +386,34 @@ public class MOEAD_IR extends Algorithm {
 			}
 		}
 		
-		for (int i = 0; i < populationSize_; i++)
+		for (int i = 0; i < populationSize_; i++) {
 			population_.replace(i, new Solution(union_.get(idx[i])));
+			if (idx[i] >= populationSize_)	// an offspring
+				telemetry_.count(Telemetry.REPLACEMENTS);
+		}
 	}
+
+	/**
+	 * Allocates the workspace of the selection for a union of a given size,
+	 * unless it is already large enough
+	 * @param unionSize
+	 */
+	private void allocateWorkspace(int unionSize) {
+		if (idx_ == null) {
+			idx_        = new int[populationSize_];
+			emptySubp_  = new int[populationSize_];
+			nicheCount_ = new double[populationSize_];
+			subpPref_   = new int[populationSize_][theta_];
+		}
+		if ((selected_ == null) || (selected_.length < unionSize)) {
+			selected_      = new int[unionSize];
+			nearest_       = new int[unionSize];
+			solPref_       = new int[unionSize][populationSize_];
+			solMatrix_     = new double[unionSize][populationSize_];
+			distMatrix_    = new double[unionSize][populationSize_];
+			fitnessMatrix_ = new double[unionSize][populationSize_];
+		}
+	} // allocateWorkspace
 	
 	/**
   	 * Select the next parent population, based on the inter-relationships
@@ -395,7 +480,7 @@ public class MOEAD_IR extends Algorithm {
 		for (int i = 0; i < union_.size(); i++) {
 			for (int j = 0; j < populationSize_; j++)
 				solPref[i][j] = j;
-			Utils.QuickSort(solMatrix[i], solPref[i], 0, populationSize_ - 1);
+			Utils.quickSortTop(solMatrix[i], solPref[i], populationSize_, Kd_, legacyTieOrder_);
 		}
 				
 		for (int i = 0; i < populationSize_; i++) {
@@ -474,22 +559,23 @@ public class MOEAD_IR extends Algorithm {
 	public double calculateDistance(Solution individual, double[] lambda) {
 		
 		double scale;
-		double distance;
-
-		double[] vecInd  = new double[problem_.getNumberOfObjectives()];
-		double[] vecProj = new double[problem_.getNumberOfObjectives()];
+		double product = 0;
+		double sum     = 0;
 		
 		// vecInd has been normalized to the range [0,1]
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			vecInd[i] = (individual.getObjective(i) - z_[i]) / (nz_[i] - z_[i]);
-
-		scale = innerproduct(vecInd, lambda) / innerproduct(vecInd, lambda);
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			vecProj[i] = vecInd[i] - scale * lambda[i];
+		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
+			double vecInd = (individual.getObjective(i) - z_[i]) / (nz_[i] - z_[i]);
+			product += vecInd * lambda[i];
+		}
 
-		distance = norm_vector(vecProj);
+		scale = product / product;
+		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
+			double vecInd  = (individual.getObjective(i) - z_[i]) / (nz_[i] - z_[i]);
+			double vecProj = vecInd - scale * lambda[i];
+			sum += vecProj * vecProj;
+		}
 
-		return distance;
+		return Math.sqrt(sum);
 		
 	}
 	
@@ -501,48 +587,39 @@ public class MOEAD_IR extends Algorithm {
 	 */
 	public double calculateDistance2(Solution individual, double[] lambda) {
 		
-		double distance;
 		double distanceSum = 0.0;
-		
-		double[] vecInd  	   = new double[problem_.getNumberOfObjectives()];
-		double[] normalizedObj = new double[problem_.getNumberOfObjectives()];
+		double sum         = 0.0;
 		
 		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
 			distanceSum += individual.getObjective(i);
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			normalizedObj[i] = individual.getObjective(i) / distanceSum;
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			vecInd[i] = normalizedObj[i] - lambda[i];
-		
-		distance = norm_vector(vecInd);
+		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
+			double normalizedObj = individual.getObjective(i) / distanceSum;
+			double vecInd        = normalizedObj - lambda[i];
+			sum += vecInd * vecInd;
+		}
 
-		return distance;
+		return Math.sqrt(sum);
 	}
 	
 	public double calculateDistance3(Solution indiv, double[] lambda) {
 
-		// normalize the weight vector (line segment)
+		// norm of the weight vector (line segment); lambda is not modified
 		double nd = norm_vector(lambda);
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			lambda[i] = lambda[i] / nd;
-
-		double[] realA = new double[problem_.getNumberOfObjectives()];
-		double[] realB = new double[problem_.getNumberOfObjectives()];
-
-		// difference between current point and reference point
-		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			realA[i] = (indiv.getObjective(i) - z_[i]);
 
 		// distance along the line segment
-		double d1 = Math.abs(innerproduct(realA, lambda));
-
-		// distance to the line segment
+		double d1 = 0;
 		for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-			realB[i] = (indiv.getObjective(i) - (z_[i] + d1 * lambda[i]));
+			d1 += (indiv.getObjective(i) - z_[i]) * (lambda[i] / nd);
+		d1 = Math.abs(d1);
 
-		double distance = norm_vector(realB);
+		// distance to the line segment
+		double sum = 0;
+		for (int i = 0; i < problem_.getNumberOfObjectives(); i++) {
+			double realB = (indiv.getObjective(i) - (z_[i] + d1 * (lambda[i] / nd)));
+			sum += realB * realB;
+		}
 
-		return distance;
+		return Math.sqrt(sum);
 	}
 
 	/**
@@ -554,33 +631,15 @@ public class MOEAD_IR extends Algorithm {
 				+ populationSize_ + ".dat";
 
 		try {
-			// Open the file
-			FileInputStream fis = new FileInputStream(dataDirectory_ + "/"
-					+ dataFileName);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			int i = 0;
-			int j = 0;
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				j = 0;
-				while (st.hasMoreTokens()) {
-					double value = (new Double(st.nextToken())).doubleValue();
-					lambda_[i][j] = value;
-					j++;
-				}
-				aux = br.readLine();
-				i++;
-			}
-			br.close();
+			// Read the file (text or snapshot)
+			FrontReader.read(dataDirectory_ + "/" + dataFileName).copyTo(lambda_);
 		} catch (Exception e) {
 			System.out
 					.println("initUniformWeight: failed when reading for file: "
 							+ dataDirectory_ + "/" + dataFileName);
 			e.printStackTrace();
 		}
+		kernel_ = new DecompositionKernel(lambda_);
 	} // initUniformWeight
 
 	/**
@@ -609,23 +668,7 @@ public class MOEAD_IR extends Algorithm {
 	 * Initialize the neighborhood of subproblems
 	 */
 	public void initNeighborhood() {
-		double[] x = new double[populationSize_];
-		int[] idx = new int[populationSize_];
-
-		for (int i = 0; i < populationSize_; i++) {
-			// calculate the distances based on weight vectors
-			for (int j = 0; j < populationSize_; j++) {
-				x[j] = Utils.distVector(lambda_[i], lambda_[j]);
-				idx[j] = j;
-			} // for
-
-			// find 'niche' nearest neighboring subproblems
-			Utils.minFastSort(x, idx, populationSize_, T_);
-
-			for (int k = 0; k < T_; k++) {
-				neighborhood_[i][k] = idx[k];
-			}
-		} // for
+		new NeighborhoodBuilder(this).build(lambda_, neighborhood_);
 	} // initNeighborhood
 
   /**
@@ -635,7 +678,10 @@ public class MOEAD_IR extends Algorithm {
     for (int i = 0; i < populationSize_; i++) {
       Solution newSolution = new Solution(problem_);
 
+      telemetry_.begin(Telemetry.EVALUATION);
       problem_.evaluate(newSolution);
+      telemetry_.end(Telemetry.EVALUATION);
+      telemetry_.count(Telemetry.EVALUATIONS);
       evaluations_++;
       population_.add(newSolution) ;
       savedValues_[i] = new Solution(newSolution);
@@ -874,26 +920,23 @@ public class MOEAD_IR extends Algorithm {
 			double theta; // penalty parameter
 			theta = 5.0;
 
-			// normalize the weight vector (line segment)
+			// norm of the weight vector (line segment); lambda is not modified
 			double nd = norm_vector(lambda);
-			for (int i = 0; i < problem_.getNumberOfObjectives(); i++)
-				lambda[i] = lambda[i] / nd;
-
-			double[] realA = new double[problem_.getNumberOfObjectives()];
-			double[] realB = new double[problem_.getNumberOfObjectives()];
-
-			// difference between current point and reference point
-			for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
-				realA[n] = (individual.getObjective(n) - z_[n]);
 
 			// distance along the line segment
-			double d1 = Math.abs(innerproduct(realA, lambda));
+			double d1 = 0;
+			for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
+				d1 += (individual.getObjective(n) - z_[n]) * (lambda[n] / nd);
+			d1 = Math.abs(d1);
 
 			// distance to the line segment
-			for (int n = 0; n < problem_.getNumberOfObjectives(); n++)
-				realB[n] = (individual.getObjective(n) - (z_[n] + d1
-						* lambda[n]));
-			double d2 = norm_vector(realB);
+			double d2 = 0;
+			for (int n = 0; n < problem_.getNumberOfObjectives(); n++) {
+				double realB = (individual.getObjective(n) - (z_[n] + d1
+						* (lambda[n] / nd)));
+				d2 += realB * realB;
+			}
+			d2 = Math.sqrt(d2);
 
 			fitness = d1 + theta * d2;
 		} else {
@@ -903,6 +946,22 @@ public class MOEAD_IR extends Algorithm {
 		}
 		return fitness;
 	} // fitnessEvaluation
+
+	/**
+	 * Calculate the fitness value of a solution cached by kernel_ on a subproblem
+	 * @param solution Index of the solution in the cached set
+	 * @param subproblem
+	 * @return
+	 */
+	double fitnessFunction(int solution, int subproblem) {
+		if (functionType_.equals("_TCHE1"))
+			return kernel_.tchebycheff1(solution, subproblem);
+		else if (functionType_.equals("_TCHE2"))
+			return kernel_.tchebycheff2(solution, subproblem);
+		else if (functionType_.equals("_PBI"))
+			return kernel_.pbi(solution, subproblem, 5.0);
+		return fitnessFunction(union_.get(solution), lambda_[subproblem]);
+	} // fitnessFunction
   
   
   /** @author Juanjo
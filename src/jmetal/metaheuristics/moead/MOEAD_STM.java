@@ -38,19 +38,18 @@
 
 package jmetal.metaheuristics.moead;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.StringTokenizer;
 import jmetal.util.*;
 
 import java.util.Vector;
 
 import jmetal.core.*;
+import jmetal.operators.crossover.SingleOffspringCrossover;
 import jmetal.util.PseudoRandom;
+import jmetal.util.snapshot.FrontReader;
+import jmetal.util.telemetry.Telemetry;
 
 public class MOEAD_STM extends Algorithm {
 
@@ -62,6 +61,10 @@ public class MOEAD_STM extends Algorithm {
 	private SolutionSet population_;
 	private SolutionSet currentOffspring_;
 	private SolutionSet union_;
+
+	// offspring of the previous generation, recycled by a single-offspring
+	// crossover (the population keeps copies of the selected solutions)
+	private Solution[] offspringBuffer_;
 	
 	// stores the values of the individuals
 	private Solution[] savedValues_;
@@ -78,6 +81,68 @@ public class MOEAD_STM extends Algorithm {
 	// weight vectors
 	double[][] lambda_;
 
+	// distances and fitness values of the selection
+	DecompositionKernel kernel_;
+
+	// threads of the selection ("numberOfThreads", 1 by default)
+	ParallelRows rows_;
+
+	// ties of the preference lists in the order of Utils.QuickSort, as in
+	// the seeded runs before ("legacyTieOrder", false by default)
+	boolean legacyTieOrder_;
+
+	// workspace of the selection, reused from one generation to the next
+	private double[] nicheCount_;
+	private int[] nearest_;			// subproblem closest to each solution
+	private int[][] solPref_;
+	private double[][] solMatrix_;
+	private double[][] distMatrix_;
+	private double[][] fitnessMatrix_;
+	private int[][] subpPref_;
+	private double[][] subpMatrix_;
+
+	// fitness values and distances of the solutions, with the closest subproblem
+	private final ParallelRows.Body preferenceRows_ = new ParallelRows.Body() {
+		public void run(int from, int to) {
+			for (int i = from; i < to; i++) {
+				double[] fitness  = fitnessMatrix_[i];
+				double[] distance = distMatrix_[i];
+				int minIndex = 0;
+				for (int j = 0; j < populationSize_; j++) {
+					fitness[j]  = fitnessFunction(i, j);
+					distance[j] = kernel_.perpendicularDistance(i, j);
+					if (distance[j] < distance[minIndex])
+						minIndex = j;
+				}
+				nearest_[i] = minIndex;
+			}
+		}
+	};
+
+	// preference values of a subproblem (rows 0 .. N - 1) or of a solution
+	// (rows N ..), sorted to get the preference ranks
+	private final ParallelRows.Body preferenceRanks_ = new ParallelRows.Body() {
+		public void run(int from, int to) {
+			for (int row = from; row < to; row++) {
+				if (row < populationSize_) {
+					int j = row;
+					for (int i = 0; i < union_.size(); i++) {
+						subpMatrix_[j][i] = fitnessMatrix_[i][j];
+						subpPref_[j][i]   = i;
+					}
+					Utils.sortRow(subpMatrix_[j], subpPref_[j], union_.size(), legacyTieOrder_);
+				} else {
+					int i = row - populationSize_;
+					for (int j = 0; j < populationSize_; j++) {
+						solMatrix_[i][j] = distMatrix_[i][j] + nicheCount_[j];
+						solPref_[i][j]   = j;
+					}
+					Utils.sortRow(solMatrix_[i], solPref_[i], populationSize_, legacyTieOrder_);
+				}
+			}
+		}
+	};
+
 	// neighborhood size
 	int T_;
 	
@@ -115,6 +180,12 @@ public class MOEAD_STM extends Algorithm {
 		maxEvaluations  = ((Integer) this.getInputParameter("maxEvaluations")).intValue();
 		populationSize_ = ((Integer) this.getInputParameter("populationSize")).intValue();
 
+		int threads = 1;
+		if (this.getInputParameter("numberOfThreads") != null)
+			threads = ((Integer) this.getInputParameter("numberOfThreads")).intValue();
+		rows_ = new ParallelRows(threads);
+		legacyTieOrder_ = Boolean.TRUE.equals(this.getInputParameter("legacyTieOrder"));
+
 		population_  = new SolutionSet(populationSize_);
 		savedValues_ = new Solution[populationSize_];
 		utility_     = new double[populationSize_];
@@ -134,6 +205,9 @@ public class MOEAD_STM extends Algorithm {
 
 		crossover_ = operators_.get("crossover");
 		mutation_  = operators_.get("mutation");
+		offspringBuffer_ = new Solution[populationSize_];
+
+		startTelemetry();
 
 		/* STEP 1. INITIALIZATION */
 		// STEP 1.1. compute Euclidean distances between weight vectors and find T
@@ -151,7 +225,9 @@ public class MOEAD_STM extends Algorithm {
 		/* STEP 2. UPDATE */
 		do {
 			// select the satisfied subproblems
+			telemetry_.begin(Telemetry.SELECTION);
 			List<Integer> order = tour_selection(10);
+			telemetry_.end(Telemetry.SELECTION);
 			currentOffspring_   = new SolutionSet(order.size());
 			
 			for (int i = 0; i < order.size(); i++) {
@@ -170,37 +246,59 @@ public class MOEAD_STM extends Algorithm {
 				Solution[] parents = new Solution[3];
 				Vector<Integer> p = new Vector<Integer>();
 				
+				telemetry_.begin(Telemetry.SELECTION);
 				parents = matingSelection(p, n, 2, type);
-
-				// apply DE crossover and polynomial mutation
-				child = (Solution) crossover_.execute(new Object[] {population_.get(n), parents});
+				telemetry_.end(Telemetry.SELECTION);
+
+				// apply DE crossover (or a crossover producing a single offspring
+				// from the current solution and a mate) and polynomial mutation
+				telemetry_.begin(Telemetry.VARIATION);
+				if (crossover_ instanceof SingleOffspringCrossover) {
+					child = ((SingleOffspringCrossover) crossover_).executeSingle(
+							population_.get(n), parents[0], offspringBuffer_[i]);
+					offspringBuffer_[i] = child;
+				} else
+					child = (Solution) crossover_.execute(new Object[] {population_.get(n), parents});
 				mutation_.execute(child);
+				telemetry_.end(Telemetry.VARIATION);
 
 				// evaluation
+				telemetry_.begin(Telemetry.EVALUATION);
 				problem_.evaluate(child);
+				telemetry_.end(Telemetry.EVALUATION);
+				telemetry_.count(Telemetry.EVALUATIONS);
 				evaluations_++;
 
 				// STEP 2.3. update the ideal and nadir points
+				telemetry_.begin(Telemetry.UPDATE);
 				updateReference(child);
 				updateNadirPoint(child);
+				telemetry_.end(Telemetry.UPDATE);
 
 				// add into the offspring population
 				currentOffspring_.add(child);
 			} // for
 			
 			// Combine the parent and the current offspring populations
+			telemetry_.begin(Telemetry.ARCHIVE);
 			union_ = ((SolutionSet) population_).union(currentOffspring_);
 
 			// selection process
 			selection();
+			telemetry_.end(Telemetry.ARCHIVE);
 
 			// update the utility value of subproblems
 			iteration++;
 			if (iteration % 30 == 0) {
+				telemetry_.begin(Telemetry.UPDATE);
 				comp_utility();
+				telemetry_.end(Telemetry.UPDATE);
 			}
+			telemetry_.endGeneration();
 		} while (evaluations_ <= maxEvaluations);
 		
+		rows_.shutdown();
+		stopTelemetry();
 		return population_;
 	}
 	
@@ -209,64 +307,51 @@ public class MOEAD_STM extends Algorithm {
   	 */
 	public void selection() {
 
-		int[] idx = new int[populationSize_];
-		double[] nicheCount = new double[populationSize_];
-
-		int[][]    solPref   = new int[union_.size()][];
-		double[][] solMatrix = new double[union_.size()][];
-		double[][] distMatrix    = new double[union_.size()][];
-		double[][] fitnessMatrix = new double[union_.size()][];
-
-		for (int i = 0; i < union_.size(); i++) {
-			solPref[i]   = new int[populationSize_];
-			solMatrix[i] = new double[populationSize_];
-			distMatrix[i]    = new double[populationSize_];
-			fitnessMatrix[i] = new double[populationSize_];
-		}
-		int[][]    subpPref   = new int[populationSize_][];
-		double[][] subpMatrix = new double[populationSize_][];
-		for (int i = 0; i < populationSize_; i++) {
-			subpPref[i]   = new int[union_.size()];
-			subpMatrix[i] = new double[union_.size()];
-		}
+		allocateWorkspace(union_.size());
+		double[] nicheCount = nicheCount_;
+		int[] nearest		= nearest_;
+		for (int i = 0; i < populationSize_; i++)
+			nicheCount[i] = 0;
 
 		// Calculate the preference values of solution matrix
-		for (int i = 0; i < union_.size(); i++) {
-			int minIndex = 0;
-			for (int j = 0; j < populationSize_; j++) {
-				fitnessMatrix[i][j] = fitnessFunction(union_.get(i), lambda_[j]);
-				distMatrix[i][j]  	= calculateDistance(union_.get(i), lambda_[j]);
-				if (distMatrix[i][j] < distMatrix[i][minIndex])
-					minIndex = j;
-			}
-			nicheCount[minIndex] = nicheCount[minIndex] + 1;
-		}
-
-		// calculate the preference values of subproblem matrix and solution matrix
-		for (int i = 0; i < union_.size(); i++) {
-			for (int j = 0; j < populationSize_; j++) {
-				subpMatrix[j][i] = fitnessFunction(union_.get(i), lambda_[j]);
-				solMatrix[i][j] = distMatrix[i][j] + nicheCount[j];
-			}
-		}
+		telemetry_.begin(Telemetry.ASSOCIATION);
+		kernel_.cache(union_, z_, nz_);
+		rows_.forEach(union_.size(), preferenceRows_);
+		for (int i = 0; i < union_.size(); i++)
+			nicheCount[nearest[i]] = nicheCount[nearest[i]] + 1;
 
-		// sort the preference value matrix to get the preference rank matrix
-		for (int i = 0; i < populationSize_; i++) {
-			for (int j = 0; j < union_.size(); j++)
-				subpPref[i][j] = j;
-			Utils.QuickSort(subpMatrix[i], subpPref[i], 0, union_.size() - 1);
-		}
-		for (int i = 0; i < union_.size(); i++) {
-			for (int j = 0; j < populationSize_; j++)
-				solPref[i][j] = j;
-			Utils.QuickSort(solMatrix[i], solPref[i], 0, populationSize_ - 1);
-		}
+		// calculate the preference values of subproblem matrix and solution matrix,
+		// and sort them to get the preference rank matrix
+		rows_.forEach(populationSize_ + union_.size(), preferenceRanks_);
+		telemetry_.end(Telemetry.ASSOCIATION);
 
-		idx = stableMatching(subpPref, solPref, populationSize_, union_.size());
+		int[] idx = stableMatching(subpPref_, solPref_, populationSize_, union_.size());
 
-		for (int i = 0; i < populationSize_; i++)
+		for (int i = 0; i < populationSize_; i++) {
 			population_.replace(i, new Solution(union_.get(idx[i])));
+			if (idx[i] >= populationSize_)	// an offspring
+				telemetry_.count(Telemetry.REPLACEMENTS);
+		}
 	}
+
+	/**
+	 * Allocates the workspace of the selection for a union of a given size,
+	 * unless it is already large enough
+	 * @param unionSize
+	 */
+	private void allocateWorkspace(int unionSize) {
+		if (nicheCount_ == null)
+			nicheCount_ = new double[populationSize_];
+		if ((nearest_ == null) || (nearest_.length < unionSize)) {
+			nearest_       = new int[unionSize];
+			solPref_       = new int[unionSize][populationSize_];
+			solMatrix_     = new double[unionSize][populationSize_];
+			distMatrix_    = new double[unionSize][populationSize_];
+			fitnessMatrix_ = new double[unionSize][populationSize_];
+			subpPref_      = new int[populationSize_][unionSize];
+			subpMatrix_    = new double[populationSize_][unionSize];
+		}
+	} // allocateWorkspace
   
   	/**
 	 * Return the stable matching between 'subproblems' and 'solutions'
@@ -406,33 +491,15 @@ public class MOEAD_STM extends Algorithm {
 //		dataFileName = "pW" + problem_.getNumberOfObjectives() + "D_" + problem_.getName() + "_" + referenceIdx_ + ".dat";
 
 		try {
-			// Open the file
-			FileInputStream fis = new FileInputStream(dataDirectory_ + "/"
-					+ dataFileName);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			int i = 0;
-			int j = 0;
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				j = 0;
-				while (st.hasMoreTokens()) {
-					double value = (new Double(st.nextToken())).doubleValue();
-					lambda_[i][j] = value;
-					j++;
-				}
-				aux = br.readLine();
-				i++;
-			}
-			br.close();
+			// Read the file (text or snapshot)
+			FrontReader.read(dataDirectory_ + "/" + dataFileName).copyTo(lambda_);
 		} catch (Exception e) {
 			System.out
 					.println("initUniformWeight: failed when reading for file: "
 							+ dataDirectory_ + "/" + dataFileName);
 			e.printStackTrace();
 		}
+		kernel_ = new DecompositionKernel(lambda_);
 	} // initUniformWeight
 
 	/**
@@ -461,23 +528,7 @@ public class MOEAD_STM extends Algorithm {
 	 * Initialize the neighborhood of subproblems
 	 */
 	public void initNeighborhood() {
-		double[] x = new double[populationSize_];
-		int[] idx = new int[populationSize_];
-
-		for (int i = 0; i < populationSize_; i++) {
-			// calculate the distances based on weight vectors
-			for (int j = 0; j < populationSize_; j++) {
-				x[j] = Utils.distVector(lambda_[i], lambda_[j]);
-				idx[j] = j;
-			}
-
-			// find 'niche' nearest neighboring subproblems
-			Utils.minFastSort(x, idx, populationSize_, T_);
-
-			for (int k = 0; k < T_; k++) {
-				neighborhood_[i][k] = idx[k];
-			}
-		}
+		new NeighborhoodBuilder(this).build(lambda_, neighborhood_);
 	}
 
   /**
@@ -489,7 +540,10 @@ public class MOEAD_STM extends Algorithm {
 	  for (int i = 0; i < populationSize_; i++) {
       Solution newSolution = new Solution(problem_);
 
+      telemetry_.begin(Telemetry.EVALUATION);
       problem_.evaluate(newSolution);
+      telemetry_.end(Telemetry.EVALUATION);
+      telemetry_.count(Telemetry.EVALUATIONS);
       evaluations_++;
       population_.add(newSolution) ;
       savedValues_[i] = new Solution(newSolution);
@@ -685,4 +739,16 @@ public class MOEAD_STM extends Algorithm {
 		return fitness;
 	}
 
+	/**
+	 * Calculate the fitness value of a solution cached by kernel_ on a subproblem
+	 * @param solution index of the solution in the cached set
+	 * @param subproblem
+	 * @return
+	 */
+	double fitnessFunction(int solution, int subproblem) {
+		if (functionType_.equals("TCH"))
+			return kernel_.tchebycheff2(solution, subproblem);
+		return fitnessFunction(union_.get(solution), lambda_[subproblem]);
+	} // fitnessFunction
+
 } // MOEA/D-STM
\ No newline at end of file
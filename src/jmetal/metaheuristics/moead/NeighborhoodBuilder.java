@@ -0,0 +1,288 @@
+//  NeighborhoodBuilder.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.moead;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import jmetal.core.Algorithm;
+import jmetal.util.Configuration;
+
+/**
+ * Builds the neighborhoods of the MOEA/D variants: the T subproblems whose
+ * weight vectors are the closest (in Euclidean distance) to each weight
+ * vector, in the order of the former <code>initNeighborhood</code>, which
+ * sorted the distances of a whole row with <code>Utils.minFastSort</code>.
+ * <p>
+ * The T-th smallest distance of a row is found by quickselect; the partial
+ * selection sort then only runs on the vectors which are not farther than it,
+ * taken in the order of their indices. The vectors farther than that
+ * threshold cannot change the relative order of the others in the selection
+ * sort, so the neighborhoods (ties included) are the same as before. The rows
+ * are processed by <code>ParallelRows</code>.
+ * <p>
+ * The neighborhoods can be cached in a directory, in files named after the
+ * size of the weight set, T and a SHA-1 hash of the weight vectors.
+ */
+public class NeighborhoodBuilder {
+	private final int numberOfThreads_;
+	private final String cacheDirectory_;	// null for no cache
+
+	/**
+	 * Constructor
+	 *
+	 * @param numberOfThreads Number of threads (0 for one per core)
+	 * @param cacheDirectory Directory of the cached neighborhoods, or null
+	 */
+	public NeighborhoodBuilder(int numberOfThreads, String cacheDirectory) {
+		numberOfThreads_ = numberOfThreads;
+		cacheDirectory_  = cacheDirectory;
+	} // NeighborhoodBuilder
+
+	/**
+	 * Constructor, configured by the input parameters "numberOfThreads" (1 by
+	 * default) and "neighborhoodCache" (a directory; no cache by default) of
+	 * an algorithm
+	 */
+	public NeighborhoodBuilder(Algorithm algorithm) {
+		this((algorithm.getInputParameter("numberOfThreads") == null) ? 1 :
+				((Integer) algorithm.getInputParameter("numberOfThreads")).intValue(),
+				(algorithm.getInputParameter("neighborhoodCache") == null) ? null :
+				algorithm.getInputParameter("neighborhoodCache").toString());
+	} // NeighborhoodBuilder
+
+	/**
+	 * Fills the neighborhoods of a set of weight vectors
+	 *
+	 * @param lambda The weight vectors
+	 * @param neighborhood A matrix of lambda.length rows of T elements
+	 */
+	public void build(double[][] lambda, int[][] neighborhood) {
+		int T = neighborhood[0].length;
+		if (T > lambda.length)
+			throw new IllegalArgumentException("NeighborhoodBuilder.build: T = " + T
+					+ " is larger than the number of weight vectors (" + lambda.length + ")");
+
+		File cache = null;
+		if (cacheDirectory_ != null) {
+			cache = new File(cacheDirectory_, "N" + lambda.length + "_M" + lambda[0].length
+					+ "_T" + T + "_" + hash(lambda) + ".nbr");
+			if (read(cache, neighborhood))
+				return;
+		}
+
+		compute(lambda, neighborhood);
+
+		if (cache != null)
+			write(cache, neighborhood);
+	} // build
+
+	/**
+	 * Computes the neighborhoods, splitting the rows among the threads
+	 */
+	private void compute(final double[][] lambda, final int[][] neighborhood) {
+		ParallelRows rows = new ParallelRows(numberOfThreads_);
+		try {
+			rows.forEach(lambda.length, new ParallelRows.Body() {
+				public void run(int from, int to) {
+					int size = lambda.length;
+					int T    = neighborhood[0].length;
+
+					// Scratch arrays of this group of rows
+					double[] x         = new double[size];
+					double[] selection = new double[size];
+					double[] nearX     = new double[size];
+					int[]    nearIdx   = new int[size];
+
+					for (int i = from; i < to; i++) {
+						for (int j = 0; j < size; j++)
+							x[j] = Utils.distVector(lambda[i], lambda[j]);
+
+						System.arraycopy(x, 0, selection, 0, size);
+						double threshold = select(selection, size, T - 1);
+
+						int near = 0;
+						for (int j = 0; j < size; j++) {
+							if (x[j] <= threshold) {
+								nearX[near]   = x[j];
+								nearIdx[near] = j;
+								near++;
+							}
+						}
+						Utils.minFastSort(nearX, nearIdx, near, T);
+						System.arraycopy(nearIdx, 0, neighborhood[i], 0, T);
+					}
+				}
+			});
+		} finally {
+			rows.shutdown();
+		}
+	} // compute
+
+	/**
+	 * Returns the k-th smallest value (k from 0) of the first size elements of
+	 * an array, which are reordered (quickselect, median-of-three pivot)
+	 */
+	static double select(double[] a, int size, int k) {
+		int from = 0;
+		int to   = size - 1;
+		while (from < to) {
+			int middle = (from + to) >>> 1;
+			if (a[middle] < a[from])
+				swap(a, middle, from);
+			if (a[to] < a[from])
+				swap(a, to, from);
+			if (a[to] < a[middle])
+				swap(a, to, middle);
+			double pivot = a[middle];
+
+			int i = from;
+			int j = to;
+			while (i <= j) {
+				while (a[i] < pivot)
+					i++;
+				while (a[j] > pivot)
+					j--;
+				if (i <= j) {
+					swap(a, i, j);
+					i++;
+					j--;
+				}
+			}
+			if (k <= j)
+				to = j;
+			else if (k >= i)
+				from = i;
+			else
+				return a[k];
+		}
+		return a[k];
+	} // select
+
+	private static void swap(double[] a, int i, int j) {
+		double tmp = a[i];
+		a[i] = a[j];
+		a[j] = tmp;
+	} // swap
+
+	/**
+	 * Returns the SHA-1 hash of the weight vectors, in hexadecimal
+	 */
+	static String hash(double[][] lambda) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		byte[] buffer = new byte[8 * lambda[0].length];
+		for (int i = 0; i < lambda.length; i++) {
+			for (int k = 0; k < lambda[i].length; k++) {
+				long bits = Double.doubleToLongBits(lambda[i][k]);
+				for (int b = 0; b < 8; b++)
+					buffer[8 * k + b] = (byte) (bits >>> (56 - 8 * b));
+			}
+			digest.update(buffer, 0, 8 * lambda[i].length);
+		}
+
+		StringBuilder hex = new StringBuilder();
+		for (byte b : digest.digest())
+			hex.append(String.format("%02x", b & 0xff));
+		return hex.toString();
+	} // hash
+
+	/**
+	 * Reads cached neighborhoods; returns false if the file does not exist or
+	 * does not match the matrix
+	 */
+	private boolean read(File file, int[][] neighborhood) {
+		if (!file.isFile())
+			return false;
+		int T = neighborhood[0].length;
+		if (file.length() != 8L + 4L * neighborhood.length * T)
+			return false;
+
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if ((in.readInt() != neighborhood.length) || (in.readInt() != T))
+				return false;
+			for (int i = 0; i < neighborhood.length; i++)
+				for (int k = 0; k < T; k++)
+					neighborhood[i][k] = in.readInt();
+			return true;
+		} catch (IOException e) {
+			Configuration.logger_.warning("NeighborhoodBuilder: cannot read " + file
+					+ " (" + e.getMessage() + ")");
+			return false;
+		} finally {
+			close(in);
+		}
+	} // read
+
+	/**
+	 * Writes the neighborhoods to a temporary file, then renames it, so that
+	 * a concurrent reader never sees a partial file
+	 */
+	private void write(File file, int[][] neighborhood) {
+		File directory = file.getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			Configuration.logger_.warning("NeighborhoodBuilder: cannot create " + directory);
+			return;
+		}
+
+		DataOutputStream out = null;
+		File temporary = null;
+		try {
+			temporary = File.createTempFile(file.getName(), ".tmp", directory);
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+			out.writeInt(neighborhood.length);
+			out.writeInt(neighborhood[0].length);
+			for (int i = 0; i < neighborhood.length; i++)
+				for (int k = 0; k < neighborhood[i].length; k++)
+					out.writeInt(neighborhood[i][k]);
+			out.close();
+			out = null;
+			if (!temporary.renameTo(file) && !file.isFile())
+				Configuration.logger_.warning("NeighborhoodBuilder: cannot write " + file);
+		} catch (IOException e) {
+			Configuration.logger_.warning("NeighborhoodBuilder: cannot write " + file
+					+ " (" + e.getMessage() + ")");
+		} finally {
+			close(out);
+			if ((temporary != null) && temporary.exists())
+				temporary.delete();
+		}
+	} // write
+
+	private static void close(java.io.Closeable stream) {
+		if (stream != null) {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				// Nothing to do
+			}
+		}
+	} // close
+} // NeighborhoodBuilder
@@ -0,0 +1,103 @@
+//  ParallelRows.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.moead;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a loop over the rows of the preference matrices of the stable matching
+ * selections (MOEA/D-STM, MOEA/D-IR, MOEA/D-DRA-ASTM). With one thread the
+ * rows are processed in order by the calling thread; otherwise the range is
+ * split into fork-join tasks of a few rows each.
+ * <p>
+ * A row must only write its own cells of the workspace and read data which
+ * no other row writes, so the matrices are the same bit for bit whatever the
+ * number of threads.
+ */
+public class ParallelRows {
+	private final int numberOfThreads_;
+	private final ForkJoinPool pool_;	// null with a single thread
+
+	/**
+	 * Rows of a loop: <code>run(from, to)</code> processes the rows from
+	 * <code>from</code> (inclusive) to <code>to</code> (exclusive)
+	 */
+	public static abstract class Body {
+		public abstract void run(int from, int to);
+	} // Body
+
+	/**
+	 * Constructor
+	 *
+	 * @param numberOfThreads Number of threads (0 for one per core)
+	 */
+	public ParallelRows(int numberOfThreads) {
+		if (numberOfThreads <= 0)
+			numberOfThreads = Runtime.getRuntime().availableProcessors();
+		numberOfThreads_ = numberOfThreads;
+		pool_ = (numberOfThreads > 1) ? new ForkJoinPool(numberOfThreads) : null;
+	} // ParallelRows
+
+	public int getNumberOfThreads() {
+		return numberOfThreads_;
+	} // getNumberOfThreads
+
+	/**
+	 * Processes the rows 0 .. size - 1 and returns when all of them are done
+	 */
+	public void forEach(int size, Body body) {
+		if ((pool_ == null) || (size < 2)) {
+			body.run(0, size);
+			return;
+		}
+		// About four tasks per thread, to balance rows of unequal cost
+		int grain = Math.max(1, size / (4 * numberOfThreads_));
+		pool_.invoke(new Rows(body, 0, size, grain));
+	} // forEach
+
+	/**
+	 * Stops the worker threads; the object must not be used afterwards
+	 */
+	public void shutdown() {
+		if (pool_ != null)
+			pool_.shutdown();
+	} // shutdown
+
+	private static class Rows extends RecursiveAction {
+		private final Body body_;
+		private final int from_;
+		private final int to_;
+		private final int grain_;
+
+		Rows(Body body, int from, int to, int grain) {
+			body_  = body;
+			from_  = from;
+			to_    = to;
+			grain_ = grain;
+		} // Rows
+
+		protected void compute() {
+			if (to_ - from_ <= grain_) {
+				body_.run(from_, to_);
+			} else {
+				int middle = (from_ + to_) >>> 1;
+				invokeAll(new Rows(body_, from_, middle, grain_),
+						new Rows(body_, middle, to_, grain_));
+			}
+		} // compute
+	} // Rows
+} // ParallelRows
@@ -0,0 +1,446 @@
+//  ReferencePoints.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.moead;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+
+/**
+ * The ideal and nadir points of an algorithm, kept up to date incrementally.
+ * The tracker works on the arrays of the algorithm (its <code>z_</code> and
+ * <code>nz_</code>), so the code reading them is unchanged; every change of
+ * either point goes through the tracker, which then takes a new version
+ * stamp. A value derived from the points (normalized objectives, grid
+ * boundaries) stays valid as long as the version is the one it was computed
+ * with. The stamps are drawn from a counter shared by all the trackers, so a
+ * stamp never designates two different pairs of points.
+ * <p>
+ * <code>translatedObjectives</code> and <code>normalizedObjectives</code>
+ * return the objectives of a solution translated by the ideal point, or
+ * normalized by both points, with their squared norm. They are cached on the
+ * solution with the version of the points, and recomputed only after the
+ * points have moved; the ideal point has its own version, so the translated
+ * objectives survive the changes of the nadir point.
+ * <p>
+ * <code>updateIntercepts</code> sets the nadir point from the hyperplane
+ * through the extreme points of a set (the points minimizing the
+ * achievement scalarizing function of each axis), as in NSGA-III. The extreme
+ * points are kept from one call to the next: when the reference points have
+ * not moved, only the new solutions of the set are scanned, and the linear
+ * system giving the intercepts is solved again only when an extreme point or
+ * the ideal point has changed.
+ */
+public class ReferencePoints {
+	private static final AtomicLong versions_ = new AtomicLong();
+
+	private static final double EPSILON = 0.000001;	// Weight of the other axes in the ASF
+
+	private final int numberOfObjectives_;
+	private final double[] z_;		// Ideal point (the array of the algorithm)
+	private final double[] nz_;		// Nadir point (the array of the algorithm)
+	private long version_;
+	private long idealVersion_;		// Version of the ideal point alone
+
+	// Extreme points of the last call of updateIntercepts
+	private final double[][] extremes_;		// Their objectives
+	private final double[]   extremeASF_;	// Their ASF on each axis
+	private final double[]   interceptZ_;	// Ideal point of the intercepts
+	private final double[]   intercepts_;
+	private long extremesVersion_;			// Version when they were found, -1: none
+	private boolean degenerate_;			// The hyperplane could not be used
+
+	private final double[][] A_;	// Workspace of lsolve
+	private final double[]   b_;
+	private final double[]   x_;
+	private int solves_;
+
+	/**
+	 * Constructor
+	 *
+	 * @param z The ideal point of the algorithm
+	 * @param nz The nadir point of the algorithm
+	 */
+	public ReferencePoints(double[] z, double[] nz) {
+		numberOfObjectives_ = z.length;
+		z_  = z;
+		nz_ = nz;
+
+		extremes_    = new double[numberOfObjectives_][numberOfObjectives_];
+		extremeASF_  = new double[numberOfObjectives_];
+		interceptZ_  = new double[numberOfObjectives_];
+		intercepts_  = new double[numberOfObjectives_];
+		A_ = new double[numberOfObjectives_][numberOfObjectives_];
+		b_ = new double[numberOfObjectives_];
+		x_ = new double[numberOfObjectives_];
+		solves_ = 0;
+		changed();
+	} // ReferencePoints
+
+	public double[] getIdealPoint() {
+		return z_;
+	} // getIdealPoint
+
+	public double[] getNadirPoint() {
+		return nz_;
+	} // getNadirPoint
+
+	/**
+	 * Returns the version stamp of the current ideal and nadir points
+	 */
+	public long getVersion() {
+		return version_;
+	} // getVersion
+
+	/**
+	 * Returns a new version stamp, for the values normalized with other
+	 * reference points than those of a tracker
+	 */
+	public static long nextVersion() {
+		return versions_.incrementAndGet();
+	} // nextVersion
+
+	/**
+	 * Returns the number of times the intercepts have been solved for
+	 */
+	public int getSolves() {
+		return solves_;
+	} // getSolves
+
+	/**
+	 * Takes a new version, after the points have been written directly (when
+	 * they are read from a checkpoint); the extreme points are searched again
+	 */
+	public void changed() {
+		idealVersion_ = versions_.incrementAndGet();
+		version_ = versions_.incrementAndGet();
+		extremesVersion_ = -1;
+	} // changed
+
+	/**
+	 * Sets the ideal point to +infinity (1e+30), before the first solutions
+	 */
+	public void resetIdealPoint() {
+		for (int i = 0; i < numberOfObjectives_; i++)
+			z_[i] = 1.0e+30;
+		changed();
+	} // resetIdealPoint
+
+	/**
+	 * Sets the nadir point to -infinity (-1e+30), before the first solutions
+	 */
+	public void resetNadirPoint() {
+		for (int i = 0; i < numberOfObjectives_; i++)
+			nz_[i] = -1.0e+30;
+		changed();
+	} // resetNadirPoint
+
+	/**
+	 * Updates the ideal point with the best value of each objective
+	 *
+	 * @param solution
+	 * @return true if the point has changed
+	 */
+	public boolean updateIdealPoint(Solution solution) {
+		boolean changed = false;
+		for (int i = 0; i < numberOfObjectives_; i++) {
+			if (solution.getObjective(i) < z_[i]) {
+				z_[i] = solution.getObjective(i);
+				changed = true;
+			}
+		}
+		if (changed) {
+			idealVersion_ = versions_.incrementAndGet();
+			version_ = versions_.incrementAndGet();
+		}
+		return changed;
+	} // updateIdealPoint
+
+	/**
+	 * Updates the nadir point with the worst value of each objective
+	 *
+	 * @param solution
+	 * @return true if the point has changed
+	 */
+	public boolean updateNadirPoint(Solution solution) {
+		boolean changed = false;
+		for (int i = 0; i < numberOfObjectives_; i++) {
+			if (solution.getObjective(i) > nz_[i]) {
+				nz_[i] = solution.getObjective(i);
+				changed = true;
+			}
+		}
+		if (changed)
+			version_ = versions_.incrementAndGet();
+		return changed;
+	} // updateNadirPoint
+
+	/**
+	 * Sets the nadir point to the worst values of the first solutions of a
+	 * set, which may be better than the current ones
+	 *
+	 * @param set
+	 * @param size Number of solutions considered
+	 * @return true if the point has changed
+	 */
+	public boolean refreshNadirPoint(SolutionSet set, int size) {
+		boolean changed = false;
+		for (int i = 0; i < numberOfObjectives_; i++) {
+			double worst = -1.0e+30;
+			for (int j = 0; j < size; j++)
+				if (set.get(j).getObjective(i) > worst)
+					worst = set.get(j).getObjective(i);
+			if (worst != nz_[i]) {
+				nz_[i] = worst;
+				changed = true;
+			}
+		}
+		if (changed)
+			version_ = versions_.incrementAndGet();
+		return changed;
+	} // refreshNadirPoint
+
+	/**
+	 * Returns the objectives of a solution minus the ideal point, computed
+	 * once for each ideal point; <code>getNormalizedNorm2</code> of the
+	 * solution then returns their squared norm
+	 *
+	 * @param solution
+	 * @return The cached array of the solution; it must not be modified
+	 */
+	public double[] translatedObjectives(Solution solution) {
+		double[] translated = solution.getNormalizedObjectives(idealVersion_);
+		if (translated != null)
+			return translated;
+		translated = solution.normalizedObjectivesBuffer();
+		double norm2 = 0;
+		for (int i = 0; i < numberOfObjectives_; i++) {
+			translated[i] = solution.getObjective(i) - z_[i];
+			norm2 += translated[i] * translated[i];
+		}
+		solution.setNormalizedObjectives(idealVersion_, norm2);
+		return translated;
+	} // translatedObjectives
+
+	/**
+	 * Returns the objectives of a solution normalized by the reference points,
+	 * (f - z) / (nz - z), computed once for each version of the points;
+	 * <code>getNormalizedNorm2</code> of the solution then returns their
+	 * squared norm
+	 *
+	 * @param solution
+	 * @return The cached array of the solution; it must not be modified
+	 */
+	public double[] normalizedObjectives(Solution solution) {
+		double[] normalized = solution.getNormalizedObjectives(version_);
+		if (normalized != null)
+			return normalized;
+		normalized = solution.normalizedObjectivesBuffer();
+		double norm2 = 0;
+		for (int i = 0; i < numberOfObjectives_; i++) {
+			normalized[i] = (solution.getObjective(i) - z_[i]) / (nz_[i] - z_[i]);
+			norm2 += normalized[i] * normalized[i];
+		}
+		solution.setNormalizedObjectives(version_, norm2);
+		return normalized;
+	} // normalizedObjectives
+
+	/**
+	 * Sets the nadir point to the ideal point plus the intercepts of the
+	 * hyperplane formed by the extreme points of a set. The extreme point of
+	 * an axis minimizes the achievement scalarizing function of the current
+	 * reference points, with a weight of 1 on the axis and 1e-6 on the others.
+	 * When the hyperplane is degenerate (singular system, intercept below
+	 * 0.001), the worst values of the set are used instead.
+	 * <p>
+	 * The first <code>survivors</code> solutions of the set must come from the
+	 * set of the previous call (the population selected from it); if the
+	 * reference points have not moved since then, an extreme point still
+	 * among them remains the best one, and only the other solutions are
+	 * scanned.
+	 *
+	 * @param set
+	 * @param survivors Number of leading solutions taken from the previous set
+	 * @return true if the nadir point has changed
+	 */
+	public boolean updateIntercepts(SolutionSet set, int survivors) {
+		boolean incremental = (extremesVersion_ == version_);
+		boolean moved   = (extremesVersion_ < 0);
+		boolean missing = false;		// An axis without extreme point
+		for (int axis = 0; axis < numberOfObjectives_; axis++) {
+			int from = 0;
+			if (incremental && contains(set, survivors, extremes_[axis]))
+				from = survivors;
+			else
+				extremeASF_[axis] = Double.POSITIVE_INFINITY;
+			for (int i = from; i < set.size(); i++) {
+				double asf = asf(set.get(i), axis);
+				if (asf < extremeASF_[axis]) {
+					extremeASF_[axis] = asf;
+					double[] objectives = set.get(i).getObjectives();
+					for (int j = 0; j < numberOfObjectives_; j++) {
+						if (extremes_[axis][j] != objectives[j]) {
+							extremes_[axis][j] = objectives[j];
+							moved = true;
+						}
+					}
+				}
+			}
+			if (extremeASF_[axis] == Double.POSITIVE_INFINITY)
+				missing = true;
+		}
+		for (int j = 0; j < numberOfObjectives_; j++) {
+			if (interceptZ_[j] != z_[j]) {
+				interceptZ_[j] = z_[j];
+				moved = true;
+			}
+		}
+
+		if (moved || missing)
+			calculateIntercepts(set, missing);
+		else if (degenerate_)
+			worstValues(set);	// The same system, but another set
+
+		boolean changed = false;
+		for (int i = 0; i < numberOfObjectives_; i++) {
+			double nadir = z_[i] + intercepts_[i];
+			if (nadir != nz_[i]) {
+				nz_[i] = nadir;
+				changed = true;
+			}
+		}
+		// The extremes were found with the points before this update
+		long version = version_;
+		if (changed)
+			version_ = versions_.incrementAndGet();
+		extremesVersion_ = version;
+		return changed;
+	} // updateIntercepts
+
+	/**
+	 * Achievement scalarizing function of a solution on an axis
+	 */
+	private double asf(Solution solution, int axis) {
+		double[] normalized = normalizedObjectives(solution);
+		double max = -1.0e+30;
+		for (int i = 0; i < numberOfObjectives_; i++) {
+			double diff = Math.abs(normalized[i]);
+			double value = (i == axis) ? diff / 1.0 : diff / EPSILON;
+			if (value > max)
+				max = value;
+		}
+		return max;
+	} // asf
+
+	private boolean contains(SolutionSet set, int size, double[] objectives) {
+		for (int i = 0; i < size; i++) {
+			Solution solution = set.get(i);
+			int j = 0;
+			while ((j < numberOfObjectives_) && (solution.getObjective(j) == objectives[j]))
+				j++;
+			if (j == numberOfObjectives_)
+				return true;
+		}
+		return false;
+	} // contains
+
+	/**
+	 * Calculates the intercepts between the hyperplane formed by the extreme
+	 * points and each axis; in degenerate cases, the worst values of the set
+	 *
+	 * @param missing An axis has no extreme point
+	 */
+	private void calculateIntercepts(SolutionSet set, boolean missing) {
+		degenerate_ = missing;
+		if (!degenerate_) {
+			for (int i = 0; i < numberOfObjectives_; i++) {
+				b_[i] = 1.0;
+				for (int j = 0; j < numberOfObjectives_; j++)
+					A_[i][j] = extremes_[i][j] - z_[j];
+			}
+			solves_++;
+			degenerate_ = !lsolve(A_, b_, x_);
+		}
+		if (!degenerate_) {
+			for (int i = 0; i < numberOfObjectives_; i++) {
+				intercepts_[i] = 1.0 / x_[i];
+				// avoid small or negative intercepts
+				if (intercepts_[i] < 0.001)
+					degenerate_ = true;
+			}
+		}
+
+		if (degenerate_)
+			worstValues(set);
+	} // calculateIntercepts
+
+	/**
+	 * Sets the intercepts to the worst values of a set (at least 1e-10)
+	 */
+	private void worstValues(SolutionSet set) {
+		for (int j = 0; j < numberOfObjectives_; j++)
+			intercepts_[j] = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < set.size(); i++)
+			for (int j = 0; j < numberOfObjectives_; j++)
+				intercepts_[j] = Math.max(Math.max(intercepts_[j], 1e-10), set.get(i).getObjective(j));
+	} // worstValues
+
+	/**
+	 * Gaussian elimination with partial pivoting (A and b are overwritten)
+	 *
+	 * @return false if the matrix is singular or nearly singular
+	 */
+	private static boolean lsolve(double[][] A, double[] b, double[] x) {
+		int N = b.length;
+
+		for (int p = 0; p < N; p++) {
+			// find pivot row and swap
+			int max = p;
+			for (int i = p + 1; i < N; i++)
+				if (Math.abs(A[i][p]) > Math.abs(A[max][p]))
+					max = i;
+
+			double[] temp = A[p];
+			A[p] = A[max];
+			A[max] = temp;
+
+			double t = b[p];
+			b[p] = b[max];
+			b[max] = t;
+
+			if (Math.abs(A[p][p]) <= 1e-10)
+				return false;
+
+			// pivot within A and b
+			for (int i = p + 1; i < N; i++) {
+				double alpha = A[i][p] / A[p][p];
+				b[i] -= alpha * b[p];
+				for (int j = p; j < N; j++)
+					A[i][j] -= alpha * A[p][j];
+			}
+		}
+
+		// back substitution
+		for (int i = N - 1; i >= 0; i--) {
+			double sum = 0.0;
+			for (int j = i + 1; j < N; j++)
+				sum += A[i][j] * x[j];
+			x[i] = (b[i] - sum) / A[i][i];
+		}
+		return true;
+	} // lsolve
+} // ReferencePoints
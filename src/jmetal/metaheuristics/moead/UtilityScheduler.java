@@ -0,0 +1,220 @@
+//  UtilityScheduler.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.moead;
+
+import jmetal.core.Solution;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import jmetal.util.snapshot.CheckpointInput;
+import jmetal.util.snapshot.CheckpointOutput;
+import jmetal.util.snapshot.Checkpointable;
+
+/**
+ * Dynamic resource allocation of MOEA/D-DRA (Zhang, Liu, Li, CEC 2009): keeps
+ * the utility of each subproblem, the objective values of its solution at the
+ * last utility update, and selects the subproblems to work on in each
+ * generation.
+ * <p>
+ * The first m subproblems (the extreme weight vectors) are always selected;
+ * the others, up to a fifth of the subproblems, are chosen by tournaments on
+ * the utility (as in the original algorithm) or, in priority mode, are the
+ * ones having the highest utility. The candidates are kept in an int array
+ * and the winner of each tournament is swap-removed, so a selection costs
+ * O(N * depth) and allocates nothing. The tournaments draw the same random
+ * numbers as the list-based version; only the positions of the remaining
+ * candidates differ, which does not change the selection probabilities.
+ */
+public class UtilityScheduler implements Checkpointable {
+	private final int numberOfSubproblems_;
+	private final int numberOfObjectives_;
+
+	private final double[] utility_;
+	private final double[][] savedObjectives_;	// Objective values at the last update
+
+	private final boolean priority_;
+
+	private final int[] candidates_;
+	private final int[] selected_;
+
+	/**
+	 * Constructor
+	 *
+	 * @param numberOfSubproblems Number of subproblems (population size)
+	 * @param numberOfObjectives Number of objectives
+	 * @param priority If true, the subproblems with the highest utility are
+	 *            selected instead of running tournaments
+	 */
+	public UtilityScheduler(int numberOfSubproblems, int numberOfObjectives,
+			boolean priority) {
+		numberOfSubproblems_ = numberOfSubproblems;
+		numberOfObjectives_  = numberOfObjectives;
+		priority_            = priority;
+
+		utility_         = new double[numberOfSubproblems];
+		savedObjectives_ = new double[numberOfSubproblems][numberOfObjectives];
+		for (int i = 0; i < numberOfSubproblems; i++)
+			utility_[i] = 1.0;
+
+		int size = Math.max(numberOfObjectives, (int) (numberOfSubproblems / 5.0));
+		candidates_ = new int[numberOfSubproblems];
+		selected_   = new int[Math.min(size, numberOfSubproblems)];
+	} // UtilityScheduler
+
+	public double getUtility(int subproblem) {
+		return utility_[subproblem];
+	} // getUtility
+
+	public void setUtility(int subproblem, double utility) {
+		utility_[subproblem] = utility;
+	} // setUtility
+
+	/**
+	 * Stores the objective values of the solution of a subproblem
+	 */
+	public void saveObjectives(int subproblem, Solution solution) {
+		double[] row = savedObjectives_[subproblem];
+		for (int i = 0; i < numberOfObjectives_; i++)
+			row[i] = solution.getObjective(i);
+	} // saveObjectives
+
+	/**
+	 * Returns the objective values stored for a subproblem (not a copy)
+	 */
+	public double[] getSavedObjectives(int subproblem) {
+		return savedObjectives_[subproblem];
+	} // getSavedObjectives
+
+	/**
+	 * Saves the utilities and the stored objective values
+	 */
+	public void writeState(CheckpointOutput out) throws JMException {
+		out.putDoubles(utility_);
+		out.putDoubleMatrix(savedObjectives_);
+	} // writeState
+
+	/**
+	 * Restores the utilities and the stored objective values
+	 */
+	public void readState(CheckpointInput in) throws JMException {
+		in.getDoubles(utility_);
+		in.getDoubleMatrix(savedObjectives_);
+	} // readState
+
+	/**
+	 * Selects the subproblems to evolve in the next generation.
+	 *
+	 * @param depth Tournament size
+	 * @return The indexes of the selected subproblems. The array is reused by
+	 *         the next call.
+	 */
+	public int[] select(int depth) {
+		int m = Math.min(numberOfObjectives_, selected_.length);
+		for (int k = 0; k < m; k++)
+			selected_[k] = k;
+
+		if (priority_)
+			selectByPriority(m);
+		else
+			selectByTournament(m, depth);
+
+		return selected_;
+	} // select
+
+	private void selectByTournament(int from, int depth) {
+		int size = 0;
+		for (int n = numberOfObjectives_; n < numberOfSubproblems_; n++)
+			candidates_[size++] = n;
+
+		for (int k = from; k < selected_.length; k++) {
+			int best_idd = (int) (PseudoRandom.randDouble() * size);
+			int best_sub = candidates_[best_idd];
+			for (int i = 1; i < depth; i++) {
+				int i2 = (int) (PseudoRandom.randDouble() * size);
+				int s2 = candidates_[i2];
+				if (utility_[s2] > utility_[best_sub]) {
+					best_idd = i2;
+					best_sub = s2;
+				}
+			}
+			selected_[k] = best_sub;
+			candidates_[best_idd] = candidates_[--size];
+		}
+	} // selectByTournament
+
+	/**
+	 * Keeps in a min-heap (candidates_[0..size)) the subproblems with the
+	 * highest utility; ties are broken in favour of the lowest index
+	 */
+	private void selectByPriority(int from) {
+		int capacity = selected_.length - from;
+		if (capacity == 0)
+			return;
+		int size = 0;
+		for (int n = numberOfObjectives_; n < numberOfSubproblems_; n++) {
+			if (size < capacity) {
+				candidates_[size] = n;
+				siftUp(size++);
+			} else if (before(candidates_[0], n)) {
+				candidates_[0] = n;
+				siftDown(0, size);
+			}
+		}
+
+		// Popping the minimum fills the selection from its end
+		for (int k = selected_.length - 1; k >= from; k--) {
+			selected_[k] = candidates_[0];
+			candidates_[0] = candidates_[--size];
+			siftDown(0, size);
+		}
+	} // selectByPriority
+
+	/**
+	 * True if subproblem a has lower priority than b
+	 */
+	private boolean before(int a, int b) {
+		if (utility_[a] != utility_[b])
+			return utility_[a] < utility_[b];
+		return a > b;
+	} // before
+
+	private void siftUp(int i) {
+		int value = candidates_[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!before(value, candidates_[parent]))
+				break;
+			candidates_[i] = candidates_[parent];
+			i = parent;
+		}
+		candidates_[i] = value;
+	} // siftUp
+
+	private void siftDown(int i, int size) {
+		int value = candidates_[i];
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size)
+				break;
+			if (child + 1 < size && before(candidates_[child + 1], candidates_[child]))
+				child++;
+			if (!before(candidates_[child], value))
+				break;
+			candidates_[i] = candidates_[child];
+			i = child;
+		}
+		candidates_[i] = value;
+	} // siftDown
+} // UtilityScheduler
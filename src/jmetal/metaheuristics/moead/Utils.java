@@ -21,6 +21,8 @@
 
 package jmetal.metaheuristics.moead;
 
+import jmetal.util.IndexedSort;
+
 /**
  * Utilities methods to used by MOEA/D
  */
@@ -50,17 +52,99 @@ public class Utils {
 		} // for
 
 	} // minFastSort
+
+	/**
+	 * Sorts x[0 .. n - 1] in ascending order with idx (idx[j] must be j on
+	 * entry) in O(n log n), with <code>IndexedSort</code>: tied values are
+	 * ordered by index. With legacy set, a row which holds equal values (or
+	 * NaN) is restored and sorted by QuickSort, whose order of ties the seeded
+	 * runs of MOEA/D-STM used to have; such a row costs O(n^2).
+	 */
+	static void sortRow(double x[], int idx[], int n, boolean legacy) {
+		IndexedSort.sort(x, idx, 0, n);
+		if (legacy && !increasing(x, n, n)) {
+			restore(x, idx, n);
+			QuickSort(x, idx, 0, n - 1);
+		}
+	} // sortRow
+
+	/**
+	 * Sorts x[0 .. n - 1] as sortRow does. With legacy set, a row which holds
+	 * equal values (or NaN) is restored and sorted by minFastSort(x, idx, n,
+	 * n), whose order of ties the seeded runs of MOEA/D-DRA-ASTM used to have;
+	 * such a row costs O(n^2).
+	 */
+	static void minSort(double x[], int idx[], int n, boolean legacy) {
+		IndexedSort.sort(x, idx, 0, n);
+		if (legacy && !increasing(x, n, n)) {
+			restore(x, idx, n);
+			minFastSort(x, idx, n, n);
+		}
+	} // minSort
+
+	/**
+	 * Puts the k smallest values of x[0 .. n - 1] in x[0 .. k - 1], in
+	 * ascending order and with idx, in O(n + k log k); the order of the other
+	 * positions is unspecified and idx[j] must be j on entry. With legacy set,
+	 * if some of the k values are equal to each other or to another value (or
+	 * NaN), the row is restored and sorted by QuickSort(x, idx, 0, n - 1), as
+	 * in the seeded runs of MOEA/D-IR before; such a row costs O(n^2).
+	 */
+	static void quickSortTop(double x[], int idx[], int n, int k, boolean legacy) {
+		IndexedSort.sortTop(x, idx, 0, n, k);
+		if (legacy && !increasing(x, Math.min(k, n), n)) {
+			restore(x, idx, n);
+			QuickSort(x, idx, 0, n - 1);
+		}
+	} // quickSortTop
+
+	/**
+	 * Checks that x[0 .. k - 1] is strictly increasing and that x[k - 1] is
+	 * smaller than x[k .. n - 1]: the positions 0 .. k - 1 of every sort of x
+	 * are then the same
+	 */
+	private static boolean increasing(double x[], int k, int n) {
+		if (k <= 0)
+			return true;
+		for (int i = 1; i < k; i++)
+			if (!(x[i] > x[i - 1]))
+				return false;
+		for (int i = k; i < n; i++)
+			if (!(x[i] > x[k - 1]))
+				return false;
+		return true;
+	} // increasing
+
+	/**
+	 * Undoes a sort of x[0 .. n - 1] which started with idx[j] = j
+	 */
+	private static void restore(double x[], int idx[], int n) {
+		double[] row = new double[n];
+		for (int i = 0; i < n; i++)
+			row[idx[i]] = x[i];
+		for (int i = 0; i < n; i++) {
+			x[i]   = row[i];
+			idx[i] = i;
+		}
+	} // restore
 	
 	/**
 	 * Quick sort procedure (ascending order)
-	 * 
+	 * <p>
+	 * The order of tied values is that of the Lomuto partition, which the
+	 * legacy tie order of MOEA/D-STM (see sortRow) depends on, so it must be
+	 * kept; all the ties go to the left part, so a row of equal values costs
+	 * O(n^2). Only the smaller part is sorted recursively and the pivot is left out of both
+	 * parts, which gives the same result with a stack depth of O(log n) (and
+	 * ends even if there are NaN values).
+	 *
 	 * @param array
 	 * @param idx
 	 * @param from
 	 * @param to
 	 */
 	static void QuickSort(double[] array, int[] idx, int from, int to) {
-		if (from < to) {
+		while (from < to) {
 			double temp = array[to];
 			int tempIdx = idx[to];
 			int i = from - 1;
@@ -79,19 +163,32 @@ public class Utils {
 			array[i + 1] = temp;
 			idx[to] = idx[i + 1];
 			idx[i + 1] = tempIdx;
-			QuickSort(array, idx, from, i);
-			QuickSort(array, idx, i + 1, to);
+			// The pivot, now at i + 1, is smaller than the values after it
+			if (i - from < to - i - 2) {
+				QuickSort(array, idx, from, i);
+				from = i + 2;
+			} else {
+				QuickSort(array, idx, i + 2, to);
+				to = i;
+			}
 		}
 	}
 
 	public static void randomPermutation(int[] perm, int size) {
-		int[] index = new int[size];
-		boolean[] flag = new boolean[size];
+		randomPermutation(perm, size, new boolean[size]);
+	} // randomPermutation
 
-		for (int n = 0; n < size; n++) {
-			index[n] = n;
-			flag[n]  = true;
-		}
+	/**
+	 * Random permutation of 0 .. size - 1 which does not allocate anything: the
+	 * flags of the positions already taken are kept in a caller-supplied array
+	 * 
+	 * @param perm
+	 * @param size
+	 * @param flag Scratch array of at least size elements
+	 */
+	public static void randomPermutation(int[] perm, int size, boolean[] flag) {
+		for (int n = 0; n < size; n++)
+			flag[n] = true;
 
 		int num = 0;
 		while (num < size) {
@@ -99,7 +196,7 @@ public class Utils {
 			// int start = int(size*nd_uni(&rnd_uni_init));
 			while (true) {
 				if (flag[start]) {
-					perm[num]   = index[start];
+					perm[num]   = start;
 					flag[start] = false;
 					num++;
 					break;
@@ -44,6 +44,12 @@ import java.util.Vector;
 import jmetal.core.*;
 import jmetal.util.comparators.CrowdingComparator;
 import jmetal.util.*;
+import jmetal.util.snapshot.CheckpointInput;
+import jmetal.util.snapshot.CheckpointOutput;
+import jmetal.util.snapshot.CheckpointWriter;
+import jmetal.util.snapshot.SnapshotFormat;
+import jmetal.util.snapshot.SnapshotWriter;
+import jmetal.util.telemetry.Telemetry;
 
 /**
  * This class implements a steady-state version of NSGA-II.
@@ -59,6 +65,11 @@ public class ssNSGAII_ENLU extends Algorithm {
 
 	int[][] rankIdx_;	// index matrix for the non-domination levels
 
+	private SnapshotWriter snapshots_;	// writer of medianPrint, created on its first snapshot
+	private boolean binarySnapshots_;	// medianPrint writes binary snapshots instead of text
+
+	private CheckpointWriter checkpoints_;	// null: no checkpoints
+
 	/**
 	 * Constructor
 	 *
@@ -94,6 +105,7 @@ public class ssNSGAII_ENLU extends Algorithm {
 		// Read the parameters
 		populationSize_ = ((Integer) getInputParameter("populationSize")).intValue();
 		maxEvaluations  = ((Integer) getInputParameter("maxEvaluations")).intValue();
+		binarySnapshots_ = Boolean.TRUE.equals(getInputParameter("binarySnapshots"));
 
 		// Initialize the variables
 		population_  = new SolutionSet(populationSize_);
@@ -104,28 +116,41 @@ public class ssNSGAII_ENLU extends Algorithm {
 
 		requiredEvaluations = 0;
 
+		startTelemetry();
+
 		// Read the operators
 		mutationOperator  = operators_.get("mutation");
 		crossoverOperator = operators_.get("crossover");
 		selectionOperator = operators_.get("selection");
 
-		// Create the initial solutionSet
-		Solution newSolution;
-		for (int i = 0; i < populationSize_; i++) {
-			newSolution = new Solution(problem_);
-			problem_.evaluate(newSolution);
-			problem_.evaluateConstraints(newSolution);
-			evaluations++;
-			population_.add(newSolution);
-		} // for
-
-		// Get the non-domination level structure of the initial population
-		Ranking ranking = new Ranking(population_);
-		int curRank;
-		for (int i = 0; i < populationSize_; i++) {
-			curRank = population_.get(i).getRank();
-			rankIdx_[curRank][i] = 1;
+		Object resumeFrom = getInputParameter("resumeFrom");
+		if (resumeFrom != null) {
+			// The state saved in the checkpoint
+			evaluations = readCheckpoint(resumeFrom.toString(), selectionOperator,
+					crossoverOperator, mutationOperator);
+		} else {
+			// Create the initial solutionSet
+			Solution newSolution;
+			for (int i = 0; i < populationSize_; i++) {
+				newSolution = new Solution(problem_);
+				telemetry_.begin(Telemetry.EVALUATION);
+				problem_.evaluate(newSolution);
+				problem_.evaluateConstraints(newSolution);
+				telemetry_.end(Telemetry.EVALUATION);
+				telemetry_.count(Telemetry.EVALUATIONS);
+				evaluations++;
+				population_.add(newSolution);
+			} // for
+
+			// Get the non-domination level structure of the initial population
+			Ranking ranking = new Ranking(population_);
+			int curRank;
+			for (int i = 0; i < populationSize_; i++) {
+				curRank = population_.get(i).getRank();
+				rankIdx_[curRank][i] = 1;
+			}
 		}
+		checkpoints_ = CheckpointWriter.forAlgorithm(this);
 
 		// Generations ...
 		while (evaluations < maxEvaluations) {
@@ -135,25 +160,35 @@ public class ssNSGAII_ENLU extends Algorithm {
 			Solution[] parents 	= new Solution[2];
 
 			// obtain parents
+			telemetry_.begin(Telemetry.SELECTION);
 			parents[0] = (Solution) selectionOperator.execute(population_);
 			parents[1] = (Solution) selectionOperator.execute(population_);
+			telemetry_.end(Telemetry.SELECTION);
 
 			// crossover & mutation
+			telemetry_.begin(Telemetry.VARIATION);
 			Solution[] offSprings = (Solution[]) crossoverOperator.execute(parents);
 			mutationOperator.execute(offSprings[0]);
+			telemetry_.end(Telemetry.VARIATION);
 
 			// evaluation
+			telemetry_.begin(Telemetry.EVALUATION);
 			problem_.evaluate(offSprings[0]);
 			problem_.evaluateConstraints(offSprings[0]);
+			telemetry_.end(Telemetry.EVALUATION);
+			telemetry_.count(Telemetry.EVALUATIONS);
 			evaluations++;
 
 			// insert child into the offspring population
 			offspringPopulation.add(offSprings[0]);
 
 			// update the non-domination level structure
+			telemetry_.begin(Telemetry.RANKING);
 			numRanks = nondominated_sorting_add(offSprings[0]);
+			telemetry_.end(Telemetry.RANKING);
 
 			// create the solutionSet 'union' of solutionSet and offSpring
+			telemetry_.begin(Telemetry.ARCHIVE);
 			union_ = ((SolutionSet) population_).union(offspringPopulation);
 
 			// clear rankIdx matrix
@@ -195,12 +230,36 @@ public class ssNSGAII_ENLU extends Algorithm {
 			}
 
 			// If the deleted solutions are not the newly generated offspring, we still need to update the non-domination level structure
-			if (!union_.get(populationSize_).equals(offSprings[0]))
+			if (!union_.get(populationSize_).equals(offSprings[0])) {
+				telemetry_.count(Telemetry.REPLACEMENTS);
+				telemetry_.begin(Telemetry.RANKING);
 				nondominated_sorting_delete(union_.get(populationSize_));
+				telemetry_.end(Telemetry.RANKING);
+			}
 
 			tempPop.clear();
+			telemetry_.end(Telemetry.ARCHIVE);
+
+			// A generation is populationSize_ evaluations
+			if (evaluations % populationSize_ == 0) {
+				telemetry_.endGeneration();
+				if ((checkpoints_ != null) && checkpoints_.isDue(evaluations / populationSize_))
+					writeCheckpoint(evaluations, selectionOperator, crossoverOperator,
+							mutationOperator);
+			}
 		} // while
 
+		if (snapshots_ != null) {
+			snapshots_.close();
+			snapshots_ = null;
+		}
+		if (checkpoints_ != null) {
+			checkpoints_.close();
+			checkpoints_ = null;
+		}
+
+		stopTelemetry();
+
 		// Return as output parameter the required evaluations
 		setOutputParameter("evaluations", requiredEvaluations);
 
@@ -208,7 +267,65 @@ public class ssNSGAII_ENLU extends Algorithm {
 	} // execute
 
 	/**
-	 * print the median result
+	 * Save the state of the run: population, non-domination levels,
+	 * operators and random generator. The file is written in the background.
+	 *
+	 * @param evaluations: number of evaluations done
+	 */
+	void writeCheckpoint(int evaluations, Operator selection, Operator crossover,
+			Operator mutation) throws JMException {
+		CheckpointOutput out = checkpoints_.begin("ssNSGAII_ENLU");
+		out.section("parameters");
+		out.putInt(populationSize_);
+		out.putInt(problem_.getNumberOfObjectives());
+		out.section("counters");
+		out.putInt(evaluations);
+		out.section("population");
+		out.putSolutionSet(population_);
+		out.putIntMatrix(rankIdx_);
+		out.section("operators");
+		out.putOperator(selection);
+		out.putOperator(crossover);
+		out.putOperator(mutation);
+		out.section("random generator");
+		out.putRandomGenerator();
+		checkpoints_.commit(out);
+	} // writeCheckpoint
+
+	/**
+	 * Restore the state saved by <code>writeCheckpoint</code>, in place of
+	 * the initial population
+	 *
+	 * @param path: the checkpoint file
+	 * @return the number of evaluations done
+	 */
+	int readCheckpoint(String path, Operator selection, Operator crossover,
+			Operator mutation) throws JMException {
+		CheckpointInput in = CheckpointInput.open(path, "ssNSGAII_ENLU");
+		in.section("parameters");
+		in.checkInt(populationSize_, "population size");
+		in.checkInt(problem_.getNumberOfObjectives(), "number of objectives");
+		in.section("counters");
+		int evaluations = in.getInt();
+		in.section("population");
+		in.getSolutionSet(problem_, population_);
+		in.getIntMatrix(rankIdx_);
+		in.section("operators");
+		in.getOperator(selection);
+		in.getOperator(crossover);
+		in.getOperator(mutation);
+		in.section("random generator");
+		in.getRandomGenerator();
+		in.close();
+		return evaluations;
+	} // readCheckpoint
+
+	/**
+	 * print the median result (FUN<idx>). If the input parameter
+	 * "binarySnapshots" of execute() is true, a binary snapshot
+	 * (FUN<idx>.snap) is written in the background instead; SnapshotConverter
+	 * turns it into the text format. If the snapshot fails, the text file is
+	 * written.
 	 * @param idx
 	 */
 	public int medianPrint(int idx, int evaluations) {
@@ -216,7 +333,19 @@ public class ssNSGAII_ENLU extends Algorithm {
 			String str1 = "FUN";
 			String str2 = str1 + Integer.toString(idx);
 
-			population_.printObjectivesToFile(str2);
+			boolean written = false;
+			if (binarySnapshots_) {
+				try {
+					if (snapshots_ == null)
+						snapshots_ = new SnapshotWriter();
+					snapshots_.write(population_, str2 + SnapshotFormat.EXTENSION);
+					written = true;
+				} catch (JMException e) {
+					Configuration.logger_.warning("ssNSGAII_ENLU.medianPrint: " + e.getMessage());
+				}
+			}
+			if (!written)
+				population_.printObjectivesToFile(str2);
 			idx++;
 		}
 
@@ -36,7 +36,7 @@ import java.util.List;
  * This class allows to apply a SBX crossover operator using two parent
  * solutions.
  */
-public class BLXAlphaCrossover extends Crossover {
+public class BLXAlphaCrossover extends Crossover implements SingleOffspringCrossover {
 	/**
 	 * EPS defines the minimum difference allowed between real values
 	 */
@@ -150,6 +150,61 @@ public class BLXAlphaCrossover extends Crossover {
 		return offSpring;                                                                                      
 	} // doCrossover
 
+	/**
+	 * Perform the crossover operation producing only the first offspring.
+	 * Each variable of the offspring is drawn as in <code>doCrossover</code>,
+	 * but the value of the second offspring is not drawn, so the random
+	 * sequence differs from the one of the two-offspring version.
+	 * @param probability Crossover probability
+	 * @param parent1 The first parent
+	 * @param parent2 The second parent
+	 * @param child Solution overwritten with the offspring, or null
+	 * @return The offspring
+	 */
+	public Solution doCrossover(double probability, 
+			Solution parent1, 
+			Solution parent2,
+			Solution child) throws JMException {
+
+		if (child == null)
+			child = new Solution(parent1);
+		else
+			child.copy(parent1);
+
+		XReal x1 = new XReal(parent1) ;		
+		XReal x2 = new XReal(parent2) ;		
+		XReal offs = new XReal(child) ;
+
+		int numberOfVariables = x1.getNumberOfDecisionVariables() ;
+
+		if (PseudoRandom.randDouble() <= probability){
+			for (int i=0; i<numberOfVariables; i++){
+				double upperValue = x1.getUpperBound(i);
+				double lowerValue = x1.getLowerBound(i);
+				double valueX1 = x1.getValue(i) ;
+				double valueX2 = x2.getValue(i) ;
+
+				double max = Math.max(valueX1, valueX2) ;
+				double min = Math.min(valueX1, valueX2) ;
+				double range = max - min ;
+
+				double minRange = min - range*alpha_;
+				double maxRange = max + range*alpha_;
+
+				double valueY = minRange + PseudoRandom.randDouble() * (maxRange - minRange) ;
+
+				if (valueY < lowerValue)
+					offs.setValue(i, lowerValue) ;
+				else if (valueY > upperValue)
+					offs.setValue(i, upperValue);
+				else
+					offs.setValue(i, valueY);
+			} // for
+		} // if
+
+		return child;
+	} // doCrossover
+
 
 	/**
 	 * Executes the operation
@@ -184,4 +239,20 @@ public class BLXAlphaCrossover extends Crossover {
 
 		return offSpring;
 	} // execute 
+
+	/**
+	 * Executes the operation producing only the first offspring
+	 * @see SingleOffspringCrossover
+	 */
+	public Solution executeSingle(Solution parent1, Solution parent2,
+			Solution child) throws JMException {
+		if (!(VALID_TYPES.contains(parent1.getType().getClass())  &&
+				VALID_TYPES.contains(parent2.getType().getClass())) ) {
+			Configuration.logger_.severe("BLXAlphaCrossover.executeSingle: the solutions " +
+					"type " + parent1.getType() + " is not allowed with this operator");
+			throw new JMException("Exception in " + getClass().getName() + ".executeSingle()") ;
+		} // if 
+
+		return doCrossover(crossoverProbability_, parent1, parent2, child);
+	} // executeSingle
 } // BLXAlphaCrossover
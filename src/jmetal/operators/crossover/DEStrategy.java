@@ -0,0 +1,249 @@
+//  DEStrategy.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.operators.crossover;
+
+import jmetal.core.Solution;
+import jmetal.core.Variable;
+import jmetal.encodings.solutionType.ArrayRealSolutionType;
+import jmetal.encodings.solutionType.RealSolutionType;
+import jmetal.encodings.variable.ArrayReal;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+
+/**
+ * An immutable differential evolution strategy: the DE variant, resolved once
+ * from its name, together with its CR, F and K values. It can be shared by
+ * several algorithms and threads. With the 'Real' encoding a child is built
+ * without allocating anything (apart from the child itself when none is
+ * supplied); 'ArrayReal' stores boxed values.
+ * <p>
+ * Variants (x is the current solution, p0, p1, ... the parents):
+ * - rand/1/bin, rand/1/exp (best/1/...): p2 + F * (p0 - p1)
+ * - current-to-rand/1, current-to-rand/1/bin, current-to-rand/1/exp
+ *   (current-to-best/1...): x + K * (p2 - x) + F * (p0 - p1)
+ * - rand/2/bin (best/2/bin): p4 + F * (p0 - p1) + F * (p2 - p3)
+ * - current/2/bin: x + F * (p0 - p1) + F * (p2 - p3), the DE/rand/2/bin
+ *   operator of MOEA/D-FRRMAB, whose base vector is the current solution
+ * - current-to-rand/2/bin (current-to-best/2/bin):
+ *   x + K * (p0 - x) + F * (p1 - p2) + F * (p3 - p4)
+ * The values are clipped to the bounds of the variables. In the exponential
+ * variants the first rejected variable ends the crossover for the rest of
+ * the child (except for the variable jrand).
+ */
+public class DEStrategy {
+	private static final int RAND_1                = 0;
+	private static final int CURRENT_TO_RAND_1     = 1;
+	private static final int RAND_2                = 2;
+	private static final int CURRENT_TO_RAND_2     = 3;
+	private static final int CURRENT_2             = 4;
+
+	private static final int NONE = 0;
+	private static final int BIN  = 1;
+	private static final int EXP  = 2;
+
+	private final String variant_;
+	private final int    mutation_;
+	private final int    crossover_;
+	private final double CR_;
+	private final double F_;
+	private final double K_;
+
+	private DEStrategy(String variant, int mutation, int crossover, double CR,
+			double F, double K) {
+		variant_   = variant;
+		mutation_  = mutation;
+		crossover_ = crossover;
+		CR_ = CR;
+		F_  = F;
+		K_  = K;
+	} // DEStrategy
+
+	/**
+	 * Returns the strategy of a DE variant
+	 *
+	 * @param variant The name of the variant (e.g., "rand/1/bin"; see the
+	 *            class comment)
+	 * @throws JMException If the variant is unknown
+	 */
+	public static DEStrategy getStrategy(String variant, double CR, double F,
+			double K) throws JMException {
+		int mutation;
+		int crossover;
+
+		if (variant.equals("rand/1/bin") || variant.equals("best/1/bin")) {
+			mutation = RAND_1; crossover = BIN;
+		} else if (variant.equals("rand/1/exp") || variant.equals("best/1/exp")) {
+			mutation = RAND_1; crossover = EXP;
+		} else if (variant.equals("current-to-rand/1") || variant.equals("current-to-best/1")) {
+			mutation = CURRENT_TO_RAND_1; crossover = NONE;
+		} else if (variant.equals("current-to-rand/1/bin") || variant.equals("current-to-best/1/bin")) {
+			mutation = CURRENT_TO_RAND_1; crossover = BIN;
+		} else if (variant.equals("current-to-rand/1/exp") || variant.equals("current-to-best/1/exp")) {
+			mutation = CURRENT_TO_RAND_1; crossover = EXP;
+		} else if (variant.equals("rand/2/bin") || variant.equals("best/2/bin")) {
+			mutation = RAND_2; crossover = BIN;
+		} else if (variant.equals("current/2/bin")) {
+			mutation = CURRENT_2; crossover = BIN;
+		} else if (variant.equals("current-to-rand/2/bin") || variant.equals("current-to-best/2/bin")) {
+			mutation = CURRENT_TO_RAND_2; crossover = BIN;
+		} else {
+			Configuration.logger_.severe("DEStrategy.getStrategy: " +
+					" unknown DE variant (" + variant + ")");
+			throw new JMException("Exception in DEStrategy.getStrategy()") ;
+		}
+		return new DEStrategy(variant, mutation, crossover, CR, F, K);
+	} // getStrategy
+
+	public String getVariant() {
+		return variant_;
+	} // getVariant
+
+	/**
+	 * Returns the number of parents (besides the current solution) used by
+	 * the strategy
+	 */
+	public int getNumberOfParents() {
+		switch (mutation_) {
+		case CURRENT_2:
+			return 4;
+		case RAND_2:
+		case CURRENT_TO_RAND_2:
+			return 5;
+		default:
+			return 3;
+		}
+	} // getNumberOfParents
+
+	/**
+	 * Builds a child. The random numbers are drawn as in the former
+	 * <code>DifferentialEvolutionCrossover.execute</code>: jrand, then one
+	 * value per variable if the variant has a crossover.
+	 *
+	 * @param current The current solution
+	 * @param parents The parents; only the first
+	 *            <code>getNumberOfParents()</code> ones are used
+	 * @param child A solution of the same problem which is overwritten with
+	 *            the child, or null to create a new one
+	 * @return The child (<code>child</code> if it is not null)
+	 */
+	public Solution execute(Solution current, Solution[] parents, Solution child)
+			throws JMException {
+		int numberOfParents = getNumberOfParents();
+		if (parents.length < numberOfParents) {
+			Configuration.logger_.severe("DEStrategy.execute: " + variant_ +
+					" needs " + numberOfParents + " parents, but " +
+					parents.length + " are given");
+			throw new JMException("Exception in DEStrategy.execute()") ;
+		}
+		for (int i = 0; i < numberOfParents; i++)
+			checkType(parents[i]);
+
+		if (child == null)
+			child = new Solution(current);
+		else
+			child.copy(current);
+
+		int numberOfVariables = numberOfVariables(current);
+		int jrand = PseudoRandom.randInt(0, numberOfVariables - 1);
+
+		double CR = CR_;
+		for (int j = 0; j < numberOfVariables; j++) {
+			if (crossover_ != NONE) {
+				if (!(PseudoRandom.randDouble(0, 1) < CR || j == jrand)) {
+					if (crossover_ == EXP)
+						CR = 0.0;
+					continue; // The child keeps the value of current
+				}
+			}
+
+			double value;
+			switch (mutation_) {
+			case RAND_1:
+				value = getValue(parents[2], j) + F_ * (getValue(parents[0], j) -
+						getValue(parents[1], j));
+				break;
+			case CURRENT_TO_RAND_1:
+				value = getValue(current, j) + K_ * (getValue(parents[2], j) -
+						getValue(current, j)) +
+						F_ * (getValue(parents[0], j) - getValue(parents[1], j));
+				break;
+			case RAND_2:
+				value = getValue(parents[4], j) +
+						F_ * (getValue(parents[0], j) - getValue(parents[1], j)) +
+						F_ * (getValue(parents[2], j) - getValue(parents[3], j));
+				break;
+			case CURRENT_2:
+				value = getValue(current, j) +
+						F_ * (getValue(parents[0], j) - getValue(parents[1], j)) +
+						F_ * (getValue(parents[2], j) - getValue(parents[3], j));
+				break;
+			default: // CURRENT_TO_RAND_2
+				value = getValue(current, j) + K_ * (getValue(parents[0], j) -
+						getValue(current, j)) +
+						F_ * (getValue(parents[1], j) - getValue(parents[2], j)) +
+						F_ * (getValue(parents[3], j) - getValue(parents[4], j));
+				break;
+			}
+
+			Variable[] variables = child.getDecisionVariables();
+			if (variables[0] instanceof ArrayReal) {
+				ArrayReal array = (ArrayReal) variables[0];
+				if (value < array.getLowerBound(j))
+					value = array.getLowerBound(j);
+				if (value > array.getUpperBound(j))
+					value = array.getUpperBound(j);
+				array.array_[j] = value;
+			} else {
+				if (value < variables[j].getLowerBound())
+					value = variables[j].getLowerBound();
+				if (value > variables[j].getUpperBound())
+					value = variables[j].getUpperBound();
+				variables[j].setValue(value);
+			}
+		} // for
+
+		return child;
+	} // execute
+
+	/**
+	 * Checks that a solution is of type 'Real' or 'ArrayReal'
+	 */
+	static void checkType(Solution solution) throws JMException {
+		Class type = solution.getType().getClass();
+		if ((type != RealSolutionType.class) && (type != ArrayRealSolutionType.class)) {
+			Configuration.logger_.severe("DifferentialEvolutionCrossover.execute: " +
+					" the solutions " +
+					"are not of the right type. The type should be 'Real' or 'ArrayReal', but " +
+					solution.getType() + " is obtained");
+			throw new JMException("Exception in DEStrategy.execute()") ;
+		}
+	} // checkType
+
+	private static int numberOfVariables(Solution solution) {
+		Variable[] variables = solution.getDecisionVariables();
+		if (variables[0] instanceof ArrayReal)
+			return ((ArrayReal) variables[0]).getLength();
+		return variables.length;
+	} // numberOfVariables
+
+	private static double getValue(Solution solution, int j) throws JMException {
+		Variable[] variables = solution.getDecisionVariables();
+		if (variables[0] instanceof ArrayReal)
+			return ((ArrayReal) variables[0]).array_[j];
+		return variables[j].getValue();
+	} // getValue
+} // DEStrategy
@@ -21,20 +21,12 @@
 
 package jmetal.operators.crossover;
 
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Properties;
 
 import jmetal.core.Solution;
-import jmetal.core.SolutionType;
-import jmetal.encodings.solutionType.ArrayRealSolutionType;
-import jmetal.encodings.solutionType.RealSolutionType;
 import jmetal.operators.crossover.Crossover;
-import jmetal.util.Configuration;
 import jmetal.util.JMException;
-import jmetal.util.PseudoRandom;
-import jmetal.util.wrapper.XReal;
 
 /**
  * Differential evolution crossover operators
@@ -51,6 +43,11 @@ import jmetal.util.wrapper.XReal;
  *   - current-to-rand/1 (current-to-best/1)
  *   - current-to-rand/1/bin (current-to-best/1/bin)
  *   - current-to-rand/1/exp (current-to-best/1/exp)
+ *   - rand/2/bin (best/2/bin)
+ *   - current/2/bin
+ *   - current-to-rand/2/bin (current-to-best/2/bin)
+ * - The variant is resolved once into an immutable <code>DEStrategy</code>;
+ *   CR, F, K and the variant are fixed by the constructor.
  */
 public class DifferentialEvolutionCrossover extends Crossover {
 	/**
@@ -75,16 +72,11 @@ public class DifferentialEvolutionCrossover extends Crossover {
 
 	private static final String DEFAULT_DE_VARIANT = "rand/1/bin";
 
-  /**
-   * Valid solution types to apply this operator 
-   */
-  private static List VALID_TYPES = Arrays.asList(RealSolutionType.class, 
-  		                                            ArrayRealSolutionType.class) ;
-
-	public double CR_  ;
-	public double F_   ;
-	public double K_   ;
-	private String DE_Variant_ ; // DE variant (rand/1/bin, rand/1/exp, etc.)
+	private final double CR_  ;
+	private final double F_   ;
+	private final double K_   ;
+	private final String DE_Variant_ ; // DE variant (rand/1/bin, rand/1/exp, etc.)
+	private DEStrategy strategy_ ; // DE_Variant_ resolved at the first execution
 
 	/**
 	 * Constructor
@@ -92,22 +84,25 @@ public class DifferentialEvolutionCrossover extends Crossover {
 	public DifferentialEvolutionCrossover(HashMap<String, Object> parameters) {
 		super(parameters) ;
 		
-		CR_ = DEFAULT_CR ;
-		F_  = DEFAULT_F  ;
-		K_  = DEFAULT_K   ;
-		DE_Variant_ = DEFAULT_DE_VARIANT ;
-		
-  	if (parameters.get("CR") != null)
-  		CR_ = (Double) parameters.get("CR") ;  		
-  	if (parameters.get("F") != null)
-  		F_ = (Double) parameters.get("F") ;  		
-  	if (parameters.get("K") != null)
-  		K_ = (Double) parameters.get("K") ;  		
-  	if (parameters.get("DE_VARIANT") != null)
-  		DE_Variant_ = (String) parameters.get("DE_VARIANT") ;  		
-
+		CR_ = (parameters.get("CR") != null) ? (Double) parameters.get("CR") : DEFAULT_CR ;
+		F_  = (parameters.get("F") != null) ? (Double) parameters.get("F") : DEFAULT_F ;
+		K_  = (parameters.get("K") != null) ? (Double) parameters.get("K") : DEFAULT_K ;
+		DE_Variant_ = (parameters.get("DE_VARIANT") != null) ?
+				(String) parameters.get("DE_VARIANT") : DEFAULT_DE_VARIANT ;
 	} // Constructor
 
+	public double getCR() {
+		return CR_ ;
+	} // getCR
+
+	public double getF() {
+		return F_ ;
+	} // getF
+
+	public double getK() {
+		return K_ ;
+	} // getK
+
 
 	/**
 	 * Constructor
@@ -120,9 +115,19 @@ public class DifferentialEvolutionCrossover extends Crossover {
 	//	DE_Variant_ = properties.getProperty("DE_Variant_") ;
 	//} // Constructor
 
+	/**
+	 * Returns a strategy for another DE variant with the CR, F and K values of
+	 * this operator
+	 * @param variant The DE variant (rand/1/bin, rand/2/bin, etc.)
+	 */
+	public DEStrategy getStrategy(String variant) throws JMException {
+		return DEStrategy.getStrategy(variant, CR_, F_, K_) ;
+	} // getStrategy
+
 	/**
 	 * Executes the operation
-	 * @param object An object containing an array of three parents
+	 * @param object An object containing the current solution and an array of
+	 *               three parents
 	 * @return An object containing the offSprings
 	 */
 	public Object execute(Object object) throws JMException {
@@ -130,162 +135,21 @@ public class DifferentialEvolutionCrossover extends Crossover {
 		Solution current   = (Solution) parameters[0];
 		Solution [] parent = (Solution [])parameters[1];
 
-		Solution child ;
-		
-    if (!(VALID_TYPES.contains(parent[0].getType().getClass()) &&
-          VALID_TYPES.contains(parent[1].getType().getClass()) &&
-          VALID_TYPES.contains(parent[2].getType().getClass())) ) {
-
-			Configuration.logger_.severe("DifferentialEvolutionCrossover.execute: " +
-					" the solutions " +
-					"are not of the right type. The type should be 'Real' or 'ArrayReal', but " +
-					parent[0].getType() + " and " + 
-					parent[1].getType() + " and " + 
-					parent[2].getType() + " are obtained");
-
-			Class cls = java.lang.String.class;
-			String name = cls.getName(); 
-			throw new JMException("Exception in " + name + ".execute()") ;
-		}
-
-		int jrand ;
+		return execute(current, parent, null) ;
+	} // execute
 
-		child = new Solution(current) ;
-		
-		XReal xParent0 = new XReal(parent[0]) ;
-		XReal xParent1 = new XReal(parent[1]) ;
-		XReal xParent2 = new XReal(parent[2]) ;
-		XReal xCurrent = new XReal(current) ;
-		XReal xChild   = new XReal(child) ;
-
-		int numberOfVariables = xParent0.getNumberOfDecisionVariables() ;
-		jrand = (int)(PseudoRandom.randInt(0, numberOfVariables - 1)) ;
-
-		// STEP 4. Checking the DE variant
-		if ((DE_Variant_.compareTo("rand/1/bin") == 0) || 
-				(DE_Variant_.compareTo("best/1/bin") == 0)) { 
-			for (int j=0; j < numberOfVariables; j++) {
-				if (PseudoRandom.randDouble(0, 1) < CR_ || j == jrand) {
-					double value ;
-					value = xParent2.getValue(j)  + F_ * (xParent0.getValue(j) -
-							                                  xParent1.getValue(j)) ;
-					
-					if (value < xChild.getLowerBound(j))
-						value =  xChild.getLowerBound(j) ;
-					if (value > xChild.getUpperBound(j))
-						value = xChild.getUpperBound(j) ;
-          /*
-					if (value < xChild.getLowerBound(j)) {
-            double rnd = PseudoRandom.randDouble(0, 1) ;
-            value = xChild.getLowerBound(j) + rnd *(xParent2.getValue(j) - xChild.getLowerBound(j)) ;
-					}
-          if (value > xChild.getUpperBound(j)) {
-            double rnd = PseudoRandom.randDouble(0, 1) ;
-            value = xChild.getUpperBound(j) - rnd*(xChild.getUpperBound(j)-xParent2.getValue(j)) ;
-          }
-          */
-					xChild.setValue(j, value) ;
-				}
-				else {
-					double value ;
-					value = xCurrent.getValue(j);
-					xChild.setValue(j, value) ;
-				} // else
-			} // for
-		} // if
-		else if ((DE_Variant_.compareTo("rand/1/exp") == 0) || 
-				     (DE_Variant_.compareTo("best/1/exp") == 0)) {
-			for (int j=0; j < numberOfVariables; j++) {
-				if (PseudoRandom.randDouble(0, 1) < CR_ || j == jrand) {
-					double value ;
-					value = xParent2.getValue(j)  + F_ * (xParent0.getValue(j) -
-							xParent1.getValue(j)) ;
-
-					if (value < xChild.getLowerBound(j))
-						value =  xChild.getLowerBound(j) ;
-					if (value > xChild.getUpperBound(j))
-						value = xChild.getUpperBound(j) ;
-
-					xChild.setValue(j, value) ;
-				}
-				else {
-					CR_ = 0.0 ;
-					double value ;
-					value = xCurrent.getValue(j);
-					xChild.setValue(j, value) ;
-			  } // else
-			} // for		
-		} // if
-		else if ((DE_Variant_.compareTo("current-to-rand/1") == 0) || 
-             (DE_Variant_.compareTo("current-to-best/1") == 0)) { 
-			for (int j=0; j < numberOfVariables; j++) {
-				double value ;
-				value = xCurrent.getValue(j) + K_ * (xParent2.getValue(j) - 
-					    xCurrent.getValue(j)) +					
-						  F_ * (xParent0.getValue(j) - xParent1.getValue(j)) ;
-
-				if (value < xChild.getLowerBound(j))
-					value =  xChild.getLowerBound(j) ;
-				if (value > xChild.getUpperBound(j))
-					value = xChild.getUpperBound(j) ;
-
-				xChild.setValue(j, value) ;
-			} // for		
-		} // if
-		else if ((DE_Variant_.compareTo("current-to-rand/1/bin") == 0) ||
-				     (DE_Variant_.compareTo("current-to-best/1/bin") == 0)) { 
-			for (int j=0; j < numberOfVariables; j++) {
-				if (PseudoRandom.randDouble(0, 1) < CR_ || j == jrand) {
-					double value ;
-					value = xCurrent.getValue(j) + K_ * (xParent2.getValue(j) - 
-							xCurrent.getValue(j)) +					
-							F_ * (xParent0.getValue(j) - xParent1.getValue(j)) ;
-
-					if (value < xChild.getLowerBound(j))
-						value =  xChild.getLowerBound(j) ;
-					if (value > xChild.getUpperBound(j))
-						value = xChild.getUpperBound(j) ;
-
-					xChild.setValue(j, value) ;
-				}
-				else {
-					double value ;
-					value = xCurrent.getValue(j);
-					xChild.setValue(j, value) ;
-				} // else
-			} // for
-		} // if
-		else if ((DE_Variant_.compareTo("current-to-rand/1/exp") == 0) || 
-				(DE_Variant_.compareTo("current-to-best/1/exp") == 0)) {
-			for (int j=0; j < numberOfVariables; j++) {
-				if (PseudoRandom.randDouble(0, 1) < CR_ || j == jrand) {
-					double value ;
-					value = xCurrent.getValue(j) + K_ * (xParent2.getValue(j) - 
-							xCurrent.getValue(j)) +					
-							F_ * (xParent0.getValue(j) - xParent1.getValue(j)) ;
-
-					if (value < xChild.getLowerBound(j))
-						value =  xChild.getLowerBound(j) ;
-					if (value > xChild.getUpperBound(j))
-						value = xChild.getUpperBound(j) ;
-
-					xChild.setValue(j, value) ;
-				}
-				else {
-					CR_ = 0.0 ;
-					double value ;
-					value = xCurrent.getValue(j);
-					xChild.setValue(j, value) ;
-				} // else
-			} // for		
-		} // if		
-		else {
-			Configuration.logger_.severe("DifferentialEvolutionCrossover.execute: " +
-					" unknown DE variant (" + DE_Variant_ + ")");
-			Class<String> cls = java.lang.String.class;
-			String name = cls.getName(); 
-			throw new JMException("Exception in " + name + ".execute()") ;
-		} // else
-		return child ;
-	}
+	/**
+	 * Executes the operation writing the offspring into a given solution
+	 * @param current The current solution
+	 * @param parent  The parents
+	 * @param child   A solution of the same problem which is overwritten, or
+	 *                null to create a new one
+	 * @return The offspring
+	 */
+	public Solution execute(Solution current, Solution [] parent, Solution child)
+			throws JMException {
+		if (strategy_ == null)
+			strategy_ = getStrategy(DE_Variant_) ;
+		return strategy_.execute(current, parent, child) ;
+	} // execute
 } // DifferentialEvolutionCrossover
@@ -37,7 +37,7 @@ import java.util.List;
  * This class allows to apply a SBX crossover operator using two parent
  * solutions.
  */
-public class SBXCrossover extends Crossover {
+public class SBXCrossover extends Crossover implements SingleOffspringCrossover {
 	/**
 	 * EPS defines the minimum difference allowed between real values
 	 */
@@ -176,6 +176,98 @@ public class SBXCrossover extends Crossover {
 		return offSpring;
 	} // doCrossover
 
+	/**
+	 * Perform the crossover operation producing only the first offspring of
+	 * <code>doCrossover(probability, parent1, parent2)</code>. The same random
+	 * numbers are drawn, so the result is the same, but the second parent is
+	 * not copied and, for each variable, only the value taken by the first
+	 * offspring is computed.
+	 * 
+	 * @param probability
+	 *            Crossover probability
+	 * @param parent1
+	 *            The first parent
+	 * @param parent2
+	 *            The second parent
+	 * @param child
+	 *            Solution overwritten with the offspring, or null
+	 * @return The offspring
+	 */
+	public Solution doCrossover(double probability, Solution parent1,
+			Solution parent2, Solution child) throws JMException {
+
+		if (child == null)
+			child = new Solution(parent1);
+		else
+			child.copy(parent1);
+
+		double rand;
+		double y1, y2, yL, yu;
+		double c;
+		double beta, betaq;
+		double valueX1, valueX2;
+		XReal x1 = new XReal(parent1);
+		XReal x2 = new XReal(parent2);
+		XReal offs = new XReal(child);
+
+		int numberOfVariables = x1.getNumberOfDecisionVariables();
+
+		if (PseudoRandom.randDouble() <= probability) {
+			for (int i = 0; i < numberOfVariables; i++) {
+				valueX1 = x1.getValue(i);
+				valueX2 = x2.getValue(i);
+				if (PseudoRandom.randDouble() <= 0.5) {
+					if (java.lang.Math.abs(valueX1 - valueX2) > EPS) {
+
+						if (valueX1 < valueX2) {
+							y1 = valueX1;
+							y2 = valueX2;
+						} else {
+							y1 = valueX2;
+							y2 = valueX1;
+						} // if
+
+						yL = x1.getLowerBound(i);
+						yu = x1.getUpperBound(i);
+						rand = PseudoRandom.randDouble();
+
+						// The first offspring takes c2 if the second draw is <= 0.5
+						if (PseudoRandom.randDouble() <= 0.5) {
+							beta = 1.0 + (2.0 * (yu - y2) / (y2 - y1));
+							betaq = betaq(rand, beta);
+							c = 0.5 * ((y1 + y2) + betaq * (y2 - y1));
+						} else {
+							beta = 1.0 + (2.0 * (y1 - yL) / (y2 - y1));
+							betaq = betaq(rand, beta);
+							c = 0.5 * ((y1 + y2) - betaq * (y2 - y1));
+						} // if
+
+						if (c < yL)
+							c = yL;
+
+						if (c > yu)
+							c = yu;
+
+						offs.setValue(i, c);
+					} // if
+				} else {
+					offs.setValue(i, valueX2);
+				} // if
+			} // for
+		} // if
+
+		return child;
+	} // doCrossover
+
+	private double betaq(double rand, double beta) {
+		double alpha = 2.0 - java.lang.Math.pow(beta, -(distributionIndex_ + 1.0));
+
+		if (rand <= (1.0 / alpha))
+			return java.lang.Math.pow((rand * alpha), (1.0 / (distributionIndex_ + 1.0)));
+		return java.lang.Math.pow((1.0 / (2.0 - rand * alpha)),
+				(1.0 / (distributionIndex_ + 1.0)));
+	} // betaq
+
 	/**
 	 * Executes the operation
 	 * 
@@ -216,4 +308,22 @@ public class SBXCrossover extends Crossover {
 		// }
 		return offSpring;
 	} // execute
+
+	/**
+	 * Executes the operation producing only the first offspring
+	 * 
+	 * @see SingleOffspringCrossover
+	 */
+	public Solution executeSingle(Solution parent1, Solution parent2,
+			Solution child) throws JMException {
+		if (!(VALID_TYPES.contains(parent1.getType().getClass()) && VALID_TYPES
+				.contains(parent2.getType().getClass()))) {
+			Configuration.logger_.severe("SBXCrossover.executeSingle: the solutions "
+					+ "type " + parent1.getType()
+					+ " is not allowed with this operator");
+			throw new JMException("Exception in " + getClass().getName() + ".executeSingle()");
+		} // if
+
+		return doCrossover(crossoverProbability_, parent1, parent2, child);
+	} // executeSingle
 } // SBXCrossover
@@ -32,7 +32,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
-public class SBXSinglePointCrossover extends Crossover {
+public class SBXSinglePointCrossover extends Crossover implements SingleOffspringCrossover {
 	/**
 	 * EPS defines the minimum difference allowed between real values
 	 */
@@ -186,6 +186,112 @@ public class SBXSinglePointCrossover extends Crossover {
 		return offSpring;      
 	} // doCrossover
 
+	/**
+	 * Perform the crossover operation producing only the first offspring of
+	 * <code>doCrossover(realProbability, binaryProbability, parent1, parent2)</code>.
+	 * The same random numbers are drawn, so the result is the same, but the
+	 * second parent is not copied.
+	 * @param realProbability Crossover probability of the real part
+	 * @param binaryProbability Crossover probability of the binary part
+	 * @param parent1 The first parent
+	 * @param parent2 The second parent
+	 * @param child Solution overwritten with the offspring, or null
+	 * @return The offspring
+	 */
+	public Solution doCrossover(Double realProbability,
+		Double binaryProbability,
+		Solution parent1, 
+		Solution parent2,
+		Solution child) throws JMException {
+
+		if (child == null)
+			child = new Solution(parent1);
+		else
+			child.copy(parent1);
+
+		// SBX crossover
+		double rand;
+		double y1, y2, yL, yu;
+		double c;
+		double beta, betaq;
+		double valueX1,valueX2;
+		XReal x1 = new XReal(parent1) ;		
+		XReal x2 = new XReal(parent2) ;		
+		XReal offs = new XReal(child) ;
+
+		if (PseudoRandom.randDouble() <= realProbability) {
+			for (int i=0; i<x1.size(); i++){
+				valueX1 = x1.getValue(i);
+				valueX2 = x2.getValue(i);
+				if (PseudoRandom.randDouble()<=0.5 ){
+					if (java.lang.Math.abs(valueX1- valueX2) > EPS) {
+
+						if (valueX1 < valueX2){
+							y1 = valueX1;
+							y2 = valueX2;
+						} else {
+							y1 = valueX2;
+							y2 = valueX1;
+						} // if                       
+
+						yL = x1.getLowerBound(i) ;
+						yu = x1.getUpperBound(i) ;
+						rand = PseudoRandom.randDouble();
+
+						// The first offspring takes c2 if the second draw is <= 0.5
+						if (PseudoRandom.randDouble()<=0.5) {
+							beta = 1.0 + (2.0*(yu-y2)/(y2-y1));
+							betaq = betaq(rand, beta);
+							c = 0.5*((y1+y2)+betaq*(y2-y1));
+						} else {
+							beta = 1.0 + (2.0*(y1-yL)/(y2-y1));
+							betaq = betaq(rand, beta);
+							c = 0.5*((y1+y2)-betaq*(y2-y1));
+						} // if
+
+						if (c<yL)
+							c=yL;
+
+						if (c>yu)
+							c=yu;
+
+						offs.setValue(i, c) ;
+					} // if 
+				} // if
+				else {
+					offs.setValue(i, valueX2) ;
+				} // else
+			} // for
+		} // if
+
+		// Single point crossover
+
+		if (PseudoRandom.randDouble()<=binaryProbability) {
+			Binary binaryChild = (Binary)child.getDecisionVariables()[1] ;
+			Binary binaryParent2 = (Binary)parent2.getDecisionVariables()[1] ;
+
+			int totalNumberOfBits = binaryChild.getNumberOfBits() ;
+
+			//2. Calcule the point to make the crossover
+			int crossoverPoint = PseudoRandom.randInt(0, totalNumberOfBits - 1);
+
+			//5. Make the crossover;
+			for (int i = crossoverPoint; i < totalNumberOfBits; i++) {
+				binaryChild.bits_.set(i, binaryParent2.bits_.get(i));
+			} // for
+		} // if
+
+		return child;      
+	} // doCrossover
+
+	private double betaq(double rand, double beta) {
+		double alpha = 2.0 - java.lang.Math.pow(beta,-(distributionIndex_+1.0));
+
+		if (rand <= (1.0/alpha))
+			return java.lang.Math.pow ((rand*alpha),(1.0/(distributionIndex_+1.0)));
+		return java.lang.Math.pow ((1.0/(2.0 - rand*alpha)),(1.0/(distributionIndex_+1.0)));
+	} // betaq
+
 	@Override
 	public Object execute(Object object) throws JMException {
 		Solution [] parents = (Solution [])object;
@@ -214,5 +320,22 @@ public class SBXSinglePointCrossover extends Crossover {
 		return offSpring ;
 	} // execute
 
+	/**
+	 * Executes the operation producing only the first offspring
+	 * @see SingleOffspringCrossover
+	 */
+	public Solution executeSingle(Solution parent1, Solution parent2,
+			Solution child) throws JMException {
+		if (!(VALID_TYPES.contains(parent1.getType().getClass())  &&
+				VALID_TYPES.contains(parent2.getType().getClass())) ) {
+			Configuration.logger_.severe("SBXSinglePointCrossover.executeSingle: the solutions " +
+					"type " + parent1.getType() + " is not allowed with this operator");
+			throw new JMException("Exception in " + getClass().getName() + ".executeSingle()") ;
+		} // if 
+
+		return doCrossover(realCrossoverProbability_, 
+				binaryCrossoverProbability_, parent1, parent2, child);
+	} // executeSingle
+
 } // SBXSinglePointCrossover
 
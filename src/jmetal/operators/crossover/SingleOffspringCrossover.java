@@ -0,0 +1,44 @@
+//  SingleOffspringCrossover.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.operators.crossover;
+
+import jmetal.core.Solution;
+import jmetal.util.JMException;
+
+/**
+ * Crossover operators producing two offspring which can also produce only
+ * the first one. Algorithms keeping a single child (e.g., the MOEA/D
+ * variants) use it to avoid copying the second parent and computing the
+ * second child.
+ */
+public interface SingleOffspringCrossover {
+
+	/**
+	 * Produces the first offspring of <code>execute</code> (the one built
+	 * from a copy of parent1), with the same distribution.
+	 *
+	 * @param parent1
+	 *            The first parent
+	 * @param parent2
+	 *            The second parent
+	 * @param child
+	 *            A solution of the same problem which is overwritten with
+	 *            the offspring, or null to create a new one
+	 * @return The offspring (<code>child</code> if it is not null)
+	 */
+	public Solution executeSingle(Solution parent1, Solution parent2,
+			Solution child) throws JMException;
+} // SingleOffspringCrossover
@@ -23,8 +23,12 @@ package jmetal.operators.selection;
 
 import jmetal.core.Solution;
 import jmetal.core.SolutionSet;
+import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
 import jmetal.util.comparators.DominanceComparator;
+import jmetal.util.snapshot.CheckpointInput;
+import jmetal.util.snapshot.CheckpointOutput;
+import jmetal.util.snapshot.Checkpointable;
 
 import java.util.Comparator;
 import java.util.HashMap;
@@ -33,7 +37,7 @@ import java.util.HashMap;
  * This class implements an operator for binary selections using the same code
  * in Deb's NSGA-II implementation
  */
-public class BinaryTournament2 extends Selection {
+public class BinaryTournament2 extends Selection implements Checkpointable {
 
 	/**
 	 * dominance_ store the <code>Comparator</code> for check dominance_
@@ -90,4 +94,22 @@ public class BinaryTournament2 extends Selection {
 		else
 			return solution2;
 	} // execute
+
+	/**
+	 * Saves the permutation and the position in it
+	 */
+	public void writeState(CheckpointOutput out) throws JMException {
+		out.putBoolean(a_ != null);
+		if (a_ != null)
+			out.putInts(a_);
+		out.putInt(index_);
+	} // writeState
+
+	/**
+	 * Restores the permutation and the position in it
+	 */
+	public void readState(CheckpointInput in) throws JMException {
+		a_ = in.getBoolean() ? in.getInts() : null;
+		index_ = in.getInt();
+	} // readState
 } // BinaryTournament2
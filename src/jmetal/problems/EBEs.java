@@ -3799,7 +3799,7 @@ switch(selectedOF){
 
  public double BucklingOmega(double Nxx, double[] G, double[] B) throws JMException{
 
-	 double ω = 1.0; // coeficiente de Pandeo
+	 double omega = 1.0; // coeficiente de Pandeo
 
   if(Nxx < 0.0 && G[AREA] > 0.0 && lBuckling)
   {
@@ -3811,9 +3811,9 @@ switch(selectedOF){
       // radio de inercia respecto al eje z
       double iz = G[Iz_] / G[AREA];
       //esbeltez respecto al eje y
-      double λo  = B[L_] * G[BLijY_] / iy;
+      double lambda0  = B[L_] * G[BLijY_] / iy;
       // esbeltez maxima entre para los ejes y, z
-      λo = Math.min(λo, B[L_] * G[BLijZ_] / iz);
+      lambda0 = Math.min(lambda0, B[L_] * G[BLijZ_] / iz);
 
 	      if(G[TypeMaterial_]== 0) {
               // steel cable stress 125 MN/m2
@@ -3826,18 +3826,18 @@ switch(selectedOF){
 	      else if(G[TypeMaterial_]== 2)  // F-24 steel 24 MN/m2
 	      {
 	          // Método Domke - Tabla Lamda0  - Lamda
-	    	  // double λ = -2.3443 + 1.07817 * λo - 0.0036181 * Math.pow(λo, 2) + 0.000008209862 * Math.pow(λo, 3) - 0.00000001058458 * Math.pow(λo, 4) + 0.000000000007147864 * Math.pow(λo, 5) - 0.00000000000000196410755 * Math.pow(λo, 6);
+	    	  // double lambda = -2.3443 + 1.07817 * lambda0 - 0.0036181 * Math.pow(lambda0, 2) + 0.000008209862 * Math.pow(lambda0, 3) - 0.00000001058458 * Math.pow(lambda0, 4) + 0.000000000007147864 * Math.pow(lambda0, 5) - 0.00000000000000196410755 * Math.pow(lambda0, 6);
 	          // coeficiente omega de mayoración por efecto de Pandeo
-	          // double ratio = λo / λ;
-	          // ω = Math.pow(ratio, 2.0);
+	          // double ratio = lambda0 / lambda;
+	          // omega = Math.pow(ratio, 2.0);
               
 	    	  // Buckling coefficient, Table: Lamda-Omega
-              double λ  = λo;
-              if ( λ <= 150)
+              double lambda  = lambda0;
+              if ( lambda <= 150)
               {
-            	  ω = 1.113 + 0.0070516 * λ - 0.000132108 * Math.pow(λ, 2.0) + 0.000002106132 * Math.pow(λ, 3.0) - 0.00000000397368332151 * Math.pow(λ, 4.0);
+            	  omega = 1.113 + 0.0070516 * lambda - 0.000132108 * Math.pow(lambda, 2.0) + 0.000002106132 * Math.pow(lambda, 3.0) - 0.00000000397368332151 * Math.pow(lambda, 4.0);
               }
-              else ω = 25.0;
+              else omega = 25.0;
 	      }
 
 	      else if(G[TypeMaterial_] == 3){  // F-32 steel 320 N/mm2
@@ -3859,16 +3859,16 @@ switch(selectedOF){
           else if(G[TypeMaterial_] == 20)  // Wood hard an halt-hard
 	      {
 	    	  // Buckling coefficient, Table: Lamda-Omega
-             double λ  = λo;
-             if (λ<=150)
+             double lambda  = lambda0;
+             if (lambda<=150)
              {
-                 ω = 1.048 + 0.005524 * λ - 0.000101666 * Math.pow(λ, 2.0) + 0.00000301687 * Math.pow(λ, 3.0) - 0.000000004366246 * Math.pow(λ, 4.0);
+                 omega = 1.048 + 0.005524 * lambda - 0.000101666 * Math.pow(lambda, 2.0) + 0.00000301687 * Math.pow(lambda, 3.0) - 0.000000004366246 * Math.pow(lambda, 4.0);
              }
-             else ω = 25.0;
+             else omega = 25.0;
 	      }
       }
       
-  return ω;
+  return omega;
 
 }
   public void EBEsTransversalSectionCircular(int gr, double d) throws JMException{
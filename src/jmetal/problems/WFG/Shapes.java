@@ -28,13 +28,16 @@ package jmetal.problems.WFG;
 *            Evolutionary Multi-Criterion Optimization: 
 *            Third International Conference, EMO 2005. 
 *            Proceedings, volume 3410 of Lecture Notes in Computer Science
+* <p>
+* The overloads on <code>double</code> values are used by the
+* allocation-free evaluation of <code>WFG.evaluate(Solution)</code>.
 */
 public class Shapes {    
     
   /**
    * Calculate a linear shape
    */
-  public float linear(float [] x, int m){        
+  public static float linear(float [] x, int m){        
     float  result = (float)1.0;        
     int M = x.length;        
     
@@ -50,7 +53,7 @@ public class Shapes {
   /**
    * Calculate a convex shape
    */
-  public float convex(float [] x, int m){
+  public static float convex(float [] x, int m){
     float result = (float)1.0;
     int M = x.length;
         
@@ -67,7 +70,7 @@ public class Shapes {
   /**
    * Calculate a concave shape
    */
-  public float concave(float [] x, int m){
+  public static float concave(float [] x, int m){
     float result = (float)1.0;
     int M = x.length;
         
@@ -83,7 +86,7 @@ public class Shapes {
   /**
    * Calculate a mixed shape
    */
-  public float mixed(float [] x, int A, float alpha){
+  public static float mixed(float [] x, int A, float alpha){
     float tmp;        
     tmp =(float) Math.cos((float)2.0 * A * (float)Math.PI * x[0] + (float)Math.PI * (float)0.5);
     tmp /= (2.0 * (float) A * Math.PI);
@@ -94,10 +97,76 @@ public class Shapes {
   /**
    *  Calculate a disc shape
    */
-  public float disc(float [] x, int A, float alpha, float beta){
+  public static float disc(float [] x, int A, float alpha, float beta){
     float tmp;        
     tmp = (float)Math.cos((float)A * Math.pow(x[0], beta) * Math.PI);
         
     return (float)1.0 - (float)Math.pow(x[0],alpha) * (float)Math.pow(tmp,2.0);        
   } // disc
+
+  /**
+   * Calculate a linear shape (double precision)
+   */
+  public static double linear(double [] x, int m){
+    double result = 1.0;
+    int M = x.length;
+
+    for (int i = 1; i <= M - m; i++)
+      result *= x[i-1];
+
+    if (m != 1)
+      result *= (1 - x[M - m]);
+
+    return result;
+  } // linear
+
+  /**
+   * Calculate a convex shape (double precision)
+   */
+  public static double convex(double [] x, int m){
+    double result = 1.0;
+    int M = x.length;
+
+    for (int i = 1; i <= M - m; i++)
+      result *= (1 - Math.cos(x[i-1] * Math.PI * 0.5));
+
+    if (m != 1)
+      result *= (1 - Math.sin(x[M - m] * Math.PI * 0.5));
+
+    return result;
+  } // convex
+
+  /**
+   * Calculate a concave shape (double precision)
+   */
+  public static double concave(double [] x, int m){
+    double result = 1.0;
+    int M = x.length;
+
+    for (int i = 1; i <= M - m; i++)
+      result *= Math.sin(x[i-1] * Math.PI * 0.5);
+
+    if (m != 1)
+      result *= Math.cos(x[M - m] * Math.PI * 0.5);
+
+    return result;
+  } // concave
+
+  /**
+   * Calculate a mixed shape (double precision)
+   */
+  public static double mixed(double [] x, int A, double alpha){
+    double tmp = Math.cos(2.0 * A * Math.PI * x[0] + Math.PI * 0.5) / (2.0 * A * Math.PI);
+
+    return Math.pow(1.0 - x[0] - tmp, alpha);
+  } // mixed
+
+  /**
+   *  Calculate a disc shape (double precision)
+   */
+  public static double disc(double [] x, int A, double alpha, double beta){
+    double tmp = Math.cos(A * Math.pow(x[0], beta) * Math.PI);
+
+    return 1.0 - Math.pow(x[0], alpha) * tmp * tmp;
+  } // disc
 } // Shapes
@@ -24,8 +24,16 @@ package jmetal.problems.WFG;
 import jmetal.util.Configuration;
 import jmetal.util.JMException;
 
+import java.util.Arrays;
+
 /**
- * Class implementing the basics transformations for WFG
+ * Class implementing the basics transformations for WFG.
+ * <p>
+ * The methods on <code>float</code> values are the reference
+ * implementation used by <code>WFG.evaluate(float[])</code>. The overloads on
+ * <code>double</code> values are used by the allocation-free evaluation of
+ * <code>WFG.evaluate(Solution)</code>; the reductions work on a range of an
+ * array instead of on subvectors.
  */
 public class Transformations {
         
@@ -38,7 +46,7 @@ public class Transformations {
    * b_poly transformation
    * @throws JMException 
    */
-  public float b_poly(float y, float alpha) throws JMException{
+  public static float b_poly(float y, float alpha) throws JMException{
     if (!(alpha>0)) {
       
       Configuration.logger_.severe("WFG.Transformations.b_poly: Param alpha " +
@@ -55,7 +63,7 @@ public class Transformations {
   /**
    * b_flat transformation
    */
-  public float b_flat(float y, float A, float B, float C){    
+  public static float b_flat(float y, float A, float B, float C){    
     float tmp1 = Math.min((float)0, (float)Math.floor(y - B))* A*(B-y)/B;
     float tmp2 = Math.min((float)0, (float)Math.floor(C - y))* (1 - A)*(y - C)/(1 - C);
         
@@ -65,14 +73,14 @@ public class Transformations {
   /**
    * s_linear transformation
    */
-  public float s_linear(float y, float A){
+  public static float s_linear(float y, float A){
     return correct_to_01(Math.abs(y - A) /(float)Math.abs(Math.floor(A - y) + A));
   } // s_linear
     
   /**
    * s_decept transformation
    */
-  public float s_decept(float y, float A, float B, float C){        
+  public static float s_decept(float y, float A, float B, float C){        
     float tmp, tmp1, tmp2;
         
     tmp1 = (float)Math.floor(y - A + B) * ((float)1.0 - C + (A - B)/B) / (A - B);
@@ -86,7 +94,7 @@ public class Transformations {
   /**
    * s_multi transformation
    */
-  public float s_multi(float y, int A, int B, float C){                
+  public static float s_multi(float y, int A, int B, float C){                
     float tmp1, tmp2;
         
     tmp1 = ((float)4.0 * A + (float)2.0) *
@@ -102,7 +110,7 @@ public class Transformations {
   /**
    * r_sum transformation
    */
-  public float r_sum(float [] y, float [] w){
+  public static float r_sum(float [] y, float [] w){
     float tmp1 = (float)0.0, tmp2 =(float) 0.0;
     for (int i = 0; i < y.length; i++){
       tmp1 += y[i]*w[i];
@@ -115,7 +123,7 @@ public class Transformations {
   /**
    * r_nonsep transformation
    */
-  public float r_nonsep(float [] y, int A){               
+  public static float r_nonsep(float [] y, int A){               
     float tmp, denominator, numerator;
       
     tmp = (float)Math.ceil(A/(float)2.0);        
@@ -134,7 +142,7 @@ public class Transformations {
   /**
    * b_param transformation
    */
-  public float b_param(float y, float u, float A, float B, float C){
+  public static float b_param(float y, float u, float A, float B, float C){
     float result, v, exp;
         
     v = A - ((float)1.0 - (float)2.0 * u) *
@@ -145,9 +153,118 @@ public class Transformations {
     return correct_to_01(result);                  
   } // b_param
     
+  /**
+   * b_poly transformation (double precision)
+   * @throws JMException
+   */
+  public static double b_poly(double y, double alpha) throws JMException {
+    if (!(alpha > 0)) {
+      Configuration.logger_.severe("WFG.Transformations.b_poly: Param alpha " +
+          "must be > 0") ;
+      throw new JMException("Exception in " + Transformations.class.getName() + ".b_poly()") ;
+    }
+
+    return correct_to_01(Math.pow(y, alpha));
+  } // b_poly
+
+  /**
+   * b_flat transformation (double precision)
+   */
+  public static double b_flat(double y, double A, double B, double C) {
+    double tmp1 = Math.min(0.0, Math.floor(y - B)) * A * (B - y) / B;
+    double tmp2 = Math.min(0.0, Math.floor(C - y)) * (1 - A) * (y - C) / (1 - C);
+
+    return correct_to_01(A + tmp1 - tmp2);
+  } // b_flat
+
+  /**
+   * s_linear transformation (double precision)
+   */
+  public static double s_linear(double y, double A) {
+    return correct_to_01(Math.abs(y - A) / Math.abs(Math.floor(A - y) + A));
+  } // s_linear
+
+  /**
+   * s_decept transformation (double precision)
+   */
+  public static double s_decept(double y, double A, double B, double C) {
+    double tmp1 = Math.floor(y - A + B) * (1.0 - C + (A - B) / B) / (A - B);
+    double tmp2 = Math.floor(A + B - y) * (1.0 - C + (1.0 - A - B) / B) / (1.0 - A - B);
+    double tmp = Math.abs(y - A) - B;
+
+    return correct_to_01(1.0 + tmp * (tmp1 + tmp2 + 1.0 / B));
+  } // s_decept
+
+  /**
+   * s_multi transformation (double precision)
+   */
+  public static double s_multi(double y, int A, int B, double C) {
+    double tmp = Math.abs(y - C) / (2.0 * (Math.floor(C - y) + C));
+    double tmp1 = (4.0 * A + 2.0) * Math.PI * (0.5 - tmp);
+    double tmp2 = 4.0 * B * tmp * tmp;
+
+    return correct_to_01((1.0 + Math.cos(tmp1) + tmp2) / (B + 2.0));
+  } // s_multi
+
+  /**
+   * r_sum transformation of y[from..to) with unit weights (double precision)
+   */
+  public static double r_sum(double[] y, int from, int to) {
+    double sum = 0.0;
+    for (int i = from; i < to; i++)
+      sum += y[i];
+
+    return correct_to_01(sum / (to - from));
+  } // r_sum
+
+  /**
+   * r_nonsep transformation of y[from..to) (double precision). When A is the
+   * size of the group, as in every WFG problem, each value is compared with
+   * all the others, so the sum of the absolute differences is computed from
+   * the sorted values in O(n log n) instead of O(n * A).
+   * @param sorted Buffer of at least <code>to - from</code> elements
+   */
+  public static double r_nonsep(double[] y, int from, int to, int A, double[] sorted) {
+    int n = to - from;
+    double tmp = Math.ceil(A / 2.0);
+    double denominator = n * tmp * (1.0 + 2.0 * A - 2.0 * tmp) / A;
+    double numerator = 0.0;
+
+    if (A == n) {
+      // sum(y) + 2 * sum_{i<j} |y_i - y_j| = sum_r (4r - 2n + 3) * sorted_r
+      System.arraycopy(y, from, sorted, 0, n);
+      Arrays.sort(sorted, 0, n);
+      for (int r = 0; r < n; r++)
+        numerator += (4 * r - 2 * n + 3) * sorted[r];
+    } else {
+      for (int j = 0; j < n; j++) {
+        numerator += y[from + j];
+        for (int k = 0; k <= A - 2; k++)
+          numerator += Math.abs(y[from + j] - y[from + (j + k + 1) % n]);
+      }
+    }
+
+    return correct_to_01(numerator / denominator);
+  } // r_nonsep
+
+  /**
+   * b_param transformation (double precision)
+   */
+  public static double b_param(double y, double u, double A, double B, double C) {
+    double v = A - (1.0 - 2.0 * u) * Math.abs(Math.floor(0.5 - u) + A);
+
+    return correct_to_01(Math.pow(y, B + (C - B) * v));
+  } // b_param
+
+  static double correct_to_01(double a) {
+    if ((a <= 0.0 && a >= -epsilon) || (a >= 1.0 && a <= 1.0 + epsilon))
+      return (a <= 0.0) ? 0.0 : 1.0;
+    return a;
+  } // correct_to_01
+
   /**
    */
-  float correct_to_01(float a){    
+  static float correct_to_01(float a){    
     float min = (float)0.0;
     float max = (float)1.0;
     float min_epsilon = min - epsilon;
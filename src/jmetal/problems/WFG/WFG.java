@@ -22,8 +22,11 @@
 package jmetal.problems.WFG;
 
 import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.Variable;
 import jmetal.encodings.solutionType.BinaryRealSolutionType;
 import jmetal.encodings.solutionType.RealSolutionType;
+import jmetal.util.JMException;
 
 import java.util.Random;
 
@@ -34,6 +37,22 @@ import java.util.Random;
  *            Evolutionary Multi-Criterion Optimization: 
  *            Third International Conference, EMO 2005. 
  *            Proceedings, volume 3410 of Lecture Notes in Computer Science
+ * <p>
+ * <code>evaluate(float[])</code> and the t1..tn methods of the subclasses are
+ * the reference implementation, which creates a new vector in every step.
+ * It is the one used by default. After <code>setFusedEvaluation(true)</code>,
+ * <code>evaluate(Solution)</code> runs the same pipeline in place on buffers
+ * kept per thread: the transformations applied element by element are fused
+ * in a single loop, the reductions work on ranges of the buffer, and the
+ * b_param steps of WFG7, WFG8 and WFG9 use running sums instead of summing
+ * the rest of the vector for every variable. The fused computation is done
+ * in double precision; unless <code>setDoublePrecision(true)</code> is
+ * called, the variables and the objectives are rounded to float. Its results
+ * agree with the reference implementation up to the float rounding of the
+ * intermediate values (about 2e-5), which s_decept (WFG5, WFG9) amplifies by
+ * 1/B, so there the differences reach 4e-3 and the fused values are the ones
+ * closer to the exact transformation. That is why it is not the default:
+ * the reference values are the ones of the published results.
  */
 public abstract class WFG extends Problem{
   
@@ -49,6 +68,26 @@ public abstract class WFG extends Problem{
   protected int [] S_;
   protected int D_ = 1;
   protected Random random = new Random();            
+
+  /**
+   * If true, <code>evaluate(Solution)</code> uses the allocation-free
+   * pipeline instead of the reference implementation
+   */
+  protected boolean fused_ = false;
+
+  /**
+   * If true, the allocation-free pipeline does not round the variables and
+   * the objectives to float
+   */
+  protected boolean doublePrecision_ = false;
+
+  /**
+   * Buffers of the allocation-free evaluation. A problem can be shared by
+   * several evaluation threads (see <code>MultithreadedEvaluator</code>), so
+   * each thread has its own. It is not serialized, and is created on the
+   * first fused evaluation (see <code>workspace</code>).
+   */
+  private transient ThreadLocal<Workspace> workspace_;
     
   /** 
   * Constructor
@@ -154,4 +193,189 @@ public abstract class WFG extends Problem{
   */  
   abstract public float[] evaluate(float[] variables);
   // evaluate
+
+  /**
+   * Applies the transformations of the problem in place.
+   * @param y The normalised variables; the vector is overwritten
+   * @param t The M_ transformed values (output)
+   * @param buffer A vector of numberOfVariables_ elements which can be used
+   * as scratch space
+   */
+  protected abstract void transform(double [] y, double [] t, double [] buffer)
+      throws JMException;
+
+  /**
+   * Computes the objective values from the x vector
+   * @param x The x vector (see <code>calculate_x</code>)
+   * @param f The M_ objective values (output)
+   */
+  protected abstract void shape(double [] x, double [] f);
+
+  /**
+   * Chooses the allocation-free pipeline (true) or the reference
+   * implementation (false, the default) for the evaluations
+   */
+  public void setFusedEvaluation(boolean fused) {
+    fused_ = fused;
+  } // setFusedEvaluation
+
+  public boolean isFusedEvaluation() {
+    return fused_;
+  } // isFusedEvaluation
+
+  /**
+   * Keeps the variables and the objectives in double precision. Only the
+   * allocation-free pipeline computes in double precision, so this also
+   * chooses it (see <code>setFusedEvaluation</code>).
+   */
+  public void setDoublePrecision(boolean doublePrecision) {
+    doublePrecision_ = doublePrecision;
+    if (doublePrecision)
+      fused_ = true;
+  } // setDoublePrecision
+
+  public boolean isDoublePrecision() {
+    return doublePrecision_;
+  } // isDoublePrecision
+
+  /**
+   * Evaluates a solution, with the reference implementation or, if chosen,
+   * with the allocation-free pipeline
+   * @param solution The solution to evaluate
+   * @throws JMException
+   */
+  public void evaluate(Solution solution) throws JMException {
+    Variable[] dv = solution.getDecisionVariables();
+
+    if (!fused_) {
+      float [] variables = new float[getNumberOfVariables()];
+      for (int i = 0; i < getNumberOfVariables(); i++) {
+        variables[i] = (float)dv[i].getValue();
+      }
+
+      float [] f = evaluate(variables);
+
+      for (int i = 0; i < f.length; i++) {
+        solution.setObjective(i, f[i]);
+      }
+      return;
+    } // if
+
+    Workspace workspace = workspace();
+    double [] y = workspace.y_;
+
+    for (int i = 0; i < numberOfVariables_; i++) {
+      y[i] = doublePrecision_ ? dv[i].getValue() : (float)dv[i].getValue();
+    }
+
+    double [] f = evaluate(workspace);
+
+    for (int i = 0; i < M_; i++) {
+      solution.setObjective(i, doublePrecision_ ? f[i] : (float)f[i]);
+    }
+  } // evaluate
+
+  /**
+   * Evaluates a vector of variables. With the reference implementation (the
+   * default), the variables are rounded to float; the allocation-free
+   * pipeline, if chosen, computes in double precision without rounding.
+   * @param variables The variables (not modified)
+   * @param objectives The M_ objective values (output)
+   * @throws JMException
+   */
+  public void evaluate(double [] variables, double [] objectives) throws JMException {
+    if (!fused_) {
+      float [] z = new float[numberOfVariables_];
+      for (int i = 0; i < numberOfVariables_; i++) {
+        z[i] = (float)variables[i];
+      }
+
+      float [] f = evaluate(z);
+
+      for (int i = 0; i < M_; i++) {
+        objectives[i] = f[i];
+      }
+      return;
+    } // if
+
+    Workspace workspace = workspace();
+
+    System.arraycopy(variables, 0, workspace.y_, 0, numberOfVariables_);
+    System.arraycopy(evaluate(workspace), 0, objectives, 0, M_);
+  } // evaluate
+
+  /**
+   * Returns the buffers of the current thread, creating the
+   * <code>ThreadLocal</code> on the first call (and after deserialization).
+   * Two threads may race to create it; the loser only gets a fresh buffer.
+   */
+  private Workspace workspace() {
+    ThreadLocal<Workspace> workspace = workspace_;
+    if (workspace == null) {
+      workspace = new ThreadLocal<Workspace>() {
+        protected Workspace initialValue() {
+          return new Workspace(numberOfVariables_, M_);
+        }
+      };
+      workspace_ = workspace;
+    } // if
+    return workspace.get();
+  } // workspace
+
+  private double [] evaluate(Workspace workspace) throws JMException {
+    normalise(workspace.y_);
+    transform(workspace.y_, workspace.t_, workspace.buffer_);
+    calculate_x(workspace.t_, workspace.x_);
+    shape(workspace.x_, workspace.f_);
+
+    return workspace.f_;
+  } // evaluate
+
+  /**
+   * Normalizes a vector in place (double precision)
+   */
+  public void normalise(double [] z){
+    for (int i = 0; i < numberOfVariables_; i++){
+      z[i] = correct_to_01(z[i] / (2.0 * (i + 1)));
+    }
+  } // normalise
+
+  /**
+   * Gets the x vector from the t vector (double precision)
+   */
+  public void calculate_x(double [] t, double [] x){
+    for (int i = 0; i < M_-1; i++){
+      x[i] = Math.max(t[M_-1], A_[i]) * (t[i] - 0.5) + 0.5;
+    }
+
+    x[M_-1] = t[M_-1];
+  } // calculate_x
+
+  /**
+   */
+  public double correct_to_01(double a){
+    if ((a <= 0.0 && a >= -epsilon) || (a >= 1.0 && a <= 1.0 + epsilon)) {
+      return (a <= 0.0) ? 0.0 : 1.0;
+    }
+    return a;
+  } // correct_to_01
+
+  /**
+   * Buffers used by <code>evaluate(Solution)</code>
+   */
+  private static class Workspace {
+    final double [] y_;
+    final double [] buffer_;
+    final double [] t_;
+    final double [] x_;
+    final double [] f_;
+
+    Workspace(int numberOfVariables, int numberOfObjectives) {
+      y_      = new double[numberOfVariables];
+      buffer_ = new double[numberOfVariables];
+      t_      = new double[numberOfObjectives];
+      x_      = new double[numberOfObjectives];
+      f_      = new double[numberOfObjectives];
+    } // Workspace
+  } // Workspace
 }
@@ -21,8 +21,6 @@
 
 package jmetal.problems.WFG;
 
-import jmetal.core.Solution;
-import jmetal.core.Variable;
 import jmetal.util.JMException;
 
 /**
@@ -91,10 +89,10 @@ public class WFG1 extends WFG {
     float [] result = new float[M_];
     float [] x = calculate_x(y);
     for (int m = 1; m <= M_ - 1 ; m++) {
-      result [m-1] = D_*x[M_-1] + S_[m-1] * (new Shapes()).convex(x,m);
+      result [m-1] = D_*x[M_-1] + S_[m-1] * Shapes.convex(x,m);
     }
         
-    result[M_-1] = D_*x[M_-1] + S_[M_-1] * (new Shapes()).mixed(x,5,(float)1.0);
+    result[M_-1] = D_*x[M_-1] + S_[M_-1] * Shapes.mixed(x,5,(float)1.0);
         
     return result;
   } // evaluate
@@ -108,7 +106,7 @@ public class WFG1 extends WFG {
     System.arraycopy(z, 0, result, 0, k);
         
     for (int i = k; i < z.length; i++) {
-      result[i] = (new Transformations()).s_linear(z[i],(float)0.35);
+      result[i] = Transformations.s_linear(z[i],(float)0.35);
     }
         
     return result;      
@@ -123,7 +121,7 @@ public class WFG1 extends WFG {
     System.arraycopy(z, 0, result, 0, k);
         
     for (int i = k; i < z.length; i++) {
-      result[i] = (new Transformations()).b_flat(z[i],(float)0.8,(float)0.75,(float)0.85);
+      result[i] = Transformations.b_flat(z[i],(float)0.8,(float)0.75,(float)0.85);
     }
         
     return result;
@@ -137,7 +135,7 @@ public class WFG1 extends WFG {
     float [] result = new float[z.length];
         
     for (int i = 0; i < z.length; i++) {
-      result[i] = (new Transformations()).b_poly(z[i],(float)0.02);
+      result[i] = Transformations.b_poly(z[i],(float)0.02);
     }
         
     return result;
@@ -160,35 +158,61 @@ public class WFG1 extends WFG {
       float [] subZ = subVector(z,head-1,tail-1);
       float [] subW = subVector(w,head-1,tail-1);
             
-      result[i-1] = (new Transformations()).r_sum(subZ,subW);
+      result[i-1] = Transformations.r_sum(subZ,subW);
     }
         
     int head = k + 1 - 1;
     int tail = z.length - 1;              
     float [] subZ = subVector(z,head,tail);      
     float [] subW = subVector(w,head,tail);        
-    result[M-1] = (new Transformations()).r_sum(subZ,subW);
+    result[M-1] = Transformations.r_sum(subZ,subW);
                 
     return result;
   } // t4
                 
-  /** 
-  * Evaluates a solution 
-  * @param solution The solution to evaluate
-   * @throws JMException 
-  */  
-  public final void evaluate(Solution solution) throws JMException {
-    float [] variables = new float[getNumberOfVariables()];
-    Variable[] dv = solution.getDecisionVariables();
-        
-    for (int i = 0; i < getNumberOfVariables(); i++) {
-      variables[i] = (float)dv[i].getValue();    
+  /**
+   * WFG1 t1..t4 transformations, in place
+   * @throws JMException
+   */
+  protected void transform(double [] y, double [] t, double [] buffer) throws JMException {
+    int n = y.length;
+
+    for (int i = 0; i < k_; i++) {
+      y[i] = Transformations.b_poly(y[i], 0.02);
     }
-        
-    float [] f = evaluate(variables);
-        
-    for (int i = 0; i < f.length; i++) {
-      solution.setObjective(i,f[i]);
+    for (int i = k_; i < n; i++) {
+      double v = Transformations.s_linear(y[i], 0.35);
+      v = Transformations.b_flat(v, 0.8, 0.75, 0.85);
+      y[i] = Transformations.b_poly(v, 0.02);
+    }
+
+    for (int i = 1; i <= M_-1; i++) {
+      t[i-1] = r_sum(y, (i - 1)*k_/(M_-1), i*k_/(M_-1));
+    }
+    t[M_-1] = r_sum(y, k_, n);
+  } // transform
+
+  /**
+   * r_sum of y[from..to) with the weights 2, 4, 6... of t4
+   */
+  private static double r_sum(double [] y, int from, int to){
+    double tmp1 = 0.0, tmp2 = 0.0;
+    for (int i = from; i < to; i++) {
+      double w = 2.0 * (i + 1);
+      tmp1 += y[i] * w;
+      tmp2 += w;
+    }
+
+    return Transformations.correct_to_01(tmp1 / tmp2);
+  } // r_sum
+
+  /**
+   * Convex front, the last objective is mixed
+   */
+  protected void shape(double [] x, double [] f){
+    for (int m = 1; m <= M_ - 1 ; m++) {
+      f[m-1] = D_*x[M_-1] + S_[m-1] * Shapes.convex(x,m);
     }
-  } //evaluate
+    f[M_-1] = D_*x[M_-1] + S_[M_-1] * Shapes.mixed(x,5,1.0);
+  } // shape
 } // WFG1
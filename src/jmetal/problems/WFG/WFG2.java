@@ -21,10 +21,6 @@
 
 package jmetal.problems.WFG;
 
-import jmetal.core.Solution;
-import jmetal.core.Variable;
-import jmetal.util.JMException;
-
 /**
  * This class implements the WFG2 problem
  * Reference: Simon Huband, Luigi Barone, Lyndon While, Phil Hingston
@@ -84,9 +80,9 @@ public class WFG2 extends WFG{
     float [] result = new float[M_];
     float [] x = calculate_x(y);
     for (int m = 1; m <= M_ - 1 ; m++) {
-      result [m-1] = D_*x[M_-1] + S_[m-1] * (new Shapes()).convex(x,m);
+      result [m-1] = D_*x[M_-1] + S_[m-1] * Shapes.convex(x,m);
     }        
-    result[M_-1] = D_*x[M_-1] + S_[M_-1] * (new Shapes()).disc(x,5,(float)1.0,(float)1.0);
+    result[M_-1] = D_*x[M_-1] + S_[M_-1] * Shapes.disc(x,5,(float)1.0,(float)1.0);
     
     return result;
   } // evaluate
@@ -101,7 +97,7 @@ public class WFG2 extends WFG{
     System.arraycopy(z, 0, result, 0, k);
         
     for (int i = k; i < z.length; i++) {
-      result[i] = (new Transformations()).s_linear(z[i],(float)0.35);
+      result[i] = Transformations.s_linear(z[i],(float)0.35);
     }
         
     return result;      
@@ -122,7 +118,7 @@ public class WFG2 extends WFG{
       int tail = k + 2*(i - k);              
       float [] subZ = subVector(z,head-1,tail-1);
       
-      result[i-1] = (new Transformations()).r_nonsep(subZ,2);
+      result[i-1] = Transformations.r_nonsep(subZ,2);
     }
         
     return result;
@@ -146,7 +142,7 @@ public class WFG2 extends WFG{
       float [] subZ = subVector(z,head-1,tail-1);
       float [] subW = subVector(w,head-1,tail-1);
             
-      result[i-1] = (new Transformations()).r_sum(subZ,subW);            
+      result[i-1] = Transformations.r_sum(subZ,subW);            
     }
         
     int l = z.length - k;
@@ -155,29 +151,42 @@ public class WFG2 extends WFG{
               
     float [] subZ = subVector(z,head-1,tail-1);      
     float [] subW = subVector(w,head-1,tail-1);        
-    result[M-1] = (new Transformations()).r_sum(subZ,subW);
+    result[M-1] = Transformations.r_sum(subZ,subW);
                 
     return result;
   } // t3
  
-  /** 
-  * Evaluates a solution 
-  * @param solution The solution to evaluate
-   * @throws JMException 
-  */ 
-  public final void evaluate(Solution solution) throws JMException {
-    float [] variables = new float[getNumberOfVariables()];
-    Variable[] dv = solution.getDecisionVariables();
-        
-    for (int i = 0; i < getNumberOfVariables(); i++) {
-      variables[i] = (float)dv[i].getValue();    
+  /**
+   * WFG2 t1, t2 and t3 transformations, in place
+   */
+  protected void transform(double [] y, double [] t, double [] buffer){
+    int n = y.length;
+    int l = n - k_;
+
+    for (int i = k_; i < n; i++) {
+      y[i] = Transformations.s_linear(y[i], 0.35);
     }
-        
-    float [] sol = evaluate(variables);
-        
-    for (int i = 0; i < sol.length; i++) {
-      solution.setObjective(i,sol[i]);
+
+    // The pair i is reduced into position k_ + i - 1, which has been read
+    for (int i = k_+1; i <= k_ + l/2; i++) {
+      int head = k_ + 2*(i - k_) - 1;
+      y[i-1] = Transformations.r_nonsep(y, head-1, head+1, 2, buffer);
     }
-  } // evaluate
+
+    for (int i = 1; i <= M_-1; i++) {
+      t[i-1] = Transformations.r_sum(y, (i - 1)*k_/(M_-1), i*k_/(M_-1));
+    }
+    t[M_-1] = Transformations.r_sum(y, k_, k_ + l/2);
+  } // transform
+
+  /**
+   * Convex front, the last objective is disconnected
+   */
+  protected void shape(double [] x, double [] f){
+    for (int m = 1; m <= M_ - 1 ; m++) {
+      f[m-1] = D_*x[M_-1] + S_[m-1] * Shapes.convex(x,m);
+    }
+    f[M_-1] = D_*x[M_-1] + S_[M_-1] * Shapes.disc(x,5,1.0,1.0);
+  } // shape
 } // WFG2
 
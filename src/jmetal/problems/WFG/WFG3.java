@@ -21,10 +21,6 @@
 
 package jmetal.problems.WFG;
 
-import jmetal.core.Solution;
-import jmetal.core.Variable;
-import jmetal.util.JMException;
-
 /**
  * This class implements the WFG3 problem
  * Reference: Simon Huband, Luigi Barone, Lyndon While, Phil Hingston
@@ -85,7 +81,7 @@ public class WFG3 extends WFG{
     float [] result = new float[M_];
     float [] x = calculate_x(y);        
     for (int m = 1; m <= M_ ; m++) {
-      result [m-1] = D_*x[M_-1] + S_[m-1] * (new Shapes()).linear(x,m);                
+      result [m-1] = D_*x[M_-1] + S_[m-1] * Shapes.linear(x,m);                
     }
         
     return result;
@@ -100,7 +96,7 @@ public class WFG3 extends WFG{
     System.arraycopy(z, 0, result, 0, k);
         
     for (int i = k; i < z.length; i++) {
-      result[i] = (new Transformations()).s_linear(z[i],(float)0.35);
+      result[i] = Transformations.s_linear(z[i],(float)0.35);
     }
         
     return result;      
@@ -121,7 +117,7 @@ public class WFG3 extends WFG{
       int tail = k + 2*(i - k);              
       float [] subZ = subVector(z,head-1,tail-1);
             
-      result[i-1] = (new Transformations()).r_nonsep(subZ,2);
+      result[i-1] = Transformations.r_nonsep(subZ,2);
     }        
     return result;
   } // t2
@@ -143,7 +139,7 @@ public class WFG3 extends WFG{
       float [] subZ = subVector(z,head-1,tail-1);
       float [] subW = subVector(w,head-1,tail-1);
             
-      result[i-1] = (new Transformations()).r_sum(subZ,subW);            
+      result[i-1] = Transformations.r_sum(subZ,subW);            
     }
         
     int l = z.length - k;
@@ -151,28 +147,40 @@ public class WFG3 extends WFG{
     int tail = k + l / 2;              
     float [] subZ = subVector(z,head-1,tail-1);      
     float [] subW = subVector(w,head-1,tail-1);        
-    result[M-1] = (new Transformations()).r_sum(subZ,subW);
+    result[M-1] = Transformations.r_sum(subZ,subW);
                         
     return result;
   } // t3
     
-  /** 
-  * Evaluates a solution 
-  * @param solution The solution to evaluate
-   * @throws JMException 
-  */    
-  public final void evaluate(Solution solution) throws JMException {
-    float [] variables = new float[getNumberOfVariables()];
-    Variable[] dv = solution.getDecisionVariables();
-        
-    for (int i = 0; i < getNumberOfVariables(); i++) {
-      variables[i] = (float)dv[i].getValue();    
+  /**
+   * WFG3 t1, t2 and t3 transformations, in place
+   */
+  protected void transform(double [] y, double [] t, double [] buffer){
+    int n = y.length;
+    int l = n - k_;
+
+    for (int i = k_; i < n; i++) {
+      y[i] = Transformations.s_linear(y[i], 0.35);
     }
-        
-    float [] sol = evaluate(variables);
-        
-    for (int i = 0; i < sol.length; i++) {
-      solution.setObjective(i,sol[i]);
+
+    // The pair i is reduced into position k_ + i - 1, which has been read
+    for (int i = k_+1; i <= k_ + l/2; i++) {
+      int head = k_ + 2*(i - k_) - 1;
+      y[i-1] = Transformations.r_nonsep(y, head-1, head+1, 2, buffer);
     }
-  } // evaluate
+
+    for (int i = 1; i <= M_-1; i++) {
+      t[i-1] = Transformations.r_sum(y, (i - 1)*k_/(M_-1), i*k_/(M_-1));
+    }
+    t[M_-1] = Transformations.r_sum(y, k_, k_ + l/2);
+  } // transform
+
+  /**
+   * Linear (degenerate) front
+   */
+  protected void shape(double [] x, double [] f){
+    for (int m = 1; m <= M_ ; m++) {
+      f[m-1] = D_*x[M_-1] + S_[m-1] * Shapes.linear(x,m);
+    }
+  } // shape
 } // WFG3
@@ -21,10 +21,6 @@
 
 package jmetal.problems.WFG;
 
-import jmetal.core.Solution;
-import jmetal.core.Variable;
-import jmetal.util.JMException;
-
 /**
  * This class implements the WFG4 problem
  * Reference: Simon Huband, Luigi Barone, Lyndon While, Phil Hingston
@@ -83,7 +79,7 @@ public class WFG4 extends WFG{
     float [] result = new float[M_];
     float [] x = calculate_x(y);
     for (int m = 1; m <= M_ ; m++) {
-      result [m-1] = D_*x[M_-1] + S_[m-1] * (new Shapes()).concave(x,m);
+      result [m-1] = D_*x[M_-1] + S_[m-1] * Shapes.concave(x,m);
     }
     
     return result;
@@ -96,7 +92,7 @@ public class WFG4 extends WFG{
     float [] result = new float[z.length];
     
     for (int i = 0; i < z.length; i++) {
-      result[i] = (new Transformations()).s_multi(z[i],30,10,(float)0.35);
+      result[i] = Transformations.s_multi(z[i],30,10,(float)0.35);
     }
     
     return result;
@@ -119,7 +115,7 @@ public class WFG4 extends WFG{
       float [] subZ = subVector(z,head-1,tail-1);
       float [] subW = subVector(w,head-1,tail-1);
         
-      result[i-1] = (new Transformations()).r_sum(subZ,subW);
+      result[i-1] = Transformations.r_sum(subZ,subW);
     }
       
     int head = k + 1;
@@ -127,29 +123,34 @@ public class WFG4 extends WFG{
       
     float [] subZ = subVector(z,head-1,tail-1);
     float [] subW = subVector(w,head-1,tail-1);
-    result[M-1] = (new Transformations()).r_sum(subZ,subW);
+    result[M-1] = Transformations.r_sum(subZ,subW);
       
     return result;
   } // t2
     
-  /** 
-  * Evaluates a solution 
-  * @param solution The solution to evaluate
-   * @throws JMException 
-  */        
-  public final void evaluate(Solution solution) throws JMException {
-    float [] variables = new float[this.getNumberOfVariables()];
-    Variable[] dv = solution.getDecisionVariables();
-      
-    for (int i = 0; i < this.getNumberOfVariables(); i++) {
-      variables[i] = (float)dv[i].getValue();
+  /**
+   * WFG4 t1 and t2 transformations, in place
+   */
+  protected void transform(double [] y, double [] t, double [] buffer){
+    int n = y.length;
+
+    for (int i = 0; i < n; i++) {
+      y[i] = Transformations.s_multi(y[i], 30, 10, 0.35);
     }
-      
-    float [] sol = evaluate(variables);
-      
-    for (int i = 0; i < sol.length; i++) {
-      solution.setObjective(i,sol[i]);
+
+    for (int i = 1; i <= M_-1; i++) {
+      t[i-1] = Transformations.r_sum(y, (i - 1)*k_/(M_-1), i*k_/(M_-1));
     }
-  } // evaluate
+    t[M_-1] = Transformations.r_sum(y, k_, n);
+  } // transform
+
+  /**
+   * Concave front
+   */
+  protected void shape(double [] x, double [] f){
+    for (int m = 1; m <= M_ ; m++) {
+      f[m-1] = D_*x[M_-1] + S_[m-1] * Shapes.concave(x,m);
+    }
+  } // shape
     
 }
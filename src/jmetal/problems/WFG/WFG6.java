@@ -21,10 +21,6 @@
 
 package jmetal.problems.WFG;
 
-import jmetal.core.Solution;
-import jmetal.core.Variable;
-import jmetal.util.JMException;
-
 /**
  * This class implements the WFG6 problem
  * Reference: Simon Huband, Luigi Barone, Lyndon While, Phil Hingston
@@ -83,7 +79,7 @@ public class WFG6 extends WFG{
     float [] result = new float[M_];
     float [] x = calculate_x(y);
     for (int m = 1; m <= M_ ; m++) {
-      result [m-1] = D_*x[M_-1] + S_[m-1] * (new Shapes()).concave(x,m);                
+      result [m-1] = D_*x[M_-1] + S_[m-1] * Shapes.concave(x,m);                
     }
         
     return result;
@@ -98,7 +94,7 @@ public class WFG6 extends WFG{
     System.arraycopy(z, 0, result, 0, k);
         
     for (int i = k; i < z.length; i++) {
-      result[i] = (new Transformations()).s_linear(z[i],(float)0.35);
+      result[i] = Transformations.s_linear(z[i],(float)0.35);
     }
         
     return result;      
@@ -115,7 +111,7 @@ public class WFG6 extends WFG{
       int tail = i * k / (M - 1);                                   
       float [] subZ = subVector(z,head-1,tail-1);            
             
-      result[i-1] = (new Transformations()).r_nonsep(subZ,k/(M-1));            
+      result[i-1] = Transformations.r_nonsep(subZ,k/(M-1));            
     }
         
     int head = k + 1;
@@ -123,28 +119,33 @@ public class WFG6 extends WFG{
     int l = z.length - k;
               
     float [] subZ = subVector(z,head-1,tail-1);              
-    result[M-1] = (new Transformations()).r_nonsep(subZ,l);
+    result[M-1] = Transformations.r_nonsep(subZ,l);
                 
     return result;
   } // t2       
         
-  /** 
-  * Evaluates a solution 
-  * @param solution The solution to evaluate
-   * @throws JMException 
-  */   
-  public final void evaluate(Solution solution) throws JMException {
-    float [] variables = new float[getNumberOfVariables()];
-    Variable[] dv = solution.getDecisionVariables();
-        
-    for (int i = 0; i < getNumberOfVariables(); i++) {
-      variables[i] = (float)dv[i].getValue();    
+  /**
+   * WFG6 t1 and t2 transformations, in place
+   */
+  protected void transform(double [] y, double [] t, double [] buffer){
+    int n = y.length;
+
+    for (int i = k_; i < n; i++) {
+      y[i] = Transformations.s_linear(y[i], 0.35);
     }
-        
-    float [] sol = evaluate(variables);
-        
-    for (int i = 0; i < sol.length; i++) {
-      solution.setObjective(i,sol[i]);
+
+    for (int i = 1; i <= M_-1; i++) {
+      t[i-1] = Transformations.r_nonsep(y, (i - 1)*k_/(M_-1), i*k_/(M_-1), k_/(M_-1), buffer);
+    }
+    t[M_-1] = Transformations.r_nonsep(y, k_, n, n - k_, buffer);
+  } // transform
+
+  /**
+   * Concave front
+   */
+  protected void shape(double [] x, double [] f){
+    for (int m = 1; m <= M_ ; m++) {
+      f[m-1] = D_*x[M_-1] + S_[m-1] * Shapes.concave(x,m);
     }
-  } // evaluate
+  } // shape
 } // WFG6
@@ -21,10 +21,6 @@
 
 package jmetal.problems.WFG;
 
-import jmetal.core.Solution;
-import jmetal.core.Variable;
-import jmetal.util.JMException;
-
 public class WFG7 extends WFG{
     
  /**
@@ -76,7 +72,7 @@ public class WFG7 extends WFG{
     float [] result = new float[M_];
     float [] x = calculate_x(y);        
     for (int m = 1; m <= M_ ; m++) {
-      result [m-1] = D_*x[M_-1] + S_[m-1] * (new Shapes()).concave(x,m);                
+      result [m-1] = D_*x[M_-1] + S_[m-1] * Shapes.concave(x,m);                
     }
         
     return result;
@@ -98,9 +94,9 @@ public class WFG7 extends WFG{
       int tail = z.length-1;
       float [] subZ = subVector(z,head,tail);
       float [] subW = subVector(w,head,tail);
-      float aux = (new Transformations()).r_sum(subZ,subW);
+      float aux = Transformations.r_sum(subZ,subW);
             
-      result[i] = (new Transformations()).b_param(z[i],aux,(float)0.98/(float)49.98,(float)0.02,(float)50);                                    
+      result[i] = Transformations.b_param(z[i],aux,(float)0.98/(float)49.98,(float)0.02,(float)50);                                    
     }
 
     System.arraycopy(z, k, result, k, z.length - k);
@@ -117,7 +113,7 @@ public class WFG7 extends WFG{
     System.arraycopy(z, 0, result, 0, k);
         
     for (int i = k; i < z.length; i++) {
-      result[i] = (new Transformations()).s_linear(z[i],(float)0.35);
+      result[i] = Transformations.s_linear(z[i],(float)0.35);
     }
         
     return result;      
@@ -140,7 +136,7 @@ public class WFG7 extends WFG{
       float [] subZ = subVector(z,head-1,tail-1);
       float [] subW = subVector(w,head-1,tail-1);
             
-      result[i-1] = (new Transformations()).r_sum(subZ,subW);            
+      result[i-1] = Transformations.r_sum(subZ,subW);            
     }
         
     int l = z.length - k;
@@ -148,29 +144,42 @@ public class WFG7 extends WFG{
     int tail = z.length;              
     float [] subZ = subVector(z,head-1,tail-1);      
     float [] subW = subVector(w,head-1,tail-1);        
-    result[M-1] = (new Transformations()).r_sum(subZ,subW);                        
+    result[M-1] = Transformations.r_sum(subZ,subW);                        
     
     return result;
   } // t3   
     
-  /** 
-  * Evaluates a solution 
-  * @param solution The solution to evaluate
-   * @throws JMException 
-  */     
-  public final void evaluate(Solution solution) throws JMException {
-    float [] variables = new float[getNumberOfVariables()];
-    Variable[] dv = solution.getDecisionVariables();
-        
-    for (int i = 0; i < getNumberOfVariables(); i++) {
-      variables[i] = (float)dv[i].getValue();    
+  /**
+   * WFG7 t1, t2 and t3 transformations, in place. The mean of the variables
+   * following each position parameter is kept as a running sum.
+   */
+  protected void transform(double [] y, double [] t, double [] buffer){
+    int n = y.length;
+
+    double sum = 0.0;
+    for (int i = k_; i < n; i++) {
+      sum += y[i];
+      y[i] = Transformations.s_linear(y[i], 0.35);
     }
-        
-    float [] sol = evaluate(variables);
-        
-    for (int i = 0; i < sol.length; i++) {
-      solution.setObjective(i,sol[i]);
+    for (int i = k_ - 1; i >= 0; i--) {
+      double u = Transformations.correct_to_01(sum / (n - 1 - i));
+      sum += y[i];
+      y[i] = Transformations.b_param(y[i], u, 0.98/49.98, 0.02, 50);
     }
-  } // evaluate
+
+    for (int i = 1; i <= M_-1; i++) {
+      t[i-1] = Transformations.r_sum(y, (i - 1)*k_/(M_-1), i*k_/(M_-1));
+    }
+    t[M_-1] = Transformations.r_sum(y, k_, n);
+  } // transform
+
+  /**
+   * Concave front
+   */
+  protected void shape(double [] x, double [] f){
+    for (int m = 1; m <= M_ ; m++) {
+      f[m-1] = D_*x[M_-1] + S_[m-1] * Shapes.concave(x,m);
+    }
+  } // shape
 } // WFG7
 
@@ -5,10 +5,6 @@
  */
 package jmetal.problems.WFG;
 
-import jmetal.core.Solution;
-import jmetal.core.Variable;
-import jmetal.util.JMException;
-
 
 /**
 * Creates a default WFG9 problem with 
@@ -68,7 +64,7 @@ public class WFG9 extends WFG{
     float [] result = new float[M_];
     float [] x = calculate_x(y);        
     for (int m = 1; m <= M_ ; m++) {
-      result [m-1] = D_*x[M_-1] + S_[m-1] * (new Shapes()).concave(x,m);                
+      result [m-1] = D_*x[M_-1] + S_[m-1] * Shapes.concave(x,m);                
     }        
     return result;
   } //evaluate
@@ -89,8 +85,8 @@ public class WFG9 extends WFG{
       int tail = z.length-1;
       float [] subZ = subVector(z,head,tail);
       float [] subW = subVector(w,head,tail);            
-      float aux = (new Transformations()).r_sum(subZ,subW);            
-      result[i] = (new Transformations()).b_param(z[i],aux,(float)0.98/(float)49.98,(float)0.02,(float)50);
+      float aux = Transformations.r_sum(subZ,subW);            
+      result[i] = Transformations.b_param(z[i],aux,(float)0.98/(float)49.98,(float)0.02,(float)50);
     }
         
     result[z.length-1] = z[z.length-1];
@@ -104,11 +100,11 @@ public class WFG9 extends WFG{
     float [] result = new float[z.length];
         
     for (int i = 0; i < k; i++) {
-      result[i] = (new Transformations()).s_decept(z[i],(float)0.35,(float)0.001,(float)0.05);
+      result[i] = Transformations.s_decept(z[i],(float)0.35,(float)0.001,(float)0.05);
     }
         
     for (int i = k; i < z.length; i++) {
-      result[i] = (new Transformations()).s_multi(z[i],30,95,(float)0.35);
+      result[i] = Transformations.s_multi(z[i],30,95,(float)0.35);
     }        
     
     return result;      
@@ -124,37 +120,57 @@ public class WFG9 extends WFG{
       int head = (i - 1)*k/(M-1) + 1;
       int tail = i * k / (M - 1);                                   
       float [] subZ = subVector(z,head-1,tail-1);                        
-      result[i-1] = (new Transformations()).r_nonsep(subZ,k/(M-1));            
+      result[i-1] = Transformations.r_nonsep(subZ,k/(M-1));            
     }
         
     int head = k + 1;
     int tail = z.length;
     int l = z.length - k;              
     float [] subZ = subVector(z,head-1,tail-1);              
-    result[M-1] = (new Transformations()).r_nonsep(subZ,l);
+    result[M-1] = Transformations.r_nonsep(subZ,l);
                 
     return result;
   } // t3
     
-  /** 
-  * Evaluates a solution 
-  * @param solution The solution to evaluate
-   * @throws JMException 
-  */       
-  public final void evaluate(Solution solution) throws JMException {
-    float [] variables = new float[getNumberOfVariables()];
-    Variable[] dv = solution.getDecisionVariables();
-        
-    for (int i = 0; i < getNumberOfVariables(); i++) {
-      variables[i] = (float)dv[i].getValue();    
+  /**
+   * WFG9 t1, t2 and t3 transformations, in place. The mean of the variables
+   * following each one is kept as a running sum.
+   */
+  protected void transform(double [] y, double [] t, double [] buffer){
+    int n = y.length;
+
+    double sum = y[n-1];
+    y[n-1] = t2(y[n-1], n-1);
+    for (int i = n - 2; i >= 0; i--) {
+      double u = Transformations.correct_to_01(sum / (n - 1 - i));
+      sum += y[i];
+      y[i] = t2(Transformations.b_param(y[i], u, 0.98/49.98, 0.02, 50), i);
     }
-        
-    float [] sol = evaluate(variables);
-        
-    for (int i = 0; i < sol.length; i++) {
-      solution.setObjective(i,sol[i]);
+
+    for (int i = 1; i <= M_-1; i++) {
+      t[i-1] = Transformations.r_nonsep(y, (i - 1)*k_/(M_-1), i*k_/(M_-1), k_/(M_-1), buffer);
+    }
+    t[M_-1] = Transformations.r_nonsep(y, k_, n, n - k_, buffer);
+  } // transform
+
+  /**
+   * WFG9 t2 transformation of the variable i
+   */
+  private double t2(double y, int i){
+    if (i < k_) {
+      return Transformations.s_decept(y, 0.35, 0.001, 0.05);
+    }
+    return Transformations.s_multi(y, 30, 95, 0.35);
+  } // t2
+
+  /**
+   * Concave front
+   */
+  protected void shape(double [] x, double [] f){
+    for (int m = 1; m <= M_ ; m++) {
+      f[m-1] = D_*x[M_-1] + S_[m-1] * Shapes.concave(x,m);
     }
-  }  // evaluate
+  } // shape
 } // WFG9
 
 
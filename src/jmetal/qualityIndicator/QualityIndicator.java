@@ -45,10 +45,9 @@ public class QualityIndicator {
 		problem_ = problem;
 		utils_ = new jmetal.qualityIndicator.util.MetricsUtil();
 		trueParetoFront_ = utils_.readNonDominatedSolutionSet(paretoFrontFile);
-		trueParetoFrontHypervolume_ = new Hypervolume().hypervolume(
-				trueParetoFront_.writeObjectivesToMatrix(),
-				trueParetoFront_.writeObjectivesToMatrix(),
-				problem_.getNumberOfObjectives());
+		double[][] front = trueParetoFront_.writeObjectivesToMatrix();
+		trueParetoFrontHypervolume_ = new Hypervolume().hypervolume(front,
+				front, problem_.getNumberOfObjectives());
 	} // Constructor
 
 	/**
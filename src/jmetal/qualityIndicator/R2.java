@@ -227,18 +227,7 @@ public class R2 {
   public int 
   getBest(double [][] approximation,double [][] paretoFront) 
   {
-        int     index_best = -1;
-        double  value = Double.NEGATIVE_INFINITY;
-        
-        for (int i = 0; i < approximation.length; i++) {
-            double aux = this.R2Withouth(approximation, paretoFront, i);
-            if (aux > value) {
-                index_best = i;
-                value = aux;
-            }
-        }  
-            
-        return index_best;
+        return this.contributions(approximation, paretoFront).mostContributor();
   } // getBest 
   
 
@@ -252,18 +241,7 @@ public class R2 {
   public int 
   getWorst(double [][] approximation,double [][] paretoFront) 
   {
-        int     index_worst = -1;
-        double  value = Double.POSITIVE_INFINITY;
-        
-        for (int i = 0; i < approximation.length; i++) {
-            double aux = this.R2Withouth(approximation, paretoFront, i);
-            if (aux < value) {
-                index_worst = i;
-                value = aux;
-            }
-        }  
-            
-        return index_worst;
+        return this.contributions(approximation, paretoFront).leastContributor();
   } // getWorst
   
 
@@ -310,10 +288,10 @@ public class R2 {
   {
         int  []    index_bests = new int[approximation.length];
         double [] values       = new double[approximation.length];
-                                
+        R2Contributions contributions = this.contributions(approximation, paretoFront);
         
         for (int i = 0; i < approximation.length; i++) {
-            values[i]      = this.R2Withouth(approximation, paretoFront, i);
+            values[i]      = contributions.getR2Without(i);
             index_bests[i] = i;
         } // for
         
@@ -457,9 +435,35 @@ public class R2 {
   {
       double [][] approximationFront = set.writeObjectivesToMatrix();
       double [][] trueFront          = set.writeObjectivesToMatrix();      
-      return this.R2(approximationFront, trueFront);                    
+      return this.contributions(approximationFront, trueFront).getR2Without(index);
   } // R2ContributionWithout
 
+  /**
+   * Returns an engine keeping the R2 contributions of a set of points which
+   * is updated incrementally; it uses the weight vectors of this indicator
+   * and normalizes with the bounds of the set.
+   * @param capacity The expected number of points
+   */
+  public R2Contributions getContributions(int capacity) {
+      return new R2Contributions(lambda_, nObj_, capacity);
+  } // getContributions
+
+  /**
+   * Loads the points of an approximation into an engine normalizing with the
+   * bounds of the Pareto front. The contribution of every point is then
+   * obtained with a single computation of the utilities.
+   */
+  private R2Contributions
+  contributions(double [][] approximation, double [][] paretoFront)
+  {
+      R2Contributions contributions = new R2Contributions(lambda_, nObj_, approximation.length);
+      contributions.setBounds(utils_.getMinimumValues(paretoFront, nObj_),
+                              utils_.getMaximumValues(paretoFront, nObj_));
+      for (double [] point : approximation)
+          contributions.add(point);
+      return contributions;
+  } // contributions
+
   
   
   
@@ -0,0 +1,361 @@
+//  R2Contributions.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.qualityIndicator;
+
+import java.util.Arrays;
+
+/**
+ * Maintains the R2 indicator of a set of points (minimization) and the
+ * contribution of each point, i.e., how much R2 grows when the point is
+ * removed, while points are added and removed. It computes the same values
+ * as <code>R2.R2Withouth</code> without rebuilding the matrix of utilities
+ * for every point.
+ * <p>
+ * The utility of a point for a weight vector is its weighted Tchebycheff
+ * value on the normalized objectives. For every weight vector the best and
+ * second best points are kept, so the contribution of a point is the sum,
+ * over the vectors where it is the best, of the difference between the two.
+ * Adding a point only compares its utilities with the stored best ones, and
+ * removing a point only rescans the vectors where it was the best or the
+ * second best. The normalization bounds are either fixed
+ * (<code>setBounds</code>) or those of the set; in the latter case the
+ * utilities are recomputed, when next needed, only if the bounds change.
+ * <p>
+ * The points are kept in insertion order and <code>remove</code> shifts the
+ * following ones, so the indexes follow those of a <code>SolutionSet</code>
+ * updated in the same way.
+ */
+public class R2Contributions {
+
+  private final double[][] lambda_;
+  private final int numberOfObjectives_;
+
+  private double[][] points_;
+  private double[][] utility_;
+  private int size_;
+
+  private final double[] minimum_;
+  private final double[] maximum_;
+  private boolean fixedBounds_;
+
+  /**
+   * Owners of the best and second best utility of each weight vector (-1 if
+   * there is none)
+   */
+  private final int[] best_;
+  private final int[] second_;
+
+  /**
+   * The utilities must be recomputed because the bounds have changed
+   */
+  private boolean stale_;
+
+  private double[] contribution_;
+  private boolean contributionsValid_;
+
+  /**
+   * Constructor
+   * @param lambda The weight vectors (not copied)
+   * @param numberOfObjectives Number of objectives
+   * @param capacity Initial capacity (it grows if needed)
+   */
+  public R2Contributions(double[][] lambda, int numberOfObjectives, int capacity) {
+    lambda_ = lambda;
+    numberOfObjectives_ = numberOfObjectives;
+    capacity = Math.max(capacity, 4);
+    points_ = new double[capacity][];
+    utility_ = new double[capacity][];
+    contribution_ = new double[capacity];
+    minimum_ = new double[numberOfObjectives];
+    maximum_ = new double[numberOfObjectives];
+    best_ = new int[lambda.length];
+    second_ = new int[lambda.length];
+    fixedBounds_ = false;
+    clear();
+  } // R2Contributions
+
+  /**
+   * Fixes the normalization bounds (by default they are those of the set)
+   */
+  public void setBounds(double[] minimum, double[] maximum) {
+    System.arraycopy(minimum, 0, minimum_, 0, numberOfObjectives_);
+    System.arraycopy(maximum, 0, maximum_, 0, numberOfObjectives_);
+    fixedBounds_ = true;
+    stale_ = true;
+  } // setBounds
+
+  public int size() {
+    return size_;
+  } // size
+
+  public void clear() {
+    for (int i = 0; i < size_; i++)
+      points_[i] = null;
+    size_ = 0;
+    if (!fixedBounds_) {
+      Arrays.fill(minimum_, Double.POSITIVE_INFINITY);
+      Arrays.fill(maximum_, Double.NEGATIVE_INFINITY);
+    }
+    Arrays.fill(best_, -1);
+    Arrays.fill(second_, -1);
+    stale_ = false;
+    contributionsValid_ = false;
+  } // clear
+
+  /**
+   * Adds a point at the end of the set
+   * @param point The objective vector; it is copied
+   */
+  public void add(double[] point) {
+    ensureCapacity(size_ + 1);
+    int index = size_++;
+    points_[index] = point.clone();
+    contributionsValid_ = false;
+
+    if (!fixedBounds_) {
+      for (int n = 0; n < numberOfObjectives_; n++) {
+        if (point[n] < minimum_[n]) {
+          minimum_[n] = point[n];
+          stale_ = true;
+        }
+        if (point[n] > maximum_[n]) {
+          maximum_[n] = point[n];
+          stale_ = true;
+        }
+      }
+    }
+    if (stale_)
+      return;
+
+    double[] u = utilities(points_[index], utility_[index]);
+    utility_[index] = u;
+    for (int j = 0; j < lambda_.length; j++)
+      offer(j, index, u[j]);
+  } // add
+
+  /**
+   * Removes the point at the given position; the following ones are shifted
+   */
+  public void remove(int index) {
+    double[] point = points_[index];
+    double[] u = utility_[index];
+    size_--;
+    System.arraycopy(points_, index + 1, points_, index, size_ - index);
+    System.arraycopy(utility_, index + 1, utility_, index, size_ - index);
+    points_[size_] = null;
+    utility_[size_] = u;    // The row is recycled
+    contributionsValid_ = false;
+
+    if (!fixedBounds_ && onBounds(point) && updateBounds())
+      stale_ = true;
+    if (stale_)
+      return;
+
+    for (int j = 0; j < lambda_.length; j++) {
+      if (best_[j] == index || second_[j] == index)
+        rescan(j);
+      else {
+        if (best_[j] > index)
+          best_[j]--;
+        if (second_[j] > index)
+          second_[j]--;
+      }
+    }
+  } // remove
+
+  /**
+   * Returns the R2 value of the set. The set keeps no utility when it is
+   * empty, so its R2 is then infinite, as the contribution of a single point
+   * (see <code>getContribution</code>) implies.
+   */
+  public double getR2() {
+    if (size_ == 0)
+      return Double.POSITIVE_INFINITY;
+    refresh();
+    double sum = 0.0;
+    for (int j = 0; j < lambda_.length; j++)
+      sum += utility_[best_[j]][j];
+    return sum / (double) lambda_.length;
+  } // getR2
+
+  /**
+   * Returns the R2 value of the set without the point at the given position
+   * (as <code>R2.R2Withouth</code>)
+   */
+  public double getR2Without(int index) {
+    return getR2() + getContribution(index);
+  } // getR2Without
+
+  /**
+   * Returns the increase of R2 if the point is removed (infinity if it is
+   * the only point)
+   * @throws IndexOutOfBoundsException if there is no point at that position
+   */
+  public double getContribution(int index) {
+    if (index < 0 || index >= size_)
+      throw new IndexOutOfBoundsException("R2Contributions: index " + index +
+          ", size " + size_);
+    contributions();
+    return contribution_[index];
+  } // getContribution
+
+  /**
+   * Returns the index of the point contributing the least (the first one in
+   * case of ties), or -1 if the set is empty
+   */
+  public int leastContributor() {
+    if (size_ == 0)
+      return -1;
+    contributions();
+    int index = 0;
+    for (int i = 1; i < size_; i++)
+      if (contribution_[i] < contribution_[index])
+        index = i;
+    return index;
+  } // leastContributor
+
+  /**
+   * Returns the index of the point contributing the most (the first one in
+   * case of ties), or -1 if the set is empty
+   */
+  public int mostContributor() {
+    if (size_ == 0)
+      return -1;
+    contributions();
+    int index = 0;
+    for (int i = 1; i < size_; i++)
+      if (contribution_[i] > contribution_[index])
+        index = i;
+    return index;
+  } // mostContributor
+
+  private void contributions() {
+    refresh();
+    if (contributionsValid_)
+      return;
+    Arrays.fill(contribution_, 0, size_, 0.0);
+    for (int j = 0; j < lambda_.length; j++) {
+      int best = best_[j];
+      if (second_[j] < 0)
+        contribution_[best] = Double.POSITIVE_INFINITY;
+      else
+        contribution_[best] += utility_[second_[j]][j] - utility_[best][j];
+    }
+    for (int i = 0; i < size_; i++)
+      contribution_[i] /= (double) lambda_.length;
+    contributionsValid_ = true;
+  } // contributions
+
+  /**
+   * Recomputes every utility after a change of the bounds
+   */
+  private void refresh() {
+    if (!stale_)
+      return;
+    Arrays.fill(best_, -1);
+    Arrays.fill(second_, -1);
+    for (int i = 0; i < size_; i++) {
+      double[] u = utilities(points_[i], utility_[i]);
+      utility_[i] = u;
+      for (int j = 0; j < lambda_.length; j++)
+        offer(j, i, u[j]);
+    }
+    stale_ = false;
+    contributionsValid_ = false;
+  } // refresh
+
+  /**
+   * Updates the best and second best points of the weight vector j with the
+   * point i; a point equal to the best one becomes the second one
+   */
+  private void offer(int j, int i, double value) {
+    int best = best_[j];
+    if (best < 0 || value < utility_[best][j]) {
+      second_[j] = best;
+      best_[j] = i;
+    } else {
+      int second = second_[j];
+      if (second < 0 || value < utility_[second][j])
+        second_[j] = i;
+    }
+  } // offer
+
+  private void rescan(int j) {
+    best_[j] = -1;
+    second_[j] = -1;
+    for (int i = 0; i < size_; i++)
+      offer(j, i, utility_[i][j]);
+  } // rescan
+
+  /**
+   * Weighted Tchebycheff utilities of a point, computed as in
+   * <code>R2</code>. An objective whose bounds are equal is taken as 0.
+   */
+  private double[] utilities(double[] point, double[] row) {
+    if (row == null)
+      row = new double[lambda_.length];
+    for (int j = 0; j < lambda_.length; j++) {
+      double[] lambda = lambda_[j];
+      double value = lambda[0] * Math.abs(normalize(point, 0));
+      for (int n = 1; n < numberOfObjectives_; n++)
+        value = Math.max(value, lambda[n] * Math.abs(normalize(point, n)));
+      row[j] = value;
+    }
+    return row;
+  } // utilities
+
+  private double normalize(double[] point, int n) {
+    double range = maximum_[n] - minimum_[n];
+    return (range == 0) ? 0.0 : (point[n] - minimum_[n]) / range;
+  } // normalize
+
+  private boolean onBounds(double[] point) {
+    for (int n = 0; n < numberOfObjectives_; n++)
+      if (point[n] <= minimum_[n] || point[n] >= maximum_[n])
+        return true;
+    return false;
+  } // onBounds
+
+  /**
+   * Recomputes the bounds of the set; returns true if they have changed
+   */
+  private boolean updateBounds() {
+    boolean changed = false;
+    for (int n = 0; n < numberOfObjectives_; n++) {
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < size_; i++) {
+        min = Math.min(min, points_[i][n]);
+        max = Math.max(max, points_[i][n]);
+      }
+      if (min != minimum_[n] || max != maximum_[n]) {
+        minimum_[n] = min;
+        maximum_[n] = max;
+        changed = true;
+      }
+    }
+    return changed;
+  } // updateBounds
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= points_.length)
+      return;
+    int length = Math.max(capacity, 2 * points_.length);
+    points_ = Arrays.copyOf(points_, length);
+    utility_ = Arrays.copyOf(utility_, length);
+    contribution_ = Arrays.copyOf(contribution_, length);
+  } // ensureCapacity
+} // R2Contributions
@@ -22,14 +22,15 @@ package jmetal.qualityIndicator.fastHypervolume;
 
 import jmetal.core.Solution;
 import jmetal.util.archive.Archive;
-import jmetal.util.comparators.CrowdingComparator;
 import jmetal.util.comparators.DominanceComparator;
 import jmetal.util.comparators.EqualSolutions;
 
 import java.util.Comparator;
 
 /**
- * This class implements a bounded archive based on the hypervolume quality indicator
+ * This class implements a bounded archive based on the hypervolume quality
+ * indicator. The contributions of the solutions are maintained incrementally
+ * by an <code>IncrementalHVContributions</code> object.
  */
 public class FastHypervolumeArchive extends Archive {
 
@@ -54,10 +55,13 @@ public class FastHypervolumeArchive extends Archive {
    */
   private Comparator equals_;
 
-  private Comparator crowdingDistance_ ;
-
   public Solution referencePoint_ ;
 
+  /**
+   * Hypervolume contributions of the solutions, in the order of the archive
+   */
+  private IncrementalHVContributions contributions_ ;
+
   /**
    * Constructor.
    * @param maxSize The maximum size of the archive.
@@ -73,7 +77,9 @@ public class FastHypervolumeArchive extends Archive {
     for (int i = 0; i < objectives_; i++)
       referencePoint_.setObjective(i, Double.MAX_VALUE) ;
 
-    crowdingDistance_ = new CrowdingComparator();
+    // Same reference point as FastHypervolume: max(0, maximum) + 20
+    contributions_    = new IncrementalHVContributions(objectives_, maxSize + 1,
+                                                       20.0, true) ;
   } // FastHypervolumeArchive
     
   
@@ -100,7 +106,7 @@ public class FastHypervolumeArchive extends Archive {
       if (flag == 1) {               // The solution to add is dominated
         return false;                // Discard the new solution
       } else if (flag == -1) {       // A solution in the archive is dominated
-        solutionsList_.remove(i);    // Remove it from the population            
+        remove(i);                   // Remove it from the population
       } else {
           if (equals_.compare(aux,solution)==0) { // There is an equal solution 
                                                   // in the population
@@ -111,24 +117,78 @@ public class FastHypervolumeArchive extends Archive {
     }
     // Insert the solution into the archive
     solutionsList_.add(solution);
+    contributions_.add(objectives(solution));
     if (size() > maxSize_) { // The archive is full
-      computeHVContribution();
-
-      remove(indexWorst(crowdingDistance_));
-      //remove(solutionsList_.size()-1);
+      remove(contributions_.leastContributor());
     }
     return true;
   } // add
   
      
   /**
-   * This method forces to compute the contribution of each solution (required for PAEShv)
+   * Deletes the <code>Solution</code> at position i in the archive.
+   * @param i The position of the solution to remove.
+   */
+  public void remove(int i) {
+    super.remove(i);
+    contributions_.remove(i);
+  } // remove
+
+  /**
+   * Empties the archive
+   */
+  public void clear() {
+    super.clear();
+    contributions_.clear();
+  } // clear
+
+  /**
+   * Sorts the archive using a <code>Comparator</code>
+   * @param comparator <code>Comparator</code> used to sort.
+   */
+  public void sort(Comparator comparator) {
+    super.sort(comparator);
+    rebuildContributions();
+  } // sort
+
+  /**
+   * Inserts a solution at a given position, without dominance checking
+   */
+  public boolean add(int index, Solution solution) {
+    super.add(index, solution);
+    rebuildContributions();
+    return true;
+  } // add
+
+  /**
+   * Replaces a solution by a new one, without dominance checking
+   */
+  public void replace(int position, Solution solution) {
+    super.replace(position, solution);
+    rebuildContributions();
+  } // replace
+
+  /**
+   * This method forces to compute the contribution of each solution (required for PAEShv).
+   * The contributions are stored as crowding distances.
    */
   public void computeHVContribution() {
 	  if (size() > 2) { // The contribution can be updated
-
-      FastHypervolume fastHV = new FastHypervolume() ;
-      fastHV.computeHVContributions(this);
+      for (int i = 0; i < size(); i++)
+        get(i).setCrowdingDistance(contributions_.getContribution(i));
     }
   } // computeHVContribution
+
+  private void rebuildContributions() {
+    contributions_.clear();
+    for (Solution solution : solutionsList_)
+      contributions_.add(objectives(solution));
+  } // rebuildContributions
+
+  private double[] objectives(Solution solution) {
+    double[] point = new double[objectives_];
+    for (int i = 0; i < objectives_; i++)
+      point[i] = solution.getObjective(i);
+    return point;
+  } // objectives
 } // FastHypervolumeArchive
@@ -0,0 +1,548 @@
+//  IncrementalHVContributions.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.qualityIndicator.fastHypervolume;
+
+import java.util.Arrays;
+
+/**
+ * Maintains the exclusive hypervolume contribution of each point of a set
+ * (minimization) while points are added and removed, as needed by bounded
+ * hypervolume archives and SMS-EMOA-like selection.
+ * <p>
+ * The reference point is the componentwise maximum of the set plus an offset
+ * (optionally taking 0 as the lowest maximum, as <code>FastHypervolume</code>
+ * does). As the normalization used by <code>HypervolumeArchive</code> scales
+ * every contribution by the same factor, this gives the same least
+ * contributor without normalizing the set.
+ * <p>
+ * When a point p is added (or removed), the contribution of q can only change
+ * if no other point weakly dominates their componentwise maximum, so only
+ * those points are updated. For 2 objectives all the contributions follow
+ * from a single sort, done when they are next requested; for 3 objectives
+ * the affected contributions are recomputed exactly. For more objectives
+ * they are replaced by lower bounds and flagged; <code>leastContributor</code> then
+ * recomputes the smallest flagged values until the minimum is exact. The
+ * reference point, and so every contribution, is only revisited when the
+ * maximum of the set actually changes.
+ * <p>
+ * The points are kept in insertion order and <code>remove</code> shifts the
+ * following ones, so the indexes follow those of a <code>SolutionSet</code>
+ * updated in the same way.
+ */
+public class IncrementalHVContributions {
+
+  private final int numberOfObjectives_;
+  private final double offset_;
+  private final boolean zeroFloor_;
+
+  private double[][] points_;
+  private double[] contribution_;
+  private boolean[] exact_;
+  private int size_;
+
+  /**
+   * Bi-objective sets are recomputed at once, when a contribution is asked
+   */
+  private boolean stale_;
+
+  private final double[] maximum_;
+  private final double[] reference_;
+
+  /**
+   * Scratch rows for the limited set of a point
+   */
+  private double[][] limited_;
+
+  /**
+   * Constructor
+   * @param numberOfObjectives Number of objectives
+   * @param capacity Initial capacity (it grows if needed)
+   * @param offset Offset added to the maximum of each objective to get the
+   * reference point
+   * @param zeroFloor If true, the maximum of each objective is at least 0
+   */
+  public IncrementalHVContributions(int numberOfObjectives, int capacity,
+                                    double offset, boolean zeroFloor) {
+    numberOfObjectives_ = numberOfObjectives;
+    offset_ = offset;
+    zeroFloor_ = zeroFloor;
+    capacity = Math.max(capacity, 4);
+    points_ = new double[capacity][];
+    contribution_ = new double[capacity];
+    exact_ = new boolean[capacity];
+    limited_ = new double[capacity][numberOfObjectives];
+    maximum_ = new double[numberOfObjectives];
+    reference_ = new double[numberOfObjectives];
+    size_ = 0;
+  } // IncrementalHVContributions
+
+  public int size() {
+    return size_;
+  } // size
+
+  public void clear() {
+    for (int i = 0; i < size_; i++)
+      points_[i] = null;
+    size_ = 0;
+  } // clear
+
+  /**
+   * Adds a point at the end of the set
+   * @param point The objective vector; it is copied
+   */
+  public void add(double[] point) {
+    ensureCapacity(size_ + 1);
+    double[] p = point.clone();
+
+    double[] oldReference = reference_.clone();
+    boolean referenceChanged = false;
+    for (int j = 0; j < numberOfObjectives_; j++) {
+      double value = (size_ == 0) ? floor(p[j]) : Math.max(maximum_[j], p[j]);
+      if (size_ == 0 || value != maximum_[j]) {
+        maximum_[j] = value;
+        reference_[j] = value + offset_;
+        referenceChanged = true;
+      }
+    }
+
+    if (numberOfObjectives_ == 2) {
+      points_[size_++] = p;
+      stale_ = true;
+      return;
+    }
+
+    if (referenceChanged && size_ > 0)
+      referenceMoved(oldReference);
+
+    boolean fullUpdate = referenceChanged && numberOfObjectives_ <= 3;
+    if (!fullUpdate) {
+      double[] corner = new double[numberOfObjectives_];
+      for (int q = 0; q < size_; q++) {
+        join(p, points_[q], corner);
+        if (isCovered(corner, q))
+          continue;
+        if (numberOfObjectives_ <= 3) {
+          // Recomputed below, once p is in the set
+          exact_[q] = false;
+        } else {
+          contribution_[q] = Math.max(0.0, contribution_[q] - box(corner));
+          exact_[q] = false;
+        }
+      }
+    } // if
+
+    points_[size_] = p;
+    size_++;
+    contribution_[size_ - 1] = exactContribution(size_ - 1);
+    exact_[size_ - 1] = true;
+
+    if (numberOfObjectives_ <= 3)
+      refresh(fullUpdate);
+  } // add
+
+  /**
+   * Removes the point at a position; the following points are shifted
+   */
+  public void remove(int index) {
+    double[] x = points_[index];
+    int tail = size_ - index - 1;
+    System.arraycopy(points_, index + 1, points_, index, tail);
+    System.arraycopy(contribution_, index + 1, contribution_, index, tail);
+    System.arraycopy(exact_, index + 1, exact_, index, tail);
+    size_--;
+    points_[size_] = null;
+    if (size_ == 0)
+      return;
+
+    double[] oldReference = reference_.clone();
+    boolean referenceChanged = false;
+    for (int j = 0; j < numberOfObjectives_; j++) {
+      if (x[j] < maximum_[j])
+        continue;
+      double value = floor(points_[0][j]);
+      for (int i = 1; i < size_; i++)
+        if (points_[i][j] > value)
+          value = points_[i][j];
+      if (value != maximum_[j]) {
+        maximum_[j] = value;
+        reference_[j] = value + offset_;
+        referenceChanged = true;
+      }
+    }
+
+    if (numberOfObjectives_ == 2) {
+      stale_ = true;
+    } else if (referenceChanged) {
+      referenceMoved(oldReference);
+    } else {
+      // Contributions only grow: the old values remain lower bounds
+      double[] corner = new double[numberOfObjectives_];
+      for (int s = 0; s < size_; s++) {
+        join(x, points_[s], corner);
+        if (!isCovered(corner, s))
+          exact_[s] = false;
+      }
+    } // if
+
+    if (numberOfObjectives_ == 3)
+      refresh(referenceChanged);
+  } // remove
+
+  /**
+   * Returns the exact contribution of a point
+   */
+  public double getContribution(int index) {
+    if (stale_)
+      contributions2D();
+    if (!exact_[index]) {
+      contribution_[index] = exactContribution(index);
+      exact_[index] = true;
+    }
+    return contribution_[index];
+  } // getContribution
+
+  /**
+   * Returns the index of the point contributing the least (the first one in
+   * case of ties), or -1 if the set is empty
+   */
+  public int leastContributor() {
+    if (size_ == 0)
+      return -1;
+    if (stale_)
+      contributions2D();
+    while (true) {
+      int index = 0;
+      for (int i = 1; i < size_; i++)
+        if (contribution_[i] < contribution_[index])
+          index = i;
+      if (exact_[index])
+        return index;
+      contribution_[index] = exactContribution(index);
+      exact_[index] = true;
+    }
+  } // leastContributor
+
+  /**
+   * Keeps the stored contributions as lower bounds after the reference point
+   * has moved from oldReference to reference_
+   */
+  private void referenceMoved(double[] oldReference) {
+    double[] lower = new double[numberOfObjectives_];
+    for (int j = 0; j < numberOfObjectives_; j++)
+      lower[j] = Math.min(oldReference[j], reference_[j]);
+    for (int q = 0; q < size_; q++) {
+      double lost = box(points_[q], oldReference) - box(points_[q], lower);
+      contribution_[q] = Math.max(0.0, contribution_[q] - lost);
+      exact_[q] = false;
+    }
+  } // referenceMoved
+
+  /**
+   * Recomputes the flagged contributions (or all of them)
+   */
+  private void refresh(boolean all) {
+    for (int q = 0; q < size_; q++) {
+      if (all || !exact_[q]) {
+        contribution_[q] = exactContribution(q);
+        exact_[q] = true;
+      }
+    }
+  } // refresh
+
+  /**
+   * All the contributions of a bi-objective set at once. In the staircase of
+   * the non-dominated points sorted by the first objective, the exclusive
+   * area of a point is the rectangle bounded by its two neighbours, minus the
+   * area still covered by the dominated points lying in that rectangle (they
+   * follow the point in the sorted order).
+   */
+  private void contributions2D() {
+    Integer[] order = new Integer[size_];
+    for (int i = 0; i < size_; i++)
+      order[i] = i;
+    Arrays.sort(order, new java.util.Comparator<Integer>() {
+      public int compare(Integer a, Integer b) {
+        double[] p = points_[a];
+        double[] q = points_[b];
+        int result = Double.compare(p[0], q[0]);
+        return (result != 0) ? result : Double.compare(p[1], q[1]);
+      }
+    });
+
+    // Positions in order of the non-dominated points (x increasing, y
+    // decreasing)
+    int[] staircase = new int[size_ + 1];
+    int k = 0;
+    double top = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < size_; i++) {
+      int q = order[i];
+      contribution_[q] = 0.0;
+      exact_[q] = true;
+      if (points_[q][1] < top) {
+        staircase[k++] = i;
+        top = points_[q][1];
+      }
+    }
+    staircase[k] = size_;
+    stale_ = false;
+
+    double[] corner = new double[2];
+    for (int i = 0; i < k; i++) {
+      double[] p = points_[order[staircase[i]]];
+      corner[0] = (i + 1 < k) ? points_[order[staircase[i + 1]]][0] : reference_[0];
+      corner[1] = (i > 0) ? points_[order[staircase[i - 1]]][1] : reference_[1];
+      if (corner[0] <= p[0] || corner[1] <= p[1])
+        continue;
+
+      int n = 0;
+      for (int j = staircase[i] + 1; j < staircase[i + 1]; j++) {
+        double[] q = points_[order[j]];
+        if (q[0] < corner[0] && q[1] < corner[1]) {
+          limited_[n][0] = q[0];
+          limited_[n][1] = q[1];
+          n++;
+        }
+      }
+      contribution_[order[staircase[i]]] = box(p, corner) - hypervolume(limited_, n, corner);
+    }
+  } // contributions2D
+
+  /**
+   * Checks whether some point of the set other than skip weakly dominates a
+   * corner
+   */
+  private boolean isCovered(double[] corner, int skip) {
+    for (int s = 0; s < size_; s++) {
+      if (s == skip)
+        continue;
+      if (weaklyDominates(points_[s], corner))
+        return true;
+    }
+    return false;
+  } // isCovered
+
+  /**
+   * Contribution of a point: the volume of its box minus the hypervolume of
+   * the other points limited to that box
+   */
+  private double exactContribution(int index) {
+    double[] q = points_[index];
+    int n = 0;
+    for (int s = 0; s < size_; s++) {
+      if (s == index)
+        continue;
+      join(q, points_[s], limited_[n]);
+      n++;
+    }
+    if (numberOfObjectives_ > 3)
+      n = nondominated(limited_, n);
+    return Math.max(0.0, box(q) - hypervolume(limited_, n, reference_));
+  } // exactContribution
+
+  /**
+   * Hypervolume of the first n rows (which are reordered)
+   */
+  static double hypervolume(double[][] points, int n, double[] reference) {
+    if (n == 0)
+      return 0.0;
+    if (n == 1)
+      return box(points[0], reference);
+    int m = reference.length;
+    if (m == 2)
+      return hypervolume2D(points, n, reference);
+    if (m == 3)
+      return hypervolume3D(points, n, reference);
+    return hypervolumeWFG(points, n, reference);
+  } // hypervolume
+
+  private static double hypervolume2D(double[][] points, int n, double[] reference) {
+    sortBy(points, n, 0);
+    double volume = 0.0;
+    double top = reference[1];
+    for (int i = 0; i < n; i++) {
+      double[] p = points[i];
+      if (p[1] < top) {
+        volume += (reference[0] - p[0]) * (top - p[1]);
+        top = p[1];
+      }
+    }
+    return volume;
+  } // hypervolume2D
+
+  /**
+   * Sweep on the third objective keeping the 2D staircase of the points
+   * already visited (x increasing, y decreasing) and its area
+   */
+  private static double hypervolume3D(double[][] points, int n, double[] reference) {
+    sortBy(points, n, 2);
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    int k = 0;
+    double area = 0.0;
+    double volume = 0.0;
+    double z = points[0][2];
+
+    for (int i = 0; i < n; i++) {
+      double[] p = points[i];
+      volume += area * (p[2] - z);
+      z = p[2];
+
+      // Position of p in the staircase
+      int position = 0;
+      while (position < k && xs[position] <= p[0])
+        position++;
+      if (position > 0 && ys[position - 1] <= p[1])
+        continue; // Dominated in the projection
+      int end = position;
+      while (end < k && ys[end] >= p[1])
+        end++;    // Points dominated by p in the projection
+      int removed = end - position;
+      if (removed != 1) {
+        System.arraycopy(xs, end, xs, position + 1, k - end);
+        System.arraycopy(ys, end, ys, position + 1, k - end);
+      }
+      k += 1 - removed;
+      xs[position] = p[0];
+      ys[position] = p[1];
+
+      area = 0.0;
+      double top = reference[1];
+      for (int j = 0; j < k; j++) {
+        area += (reference[0] - xs[j]) * (top - ys[j]);
+        top = ys[j];
+      }
+    }
+    volume += area * (reference[2] - z);
+    return volume;
+  } // hypervolume3D
+
+  /**
+   * WFG algorithm (While, Bradstreet, Barone, 2012): sum of the exclusive
+   * volumes of the points, each one computed on the following points limited
+   * to its box
+   */
+  private static double hypervolumeWFG(double[][] points, int n, double[] reference) {
+    int m = reference.length;
+    sortBy(points, n, m - 1);
+    double volume = 0.0;
+    for (int i = n - 1; i >= 0; i--) {
+      double[] p = points[i];
+      double[][] limited = new double[n - 1 - i][];
+      int count = 0;
+      for (int j = i + 1; j < n; j++) {
+        double[] corner = new double[m];
+        join(p, points[j], corner);
+        boolean dominated = false;
+        for (int l = 0; l < count && !dominated; l++)
+          dominated = weaklyDominates(limited[l], corner);
+        if (dominated)
+          continue;
+        int l = 0;
+        while (l < count) {
+          if (weaklyDominates(corner, limited[l]))
+            limited[l] = limited[--count];
+          else
+            l++;
+        }
+        limited[count++] = corner;
+      }
+      volume += box(p, reference) - hypervolume(limited, count, reference);
+    }
+    return volume;
+  } // hypervolumeWFG
+
+  /**
+   * Moves the rows not weakly dominated by another one (keeping one copy of
+   * duplicates) to the front and returns their number
+   */
+  private static int nondominated(double[][] points, int n) {
+    int count = 0;
+    for (int i = 0; i < n; i++) {
+      double[] p = points[i];
+      boolean dominated = false;
+      for (int l = 0; l < count && !dominated; l++)
+        dominated = weaklyDominates(points[l], p);
+      if (dominated)
+        continue;
+      int l = 0;
+      while (l < count) {
+        if (weaklyDominates(p, points[l])) {
+          double[] tmp = points[l];
+          points[l] = points[--count];
+          points[count] = tmp;
+        } else {
+          l++;
+        }
+      }
+      double[] tmp = points[count];
+      points[count++] = p;
+      points[i] = tmp;
+    }
+    return count;
+  } // nondominated
+
+  private static void sortBy(double[][] points, int n, final int objective) {
+    Arrays.sort(points, 0, n, new java.util.Comparator<double[]>() {
+      public int compare(double[] a, double[] b) {
+        return Double.compare(a[objective], b[objective]);
+      }
+    });
+  } // sortBy
+
+  private double box(double[] point) {
+    return box(point, reference_);
+  } // box
+
+  private static double box(double[] point, double[] reference) {
+    double volume = 1.0;
+    for (int j = 0; j < reference.length; j++) {
+      double side = reference[j] - point[j];
+      if (side <= 0)
+        return 0.0;
+      volume *= side;
+    }
+    return volume;
+  } // box
+
+  private static void join(double[] a, double[] b, double[] result) {
+    for (int j = 0; j < a.length; j++)
+      result[j] = Math.max(a[j], b[j]);
+  } // join
+
+  private static boolean weaklyDominates(double[] a, double[] b) {
+    for (int j = 0; j < a.length; j++)
+      if (a[j] > b[j])
+        return false;
+    return true;
+  } // weaklyDominates
+
+  private double floor(double value) {
+    return (zeroFloor_ && value < 0) ? 0.0 : value;
+  } // floor
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= points_.length)
+      return;
+    int length = Math.max(capacity, 2 * points_.length);
+    points_ = Arrays.copyOf(points_, length);
+    contribution_ = Arrays.copyOf(contribution_, length);
+    exact_ = Arrays.copyOf(exact_, length);
+    double[][] limited = new double[length][];
+    for (int i = 0; i < length; i++)
+      limited[i] = (i < limited_.length) ? limited_[i] : new double[numberOfObjectives_];
+    limited_ = limited;
+  } // ensureCapacity
+} // IncrementalHVContributions
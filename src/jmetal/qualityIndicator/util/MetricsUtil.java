@@ -24,11 +24,10 @@ package jmetal.qualityIndicator.util;
 import jmetal.core.Solution;
 import jmetal.core.SolutionSet;
 import jmetal.qualityIndicator.Hypervolume;
+import jmetal.util.NDTreeSolutionList;
 import jmetal.util.NonDominatedSolutionList;
+import jmetal.util.snapshot.FrontReader;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
 import java.util.*;
 
 /**
@@ -37,7 +36,8 @@ import java.util.*;
 public class MetricsUtil {
 
 	/**
-	 * This method reads a Pareto Front for a file.
+	 * This method reads a Pareto Front for a file, which is either a text
+	 * file or a binary snapshot (see <code>FrontReader</code>).
 	 * 
 	 * @param path
 	 *            The path to the file that contains the pareto front
@@ -45,36 +45,7 @@ public class MetricsUtil {
 	 **/
 	public double[][] readFront(String path) {
 		try {
-			// Open the file
-			FileInputStream fis = new FileInputStream(path);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			List<double[]> list = new ArrayList<double[]>();
-			int numberOfObjectives = 0;
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				int i = 0;
-				numberOfObjectives = st.countTokens();
-				double[] vector = new double[st.countTokens()];
-				while (st.hasMoreTokens()) {
-					double value = new Double(st.nextToken());
-					vector[i] = value;
-					i++;
-				}
-				list.add(vector);
-				aux = br.readLine();
-			}
-
-			br.close();
-
-			double[][] front = new double[list.size()][numberOfObjectives];
-			for (int i = 0; i < list.size(); i++) {
-				front[i] = list.get(i);
-			}
-			return front;
-
+			return FrontReader.read(path).toMatrix();
 		} catch (Exception e) {
 			System.out.println("InputFacilities crashed reading for file: "
 					+ path);
@@ -263,28 +234,9 @@ public class MetricsUtil {
 	 */
 	public SolutionSet readSolutionSet(String path) {
 		try {
-			/* Open the file */
-			FileInputStream fis = new FileInputStream(path);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			SolutionSet solutionSet = new SolutionSet();
-
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				int i = 0;
-				Solution solution = new Solution(st.countTokens());
-				while (st.hasMoreTokens()) {
-					double value = new Double(st.nextToken());
-					solution.setObjective(i, value);
-					i++;
-				}
-				solutionSet.setCapacity(solutionSet.getCapacity() + 1);
-				solutionSet.add(solution);
-				aux = br.readLine();
-			}
-			br.close();
+			FrontReader front = FrontReader.read(path);
+			SolutionSet solutionSet = new SolutionSet(front.getNumberOfRows());
+			addSolutions(front, solutionSet);
 			return solutionSet;
 		} catch (Exception e) {
 			System.out
@@ -304,27 +256,8 @@ public class MetricsUtil {
 	 */
 	public SolutionSet readNonDominatedSolutionSet(String path) {
 		try {
-			/* Open the file */
-			FileInputStream fis = new FileInputStream(path);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			SolutionSet solutionSet = new NonDominatedSolutionList();
-
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				int i = 0;
-				Solution solution = new Solution(st.countTokens());
-				while (st.hasMoreTokens()) {
-					double value = new Double(st.nextToken());
-					solution.setObjective(i, value);
-					i++;
-				}
-				solutionSet.add(solution);
-				aux = br.readLine();
-			}
-			br.close();
+			SolutionSet solutionSet = new NDTreeSolutionList();
+			addSolutions(FrontReader.read(path), solutionSet);
 			return solutionSet;
 		} catch (Exception e) {
 			System.out
@@ -346,26 +279,7 @@ public class MetricsUtil {
 	public void readNonDominatedSolutionSet(String path,
 			NonDominatedSolutionList solutionSet) {
 		try {
-			/* Open the file */
-			FileInputStream fis = new FileInputStream(path);
-			InputStreamReader isr = new InputStreamReader(fis);
-			BufferedReader br = new BufferedReader(isr);
-
-			String aux = br.readLine();
-			while (aux != null) {
-				StringTokenizer st = new StringTokenizer(aux);
-				int i = 0;
-				Solution solution = new Solution(st.countTokens());
-
-				while (st.hasMoreTokens()) {
-					double value = new Double(st.nextToken());
-					solution.setObjective(i, value);
-					i++;
-				}
-				solutionSet.add(solution);
-				aux = br.readLine();
-			}
-			br.close();
+			addSolutions(FrontReader.read(path), solutionSet);
 		} catch (Exception e) {
 			System.out
 					.println("jmetal.qualityIndicator.util.readNonDominatedSolutionSet: "
@@ -374,6 +288,20 @@ public class MetricsUtil {
 		}
 	}
 
+	/**
+	 * Adds one solution per row of a front to a solution set
+	 */
+	private void addSolutions(FrontReader front, SolutionSet solutionSet) {
+		int numberOfObjectives = front.getNumberOfColumns();
+		double[] values = front.getValues();
+		for (int i = 0; i < front.getNumberOfRows(); i++) {
+			Solution solution = new Solution(numberOfObjectives);
+			for (int k = 0; k < numberOfObjectives; k++)
+				solution.setObjective(k, values[i * numberOfObjectives + k]);
+			solutionSet.add(solution);
+		}
+	} // addSolutions
+
 	/**
 	 * Calculates how much hypervolume each point dominates exclusively. The
 	 * points have to be transformed beforehand, to accommodate the assumptions
@@ -0,0 +1,232 @@
+//  IndexedSort.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util;
+
+/**
+ * Sorts an array of <code>double</code> keys in ascending order together with
+ * an <code>int</code> payload (usually the indexes of the keys), in place and
+ * without allocating anything.
+ * <p>
+ * The algorithm is an introsort: quicksort with a median-of-three pivot and a
+ * three-way partition, so that tied keys cost a single pass; insertion sort
+ * on short ranges; heapsort when the recursion gets too deep. The recursion
+ * only follows the smaller part, so its depth is O(log n) whatever the input.
+ * <p>
+ * Tied keys are ordered by increasing payload, so the result does not depend
+ * on the initial order of the ties. The order is unspecified if a key is NaN,
+ * but each key keeps its payload.
+ */
+public class IndexedSort {
+  /**
+   * Ranges of at most this size are sorted by insertion
+   */
+  private static final int INSERTION_THRESHOLD = 16 ;
+
+  /**
+   * Sorts the range [from, to) of the keys and applies the same permutation
+   * to the payload
+   * @param key The keys
+   * @param payload The payload
+   * @param from First position (inclusive)
+   * @param to Last position (exclusive)
+   */
+  public static void sort(double[] key, int[] payload, int from, int to) {
+    sort(key, payload, from, to, to, depthLimit(to - from)) ;
+  } // sort
+
+  /**
+   * Sorts the whole arrays
+   */
+  public static void sort(double[] key, int[] payload) {
+    sort(key, payload, 0, key.length) ;
+  } // sort
+
+  /**
+   * Partial sort: the first k positions of the range [from, to) receive its k
+   * smallest keys in the order of <code>sort</code>; the other positions
+   * hold the remaining keys in an unspecified order
+   * @param key The keys
+   * @param payload The payload
+   * @param from First position (inclusive)
+   * @param to Last position (exclusive)
+   * @param k Number of smallest keys to sort
+   */
+  public static void sortTop(double[] key, int[] payload, int from, int to, int k) {
+    sort(key, payload, from, to, Math.min(to, from + Math.max(k, 0)),
+         depthLimit(to - from)) ;
+  } // sortTop
+
+  private static int depthLimit(int size) {
+    int depth = 0 ;
+    while (size > 1) {
+      size >>>= 1 ;
+      depth++ ;
+    } // while
+    return 2 * depth ;
+  } // depthLimit
+
+  /**
+   * Sorts the range [from, to) as far as position limit (exclusive)
+   */
+  private static void sort(double[] key, int[] payload, int from, int to,
+                           int limit, int depth) {
+    while ((to - from > INSERTION_THRESHOLD) && (from < limit)) {
+      if (depth-- == 0) {
+        heapSort(key, payload, from, to) ;
+        return ;
+      } // if
+
+      // Median of three: the first, middle and last keys are ordered
+      int middle = (from + to) >>> 1 ;
+      if (less(key, payload, middle, from))
+        swap(key, payload, middle, from) ;
+      if (less(key, payload, to - 1, from))
+        swap(key, payload, to - 1, from) ;
+      if (less(key, payload, to - 1, middle))
+        swap(key, payload, to - 1, middle) ;
+      double pivot = key[middle] ;
+
+      // Three-way partition: [from, lt) < pivot, [lt, gt) == pivot,
+      // [gt, to) > pivot
+      int lt = from ;
+      int gt = to ;
+      int i  = from ;
+      while (i < gt) {
+        double value = key[i] ;
+        if (value < pivot)
+          swap(key, payload, lt++, i++) ;
+        else if (value == pivot)
+          i++ ;
+        else                              // Greater, or NaN
+          swap(key, payload, i, --gt) ;
+      } // while
+      sortPayload(payload, lt, gt) ;
+
+      // Recursion on the smaller part, iteration on the larger one
+      if (lt - from < to - gt) {
+        sort(key, payload, from, lt, limit, depth) ;
+        from = gt ;
+      } else {
+        if (gt < limit)
+          sort(key, payload, gt, to, limit, depth) ;
+        to = lt ;
+      } // else
+    } // while
+
+    if (from < limit)
+      insertionSort(key, payload, from, to) ;
+  } // sort
+
+  /**
+   * Ordering of the positions i and j: by key, then by payload
+   */
+  private static boolean less(double[] key, int[] payload, int i, int j) {
+    return (key[i] < key[j]) || ((key[i] == key[j]) && (payload[i] < payload[j])) ;
+  } // less
+
+  private static void swap(double[] key, int[] payload, int i, int j) {
+    double k = key[i] ;
+    key[i] = key[j] ;
+    key[j] = k ;
+    int p = payload[i] ;
+    payload[i] = payload[j] ;
+    payload[j] = p ;
+  } // swap
+
+  private static void insertionSort(double[] key, int[] payload, int from, int to) {
+    for (int i = from + 1; i < to; i++) {
+      double k = key[i] ;
+      int    p = payload[i] ;
+      int j = i - 1 ;
+      while ((j >= from) && ((k < key[j]) || ((k == key[j]) && (p < payload[j])))) {
+        key[j + 1]     = key[j] ;
+        payload[j + 1] = payload[j] ;
+        j-- ;
+      } // while
+      key[j + 1]     = k ;
+      payload[j + 1] = p ;
+    } // for
+  } // insertionSort
+
+  private static void heapSort(double[] key, int[] payload, int from, int to) {
+    int size = to - from ;
+    for (int i = size / 2 - 1; i >= 0; i--)
+      siftDown(key, payload, from, i, size) ;
+    for (int last = size - 1; last > 0; last--) {
+      swap(key, payload, from, from + last) ;
+      siftDown(key, payload, from, 0, last) ;
+    } // for
+  } // heapSort
+
+  private static void siftDown(double[] key, int[] payload, int from, int node, int size) {
+    while (true) {
+      int child = 2 * node + 1 ;
+      if (child >= size)
+        return ;
+      if ((child + 1 < size) && less(key, payload, from + child, from + child + 1))
+        child++ ;
+      if (!less(key, payload, from + node, from + child))
+        return ;
+      swap(key, payload, from + node, from + child) ;
+      node = child ;
+    } // while
+  } // siftDown
+
+  /**
+   * Sorts the payload of a range of tied keys
+   */
+  private static void sortPayload(int[] payload, int from, int to) {
+    int size = to - from ;
+    if (size <= INSERTION_THRESHOLD) {
+      for (int i = from + 1; i < to; i++) {
+        int p = payload[i] ;
+        int j = i - 1 ;
+        while ((j >= from) && (p < payload[j])) {
+          payload[j + 1] = payload[j] ;
+          j-- ;
+        } // while
+        payload[j + 1] = p ;
+      } // for
+      return ;
+    } // if
+
+    // Heapsort: ties are sorted in O(n log n) without recursion
+    for (int i = size / 2 - 1; i >= 0; i--)
+      siftDown(payload, from, i, size) ;
+    for (int last = size - 1; last > 0; last--) {
+      int p = payload[from] ;
+      payload[from] = payload[from + last] ;
+      payload[from + last] = p ;
+      siftDown(payload, from, 0, last) ;
+    } // for
+  } // sortPayload
+
+  private static void siftDown(int[] payload, int from, int node, int size) {
+    while (true) {
+      int child = 2 * node + 1 ;
+      if (child >= size)
+        return ;
+      if ((child + 1 < size) && (payload[from + child] < payload[from + child + 1]))
+        child++ ;
+      if (payload[from + node] >= payload[from + child])
+        return ;
+      int p = payload[from + node] ;
+      payload[from + node] = payload[from + child] ;
+      payload[from + child] = p ;
+      node = child ;
+    } // while
+  } // siftDown
+} // IndexedSort
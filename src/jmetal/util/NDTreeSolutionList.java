@@ -0,0 +1,529 @@
+//  NDTreeSolutionList.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util;
+
+import jmetal.core.Solution;
+import jmetal.util.comparators.DominanceKernel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class implements an unbound list of non-dominated solutions indexed by
+ * an ND-tree (A. Jaszkiewicz, T. Lust, "ND-Tree-Based Update: A Fast Algorithm
+ * for the Dynamic Nondominance Problem", IEEE TEVC 22(5), 2018).
+ * <p>
+ * The accepted solutions are the same as in <code>NonDominatedSolutionList</code>
+ * used with the default <code>DominanceComparator</code>: infeasible solutions
+ * are ordered by their overall constraint violation, feasible ones by Pareto
+ * dominance, and solutions with identical objective vectors are all kept. The
+ * tree stores the objective vectors of the feasible members, so an insertion
+ * only visits the nodes whose ideal/nadir bounding box can contain a solution
+ * dominating or dominated by the new one.
+ * <p>
+ * The members are also kept in <code>solutionsList_</code>, so the
+ * <code>SolutionSet</code> API (<code>get</code>, <code>size</code>,
+ * <code>iterator</code>, ...) works as usual. Removals move the last member
+ * into the freed position, so the order of the members is not the insertion
+ * order.
+ */
+public class NDTreeSolutionList extends NonDominatedSolutionList {
+
+	/**
+	 * Default maximum number of points stored in a leaf
+	 */
+	public static final int DEFAULT_MAX_LEAF_SIZE = 20;
+
+	/**
+	 * Maximum number of points stored in a leaf before it is split
+	 */
+	private final int maxLeafSize_;
+
+	/**
+	 * If true, the list stores objective-only copies of the inserted solutions
+	 * (as <code>NonDominatedSolutionList2</code> does)
+	 */
+	private final boolean copyObjectives_;
+
+	/**
+	 * Number of children created when a leaf is split. It is fixed with the
+	 * first feasible solution (number of objectives + 1)
+	 */
+	private int numberOfChildren_;
+
+	/**
+	 * Root of the tree; null if there are no feasible solutions
+	 */
+	private Node root_;
+
+	/**
+	 * Entries of the members, in the same order as <code>solutionsList_</code>
+	 */
+	private final List<Entry> entries_;
+
+	/**
+	 * Overall constraint violation shared by the members when they are
+	 * infeasible (the tree is empty in that case)
+	 */
+	private double infeasibleViolation_;
+
+	/**
+	 * Constructor.
+	 */
+	public NDTreeSolutionList() {
+		this(DEFAULT_MAX_LEAF_SIZE, false);
+	} // NDTreeSolutionList
+
+	/**
+	 * Constructor.
+	 * @param copyObjectives If true, objective-only copies of the solutions are
+	 * stored instead of the solutions themselves.
+	 */
+	public NDTreeSolutionList(boolean copyObjectives) {
+		this(DEFAULT_MAX_LEAF_SIZE, copyObjectives);
+	} // NDTreeSolutionList
+
+	/**
+	 * Constructor.
+	 * @param maxLeafSize Maximum number of points stored in a leaf.
+	 * @param copyObjectives If true, objective-only copies of the solutions are
+	 * stored instead of the solutions themselves.
+	 */
+	public NDTreeSolutionList(int maxLeafSize, boolean copyObjectives) {
+		super();
+		if (maxLeafSize < 2)
+			throw new IllegalArgumentException("NDTreeSolutionList: the maximum "
+					+ "leaf size must be at least 2") ;
+		maxLeafSize_    = maxLeafSize;
+		copyObjectives_ = copyObjectives;
+		entries_        = new ArrayList<Entry>();
+		root_           = null;
+	} // NDTreeSolutionList
+
+	/** Inserts a solution in the list
+	 * @param solution The solution to be inserted.
+	 * @return true if the operation success, and false if the solution is
+	 * dominated.
+	 */
+	public boolean add(Solution solution) {
+		double violation = solution.getOverallConstraintViolation();
+
+		if (violation < 0) {
+			if (root_ != null)        // A feasible member dominates it
+				return false;
+			if (!entries_.isEmpty()) {
+				if (violation < infeasibleViolation_)
+					return false;
+				if (violation > infeasibleViolation_)
+					clear();
+			}
+			infeasibleViolation_ = violation;
+			append(new Entry(store(solution), null));
+			return true;
+		} // if
+
+		if (root_ == null && !entries_.isEmpty()) // Only infeasible members
+			clear();
+
+		int numberOfObjectives = solution.getNumberOfObjectives();
+		double[] point = new double[numberOfObjectives];
+		for (int i = 0; i < numberOfObjectives; i++)
+			point[i] = solution.getObjective(i);
+
+		if (root_ == null) {
+			numberOfChildren_ = numberOfObjectives + 1;
+			Entry entry = new Entry(store(solution), point);
+			root_ = new Node(entry);
+			append(entry);
+			return true;
+		} // if
+
+		if (!updateNode(root_, point))
+			return false;
+
+		Entry entry = new Entry(store(solution), point);
+		if (isEmpty(root_))
+			root_ = new Node(entry);
+		else
+			insert(root_, entry);
+		append(entry);
+
+		return true;
+	} // add
+
+	/**
+	 * Inserts a solution in the list; the position is ignored because the
+	 * order of the members is managed by the tree.
+	 */
+	public boolean add(int index, Solution solution) {
+		return add(solution);
+	} // add
+
+	/**
+	 * Deletes the <code>Solution</code> at position i in the list.
+	 * @param i The position of the solution to remove.
+	 */
+	public void remove(int i) {
+		Entry entry = entries_.get(i);
+		if (entry.point_ != null) {
+			Node leaf = entry.leaf_;
+			leaf.points_.remove(entry);
+			Node node = leaf;
+			while (node != null && isEmpty(node)) {
+				Node parent = node.parent_;
+				if (parent != null)
+					parent.children_.remove(node);
+				else
+					root_ = null;
+				node = parent;
+			}
+		} // if
+		detach(entry);
+	} // remove
+
+	/**
+	 * Empties the list
+	 */
+	public void clear() {
+		super.clear();
+		entries_.clear();
+		root_ = null;
+	} // clear
+
+	/**
+	 * Sorts the list using a <code>Comparator</code>; the tree is not modified.
+	 * @param comparator <code>Comparator</code> used to sort.
+	 */
+	public void sort(final Comparator comparator) {
+		if (comparator == null) {
+			Configuration.logger_.severe("No criterium for comparing exist");
+			return ;
+		} // if
+		Collections.sort(entries_, new Comparator<Entry>() {
+			public int compare(Entry e1, Entry e2) {
+				return comparator.compare(e1.solution_, e2.solution_);
+			}
+		});
+		for (int i = 0; i < entries_.size(); i++) {
+			entries_.get(i).position_ = i;
+			solutionsList_.set(i, entries_.get(i).solution_);
+		}
+	} // sort
+
+	/**
+	 * Replaces a solution by a new one. As the list only keeps non-dominated
+	 * solutions, the old one is removed and the new one is inserted.
+	 * @param position The position of the solution to replace
+	 * @param solution The new solution
+	 */
+	public void replace(int position, Solution solution) {
+		remove(position);
+		add(solution);
+	} // replace
+
+	/**
+	 * Checks the node against a candidate point, removing the members dominated
+	 * by it.
+	 * @return false if some member dominates the point
+	 */
+	private boolean updateNode(Node node, double[] point) {
+		if (DominanceKernel.dominates(node.nadir_, point)) // Every member dominates the point
+			return false;
+
+		if (DominanceKernel.dominates(point, node.ideal_)) { // The point dominates every member
+			removeSubtree(node);
+			return true;
+		}
+
+		if (!weaklyDominates(node.ideal_, point)
+				&& !weaklyDominates(point, node.nadir_))
+			return true;
+
+		if (node.isLeaf()) {
+			int i = 0;
+			while (i < node.points_.size()) {
+				Entry entry = node.points_.get(i);
+				int flag = DominanceKernel.compare(point, entry.point_);
+				if (flag == 1) {
+					return false;
+				} else if (flag == -1) {
+					int last = node.points_.size() - 1;
+					node.points_.set(i, node.points_.get(last));
+					node.points_.remove(last);
+					detach(entry);
+				} else {
+					i++;
+				}
+			}
+		} else {
+			int i = 0;
+			while (i < node.children_.size()) {
+				Node child = node.children_.get(i);
+				if (!updateNode(child, point))
+					return false;
+				if (isEmpty(child))
+					node.children_.remove(i);
+				else
+					i++;
+			}
+			if (node.children_.size() == 1)
+				collapse(node);
+		} // if
+
+		return true;
+	} // updateNode
+
+	/**
+	 * Inserts an entry (already known to be non-dominated) into the subtree
+	 */
+	private void insert(Node node, Entry entry) {
+		while (!node.isLeaf()) {
+			node.updateBounds(entry.point_);
+			Node closest = null;
+			double minDistance = Double.MAX_VALUE;
+			for (Node child : node.children_) {
+				double distance = child.distanceToMidpoint(entry.point_);
+				if (distance < minDistance) {
+					minDistance = distance;
+					closest = child;
+				}
+			}
+			node = closest;
+		}
+
+		node.add(entry);
+		if (node.points_.size() > maxLeafSize_)
+			split(node);
+	} // insert
+
+	/**
+	 * Splits an overfull leaf into <code>numberOfChildren_</code> leaves. The
+	 * seeds are chosen to be far from each other, and the rest of the points
+	 * go to the child whose ideal/nadir midpoint is the closest.
+	 */
+	private void split(Node node) {
+		List<Entry> points = node.points_;
+		int size = points.size();
+		boolean[] used = new boolean[size];
+		int numberOfChildren = Math.min(numberOfChildren_, size);
+		List<Node> children = new ArrayList<Node>(numberOfChildren);
+
+		// First seed: the point with the largest mean distance to the others
+		int seed = 0;
+		double maxDistance = -1;
+		for (int i = 0; i < size; i++) {
+			double distance = 0;
+			for (int j = 0; j < size; j++)
+				distance += euclidean(points.get(i).point_, points.get(j).point_);
+			if (distance > maxDistance) {
+				maxDistance = distance;
+				seed = i;
+			}
+		}
+		used[seed] = true;
+		children.add(new Node(points.get(seed)));
+
+		// Next seeds: the largest mean distance to the seeds already chosen
+		double[] distanceToSeeds = new double[size];
+		while (children.size() < numberOfChildren) {
+			seed = -1;
+			maxDistance = -1;
+			double[] last = children.get(children.size() - 1).points_.get(0).point_;
+			for (int i = 0; i < size; i++) {
+				if (used[i])
+					continue;
+				distanceToSeeds[i] += euclidean(points.get(i).point_, last);
+				if (distanceToSeeds[i] > maxDistance) {
+					maxDistance = distanceToSeeds[i];
+					seed = i;
+				}
+			}
+			used[seed] = true;
+			children.add(new Node(points.get(seed)));
+		}
+
+		for (int i = 0; i < size; i++) {
+			if (used[i])
+				continue;
+			Node closest = null;
+			double minDistance = Double.MAX_VALUE;
+			for (Node child : children) {
+				double distance = child.distanceToMidpoint(points.get(i).point_);
+				if (distance < minDistance) {
+					minDistance = distance;
+					closest = child;
+				}
+			}
+			closest.add(points.get(i));
+		}
+
+		for (Node child : children)
+			child.parent_ = node;
+		node.points_   = null;
+		node.children_ = children;
+	} // split
+
+	/**
+	 * Replaces the content of a node by the content of its only child
+	 */
+	private void collapse(Node node) {
+		Node child = node.children_.get(0);
+		node.ideal_    = child.ideal_;
+		node.nadir_    = child.nadir_;
+		node.points_   = child.points_;
+		node.children_ = child.children_;
+		if (node.isLeaf()) {
+			for (Entry entry : node.points_)
+				entry.leaf_ = node;
+		} else {
+			for (Node grandChild : node.children_)
+				grandChild.parent_ = node;
+		}
+	} // collapse
+
+	/**
+	 * Removes from the list all the members stored in a subtree, and empties it
+	 */
+	private void removeSubtree(Node node) {
+		if (node.isLeaf()) {
+			for (Entry entry : node.points_)
+				detach(entry);
+			node.points_.clear();
+		} else {
+			for (Node child : node.children_)
+				removeSubtree(child);
+			node.children_.clear();
+		}
+	} // removeSubtree
+
+	private boolean isEmpty(Node node) {
+		return node.isLeaf() ? node.points_.isEmpty() : node.children_.isEmpty();
+	} // isEmpty
+
+	private Solution store(Solution solution) {
+		if (!copyObjectives_)
+			return solution;
+
+		Solution copy = new Solution(solution.getNumberOfObjectives());
+		for (int i = 0; i < copy.getNumberOfObjectives(); i++)
+			copy.setObjective(i, solution.getObjective(i));
+		copy.setOverallConstraintViolation(solution.getOverallConstraintViolation());
+		return copy;
+	} // store
+
+	private void append(Entry entry) {
+		entry.position_ = entries_.size();
+		entries_.add(entry);
+		solutionsList_.add(entry.solution_);
+	} // append
+
+	/**
+	 * Removes an entry from the flat list, moving the last member into its place
+	 */
+	private void detach(Entry entry) {
+		int last = entries_.size() - 1;
+		Entry moved = entries_.remove(last);
+		solutionsList_.remove(last);
+		if (moved != entry) {
+			moved.position_ = entry.position_;
+			entries_.set(entry.position_, moved);
+			solutionsList_.set(entry.position_, moved.solution_);
+		}
+	} // detach
+
+	/**
+	 * Returns true if a is not worse than b in any objective
+	 */
+	private static boolean weaklyDominates(double[] a, double[] b) {
+		for (int i = 0; i < a.length; i++)
+			if (a[i] > b[i])
+				return false;
+		return true;
+	} // weaklyDominates
+
+	private static double euclidean(double[] a, double[] b) {
+		double sum = 0;
+		for (int i = 0; i < a.length; i++)
+			sum += (a[i] - b[i]) * (a[i] - b[i]);
+		return Math.sqrt(sum);
+	} // euclidean
+
+	/**
+	 * A member of the list
+	 */
+	private static final class Entry implements java.io.Serializable {
+		final Solution solution_;
+		final double[] point_;   // null for infeasible members
+		int position_;           // index in solutionsList_
+		Node leaf_;              // leaf storing the point
+
+		Entry(Solution solution, double[] point) {
+			solution_ = solution;
+			point_    = point;
+		}
+	} // Entry
+
+	/**
+	 * A node of the tree. Its ideal and nadir points bound the points stored in
+	 * the subtree; they are not tightened after removals, so they remain valid
+	 * (possibly loose) bounds.
+	 */
+	private static final class Node implements java.io.Serializable {
+		double[] ideal_;
+		double[] nadir_;
+		Node parent_;
+		List<Entry> points_;   // non null in leaves
+		List<Node> children_;  // non null in internal nodes
+
+		Node(Entry entry) {
+			ideal_  = entry.point_.clone();
+			nadir_  = entry.point_.clone();
+			points_ = new ArrayList<Entry>();
+			points_.add(entry);
+			entry.leaf_ = this;
+		}
+
+		boolean isLeaf() {
+			return children_ == null;
+		}
+
+		void add(Entry entry) {
+			points_.add(entry);
+			entry.leaf_ = this;
+			updateBounds(entry.point_);
+		}
+
+		void updateBounds(double[] point) {
+			for (int i = 0; i < point.length; i++) {
+				if (point[i] < ideal_[i])
+					ideal_[i] = point[i];
+				if (point[i] > nadir_[i])
+					nadir_[i] = point[i];
+			}
+		}
+
+		double distanceToMidpoint(double[] point) {
+			double sum = 0;
+			for (int i = 0; i < point.length; i++) {
+				double diff = point[i] - 0.5 * (ideal_[i] + nadir_[i]);
+				sum += diff * diff;
+			}
+			return sum;
+		}
+	} // Node
+} // NDTreeSolutionList
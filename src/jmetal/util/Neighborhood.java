@@ -217,4 +217,23 @@ public class Neighborhood {
     //Return the list of non-dominated individuals
     return neighbors;        
   }  // getEightNeighbors
+
+  /**
+   * Stores the indexes of the eight neighbors of ratio 0 of a location, in
+   * the order of <code>getEightNeighbors</code> (N, S, E, W, NE, NW, SE, SW;
+   * the first four are those of <code>getFourNeighbors</code>).
+   * @param location The location.
+   * @param neighbors An array of (at least) eight elements.
+   */
+  public void getEightNeighbors(int location, int [] neighbors) {
+    int [] structure = structure_[location][0] ;
+    neighbors[0] = structure[Row.N.ordinal()] ;
+    neighbors[1] = structure[Row.S.ordinal()] ;
+    neighbors[2] = structure[Row.E.ordinal()] ;
+    neighbors[3] = structure[Row.W.ordinal()] ;
+    neighbors[4] = structure[Row.NE.ordinal()] ;
+    neighbors[5] = structure[Row.NW.ordinal()] ;
+    neighbors[6] = structure[Row.SE.ordinal()] ;
+    neighbors[7] = structure[Row.SW.ordinal()] ;
+  } // getEightNeighbors
 } // Neighborhood
@@ -21,6 +21,8 @@
 
 package jmetal.util;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Class representing a pseudo-random number generator
  */
@@ -31,6 +33,15 @@ public class PseudoRandom  {
    */
   private static IRandomGenerator random_ = null;
   private static RandomGenerator defaultGenerator_ = new RandomGenerator() ;
+
+  /**
+   * Generators of the threads having their own one (see
+   * <code>setThreadRandomGenerator</code>); looked up only while some thread
+   * has one, so the single-threaded case does not pay for it.
+   */
+  private static final ThreadLocal<IRandomGenerator> threadGenerator_ =
+    new ThreadLocal<IRandomGenerator>() ;
+  private static final AtomicInteger threadGenerators_ = new AtomicInteger() ;
                
   /** 
    * Constructor.
@@ -46,16 +57,54 @@ public class PseudoRandom  {
   public static void setRandomGenerator(IRandomGenerator generator) {
   	random_ = generator ;
   }
+
+  /**
+   * Returns the generator used by the calling thread: its own one if it has
+   * one, the shared one otherwise
+   */
+  public static IRandomGenerator getRandomGenerator() {
+    return generator() ;
+  } // getRandomGenerator
+
+  /**
+   * Sets the generator used by the calling thread instead of the shared one,
+   * so that parallel workers neither race on the shared generator nor
+   * depend on each other's draws. The generator is removed with
+   * <code>null</code>; every thread setting one must remove it.
+   * @param generator The generator, or null
+   */
+  public static void setThreadRandomGenerator(IRandomGenerator generator) {
+    IRandomGenerator previous = threadGenerator_.get() ;
+    if (generator == null) {
+      if (previous != null) {
+        threadGenerator_.remove() ;
+        threadGenerators_.decrementAndGet() ;
+      }
+    } else {
+      if (previous == null)
+        threadGenerators_.incrementAndGet() ;
+      threadGenerator_.set(generator) ;
+    }
+  } // setThreadRandomGenerator
+
+  private static IRandomGenerator generator() {
+    if (threadGenerators_.get() > 0) {
+      IRandomGenerator generator = threadGenerator_.get() ;
+      if (generator != null)
+        return generator ;
+    }
+    if (random_ == null) {
+      random_ = defaultGenerator_ ;
+    }
+    return random_ ;
+  } // generator
   
   /** 
    * Returns a random int value using the Java random generator.
    * @return A random int value.
    */
   public static int randInt() {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
-    return random_.nextInt(Integer.MAX_VALUE);
+    return generator().nextInt(Integer.MAX_VALUE);
   } // randInt
     
   /** 
@@ -63,11 +112,8 @@ public class PseudoRandom  {
    * Returns A random double value.
    */
   public static double randDouble() {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
     //return random_.rndReal(0.0,1.0);
-    return random_.nextDouble();
+    return generator().nextDouble();
     //return randomJava.nextDouble();
   } // randDouble
     
@@ -79,10 +125,7 @@ public class PseudoRandom  {
    * Return A pseudo random int value between minBound and maxBound.
    */
   public static int randInt(int minBound, int maxBound) {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
-    return minBound + random_.nextInt(maxBound-minBound);
+    return minBound + generator().nextInt(maxBound-minBound);
     //return minBound + randomJava.nextInt(maxBound-minBound+1);
   } // randInt
     
@@ -93,10 +136,7 @@ public class PseudoRandom  {
    * @return A pseudo random double value between minBound and maxBound
    */
   public static double randDouble(double minBound, double maxBound) {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
-    return minBound + random_.nextDouble() * (maxBound-minBound);
+    return minBound + generator().nextDouble() * (maxBound-minBound);
     //return minBound + (maxBound - minBound)*randomJava.nextDouble();
   } // randDouble    
 } // PseudoRandom
@@ -21,6 +21,9 @@
 
 package jmetal.util;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.Random;
 
  /**
@@ -45,6 +48,16 @@ public class RandomGenerator implements IRandomGenerator{
     this.randomize();
   } // RandomGenerator
 
+  /**
+   * Constructor of a generator started from a given seed, e.g., one per
+   * thread of a parallel algorithm seeded from <code>PseudoRandom</code>
+   * @param seed The seed, in [0, 1)
+   */
+  public RandomGenerator(double seed){
+    this.seed = seed;
+    this.randomize();
+  } // RandomGenerator
+
   /* Get seed number for random and start it up */
   void randomize(){
     int j1;
@@ -107,6 +120,22 @@ public class RandomGenerator implements IRandomGenerator{
     return((double)oldrand[jrand]);
   } //randomPerc
 
+  /** Reads the entire state of the generator from the stream */
+  synchronized public void readState(DataInputStream stream) throws IOException {
+    seed  = stream.readDouble();
+    jrand = stream.readInt();
+    for (int j1 = 0; j1 < oldrand.length; j1++)
+      oldrand[j1] = stream.readDouble();
+  } // readState
+
+  /** Writes the entire state of the generator to the stream */
+  synchronized public void writeState(DataOutputStream stream) throws IOException {
+    stream.writeDouble(seed);
+    stream.writeInt(jrand);
+    for (int j1 = 0; j1 < oldrand.length; j1++)
+      stream.writeDouble(oldrand[j1]);
+  } // writeState
+
   /* Fetch a single integer between 0 and upperbound */
   synchronized public int nextInt(int upperBound) {
   	return rndInt(0, upperBound) ;
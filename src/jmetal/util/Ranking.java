@@ -21,14 +21,12 @@
 
 package jmetal.util;
 
+import jmetal.core.Solution;
 import jmetal.core.SolutionSet;
-import jmetal.util.comparators.DominanceComparator;
-import jmetal.util.comparators.OverallConstraintViolationComparator;
-
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import jmetal.util.ranking.DivideAndConquerNonDominatedSorting;
+import jmetal.util.ranking.ENSNonDominatedSorting;
+import jmetal.util.ranking.INonDominatedSorting;
+import jmetal.util.ranking.TwoObjectiveNonDominatedSorting;
 
 /**
  * This class implements some facilities for ranking solutions. Given a
@@ -38,6 +36,14 @@ import java.util.List;
  * 1); thus, subset 0 contains the non-dominated solutions, subset 1 contains
  * the non-dominated solutions after removing those belonging to subset 0, and
  * so on.
+ * <p>
+ * The ordering is the one of <code>OverallConstraintViolationComparator</code>
+ * followed by <code>DominanceComparator</code>: the feasible solutions are
+ * sorted by Pareto dominance with an <code>INonDominatedSorting</code> engine
+ * working on their objective matrix, and the infeasible ones follow, one
+ * front per value of the overall constraint violation (the least violated
+ * first). The solutions of a front are listed in the order of the
+ * <code>SolutionSet</code>.
  */
 public class Ranking {
 
@@ -52,129 +58,119 @@ public class Ranking {
 	private SolutionSet[] ranking_;
 
 	/**
-	 * stores a <code>Comparator</code> for dominance checking
-	 */
-	private static final Comparator dominance_ = new DominanceComparator();
-
-	/**
-	 * stores a <code>Comparator</code> for Overal Constraint Violation
-	 * Comparator checking
+	 * Constructor. The sorting engine is chosen with
+	 * <code>selectEngine</code>.
+	 * 
+	 * @param solutionSet
+	 *            The <code>SolutionSet</code> to be ranked.
 	 */
-	private static final Comparator constraint_ = new OverallConstraintViolationComparator();
+	public Ranking(SolutionSet solutionSet) {
+		this(solutionSet, null);
+	} // Ranking
 
 	/**
 	 * Constructor.
 	 * 
 	 * @param solutionSet
 	 *            The <code>SolutionSet</code> to be ranked.
+	 * @param engine
+	 *            The engine used to sort the feasible solutions; if null, it
+	 *            is chosen with <code>selectEngine</code>.
 	 */
-	public Ranking(SolutionSet solutionSet) {
+	public Ranking(SolutionSet solutionSet, INonDominatedSorting engine) {
 		solutionSet_ = solutionSet;
-
-		// dominateMe[i] contains the number of solutions dominating i
-		int[] dominateMe = new int[solutionSet_.size()];
-
-		// iDominate[k] contains the list of solutions dominated by k
-		List<Integer>[] iDominate = new List[solutionSet_.size()];
-
-		// front[i] contains the list of individuals belonging to the front i
-		List<Integer>[] front = new List[solutionSet_.size() + 1];
-
-		// flagDominate is an auxiliar encodings.variable
-		int flagDominate;
-
-		// Initialize the fronts
-		for (int i = 0; i < front.length; i++)
-			front[i] = new LinkedList<Integer>();
-
-		/*
-		 * //-> Fast non dominated sorting algorithm for (int p = 0; p <
-		 * solutionSet_.size(); p++) { // Initialice the list of individuals
-		 * that i dominate and the number // of individuals that dominate me
-		 * iDominate[p] = new LinkedList<Integer>(); dominateMe[p] = 0; // For
-		 * all q individuals , calculate if p dominates q or vice versa for (int
-		 * q = 0; q < solutionSet_.size(); q++) { flagDominate
-		 * =constraint_.compare(solutionSet.get(p),solutionSet.get(q)); if
-		 * (flagDominate == 0) { flagDominate
-		 * =dominance_.compare(solutionSet.get(p),solutionSet.get(q)); }
-		 * 
-		 * if (flagDominate == -1) { iDominate[p].add(new Integer(q)); } else if
-		 * (flagDominate == 1) { dominateMe[p]++; } }
-		 * 
-		 * // If nobody dominates p, p belongs to the first front if
-		 * (dominateMe[p] == 0) { front[0].add(new Integer(p));
-		 * solutionSet.get(p).setRank(0); } }
-		 */
-
-		// -> Fast non dominated sorting algorithm
-		// Contribution of Guillaume Jacquenot
-		for (int p = 0; p < solutionSet_.size(); p++) {
-			// Initialize the list of individuals that i dominate and the number
-			// of individuals that dominate me
-			iDominate[p] = new LinkedList<Integer>();
-			dominateMe[p] = 0;
-		}
-		int NoC = 0;
-		for (int p = 0; p < (solutionSet_.size() - 1); p++) {
-			// For all q individuals , calculate if p dominates q or vice versa
-			for (int q = p + 1; q < solutionSet_.size(); q++) {
-				NoC++;
-				flagDominate = constraint_.compare(solutionSet.get(p),
-						solutionSet.get(q));
-				if (flagDominate == 0) {
-					flagDominate = dominance_.compare(solutionSet.get(p),
-							solutionSet.get(q));
-				}
-				if (flagDominate == -1) {
-					iDominate[p].add(q);
-					dominateMe[q]++;
-				} else if (flagDominate == 1) {
-					iDominate[q].add(p);
-					dominateMe[p]++;
-				}
-			}
-			// If nobody dominates p, p belongs to the first front
+		int size = solutionSet_.size();
+
+		// Feasible solutions first, then infeasible ones by decreasing
+		// overall constraint violation
+		int[] feasible = new int[size];
+		int[] infeasible = new int[size];
+		int numberOfFeasible = 0, numberOfInfeasible = 0;
+		for (int p = 0; p < size; p++) {
+			if (solutionSet_.get(p).getOverallConstraintViolation() < 0)
+				infeasible[numberOfInfeasible++] = p;
+			else
+				feasible[numberOfFeasible++] = p;
 		}
-		for (int p = 0; p < solutionSet_.size(); p++) {
-			if (dominateMe[p] == 0) {
-				front[0].add(p);
-				solutionSet.get(p).setRank(0);
+
+		int[] rank = new int[size];
+		int numberOfFronts = 0;
+		if (numberOfFeasible > 0) {
+			int numberOfObjectives = solutionSet_.get(feasible[0]).getNumberOfObjectives();
+			double[][] objectives = new double[numberOfFeasible][numberOfObjectives];
+			for (int i = 0; i < numberOfFeasible; i++) {
+				Solution solution = solutionSet_.get(feasible[i]);
+				for (int j = 0; j < numberOfObjectives; j++)
+					objectives[i][j] = solution.getObjective(j);
 			}
-		}
 
-		// Obtain the rest of fronts
-		int i = 0;
-		Iterator<Integer> it1, it2; // Iterators
-		while (front[i].size() != 0) {
-			i++;
-			it1 = front[i - 1].iterator();
-			while (it1.hasNext()) {
-				it2 = iDominate[it1.next()].iterator();
-				while (it2.hasNext()) {
-					int index = it2.next();
-					dominateMe[index]--;
-					if (dominateMe[index] == 0) {
-						front[i].add(index);
-						solutionSet_.get(index).setRank(i);
-					}
+			if (engine == null)
+				engine = selectEngine(numberOfFeasible, numberOfObjectives);
+			int[] feasibleRank = new int[numberOfFeasible];
+			numberOfFronts = engine.sort(objectives, numberOfFeasible, feasibleRank);
+			for (int i = 0; i < numberOfFeasible; i++)
+				rank[feasible[i]] = feasibleRank[i];
+		} // if
+
+		if (numberOfInfeasible > 0) {
+			double[] violation = new double[numberOfInfeasible];
+			for (int i = 0; i < numberOfInfeasible; i++)
+				violation[i] = solutionSet_.get(infeasible[i]).getOverallConstraintViolation();
+			double[] sorted = violation.clone();
+			java.util.Arrays.sort(sorted);
+			double[] levels = new double[numberOfInfeasible];
+			int numberOfLevels = 0;
+			for (int i = numberOfInfeasible - 1; i >= 0; i--)
+				if (numberOfLevels == 0 || levels[numberOfLevels - 1] != sorted[i])
+					levels[numberOfLevels++] = sorted[i];
+			// levels[0..numberOfLevels) is in decreasing order
+			for (int i = 0; i < numberOfInfeasible; i++) {
+				int low = 0, high = numberOfLevels - 1;
+				while (levels[low] != violation[i]) {
+					int middle = (low + high) >>> 1;
+					if (levels[middle] > violation[i])
+						low = middle + 1;
+					else
+						high = middle;
 				}
+				rank[infeasible[i]] = numberOfFronts + low;
 			}
-		}
-		// <-
-
-		ranking_ = new SolutionSet[i];
-		// 0,1,2,....,i-1 are front, then i fronts
-		for (int j = 0; j < i; j++) {
-			ranking_[j] = new SolutionSet(front[j].size());
-			it1 = front[j].iterator();
-			while (it1.hasNext()) {
-				ranking_[j].add(solutionSet.get(it1.next()));
-			}
+			numberOfFronts += numberOfLevels;
+		} // if
+
+		int[] frontSize = new int[numberOfFronts];
+		for (int p = 0; p < size; p++) {
+			frontSize[rank[p]]++;
+			solutionSet_.get(p).setRank(rank[p]);
 		}
 
-//		System.out.println(NoC);
+		ranking_ = new SolutionSet[numberOfFronts];
+		for (int j = 0; j < numberOfFronts; j++)
+			ranking_[j] = new SolutionSet(frontSize[j]);
+		for (int p = 0; p < size; p++)
+			ranking_[rank[p]].add(solutionSet_.get(p));
 	} // Ranking
 
+	/**
+	 * Chooses a non-dominated sorting engine for a problem size: a sweep for
+	 * two objectives, divide-and-conquer for large sets with few objectives,
+	 * and ENS with sequential search otherwise (ENS-BS only pays off when
+	 * there are many fronts, and can be passed explicitly).
+	 * 
+	 * @param size
+	 *            Number of solutions to sort.
+	 * @param numberOfObjectives
+	 *            Number of objectives.
+	 * @return A new engine.
+	 */
+	public static INonDominatedSorting selectEngine(int size, int numberOfObjectives) {
+		if (numberOfObjectives == 2)
+			return new TwoObjectiveNonDominatedSorting();
+		if (numberOfObjectives <= 4 && size >= 10000)
+			return new DivideAndConquerNonDominatedSorting();
+		return new ENSNonDominatedSorting(false);
+	} // selectEngine
+
 	/**
 	 * Returns a <code>SolutionSet</code> containing the solutions of a given
 	 * rank.
@@ -0,0 +1,75 @@
+//  SolutionPool.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util;
+
+import jmetal.core.Solution;
+
+/**
+ * A free list of solutions of the same problem. An algorithm which replaces
+ * members of its population by copies of an offspring can give the replaced
+ * solutions back to the pool; the next copies are then written into them
+ * (with <code>Solution.copy</code>) instead of being allocated.
+ * <p>
+ * A solution must only be released when nothing else refers to it.
+ */
+public class SolutionPool {
+  private Solution[] free_ ;
+  private int size_ ;
+
+  /**
+   * Constructor
+   * @param capacity Initial capacity (the pool grows when needed)
+   */
+  public SolutionPool(int capacity) {
+    free_ = new Solution[Math.max(capacity, 1)] ;
+    size_ = 0 ;
+  } // SolutionPool
+
+  /**
+   * Returns a copy of a solution, written into a released solution when
+   * there is one
+   * @param solution The solution to copy
+   */
+  public Solution copyOf(Solution solution) {
+    if (size_ == 0)
+      return new Solution(solution) ;
+
+    Solution copy = free_[--size_] ;
+    free_[size_] = null ;
+    copy.copy(solution) ;
+    return copy ;
+  } // copyOf
+
+  /**
+   * Gives a solution back to the pool
+   * @param solution A solution which is no longer used
+   */
+  public void release(Solution solution) {
+    if (size_ == free_.length) {
+      Solution[] free = new Solution[2 * free_.length] ;
+      System.arraycopy(free_, 0, free, 0, size_) ;
+      free_ = free ;
+    } // if
+    free_[size_++] = solution ;
+  } // release
+
+  /**
+   * Returns the number of released solutions waiting to be reused
+   */
+  public int size() {
+    return size_ ;
+  } // size
+} // SolutionPool
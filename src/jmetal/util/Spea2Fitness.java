@@ -22,7 +22,7 @@
 package jmetal.util;
 
 import jmetal.core.SolutionSet;
-import jmetal.util.comparators.DominanceComparator;
+import jmetal.util.comparators.DominanceKernel;
 import jmetal.util.comparators.FitnessComparator;
 
 import java.util.*;
@@ -52,11 +52,6 @@ public class Spea2Fitness {
    */
   private static final Comparator distanceNodeComparator = new DistanceNodeComparator();      
   
-  /**
-   * stores a <code>Comparator</code> for dominance checking
-   */
-  private static final Comparator dominance_ = new DominanceComparator();
-  
   /** 
    * Constructor.
    * Creates a new instance of Spea2Fitness for a given <code>SolutionSet</code>.
@@ -78,13 +73,14 @@ public class Spea2Fitness {
     double [] strength    = new double[solutionSet_.size()];
     double [] rawFitness  = new double[solutionSet_.size()];
     double kDistance                                          ;
+    DominanceKernel dominance = new DominanceKernel(solutionSet_);
   
     
     //Calculate the strength value
     // strength(i) = |{j | j <- SolutionSet and i dominate j}|
     for (int i = 0; i < solutionSet_.size(); i++) {
       for (int j = 0; j < solutionSet_.size();j++) {
-        if (dominance_.compare(solutionSet_.get(i),solutionSet_.get(j))==-1) {
+        if (dominance.compare(i,j)==-1) {
           strength[i] += 1.0;
         } // if        
       } // for
@@ -95,7 +91,7 @@ public class Spea2Fitness {
     // rawFitness(i) = |{sum strenght(j) | j <- SolutionSet and j dominate i}|
     for (int i = 0;i < solutionSet_.size(); i++) {
       for (int j = 0; j < solutionSet_.size();j++) {
-        if (dominance_.compare(solutionSet_.get(i),solutionSet_.get(j))==1) {
+        if (dominance.compare(i,j)==1) {
           rawFitness[i] += strength[j];
         } // if
       } // for
@@ -0,0 +1,259 @@
+//  ConcurrentCrowdingArchive.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.archive;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.Distance;
+import jmetal.util.comparators.CrowdingDistanceComparator;
+import jmetal.util.comparators.DominanceComparator;
+import jmetal.util.comparators.EqualSolutions;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded archive based on crowding distances, like
+ * <code>CrowdingArchive</code>, which can be fed by several threads.
+ * <p>
+ * <code>add</code> first filters the solution against the last published
+ * snapshot of the archive without locking: a solution dominated by (or equal
+ * to) a member is discarded at once. The survivors are queued, and the queue
+ * is merged into the archive by whichever producer gets the lock, so a
+ * producer never waits for another one. After each merge an immutable
+ * snapshot is published for the readers.
+ * <p>
+ * The crowding truncation is lazy: the archive may grow up to a threshold
+ * (twice the maximum size by default), and then the most crowded members are
+ * removed at once, after a single crowding distance assignment, until the
+ * maximum size is reached. With a threshold equal to the maximum size and a
+ * single producer, the contents are those of a <code>CrowdingArchive</code>
+ * fed with the same solutions.
+ * <p>
+ * The archive keeps the solutions it is given, so a producer must not modify
+ * them afterwards.
+ */
+public class ConcurrentCrowdingArchive {
+
+  /**
+   * Stores the maximum size of the archive.
+   */
+  private final int maxSize_;
+
+  /**
+   * Size above which the archive is truncated to <code>maxSize_</code>
+   */
+  private final int threshold_;
+
+  /**
+   * stores the number of the objectives.
+   */
+  private final int objectives_;
+
+  private final Comparator dominance_;
+  private final Comparator equals_;
+  private final Comparator crowdingDistance_;
+  private final Distance   distance_;
+
+  /**
+   * Members of the archive; guarded by <code>lock_</code>
+   */
+  private final Archive members_;
+  private final ReentrantLock lock_;
+
+  /**
+   * Solutions which passed the snapshot filter and wait for a merge
+   */
+  private final ConcurrentLinkedQueue<Solution> pending_;
+
+  /**
+   * Copy of the members after the last merge; never modified once published
+   */
+  private volatile SolutionSet snapshot_;
+
+  /**
+   * Constructor. The archive is truncated when it exceeds twice its
+   * maximum size.
+   * @param maxSize The maximum size of the archive.
+   * @param numberOfObjectives The number of objectives.
+   */
+  public ConcurrentCrowdingArchive(int maxSize, int numberOfObjectives) {
+    this(maxSize, numberOfObjectives, 2 * maxSize);
+  } // ConcurrentCrowdingArchive
+
+  /**
+   * Constructor.
+   * @param maxSize The maximum size of the archive.
+   * @param numberOfObjectives The number of objectives.
+   * @param threshold Size above which the crowding truncation runs (at least
+   * maxSize).
+   */
+  public ConcurrentCrowdingArchive(int maxSize, int numberOfObjectives,
+                                   int threshold) {
+    maxSize_          = maxSize;
+    threshold_        = Math.max(threshold, maxSize);
+    objectives_       = numberOfObjectives;
+    dominance_        = new DominanceComparator();
+    equals_           = new EqualSolutions();
+    crowdingDistance_ = new CrowdingDistanceComparator();
+    distance_         = new Distance();
+    members_          = new Archive(threshold_ + 1);
+    lock_             = new ReentrantLock();
+    pending_          = new ConcurrentLinkedQueue<Solution>();
+    snapshot_         = new SolutionSet(0);
+  } // ConcurrentCrowdingArchive
+
+  /**
+   * Offers a <code>Solution</code> to the archive; it can be called by
+   * several threads at the same time.
+   * @param solution The <code>Solution</code>
+   * @return false if the <code>Solution</code> is dominated by, or equal to, a
+   * member of the last snapshot; true if it has been queued for the next merge
+   * (which may still discard it).
+   */
+  public boolean add(Solution solution) {
+    SolutionSet snapshot = snapshot_;
+    for (int i = 0; i < snapshot.size(); i++) {
+      Solution aux = snapshot.get(i);
+      if ((dominance_.compare(solution, aux) == 1) ||
+          (equals_.compare(aux, solution) == 0))
+        return false;
+    } // for
+
+    pending_.add(solution);
+    // A solution queued while the merger is releasing the lock would wait
+    // for the next add, so the queue is checked again after unlocking
+    while (!pending_.isEmpty() && lock_.tryLock()) {
+      try {
+        merge(threshold_);
+      } finally {
+        lock_.unlock();
+      }
+    } // while
+    return true;
+  } // add
+
+  /**
+   * Merges the queued solutions, truncates the archive to its maximum size
+   * and returns it. The returned set must not be modified.
+   */
+  public SolutionSet getArchive() {
+    lock_.lock();
+    try {
+      merge(maxSize_);
+    } finally {
+      lock_.unlock();
+    }
+    return snapshot_;
+  } // getArchive
+
+  /**
+   * Returns the members at the last merge, without waiting for anything. It
+   * may hold up to <code>threshold</code> solutions, and it must not be
+   * modified.
+   */
+  public SolutionSet getSnapshot() {
+    return snapshot_;
+  } // getSnapshot
+
+  /**
+   * Returns the number of solutions of the last snapshot
+   */
+  public int size() {
+    return snapshot_.size();
+  } // size
+
+  public int getMaxSize() {
+    return maxSize_;
+  } // getMaxSize
+
+  /**
+   * Inserts the queued solutions, truncates the archive to maxSize_ if it has
+   * more than <code>limit</code> members, and publishes a new snapshot.
+   * Must be called holding lock_.
+   */
+  private void merge(int limit) {
+    boolean changed = false;
+    Solution solution;
+    while ((solution = pending_.poll()) != null) {
+      if (insert(solution)) {
+        changed = true;
+        if (members_.size() > threshold_)
+          truncate();
+      } // if
+    } // while
+    if (members_.size() > limit) {
+      truncate();
+      changed = true;
+    } // if
+
+    if (changed) {
+      SolutionSet snapshot = new SolutionSet(members_.size());
+      for (int i = 0; i < members_.size(); i++)
+        snapshot.add(members_.get(i));
+      snapshot_ = snapshot;
+    } // if
+  } // merge
+
+  /**
+   * Dominance filter of <code>CrowdingArchive.add</code>, without the
+   * truncation
+   */
+  private boolean insert(Solution solution) {
+    int flag = 0;
+    int i = 0;
+    Solution aux; //Store an solution temporally
+    while (i < members_.size()){
+      aux = members_.get(i);
+
+      flag = dominance_.compare(solution,aux);
+      if (flag == 1) {               // The solution to add is dominated
+        return false;                // Discard the new solution
+      } else if (flag == -1) {       // A solution in the archive is dominated
+        members_.remove(i);          // Remove it from the population
+      } else {
+          if (equals_.compare(aux,solution)==0) { // There is an equal solution
+        	                                      // in the population
+            return false; // Discard the new solution
+          }  // if
+          i++;
+      }
+    }
+    members_.add(solution);
+    return true;
+  } // insert
+
+  /**
+   * Removes the most crowded members until maxSize_ remain. A single excess
+   * member is removed as in <code>CrowdingArchive</code>; a batch is removed
+   * after a single crowding distance assignment, as the last front of NSGA-II
+   */
+  private void truncate() {
+    int excess = members_.size() - maxSize_;
+    if (excess <= 0)
+      return;
+
+    distance_.crowdingDistanceAssignment(members_,objectives_);
+    if (excess == 1) {
+      members_.remove(members_.indexWorst(crowdingDistance_));
+    } else {
+      members_.sort(crowdingDistance_);
+      for (int i = 0; i < excess; i++)
+        members_.remove(members_.size() - 1);
+    } // else
+  } // truncate
+} // ConcurrentCrowdingArchive
@@ -21,17 +21,18 @@
 package jmetal.util.archive;
 
 import jmetal.core.Solution;
-import jmetal.qualityIndicator.util.MetricsUtil;
-import jmetal.util.Distance;
-import jmetal.util.comparators.CrowdingDistanceComparator;
+import jmetal.qualityIndicator.fastHypervolume.IncrementalHVContributions;
 import jmetal.util.comparators.DominanceComparator;
 import jmetal.util.comparators.EqualSolutions;
 
 import java.util.Comparator;
 
 /**
- * This class implements a bounded archive based on crowding distances (as
- * defined in NSGA-II).
+ * This class implements a bounded archive based on the hypervolume
+ * contributions of its solutions: when it overflows, the solution
+ * contributing the least is removed. The contributions are kept up to date by
+ * an <code>IncrementalHVContributions</code> object, so only the solutions
+ * affected by an insertion or a removal are recomputed.
  */
 public class HypervolumeArchive extends Archive {
   
@@ -56,15 +57,12 @@ public class HypervolumeArchive extends Archive {
    */
   private Comparator equals_; 
   
+  private double      offset_ ;
+
   /**
-   * Stores a <code>Distance</code> object, for distances utilities
+   * Hypervolume contributions of the solutions, in the order of the archive
    */
-  private Distance distance_; 
-      
-  private MetricsUtil utils_ ;
-  
-  private double      offset_ ;
-  private Comparator crowdingDistance_; 
+  private IncrementalHVContributions contributions_ ;
 
   /**
    * Constructor. 
@@ -77,12 +75,10 @@ public class HypervolumeArchive extends Archive {
     objectives_       = numberOfObjectives;        
     dominance_        = new DominanceComparator();
     equals_           = new EqualSolutions();
-    distance_         = new Distance();
-    utils_            = new MetricsUtil() ;
     offset_           = 100 ;
-    crowdingDistance_ = new CrowdingDistanceComparator();
-
-  } // CrowdingArchive
+    contributions_    = new IncrementalHVContributions(objectives_, maxSize + 1,
+                                                       offset_, false) ;
+  } // HypervolumeArchive
     
   
   /**
@@ -90,8 +86,9 @@ public class HypervolumeArchive extends Archive {
    * is dominated by any member of the archive, then it is discarded. If the 
    * <code>Solution</code> dominates some members of the archive, these are
    * removed. If the archive is full and the <code>Solution</code> has to be
-   * inserted, the solutions are sorted by crowding distance and the one having
-   * the minimum crowding distance value.
+   * inserted, the solution contributing the least to the hypervolume of the
+   * archive is removed. The reference point is the maximum of each objective
+   * plus an offset.
    * @param solution The <code>Solution</code>
    * @return true if the <code>Solution</code> has been inserted, false 
    * otherwise.
@@ -108,7 +105,7 @@ public class HypervolumeArchive extends Archive {
       if (flag == 1) {               // The solution to add is dominated
         return false;                // Discard the new solution
       } else if (flag == -1) {       // A solution in the archive is dominated
-        solutionsList_.remove(i);    // Remove it from the population            
+        remove(i);                   // Remove it from the population
       } else {
           if (equals_.compare(aux,solution)==0) { // There is an equal solution 
                                                   // in the population
@@ -119,77 +116,65 @@ public class HypervolumeArchive extends Archive {
     }
     // Insert the solution into the archive
     solutionsList_.add(solution);        
+    contributions_.add(objectives(solution));
     if (size() > maxSize_) { // The archive is full
-      double[][] frontValues = this.writeObjectivesToMatrix();
-      int numberOfObjectives = objectives_;
-      // STEP 1. Obtain the maximum and minimum values of the Pareto front
-      double[] maximumValues = utils_.getMaximumValues(this.writeObjectivesToMatrix(), numberOfObjectives);
-      double[] minimumValues = utils_.getMinimumValues(this.writeObjectivesToMatrix(), numberOfObjectives);
-      // STEP 2. Get the normalized front
-      double[][] normalizedFront = utils_.getNormalizedFront(frontValues, maximumValues, minimumValues);
-      // compute offsets for reference point in normalized space
-      double[] offsets = new double[maximumValues.length];
-      for (i = 0; i < maximumValues.length; i++) {
-        offsets[i] = offset_ / (maximumValues[i] - minimumValues[i]);
-      }
-      // STEP 3. Inverse the pareto front. This is needed because the original
-      //metric by Zitzler is for maximization problems
-      double[][] invertedFront = utils_.invertedFront(normalizedFront);
-      // shift away from origin, so that boundary points also get a contribution > 0
-      for (double[] point : invertedFront) {
-        for (i = 0; i < point.length; i++) {
-          point[i] += offsets[i];
-        }
-      }
+      remove(contributions_.leastContributor());
+    }
+    return true;
+  } // add
+  
+  /**
+   * Deletes the <code>Solution</code> at position i in the archive.
+   * @param i The position of the solution to remove.
+   */
+  public void remove(int i) {
+    super.remove(i);
+    contributions_.remove(i);
+  } // remove
 
-      // calculate contributions and sort
-      double[] contributions = utils_.hvContributions(objectives_, invertedFront);
-      for (i = 0; i < contributions.length; i++) {
-        // contribution values are used analogously to crowding distance
-        this.get(i).setCrowdingDistance(contributions[i]);
-      }
+  /**
+   * Empties the archive
+   */
+  public void clear() {
+    super.clear();
+    contributions_.clear();
+  } // clear
 
-      this.sort(new CrowdingDistanceComparator());
+  /**
+   * Sorts the archive using a <code>Comparator</code>
+   * @param comparator <code>Comparator</code> used to sort.
+   */
+  public void sort(Comparator comparator) {
+    super.sort(comparator);
+    rebuildContributions();
+  } // sort
 
-      //remove(indexWorst(crowdingDistance_));
-      remove(size()-1);
-    }
+  /**
+   * Inserts a solution at a given position, without dominance checking
+   */
+  public boolean add(int index, Solution solution) {
+    super.add(index, solution);
+    rebuildContributions();
     return true;
   } // add
-  
-     
+
+  /**
+   * Replaces a solution by a new one, without dominance checking
+   */
+  public void replace(int position, Solution solution) {
+    super.replace(position, solution);
+    rebuildContributions();
+  } // replace
+
   /**
-   * This method forces to compute the contribution of each solution (required for PAEShv)
+   * This method forces to compute the contribution of each solution (required for PAEShv).
+   * The contributions are stored as crowding distances.
    */
   public void actualiseHVContribution() {
 	  if (size() > 2) { // The contribution can be updated
-	      double[][] frontValues = this.writeObjectivesToMatrix();
-	      int numberOfObjectives = objectives_;
-	      // STEP 1. Obtain the maximum and minimum values of the Pareto front
-	      double[] maximumValues = utils_.getMaximumValues(this.writeObjectivesToMatrix(), numberOfObjectives);
-	      double[] minimumValues = utils_.getMinimumValues(this.writeObjectivesToMatrix(), numberOfObjectives);
-	      // STEP 2. Get the normalized front
-	      double[][] normalizedFront = utils_.getNormalizedFront(frontValues, maximumValues, minimumValues);
-	      // compute offsets for reference point in normalized space
-	      double[] offsets = new double[maximumValues.length];
-	      for (int i = 0; i < maximumValues.length; i++) {
-	        offsets[i] = offset_ / (maximumValues[i] - minimumValues[i]);
-	      }
-	      // STEP 3. Inverse the pareto front. This is needed because the original
-	      //metric by Zitzler is for maximization problems
-	      double[][] invertedFront = utils_.invertedFront(normalizedFront);
-	      // shift away from origin, so that boundary points also get a contribution > 0
-	      for (double[] point : invertedFront) {
-	        for (int i = 0; i < point.length; i++) {
-	          point[i] += offsets[i];
-	        }
-	      }
-
-	      // calculate contributions and sort
-	      double[] contributions = utils_.hvContributions(objectives_, invertedFront);
-	      for (int i = 0; i < contributions.length; i++) {
+	      for (int i = 0; i < size(); i++) {
 	        // contribution values are used analogously to crowding distance
-	        this.get(i).setCrowdingDistance(contributions[i]);
+	        this.get(i).setCrowdingDistance(contributions_.getContribution(i));
 	      }	     	    	      
 	    }	  
   } // computeHVContribution
@@ -211,5 +196,18 @@ public class HypervolumeArchive extends Archive {
 	  }
 	  return location;
   }
+
+  private void rebuildContributions() {
+    contributions_.clear();
+    for (Solution solution : solutionsList_)
+      contributions_.add(objectives(solution));
+  } // rebuildContributions
+
+  private double[] objectives(Solution solution) {
+    double[] point = new double[objectives_];
+    for (int i = 0; i < objectives_; i++)
+      point[i] = solution.getObjective(i);
+    return point;
+  } // objectives
   
 } // HypervolumeArchive
@@ -23,6 +23,7 @@ package jmetal.util.archive;
 
 import jmetal.core.Solution;
 import jmetal.qualityIndicator.R2;
+import jmetal.qualityIndicator.R2Contributions;
 import jmetal.util.PseudoRandom;
 import jmetal.util.comparators.CrowdingDistanceComparator;
 import jmetal.util.comparators.DominanceComparator;
@@ -62,6 +63,11 @@ public class R2Archive extends Archive {
   
   private R2 r2Indicator_; 
 
+  /**
+   * R2 contributions of the solutions, in the order of the archive
+   */
+  private R2Contributions contributions_;
+
   /**
    * Constructor. Creates an R2Archive for a problem of 2 objectives
    * @param maxSize The maximum size of the archive.
@@ -75,6 +81,7 @@ public class R2Archive extends Archive {
     equals_           = new EqualSolutions();
     crowdingDistance_ = new CrowdingDistanceComparator();
     r2Indicator_       = new R2();
+    contributions_    = r2Indicator_.getContributions(maxSize + 1);
 
   } // CrowdingArchive
     
@@ -93,6 +100,7 @@ public class R2Archive extends Archive {
     equals_           = new EqualSolutions();
     crowdingDistance_ = new CrowdingDistanceComparator();
     r2Indicator_      = new R2(numberOfObjectives,file);
+    contributions_    = r2Indicator_.getContributions(maxSize + 1);
 
   } // CrowdingArchive
 
@@ -120,7 +128,7 @@ public class R2Archive extends Archive {
       if (flag == 1) {               // The solution to add is dominated
         return false;                // Discard the new solution
       } else if (flag == -1) {       // A solution in the archive is dominated
-        solutionsList_.remove(i);    // Remove it from the population            
+        remove(i);                   // Remove it from the population
       } else {
           if (equals_.compare(aux,solution)==0) { // There is an equal solution 
                                                   // in the population
@@ -131,13 +139,56 @@ public class R2Archive extends Archive {
     }
     // Insert the solution into the archive
     solutionsList_.add(solution);        
+    contributions_.add(objectives(solution));
     if (size() > maxSize_) { // The archive is full
       // Removing the one contributing the less
-      int indexWorst = this.r2Indicator_.getWorst(this);
-      remove(indexWorst);
+      remove(contributions_.leastContributor());
     }        
     return true;
   } // add
+
+  /**
+   * Deletes the <code>Solution</code> at position i in the archive.
+   * @param i The position of the solution to remove.
+   */
+  public void remove(int i) {
+    super.remove(i);
+    contributions_.remove(i);
+  } // remove
+
+  /**
+   * Empties the archive
+   */
+  public void clear() {
+    super.clear();
+    contributions_.clear();
+  } // clear
+
+  /**
+   * Sorts the archive using a <code>Comparator</code>
+   * @param comparator <code>Comparator</code> used to sort.
+   */
+  public void sort(Comparator comparator) {
+    super.sort(comparator);
+    rebuildContributions();
+  } // sort
+
+  /**
+   * Inserts a solution at a given position, without dominance checking
+   */
+  public boolean add(int index, Solution solution) {
+    super.add(index, solution);
+    rebuildContributions();
+    return true;
+  } // add
+
+  /**
+   * Replaces a solution by a new one, without dominance checking
+   */
+  public void replace(int position, Solution solution) {
+    super.replace(position, solution);
+    rebuildContributions();
+  } // replace
   
   
   /**
@@ -149,17 +200,27 @@ public class R2Archive extends Archive {
       int index1, index2;
       index1 = PseudoRandom.randInt(0, size()-1);
       index2 = PseudoRandom.randInt(0, size()-1);
-      double aux1 = this.r2Indicator_.R2Without(this, index1) ;
-      double aux2 = this.r2Indicator_.R2Without(this,index2) ;
+      double aux1 = contributions_.getContribution(index1) ;
+      double aux2 = contributions_.getContribution(index2) ;
       
-      if (aux1 > aux2) { // means that index1 contributed less than index2          
+      if (aux1 > aux2) { // means that index1 contributed more than index2
           return this.get(index1);
       } else {          
           return this.get(index2);
       }
   }
+
+  private void rebuildContributions() {
+    contributions_.clear();
+    for (Solution solution : solutionsList_)
+      contributions_.add(objectives(solution));
+  } // rebuildContributions
+
+  private double[] objectives(Solution solution) {
+    double[] point = new double[objectives_];
+    for (int i = 0; i < objectives_; i++)
+      point[i] = solution.getObjective(i);
+    return point;
+  } // objectives
           
-  
-  
-  
 } // R2Archive
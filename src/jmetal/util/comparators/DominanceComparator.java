@@ -32,6 +32,13 @@ import java.util.Comparator;
  */
 public class DominanceComparator implements Comparator {
   IConstraintViolationComparator violationConstraintComparator_ ;
+
+  /**
+   * True if the constraints are handled by an
+   * <code>OverallConstraintViolationComparator</code>, so that the whole
+   * test can be done by <code>DominanceKernel</code>
+   */
+  private final boolean overallViolation_ ;
  
   /**
    * Constructor
@@ -39,6 +46,7 @@ public class DominanceComparator implements Comparator {
   public DominanceComparator() {
     violationConstraintComparator_ = new OverallConstraintViolationComparator(); 
     //violationConstraintComparator_ = new NumberOfViolatedConstraintComparator(); 
+    overallViolation_ = true ;
   }
 
   /**
@@ -47,6 +55,8 @@ public class DominanceComparator implements Comparator {
    */
   public DominanceComparator(IConstraintViolationComparator comparator) {
     violationConstraintComparator_ = comparator ;
+    overallViolation_ = (comparator != null) &&
+      (comparator.getClass() == OverallConstraintViolationComparator.class) ;
   }
  
  /**
@@ -65,6 +75,17 @@ public class DominanceComparator implements Comparator {
     Solution solution1 = (Solution)object1;
     Solution solution2 = (Solution)object2;
 
+    // Objective arrays are compared directly when both solutions have them
+    double[] objectives1 = solution1.getObjectives() ;
+    double[] objectives2 = solution2.getObjectives() ;
+    boolean rows = (objectives1 != null) && (objectives2 != null) &&
+      (objectives1.length <= objectives2.length) ;
+    if (overallViolation_ && rows)
+      return DominanceKernel.compare(objectives1,
+                                     solution1.getOverallConstraintViolation(),
+                                     objectives2,
+                                     solution2.getOverallConstraintViolation()) ;
+
     int dominate1 ; // dominate1 indicates if some objective of solution1 
                     // dominates the same objective in solution2. dominate2
     int dominate2 ; // is the complementary of dominate1.
@@ -87,6 +108,9 @@ public class DominanceComparator implements Comparator {
    */
     
     // Equal number of violated constraints. Applying a dominance Test then
+    if (rows)
+      return DominanceKernel.compare(objectives1, objectives2) ;
+
     double value1, value2;
     for (int i = 0; i < solution1.getNumberOfObjectives(); i++) {
       value1 = solution1.getObjective(i);
@@ -0,0 +1,193 @@
+//  DominanceKernel.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.comparators;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+
+/**
+ * Constraint-aware dominance test on primitive objective rows. It gives the
+ * same result as a <code>DominanceComparator</code> using an
+ * <code>OverallConstraintViolationComparator</code>: if some solution has a
+ * negative overall constraint violation, the violations decide; otherwise
+ * the objectives are compared (minimization).
+ * <p>
+ * The static methods work on objective arrays and violation values; the
+ * Pareto test stops as soon as each row is better in some objective, and has
+ * separate code for 2, 3 and any number of objectives. An instance takes a
+ * snapshot of a <code>SolutionSet</code> (objective rows and feasibility
+ * flags) so that loops comparing every pair of solutions do not go through
+ * <code>Solution</code> accessors.
+ */
+public class DominanceKernel {
+
+  private final double[][] objectives_;
+  private final double[] violation_;
+  private final boolean[] infeasible_;
+
+  /**
+   * Constructor
+   * @param solutionSet The solutions; their objectives and violations are
+   * read once, so later changes of the solutions are not seen.
+   */
+  public DominanceKernel(SolutionSet solutionSet) {
+    int size = solutionSet.size();
+    objectives_ = new double[size][];
+    violation_ = new double[size];
+    infeasible_ = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      Solution solution = solutionSet.get(i);
+      objectives_[i] = solution.getObjectives();
+      violation_[i] = solution.getOverallConstraintViolation();
+      infeasible_[i] = violation_[i] < 0;
+    }
+  } // DominanceKernel
+
+  public int size() {
+    return objectives_.length;
+  } // size
+
+  /**
+   * Compares the solutions i and j of the snapshot.
+   * @return -1, 0 or 1 if i dominates j, both are non-dominated, or j
+   * dominates i, respectively.
+   */
+  public int compare(int i, int j) {
+    if (infeasible_[i] || infeasible_[j])
+      return compareViolation(violation_[i], violation_[j]);
+    return compare(objectives_[i], objectives_[j]);
+  } // compare
+
+  /**
+   * Compares two solutions as <code>DominanceComparator</code> does with its
+   * default constraint handling.
+   */
+  public static int compare(Solution solution1, Solution solution2) {
+    return compare(solution1.getObjectives(), solution1.getOverallConstraintViolation(),
+                   solution2.getObjectives(), solution2.getOverallConstraintViolation());
+  } // compare
+
+  /**
+   * Compares two objective rows having the given overall constraint
+   * violations.
+   * @return -1, 0 or 1 if a dominates b, both are non-dominated, or b
+   * dominates a, respectively.
+   */
+  public static int compare(double[] a, double violationA,
+                            double[] b, double violationB) {
+    if (violationA < 0 || violationB < 0)
+      return compareViolation(violationA, violationB);
+    return compare(a, b);
+  } // compare
+
+  /**
+   * Pareto dominance test (minimization).
+   * @return -1, 0 or 1 if a dominates b, both are non-dominated (or equal),
+   * or b dominates a, respectively.
+   */
+  public static int compare(double[] a, double[] b) {
+    switch (a.length) {
+      case 2:
+        return compare2(a, b);
+      case 3:
+        return compare3(a, b);
+      default:
+        return compareM(a, b);
+    }
+  } // compare
+
+  /**
+   * Returns true if a dominates b
+   */
+  public static boolean dominates(double[] a, double[] b) {
+    boolean better = false;
+    for (int i = 0; i < a.length; i++) {
+      if (a[i] > b[i])
+        return false;
+      if (a[i] < b[i])
+        better = true;
+    }
+    return better;
+  } // dominates
+
+  /**
+   * Same result as <code>OverallConstraintViolationComparator</code>: the
+   * smaller violation (in absolute value) is better, and a feasible
+   * solution (violation 0) beats an infeasible one.
+   */
+  static int compareViolation(double violation1, double violation2) {
+    if (violation1 < 0 && violation2 < 0) {
+      if (violation1 > violation2)
+        return -1;
+      return (violation2 > violation1) ? 1 : 0;
+    }
+    if (violation1 == 0 && violation2 < 0)
+      return -1;
+    if (violation1 < 0 && violation2 == 0)
+      return 1;
+    return 0;
+  } // compareViolation
+
+  private static int compare2(double[] a, double[] b) {
+    double a0 = a[0], b0 = b[0], a1 = a[1], b1 = b[1];
+    if (a0 < b0)
+      return (a1 > b1) ? 0 : -1;
+    if (a0 > b0)
+      return (a1 < b1) ? 0 : 1;
+    if (a1 < b1)
+      return -1;
+    return (a1 > b1) ? 1 : 0;
+  } // compare2
+
+  private static int compare3(double[] a, double[] b) {
+    boolean better = a[0] < b[0];
+    boolean worse = a[0] > b[0];
+    if (a[1] < b[1]) {
+      if (worse)
+        return 0;
+      better = true;
+    } else if (a[1] > b[1]) {
+      if (better)
+        return 0;
+      worse = true;
+    }
+    if (a[2] < b[2])
+      return worse ? 0 : -1;
+    if (a[2] > b[2])
+      return better ? 0 : 1;
+    if (better)
+      return -1;
+    return worse ? 1 : 0;
+  } // compare3
+
+  private static int compareM(double[] a, double[] b) {
+    boolean better = false, worse = false;
+    for (int i = 0; i < a.length; i++) {
+      if (a[i] < b[i]) {
+        if (worse)
+          return 0;
+        better = true;
+      } else if (a[i] > b[i]) {
+        if (better)
+          return 0;
+        worse = true;
+      }
+    }
+    if (better)
+      return -1;
+    return worse ? 1 : 0;
+  } // compareM
+} // DominanceKernel
@@ -0,0 +1,53 @@
+//  AdaptivePursuitSelection.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.offspring;
+
+/**
+ * Adaptive pursuit (Thierens, GECCO 2005): the quality estimates are those of
+ * probability matching, but the probabilities pursue the best operator,
+ * p_i <- p_i + beta (pMax - p_i) for it and p_i + beta (pMin - p_i) for the
+ * others, with pMax = 1 - (K - 1) pMin.
+ */
+public class AdaptivePursuitSelection extends ProbabilityMatchingSelection {
+  private final double beta_ ;
+  private final double pMax_ ;
+
+  /**
+   * Constructor
+   * @param numberOfOperators Number of operators (K)
+   * @param pMin Minimum probability of an operator (lower than 1 / K)
+   * @param alpha Adaptation rate of the quality estimates
+   * @param beta Learning rate of the probabilities
+   */
+  public AdaptivePursuitSelection(int numberOfOperators, double pMin,
+      double alpha, double beta) {
+    super(numberOfOperators, pMin, alpha) ;
+    beta_ = beta ;
+    pMax_ = 1 - (numberOfOperators - 1) * pMin ;
+  } // AdaptivePursuitSelection
+
+  protected void updateProbabilities() {
+    int best = 0 ;
+    for (int i = 1; i < numberOfOperators_; i++)
+      if (quality_[i] > quality_[best])
+        best = i ;
+
+    for (int i = 0; i < numberOfOperators_; i++) {
+      double target = (i == best) ? pMax_ : pMin_ ;
+      probability_[i] += beta_ * (target - probability_[i]) ;
+    } // for
+  } // updateProbabilities
+} // AdaptivePursuitSelection
@@ -0,0 +1,128 @@
+//  FRRMABSelection.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.offspring;
+
+import jmetal.util.JMException;
+import jmetal.util.snapshot.CheckpointInput;
+import jmetal.util.snapshot.CheckpointOutput;
+import jmetal.util.snapshot.Checkpointable;
+
+/**
+ * Fitness-Rate-Rank-based Multi-Armed Bandit (Li, Fialho, Kwong, Zhang, IEEE
+ * TEVC 2014), as in <code>AdaptiveModule.FRRMAB</code>: the credit of an
+ * operator is its decayed share of the rewards in a sliding window of the
+ * last W applications, and the operator maximizing
+ * credit + C * sqrt(2 ln(n) / n_i) is chosen, n_i being its number of
+ * applications in the window. An operator absent from the window is chosen
+ * first.
+ */
+public class FRRMABSelection extends OperatorSelection
+    implements Checkpointable {
+  private final double scale_ ;
+
+  private final RewardWindow window_ ;
+  private final double[] windowReward_ ; // Rewards in the window
+  private final int[]    windowUsage_ ;  // Applications in the window
+  private final double[] decayReward_ ;  // Credits of the operators
+  private final double[] quality_ ;
+
+  /**
+   * Constructor
+   * @param numberOfOperators Number of operators (K)
+   * @param windowSize Size of the sliding window (W)
+   * @param decayFactor Decay factor of the credit assignment (D)
+   * @param scale Scale factor of the exploration term (C)
+   */
+  public FRRMABSelection(int numberOfOperators, int windowSize,
+      double decayFactor, double scale) {
+    super(numberOfOperators) ;
+    scale_        = scale ;
+    window_       = new RewardWindow(windowSize, numberOfOperators, decayFactor) ;
+    windowReward_ = new double[numberOfOperators] ;
+    windowUsage_  = new int[numberOfOperators] ;
+    decayReward_  = new double[numberOfOperators] ;
+    quality_      = new double[numberOfOperators] ;
+  } // FRRMABSelection
+
+  public int select() {
+    int unused = firstUnused(windowUsage_) ;
+    if (unused >= 0)
+      return unused ;
+
+    int totalUsage = 0 ;
+    for (int i = 0; i < numberOfOperators_; i++)
+      totalUsage += windowUsage_[i] ;
+
+    int best = 0 ;
+    for (int i = 0; i < numberOfOperators_; i++) {
+      quality_[i] = decayReward_[i] + scale_ *
+        Math.sqrt(2 * Math.log(totalUsage) / windowUsage_[i]) ;
+      if (quality_[i] > quality_[best])
+        best = i ;
+    } // for
+    return best ;
+  } // select
+
+  public void update(int operator, double reward) {
+    super.update(operator, reward) ;
+    window_.add(operator, reward) ;
+    window_.getRewards(windowReward_, windowUsage_) ;
+    window_.creditAssignment(decayReward_, null) ;
+  } // update
+
+  public void reset() {
+    super.reset() ;
+    window_.clear() ;
+    window_.getRewards(windowReward_, windowUsage_) ;
+    window_.creditAssignment(decayReward_, null) ;
+  } // reset
+
+  /**
+   * Saves the statistics, the sliding window and the credits
+   */
+  public void writeState(CheckpointOutput out) throws JMException {
+    out.putInts(applications_) ;
+    out.putDoubles(rewards_) ;
+    window_.writeState(out) ;
+    out.putDoubles(windowReward_) ;
+    out.putInts(windowUsage_) ;
+    out.putDoubles(decayReward_) ;
+  } // writeState
+
+  /**
+   * Restores the state saved by <code>writeState</code> in a selection with
+   * the same number of operators and window size
+   */
+  public void readState(CheckpointInput in) throws JMException {
+    in.getInts(applications_) ;
+    in.getDoubles(rewards_) ;
+    window_.readState(in) ;
+    in.getDoubles(windowReward_) ;
+    in.getInts(windowUsage_) ;
+    in.getDoubles(decayReward_) ;
+  } // readState
+
+  /**
+   * Returns the credit (decayed reward) of an operator
+   */
+  public double getCredit(int operator) {
+    return decayReward_[operator] ;
+  } // getCredit
+
+  public int getWindowUsage(int operator) {
+    return windowUsage_[operator] ;
+  } // getWindowUsage
+} // FRRMABSelection
@@ -88,6 +88,16 @@ public class Offspring {
     return null ;
   }
 
+    /**
+   * Return on offspring from a solution
+   * @param solution
+   * @return the offspring
+   */
+  public Solution getOffspring(Solution solution) {
+    Logger.getLogger(Offspring.class.getName()).log(Level.SEVERE, "method not implemented") ;
+    return null ;
+  }
+
     public Solution getOffspring(Solution[] solutions) {
     Logger.getLogger(Offspring.class.getName()).log(Level.SEVERE, "method not implemented") ;
     return null ;
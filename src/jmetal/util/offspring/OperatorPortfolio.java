@@ -0,0 +1,147 @@
+//  OperatorPortfolio.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.offspring;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.operators.selection.Selection;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+
+/**
+ * A portfolio of offspring generators driven by an adaptive operator
+ * selection policy. Each <code>getOffspring</code> call asks the policy for an
+ * operator and delegates to it; the caller then gives the reward of that
+ * offspring (e.g., its fitness improvement) with <code>reward</code>:
+ *
+ *   Solution child = portfolio.getOffspring(population, i) ;
+ *   ... evaluation and replacement ...
+ *   portfolio.reward(improvement) ;
+ *
+ * The portfolio allocates nothing per call; the generators may.
+ */
+public class OperatorPortfolio extends Offspring {
+  private final Offspring[]       operators_ ;
+  private final OperatorSelection selection_ ;
+  private int selected_ ; // Operator of the last offspring (-1: none)
+
+  /**
+   * Constructor
+   * @param operators The offspring generators
+   * @param selection The policy, over as many operators as generators
+   * @throws JMException
+   */
+  public OperatorPortfolio(Offspring[] operators, OperatorSelection selection)
+      throws JMException {
+    if (operators.length == 0 ||
+        operators.length != selection.getNumberOfOperators()) {
+      Configuration.logger_.severe("OperatorPortfolio: " + operators.length +
+        " operators, but the selection policy expects " +
+        selection.getNumberOfOperators()) ;
+      throw new JMException("Exception in OperatorPortfolio()") ;
+    } // if
+    operators_ = operators.clone() ;
+    selection_ = selection ;
+    selected_  = -1 ;
+    id_        = "Portfolio" ;
+  } // OperatorPortfolio
+
+  /**
+   * Chooses the operator of the next offspring
+   * @return The chosen generator
+   */
+  public Offspring next() {
+    selected_ = selection_.select() ;
+    return operators_[selected_] ;
+  } // next
+
+  /**
+   * Gives the reward of the last offspring to the operator which created it
+   */
+  public void reward(double reward) {
+    if (selected_ >= 0)
+      selection_.update(selected_, reward) ;
+  } // reward
+
+  public int getSelectedOperator() {
+    return selected_ ;
+  } // getSelectedOperator
+
+  public Offspring getOperator(int operator) {
+    return operators_[operator] ;
+  } // getOperator
+
+  public int getNumberOfOperators() {
+    return operators_.length ;
+  } // getNumberOfOperators
+
+  public OperatorSelection getSelection() {
+    return selection_ ;
+  } // getSelection
+
+  public Solution getOffspring(SolutionSet solutionSet, int numberOfParents, int index, Selection selectionOperator) {
+    return next().getOffspring(solutionSet, numberOfParents, index, selectionOperator) ;
+  }
+
+  public Solution getOffspring(SolutionSet solutionSet) {
+    return next().getOffspring(solutionSet) ;
+  }
+
+  public Solution getOffspring(SolutionSet solutionSet, Solution solution) {
+    return next().getOffspring(solutionSet, solution) ;
+  }
+
+  public Solution getOffspring(Solution[] solutionSet, Solution solution) {
+    return next().getOffspring(solutionSet, solution) ;
+  }
+
+  public Solution getOffspring(SolutionSet solutionSet1, SolutionSet archive2) {
+    return next().getOffspring(solutionSet1, archive2) ;
+  }
+
+  public Solution getOffspring(Solution solution) {
+    return next().getOffspring(solution) ;
+  }
+
+  public Solution getOffspring(Solution[] solutions) {
+    return next().getOffspring(solutions) ;
+  }
+
+  public Solution getOffspring(SolutionSet solutionSet1, int index) {
+    return next().getOffspring(solutionSet1, index) ;
+  }
+
+  public Solution getOffspring(SolutionSet solutionSet1, SolutionSet solutionSet2, int index) {
+    return next().getOffspring(solutionSet1, solutionSet2, index) ;
+  }
+
+  public Solution getOffspring(SolutionSet solutionSet, Solution solution, int index) {
+    return next().getOffspring(solutionSet, solution, index) ;
+  }
+
+  public Solution getOffspring(SolutionSet solutionSet, SolutionSet archive, Solution solution, int index) {
+    return next().getOffspring(solutionSet, archive, solution, index) ;
+  }
+
+  public String configuration() {
+    String result = "-----\n" ;
+    result += "Operator: " + id_ + "\n" ;
+    result += "Selection: " + selection_.getClass().getSimpleName() ;
+    for (int i = 0; i < operators_.length; i++)
+      result += "\n" + operators_[i].configuration() ;
+    return result ;
+  } // configuration
+} // OperatorPortfolio
@@ -0,0 +1,106 @@
+//  OperatorSelection.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.offspring;
+
+import jmetal.util.PseudoRandom;
+
+import java.util.Arrays;
+
+/**
+ * Base class of the adaptive operator selection policies. A policy chooses
+ * one of K operators (numbered from 0) and is told the reward (e.g., the
+ * fitness improvement, expected to be non-negative) obtained by the operator
+ * it chose. The statistics are kept in primitive arrays and neither
+ * <code>select</code> nor <code>update</code> allocates anything.
+ */
+public abstract class OperatorSelection {
+  protected final int numberOfOperators_ ;
+
+  protected final int[]    applications_ ; // Number of applications of each operator
+  protected final double[] rewards_ ;      // Sum of the rewards of each operator
+
+  /**
+   * Constructor
+   * @param numberOfOperators Number of operators (K)
+   */
+  public OperatorSelection(int numberOfOperators) {
+    numberOfOperators_ = numberOfOperators ;
+    applications_      = new int[numberOfOperators] ;
+    rewards_           = new double[numberOfOperators] ;
+  } // OperatorSelection
+
+  /**
+   * Returns the operator to apply next
+   */
+  public abstract int select() ;
+
+  /**
+   * Records the reward of an application of an operator
+   */
+  public void update(int operator, double reward) {
+    applications_[operator]++ ;
+    rewards_[operator] += reward ;
+  } // update
+
+  /**
+   * Forgets everything learned so far
+   */
+  public void reset() {
+    Arrays.fill(applications_, 0) ;
+    Arrays.fill(rewards_, 0.0) ;
+  } // reset
+
+  public int getNumberOfOperators() {
+    return numberOfOperators_ ;
+  } // getNumberOfOperators
+
+  public int getApplications(int operator) {
+    return applications_[operator] ;
+  } // getApplications
+
+  public double getReward(int operator) {
+    return rewards_[operator] ;
+  } // getReward
+
+  public double getMeanReward(int operator) {
+    return (applications_[operator] == 0) ? 0.0 :
+      rewards_[operator] / applications_[operator] ;
+  } // getMeanReward
+
+  /**
+   * Returns the first operator which has never been applied, or -1
+   */
+  protected int firstUnused(int[] applications) {
+    for (int i = 0; i < numberOfOperators_; i++)
+      if (applications[i] == 0)
+        return i ;
+    return -1 ;
+  } // firstUnused
+
+  /**
+   * Roulette wheel on probabilities summing 1
+   */
+  protected int roulette(double[] probability) {
+    double rnd = PseudoRandom.randDouble() ;
+    double sum = 0.0 ;
+    for (int i = 0; i < numberOfOperators_ - 1; i++) {
+      sum += probability[i] ;
+      if (rnd < sum)
+        return i ;
+    } // for
+    return numberOfOperators_ - 1 ;
+  } // roulette
+} // OperatorSelection
@@ -0,0 +1,84 @@
+//  ProbabilityMatchingSelection.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.offspring;
+
+import java.util.Arrays;
+
+/**
+ * Probability matching (Goldberg 1990; Thierens, GECCO 2005): each operator
+ * has a quality estimate q_i <- (1 - alpha) q_i + alpha r, and is chosen by
+ * roulette wheel with probability p_i = pMin + (1 - K pMin) q_i / sum(q).
+ */
+public class ProbabilityMatchingSelection extends OperatorSelection {
+  protected final double pMin_ ;
+  protected final double alpha_ ;
+
+  protected final double[] quality_ ;
+  protected final double[] probability_ ;
+
+  /**
+   * Constructor
+   * @param numberOfOperators Number of operators (K)
+   * @param pMin Minimum probability of an operator (lower than 1 / K)
+   * @param alpha Adaptation rate of the quality estimates
+   */
+  public ProbabilityMatchingSelection(int numberOfOperators, double pMin,
+      double alpha) {
+    super(numberOfOperators) ;
+    pMin_        = pMin ;
+    alpha_       = alpha ;
+    quality_     = new double[numberOfOperators] ;
+    probability_ = new double[numberOfOperators] ;
+    Arrays.fill(probability_, 1.0 / numberOfOperators) ;
+  } // ProbabilityMatchingSelection
+
+  public int select() {
+    return roulette(probability_) ;
+  } // select
+
+  public void update(int operator, double reward) {
+    super.update(operator, reward) ;
+    quality_[operator] += alpha_ * (reward - quality_[operator]) ;
+    updateProbabilities() ;
+  } // update
+
+  public void reset() {
+    super.reset() ;
+    Arrays.fill(quality_, 0.0) ;
+    Arrays.fill(probability_, 1.0 / numberOfOperators_) ;
+  } // reset
+
+  /**
+   * Recomputes the probabilities from the quality estimates
+   */
+  protected void updateProbabilities() {
+    double sum = 0.0 ;
+    for (int i = 0; i < numberOfOperators_; i++)
+      sum += quality_[i] ;
+
+    for (int i = 0; i < numberOfOperators_; i++)
+      probability_[i] = (sum <= 0) ? 1.0 / numberOfOperators_ :
+        pMin_ + (1 - numberOfOperators_ * pMin_) * quality_[i] / sum ;
+  } // updateProbabilities
+
+  public double getQuality(int operator) {
+    return quality_[operator] ;
+  } // getQuality
+
+  public double getProbability(int operator) {
+    return probability_[operator] ;
+  } // getProbability
+} // ProbabilityMatchingSelection
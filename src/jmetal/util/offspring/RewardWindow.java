@@ -0,0 +1,240 @@
+//  RewardWindow.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.offspring;
+
+import jmetal.util.JMException;
+import jmetal.util.snapshot.CheckpointInput;
+import jmetal.util.snapshot.CheckpointOutput;
+import jmetal.util.snapshot.Checkpointable;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of the FRR-MAB operator selection (Li, Fialho, Kwong, Zhang,
+ * IEEE TEVC 2014): the last W (operator, fitness improvement) pairs, kept in
+ * a ring buffer over primitive arrays, together with the reward (sum of the
+ * improvements) and the number of uses of each operator in the window.
+ * <p>
+ * Adding a pair updates the sums of the operator entering and of the one
+ * leaving the window, so it costs O(1); the sums are recomputed from the
+ * window every W evictions to bound the rounding drift of the subtractions.
+ * The decayed rewards (rank-based credit assignment) cost O(K log K) for K
+ * operators. It replaces <code>SlidingWindow</code>, <code>Window</code> and
+ * the scans of <code>AdaptiveModule</code>, which are O(W) per offspring.
+ */
+public class RewardWindow implements Checkpointable {
+	private final int numberOfOperators_;
+
+	private final int[]    operator_;	// Ring buffer
+	private final double[] improvement_;
+	private int first_;
+	private int size_;
+	private int evictions_;				// Since the last recomputation of the sums
+
+	private final double[] reward_;
+	private final int[]    usage_;
+
+	private final double[] decay_;		// decayFactor^i
+	private final int[]    rank_;		// Operators sorted by decreasing reward
+
+	/**
+	 * Constructor
+	 *
+	 * @param capacity Size of the window (W)
+	 * @param numberOfOperators Number of operators (K); they are numbered
+	 *            from 0
+	 * @param decayFactor Decay factor of the credit assignment (D)
+	 */
+	public RewardWindow(int capacity, int numberOfOperators, double decayFactor) {
+		numberOfOperators_ = numberOfOperators;
+		operator_    = new int[capacity];
+		improvement_ = new double[capacity];
+		reward_      = new double[numberOfOperators];
+		usage_       = new int[numberOfOperators];
+		decay_       = new double[numberOfOperators];
+		rank_        = new int[numberOfOperators];
+		for (int i = 0; i < numberOfOperators; i++) {
+			decay_[i] = Math.pow(decayFactor, i);
+			rank_[i]  = i;
+		}
+		clear();
+	} // RewardWindow
+
+	public void clear() {
+		first_     = 0;
+		size_      = 0;
+		evictions_ = 0;
+		Arrays.fill(reward_, 0.0);
+		Arrays.fill(usage_, 0);
+	} // clear
+
+	public int size() {
+		return size_;
+	} // size
+
+	public int getCapacity() {
+		return operator_.length;
+	} // getCapacity
+
+	/**
+	 * Adds the result of an application of an operator; when the window is
+	 * full, the oldest one leaves it. An operator out of [0, K) takes a place
+	 * in the window but is not counted.
+	 */
+	public void add(int operator, double improvement) {
+		int capacity = operator_.length;
+		if (capacity == 0)
+			return;
+
+		int slot;
+		if (size_ < capacity) {
+			slot = first_ + size_;
+			if (slot >= capacity)
+				slot -= capacity;
+			size_++;
+		} else {
+			slot = first_;
+			first_ = (first_ + 1 == capacity) ? 0 : first_ + 1;
+			int old = operator_[slot];
+			if (old >= 0 && old < numberOfOperators_) {
+				reward_[old] -= improvement_[slot];
+				usage_[old]--;
+			}
+			evictions_++;
+		}
+		operator_[slot]    = operator;
+		improvement_[slot] = improvement;
+
+		if (evictions_ >= capacity)
+			recompute();
+		else if (operator >= 0 && operator < numberOfOperators_) {
+			reward_[operator] += improvement;
+			usage_[operator]++;
+		}
+	} // add
+
+	/**
+	 * Returns the sum of the improvements of an operator in the window
+	 */
+	public double getReward(int operator) {
+		return reward_[operator];
+	} // getReward
+
+	/**
+	 * Returns the number of applications of an operator in the window
+	 */
+	public int getUsage(int operator) {
+		return usage_[operator];
+	} // getUsage
+
+	/**
+	 * Copies the rewards and the usages of the operators
+	 */
+	public void getRewards(double[] reward, int[] usage) {
+		System.arraycopy(reward_, 0, reward, 0, numberOfOperators_);
+		System.arraycopy(usage_, 0, usage, 0, numberOfOperators_);
+	} // getRewards
+
+	/**
+	 * Rank-based credit assignment: the reward of the operator of rank i
+	 * (0 is the best) is multiplied by decayFactor^i, and the values are
+	 * normalized to sum 1 (all 0 if they sum 0).
+	 *
+	 * @param decayReward The decayed rewards (output)
+	 * @param rank The operators sorted by decreasing reward (output, may be
+	 *            null)
+	 */
+	public void creditAssignment(double[] decayReward, int[] rank) {
+		// Insertion sort starting from the previous ranking, which usually
+		// changes little; ties are broken by the operator index
+		for (int i = 1; i < numberOfOperators_; i++) {
+			int operator = rank_[i];
+			int j = i - 1;
+			while (j >= 0 && before(operator, rank_[j])) {
+				rank_[j + 1] = rank_[j];
+				j--;
+			}
+			rank_[j + 1] = operator;
+		}
+
+		double sum = 0.0;
+		for (int i = 0; i < numberOfOperators_; i++) {
+			int operator = rank_[i];
+			decayReward[operator] = reward_[operator] * decay_[i];
+			sum += decayReward[operator];
+		}
+		for (int i = 0; i < numberOfOperators_; i++)
+			decayReward[i] = (sum == 0) ? 0.0 : decayReward[i] / sum;
+
+		if (rank != null)
+			System.arraycopy(rank_, 0, rank, 0, numberOfOperators_);
+	} // creditAssignment
+
+	private boolean before(int a, int b) {
+		if (reward_[a] != reward_[b])
+			return reward_[a] > reward_[b];
+		return a < b;
+	} // before
+
+	/**
+	 * Saves the window, the running sums and the ranking, so that a restored
+	 * window adds and ranks exactly as this one
+	 */
+	public void writeState(CheckpointOutput out) throws JMException {
+		out.putInts(operator_);
+		out.putDoubles(improvement_);
+		out.putInt(first_);
+		out.putInt(size_);
+		out.putInt(evictions_);
+		out.putDoubles(reward_);
+		out.putInts(usage_);
+		out.putInts(rank_);
+	} // writeState
+
+	/**
+	 * Restores the state saved by <code>writeState</code> in a window of the
+	 * same capacity and number of operators
+	 */
+	public void readState(CheckpointInput in) throws JMException {
+		in.getInts(operator_);
+		in.getDoubles(improvement_);
+		first_     = in.getInt();
+		size_      = in.getInt();
+		evictions_ = in.getInt();
+		in.getDoubles(reward_);
+		in.getInts(usage_);
+		in.getInts(rank_);
+	} // readState
+
+	/**
+	 * Recomputes the sums from the window, in the order of the window
+	 */
+	private void recompute() {
+		Arrays.fill(reward_, 0.0);
+		Arrays.fill(usage_, 0);
+		int slot = first_;
+		for (int i = 0; i < size_; i++) {
+			int operator = operator_[slot];
+			if (operator >= 0 && operator < numberOfOperators_) {
+				reward_[operator] += improvement_[slot];
+				usage_[operator]++;
+			}
+			if (++slot == operator_.length)
+				slot = 0;
+		}
+		evictions_ = 0;
+	} // recompute
+} // RewardWindow
@@ -0,0 +1,67 @@
+//  UCB1Selection.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.offspring;
+
+/**
+ * UCB1 (Auer, Cesa-Bianchi, Fischer, Machine Learning 2002): the operator
+ * maximizing mean reward + C * sqrt(2 ln(n) / n_i) over the whole run is
+ * chosen, n_i being its number of applications and n the total. Every
+ * operator is applied once before the bound is used.
+ */
+public class UCB1Selection extends OperatorSelection {
+  private final double scale_ ;
+  private int total_ ;
+
+  /**
+   * Constructor
+   * @param numberOfOperators Number of operators (K)
+   * @param scale Scale factor of the exploration term (C; 1 in UCB1)
+   */
+  public UCB1Selection(int numberOfOperators, double scale) {
+    super(numberOfOperators) ;
+    scale_ = scale ;
+    total_ = 0 ;
+  } // UCB1Selection
+
+  public int select() {
+    int unused = firstUnused(applications_) ;
+    if (unused >= 0)
+      return unused ;
+
+    double logTotal = 2 * Math.log(total_) ;
+    int    best     = 0 ;
+    double bestValue = Double.NEGATIVE_INFINITY ;
+    for (int i = 0; i < numberOfOperators_; i++) {
+      double value = rewards_[i] / applications_[i] +
+        scale_ * Math.sqrt(logTotal / applications_[i]) ;
+      if (value > bestValue) {
+        bestValue = value ;
+        best      = i ;
+      } // if
+    } // for
+    return best ;
+  } // select
+
+  public void update(int operator, double reward) {
+    super.update(operator, reward) ;
+    total_++ ;
+  } // update
+
+  public void reset() {
+    super.reset() ;
+    total_ = 0 ;
+  } // reset
+} // UCB1Selection
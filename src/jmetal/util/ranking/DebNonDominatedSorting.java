@@ -0,0 +1,85 @@
+//  DebNonDominatedSorting.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+import jmetal.util.comparators.DominanceKernel;
+
+/**
+ * Fast non-dominated sorting of NSGA-II (K. Deb et al., 2002), O(mN^2), on a
+ * primitive objective matrix. The dominated sets are stored in growable
+ * <code>int</code> arrays instead of lists of <code>Integer</code>.
+ */
+public class DebNonDominatedSorting implements INonDominatedSorting {
+
+  public int sort(double[][] objectives, int size, int[] ranks) {
+    if (size == 0)
+      return 0;
+
+    int[] dominateMe = new int[size];
+    int[] dominatedCount = new int[size];
+    int[][] iDominate = new int[size][];
+    for (int p = 0; p < size; p++)
+      iDominate[p] = new int[4];
+
+    for (int p = 0; p < size - 1; p++) {
+      for (int q = p + 1; q < size; q++) {
+        int flag = DominanceKernel.compare(objectives[p], objectives[q]);
+        if (flag == -1) {
+          iDominate[p] = append(iDominate[p], dominatedCount[p]++, q);
+          dominateMe[q]++;
+        } else if (flag == 1) {
+          iDominate[q] = append(iDominate[q], dominatedCount[q]++, p);
+          dominateMe[p]++;
+        }
+      }
+    }
+
+    // The current front is stored in queue[head..tail)
+    int[] queue = new int[size];
+    int head = 0, tail = 0;
+    for (int p = 0; p < size; p++) {
+      if (dominateMe[p] == 0) {
+        ranks[p] = 0;
+        queue[tail++] = p;
+      }
+    }
+
+    int numberOfFronts = 0;
+    while (head < tail) {
+      int end = tail;
+      numberOfFronts++;
+      while (head < end) {
+        int p = queue[head++];
+        for (int k = 0; k < dominatedCount[p]; k++) {
+          int q = iDominate[p][k];
+          if (--dominateMe[q] == 0) {
+            ranks[q] = numberOfFronts;
+            queue[tail++] = q;
+          }
+        }
+      }
+    }
+
+    return numberOfFronts;
+  } // sort
+
+  private static int[] append(int[] list, int size, int value) {
+    if (size == list.length)
+      list = java.util.Arrays.copyOf(list, 2 * size);
+    list[size] = value;
+    return list;
+  } // append
+} // DebNonDominatedSorting
@@ -0,0 +1,349 @@
+//  DivideAndConquerNonDominatedSorting.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+/**
+ * Divide-and-conquer non-dominated sorting, O(N log^(m-1) N): the generalized
+ * Jensen algorithm as corrected by Fortin et al. (GECCO 2013) and Buzdalov and
+ * Shalyto (PPSN 2014) to handle equal objective values.
+ * <p>
+ * The distinct rows are numbered in lexicographic order, so a row can only be
+ * dominated by rows with a smaller number. <code>helperA(S, k)</code> ranks
+ * the rows of S among themselves knowing that they are equal in the
+ * objectives above k; <code>helperB(L, H, k)</code> raises the ranks of H
+ * from the (final) ranks of L knowing that every row of L is not worse than
+ * every row of H in the objectives above k. Both recurse on the median of the
+ * objective k and end with a sweep on the objectives 0 and 1.
+ */
+public class DivideAndConquerNonDominatedSorting implements INonDominatedSorting {
+
+  /**
+   * Sets (or products of sets) below this size are solved by brute force
+   */
+  private static final int BRUTE_FORCE_THRESHOLD = 24;
+
+  private double[][] rows_;      // Distinct rows in lexicographic order
+  private int[] rank_;           // Rank of each distinct row
+  private int[] secondRank_;     // Position of the objective 1 among its values
+  private int[] fenwick_;        // Prefix maximum over secondRank_
+  private double[] scratch_;     // Buffer for median computations
+
+  public int sort(double[][] objectives, int size, int[] ranks) {
+    if (size == 0)
+      return 0;
+
+    int[] order = Dominance.lexicographicOrder(objectives, size);
+
+    // Distinct rows; duplicates take the rank of their representative
+    int[] representative = new int[size];
+    double[][] rows = new double[size][];
+    int distinct = 0;
+    for (int i = 0; i < size; i++) {
+      double[] row = objectives[order[i]];
+      if (distinct == 0
+          || Dominance.compareLexicographically(rows[distinct - 1], row) != 0)
+        rows[distinct++] = row;
+      representative[order[i]] = distinct - 1;
+    }
+
+    rows_  = java.util.Arrays.copyOf(rows, distinct);
+    rank_  = new int[distinct];
+    int numberOfObjectives = rows_[0].length;
+
+    if (numberOfObjectives == 1) {
+      // Distinct values are already sorted
+      for (int p = 0; p < distinct; p++)
+        rank_[p] = p;
+    } else {
+      secondRank_ = compressSecondObjective();
+      fenwick_    = new int[distinct + 1];
+      java.util.Arrays.fill(fenwick_, -1);
+      scratch_    = new double[distinct];
+
+      int[] all = new int[distinct];
+      for (int p = 0; p < distinct; p++)
+        all[p] = p;
+      helperA(all, numberOfObjectives - 1);
+    }
+
+    int numberOfFronts = 0;
+    for (int i = 0; i < size; i++) {
+      ranks[i] = rank_[representative[i]];
+      if (ranks[i] + 1 > numberOfFronts)
+        numberOfFronts = ranks[i] + 1;
+    }
+
+    rows_ = null;
+    rank_ = null;
+    secondRank_ = null;
+    fenwick_ = null;
+    scratch_ = null;
+
+    return numberOfFronts;
+  } // sort
+
+  private void helperA(int[] set, int k) {
+    int n = set.length;
+    if (n < 2)
+      return;
+
+    if (n <= BRUTE_FORCE_THRESHOLD) {
+      for (int j = 1; j < n; j++)
+        for (int i = 0; i < j; i++)
+          update(set[i], set[j], k);
+      return;
+    }
+
+    if (k == 1) {
+      sweepA(set);
+      return;
+    }
+
+    double min = rows_[set[0]][k], max = min;
+    for (int p : set) {
+      double value = rows_[p][k];
+      if (value < min)
+        min = value;
+      if (value > max)
+        max = value;
+    }
+    if (min == max) {
+      helperA(set, k - 1);
+      return;
+    }
+
+    double median = median(set, null, k);
+    int[] low = select(set, k, median, -1);
+    int[] equal = select(set, k, median, 0);
+    int[] high = select(set, k, median, 1);
+
+    helperA(low, k);
+    helperB(low, equal, k - 1);
+    helperA(equal, k - 1);
+    helperB(merge(low, equal), high, k - 1);
+    helperA(high, k);
+  } // helperA
+
+  private void helperB(int[] low, int[] high, int k) {
+    if (low.length == 0 || high.length == 0)
+      return;
+
+    if (low.length == 1 || high.length == 1
+        || low.length * high.length <= BRUTE_FORCE_THRESHOLD * BRUTE_FORCE_THRESHOLD / 4) {
+      for (int h : high)
+        for (int l : low)
+          if (l < h)
+            update(l, h, k);
+      return;
+    }
+
+    if (k == 1) {
+      sweepB(low, high);
+      return;
+    }
+
+    double minLow = Double.POSITIVE_INFINITY, maxLow = Double.NEGATIVE_INFINITY;
+    for (int p : low) {
+      double value = rows_[p][k];
+      if (value < minLow)
+        minLow = value;
+      if (value > maxLow)
+        maxLow = value;
+    }
+    double minHigh = Double.POSITIVE_INFINITY, maxHigh = Double.NEGATIVE_INFINITY;
+    for (int p : high) {
+      double value = rows_[p][k];
+      if (value < minHigh)
+        minHigh = value;
+      if (value > maxHigh)
+        maxHigh = value;
+    }
+
+    if (minLow > maxHigh)
+      return;
+    if (maxLow <= minHigh) {
+      helperB(low, high, k - 1);
+      return;
+    }
+
+    double median = median(low, high, k);
+    int[] low1 = select(low, k, median, -1);
+    int[] low2 = select(low, k, median, 0);
+    int[] low3 = select(low, k, median, 1);
+    int[] high1 = select(high, k, median, -1);
+    int[] high2 = select(high, k, median, 0);
+    int[] high3 = select(high, k, median, 1);
+
+    helperB(low1, high1, k);
+    helperB(merge(low1, low2), merge(high2, high3), k - 1);
+    helperB(low3, high3, k);
+  } // helperB
+
+  /**
+   * Two objectives left: rows are visited in lexicographic order and ranked
+   * from the rows already visited having a smaller or equal objective 1.
+   */
+  private void sweepA(int[] set) {
+    for (int p : set) {
+      int best = query(secondRank_[p]);
+      if (best + 1 > rank_[p])
+        rank_[p] = best + 1;
+      insert(secondRank_[p], rank_[p]);
+    }
+    for (int p : set)
+      reset(secondRank_[p]);
+  } // sweepA
+
+  private void sweepB(int[] low, int[] high) {
+    int i = 0;
+    for (int h : high) {
+      while (i < low.length && low[i] < h) {
+        insert(secondRank_[low[i]], rank_[low[i]]);
+        i++;
+      }
+      int best = query(secondRank_[h]);
+      if (best + 1 > rank_[h])
+        rank_[h] = best + 1;
+    }
+    for (int j = 0; j < i; j++)
+      reset(secondRank_[low[j]]);
+  } // sweepB
+
+  /**
+   * Raises the rank of h if l (which precedes it) is not worse in the
+   * objectives 0..k
+   */
+  private void update(int l, int h, int k) {
+    double[] a = rows_[l];
+    double[] b = rows_[h];
+    for (int i = 0; i <= k; i++)
+      if (a[i] > b[i])
+        return;
+    if (rank_[l] + 1 > rank_[h])
+      rank_[h] = rank_[l] + 1;
+  } // update
+
+  private int[] compressSecondObjective() {
+    int n = rows_.length;
+    double[] values = new double[n];
+    for (int p = 0; p < n; p++)
+      values[p] = rows_[p][1];
+    java.util.Arrays.sort(values);
+    int distinct = 0;
+    for (int p = 0; p < n; p++)
+      if (distinct == 0 || values[distinct - 1] != values[p])
+        values[distinct++] = values[p];
+
+    int[] positions = new int[n];
+    for (int p = 0; p < n; p++)
+      positions[p] = java.util.Arrays.binarySearch(values, 0, distinct, rows_[p][1]);
+    return positions;
+  } // compressSecondObjective
+
+  private void insert(int position, int value) {
+    for (int i = position + 1; i < fenwick_.length; i += i & -i)
+      if (fenwick_[i] < value)
+        fenwick_[i] = value;
+  } // insert
+
+  /**
+   * Returns the maximum value inserted at positions 0..position, or -1
+   */
+  private int query(int position) {
+    int result = -1;
+    for (int i = position + 1; i > 0; i -= i & -i)
+      if (fenwick_[i] > result)
+        result = fenwick_[i];
+    return result;
+  } // query
+
+  private void reset(int position) {
+    for (int i = position + 1; i < fenwick_.length; i += i & -i)
+      fenwick_[i] = -1;
+  } // reset
+
+  /**
+   * Median of the objective k over the union of two sets (second may be null)
+   */
+  private double median(int[] first, int[] second, int k) {
+    int n = 0;
+    for (int p : first)
+      scratch_[n++] = rows_[p][k];
+    if (second != null)
+      for (int p : second)
+        scratch_[n++] = rows_[p][k];
+
+    int target = n / 2;
+    int left = 0, right = n - 1;
+    while (left < right) {
+      double pivot = scratch_[(left + right) >>> 1];
+      int i = left, j = right;
+      while (i <= j) {
+        while (scratch_[i] < pivot)
+          i++;
+        while (scratch_[j] > pivot)
+          j--;
+        if (i <= j) {
+          double tmp = scratch_[i];
+          scratch_[i] = scratch_[j];
+          scratch_[j] = tmp;
+          i++;
+          j--;
+        }
+      }
+      if (target <= j)
+        right = j;
+      else if (target >= i)
+        left = i;
+      else
+        break;
+    }
+    return scratch_[target];
+  } // median
+
+  /**
+   * Returns, keeping the order, the rows of a set whose objective k is lower
+   * than (-1), equal to (0) or greater than (1) a value
+   */
+  private int[] select(int[] set, int k, double value, int side) {
+    int count = 0;
+    for (int p : set)
+      if (sign(rows_[p][k], value) == side)
+        count++;
+    int[] result = new int[count];
+    count = 0;
+    for (int p : set)
+      if (sign(rows_[p][k], value) == side)
+        result[count++] = p;
+    return result;
+  } // select
+
+  private static int sign(double a, double b) {
+    return a < b ? -1 : (a > b ? 1 : 0);
+  } // sign
+
+  private static int[] merge(int[] a, int[] b) {
+    int[] result = new int[a.length + b.length];
+    int i = 0, j = 0, k = 0;
+    while (i < a.length && j < b.length)
+      result[k++] = (a[i] < b[j]) ? a[i++] : b[j++];
+    while (i < a.length)
+      result[k++] = a[i++];
+    while (j < b.length)
+      result[k++] = b[j++];
+    return result;
+  } // merge
+} // DivideAndConquerNonDominatedSorting
@@ -0,0 +1,84 @@
+//  Dominance.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+/**
+ * Helpers on objective vectors shared by the sorting engines
+ */
+final class Dominance {
+
+  private Dominance() {
+  }
+
+  static int compareLexicographically(double[] a, double[] b) {
+    for (int i = 0; i < a.length; i++) {
+      if (a[i] < b[i])
+        return -1;
+      if (a[i] > b[i])
+        return 1;
+    }
+    return 0;
+  } // compareLexicographically
+
+  /**
+   * Returns the indexes 0..size-1 sorted by the lexicographic order of the
+   * rows (stable merge sort).
+   */
+  static int[] lexicographicOrder(double[][] objectives, int size) {
+    int[] order = new int[size];
+    int[] buffer = new int[size];
+    for (int i = 0; i < size; i++)
+      order[i] = i;
+    mergeSort(objectives, order, buffer, 0, size);
+    return order;
+  } // lexicographicOrder
+
+  private static void mergeSort(double[][] objectives, int[] order,
+                                int[] buffer, int from, int to) {
+    if (to - from <= 16) {
+      for (int i = from + 1; i < to; i++) {
+        int value = order[i];
+        int j = i - 1;
+        while (j >= from
+               && compareLexicographically(objectives[order[j]], objectives[value]) > 0) {
+          order[j + 1] = order[j];
+          j--;
+        }
+        order[j + 1] = value;
+      }
+      return;
+    }
+
+    int middle = (from + to) >>> 1;
+    mergeSort(objectives, order, buffer, from, middle);
+    mergeSort(objectives, order, buffer, middle, to);
+    if (compareLexicographically(objectives[order[middle - 1]], objectives[order[middle]]) <= 0)
+      return;
+
+    System.arraycopy(order, from, buffer, from, to - from);
+    int i = from, j = middle, k = from;
+    while (i < middle && j < to) {
+      if (compareLexicographically(objectives[buffer[j]], objectives[buffer[i]]) < 0)
+        order[k++] = buffer[j++];
+      else
+        order[k++] = buffer[i++];
+    }
+    while (i < middle)
+      order[k++] = buffer[i++];
+    while (j < to)
+      order[k++] = buffer[j++];
+  } // mergeSort
+} // Dominance
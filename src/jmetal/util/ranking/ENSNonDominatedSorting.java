@@ -0,0 +1,112 @@
+//  ENSNonDominatedSorting.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+import jmetal.util.comparators.DominanceKernel;
+
+/**
+ * Efficient non-dominated sort (X. Zhang, Y. Tian, R. Cheng, Y. Jin, "An
+ * Efficient Approach to Nondominated Sorting for Evolutionary Multiobjective
+ * Optimization", IEEE TEVC 19(2), 2015). The rows are visited in lexicographic
+ * order, so a row can only be dominated by rows already assigned to a front;
+ * each row is placed in the first front having no member that dominates it.
+ * The fronts are scanned sequentially (ENS-SS) or by binary search (ENS-BS).
+ */
+public class ENSNonDominatedSorting implements INonDominatedSorting {
+
+  /**
+   * True for ENS-BS, false for ENS-SS
+   */
+  private final boolean binarySearch_;
+
+  /**
+   * Constructor
+   * @param binarySearch true to locate the front with a binary search
+   * (ENS-BS), false for a sequential search (ENS-SS).
+   */
+  public ENSNonDominatedSorting(boolean binarySearch) {
+    binarySearch_ = binarySearch;
+  } // ENSNonDominatedSorting
+
+  public int sort(double[][] objectives, int size, int[] ranks) {
+    if (size == 0)
+      return 0;
+
+    int[] order = Dominance.lexicographicOrder(objectives, size);
+
+    // Members of the front k are stored in fronts[k][0..frontSize[k])
+    int[][] fronts = new int[8][];
+    int[] frontSize = new int[8];
+    int numberOfFronts = 0;
+
+    int previous = -1;
+    for (int i = 0; i < size; i++) {
+      int s = order[i];
+      if (previous != -1
+          && Dominance.compareLexicographically(objectives[previous], objectives[s]) == 0) {
+        ranks[s] = ranks[previous];  // Duplicated rows share the rank
+        continue;
+      }
+      previous = s;
+
+      int k;
+      if (binarySearch_) {
+        int low = 0, high = numberOfFronts;
+        while (low < high) {
+          int middle = (low + high) >>> 1;
+          if (isDominated(objectives, fronts[middle], frontSize[middle], s))
+            low = middle + 1;
+          else
+            high = middle;
+        }
+        k = low;
+      } else {
+        k = 0;
+        while (k < numberOfFronts
+               && isDominated(objectives, fronts[k], frontSize[k], s))
+          k++;
+      } // if
+
+      if (k == numberOfFronts) {
+        if (numberOfFronts == fronts.length) {
+          fronts = java.util.Arrays.copyOf(fronts, 2 * numberOfFronts);
+          frontSize = java.util.Arrays.copyOf(frontSize, 2 * numberOfFronts);
+        }
+        fronts[k] = new int[8];
+        numberOfFronts++;
+      }
+      if (frontSize[k] == fronts[k].length)
+        fronts[k] = java.util.Arrays.copyOf(fronts[k], 2 * frontSize[k]);
+      fronts[k][frontSize[k]++] = s;
+      ranks[s] = k;
+    } // for
+
+    return numberOfFronts;
+  } // sort
+
+  /**
+   * Checks whether some member of a front dominates the row s. The members
+   * are scanned from the last one, which is the closest in lexicographic order.
+   */
+  private static boolean isDominated(double[][] objectives, int[] front,
+                                     int frontSize, int s) {
+    double[] point = objectives[s];
+    for (int j = frontSize - 1; j >= 0; j--)
+      if (DominanceKernel.dominates(objectives[front[j]], point))
+        return true;
+    return false;
+  } // isDominated
+} // ENSNonDominatedSorting
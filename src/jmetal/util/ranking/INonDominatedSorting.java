@@ -0,0 +1,35 @@
+//  INonDominatedSorting.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+/**
+ * Interface representing non-dominated sorting engines. An engine ranks the
+ * rows of an objective matrix by Pareto dominance (minimization): rank 0
+ * holds the non-dominated rows, rank 1 the non-dominated rows once rank 0 is
+ * removed, and so on. Rows with identical objective vectors get the same rank.
+ * Constraints are not considered here; <code>jmetal.util.Ranking</code> only
+ * passes feasible solutions to the engines.
+ */
+public interface INonDominatedSorting {
+  /**
+   * Ranks the rows of a matrix.
+   * @param objectives The objective vectors; it is not modified.
+   * @param size Number of rows to rank (the first <code>size</code> rows).
+   * @param ranks Output array; <code>ranks[i]</code> is the rank of row i.
+   * @return The number of fronts.
+   */
+  public int sort(double[][] objectives, int size, int[] ranks) ;
+}
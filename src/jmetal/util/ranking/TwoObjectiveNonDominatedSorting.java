@@ -0,0 +1,66 @@
+//  TwoObjectiveNonDominatedSorting.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+/**
+ * O(N log N) non-dominated sorting for two objectives. The rows are swept in
+ * lexicographic order while keeping, for each front, the smallest second
+ * objective seen so far; these values are non-decreasing with the front
+ * index, so the front of a row is found by binary search.
+ */
+public class TwoObjectiveNonDominatedSorting implements INonDominatedSorting {
+
+  public int sort(double[][] objectives, int size, int[] ranks) {
+    if (size == 0)
+      return 0;
+
+    int[] order = Dominance.lexicographicOrder(objectives, size);
+
+    // minimum[k] is the smallest second objective of the front k
+    double[] minimum = new double[size];
+    int numberOfFronts = 0;
+
+    int previous = -1;
+    for (int i = 0; i < size; i++) {
+      int s = order[i];
+      double f0 = objectives[s][0];
+      double f1 = objectives[s][1];
+      if (previous != -1 && objectives[previous][0] == f0
+          && objectives[previous][1] == f1) {
+        ranks[s] = ranks[previous];  // Duplicated rows share the rank
+        continue;
+      }
+      previous = s;
+
+      // First front whose minimum is greater than f1
+      int low = 0, high = numberOfFronts;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (minimum[middle] <= f1)
+          low = middle + 1;
+        else
+          high = middle;
+      }
+
+      ranks[s] = low;
+      minimum[low] = f1;
+      if (low == numberOfFronts)
+        numberOfFronts++;
+    } // for
+
+    return numberOfFronts;
+  } // sort
+} // TwoObjectiveNonDominatedSorting
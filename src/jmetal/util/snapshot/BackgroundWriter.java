@@ -0,0 +1,285 @@
+//  BackgroundWriter.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.snapshot;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+
+/**
+ * Writes buffers to files on a background thread, for
+ * <code>SnapshotWriter</code> and <code>CheckpointWriter</code>.
+ * <p>
+ * The caller takes one of two buffers with <code>acquire</code>, fills it and
+ * hands it to the thread with <code>submit</code>; it only waits when both
+ * buffers are still in use. When the writes are atomic, a file is written
+ * next to its destination, forced to the disk and renamed, so that the
+ * destination always holds a complete file.
+ * <p>
+ * A failed write is logged, and reported by the next call to
+ * <code>acquire</code>, <code>flush</code> or <code>close</code>.
+ */
+class BackgroundWriter {
+  static final String TEMPORARY_SUFFIX = ".tmp" ;
+
+  private final String name_ ;        // Name of the thread and of the messages
+  private final boolean atomic_ ;
+  private final Object lock_ = new Object() ;
+
+  private final ByteBuffer[] free_ ;  // Buffers not in use (null: not allocated yet)
+  private int numberOfFree_ ;
+  private ByteBuffer queued_ ;        // Buffer waiting for the writer thread
+  private String queuedPath_ ;
+  private boolean writing_ ;
+  private boolean closed_ ;
+  private String error_ ;             // First failure not reported yet
+  private Thread thread_ ;
+
+  /**
+   * Constructor
+   * @param name Name of the writer thread
+   * @param atomic Whether each file is written aside and then renamed
+   */
+  BackgroundWriter(String name, boolean atomic) {
+    name_   = name ;
+    atomic_ = atomic ;
+    free_ = new ByteBuffer[2] ;
+    numberOfFree_ = 2 ;
+    queued_  = null ;
+    writing_ = false ;
+    closed_  = false ;
+    error_   = null ;
+    thread_  = null ;
+  } // BackgroundWriter
+
+  /**
+   * Takes a free buffer of at least the given capacity, cleared and in
+   * little-endian order
+   * @throws JMException If the writer is closed or a previous write failed
+   */
+  ByteBuffer acquire(long size) throws JMException {
+    if (size > Integer.MAX_VALUE)
+      throw new JMException(name_ + ": file of " + size + " bytes") ;
+
+    ByteBuffer buffer ;
+    synchronized (lock_) {
+      checkError() ;
+      if (closed_)
+        throw new JMException(name_ + ": the writer is closed") ;
+      while (numberOfFree_ == 0)
+        await() ;
+      buffer = free_[--numberOfFree_] ;
+      free_[numberOfFree_] = null ;
+    } // synchronized
+
+    if ((buffer == null) || (buffer.capacity() < size))
+      buffer = allocate(size, buffer) ;
+    buffer.clear() ;
+    return buffer ;
+  } // acquire
+
+  /**
+   * Replaces an acquired buffer by a larger one holding the same bytes
+   * (those before its position)
+   */
+  ByteBuffer grow(ByteBuffer buffer, long size) throws JMException {
+    if (size > Integer.MAX_VALUE)
+      throw new JMException(name_ + ": file of " + size + " bytes") ;
+    ByteBuffer larger = allocate(size, buffer) ;
+    buffer.flip() ;
+    larger.put(buffer) ;
+    return larger ;
+  } // grow
+
+  private static ByteBuffer allocate(long size, ByteBuffer previous) {
+    int capacity = (int) Math.min(Integer.MAX_VALUE,
+        Math.max(size, (previous == null) ? 0 : 2L * previous.capacity())) ;
+    ByteBuffer buffer = ByteBuffer.allocateDirect(capacity) ;
+    buffer.order(ByteOrder.LITTLE_ENDIAN) ;
+    return buffer ;
+  } // allocate
+
+  /**
+   * Gives back an acquired buffer which is not submitted
+   */
+  void release(ByteBuffer buffer) {
+    synchronized (lock_) {
+      free_[numberOfFree_++] = buffer ;
+      lock_.notifyAll() ;
+    } // synchronized
+  } // release
+
+  /**
+   * Hands a filled (flipped) buffer to the writer thread, started on the
+   * first call
+   */
+  void submit(ByteBuffer buffer, String path) throws JMException {
+    synchronized (lock_) {
+      while (queued_ != null)
+        await() ;
+      queued_     = buffer ;
+      queuedPath_ = path ;
+      if (thread_ == null) {
+        thread_ = new Thread(new Runnable() {
+          public void run() {
+            writeLoop() ;
+          }
+        }, name_) ;
+        thread_.setDaemon(true) ;
+        thread_.start() ;
+      } // if
+      lock_.notifyAll() ;
+    } // synchronized
+  } // submit
+
+  /**
+   * Waits until all the submitted buffers are written
+   * @throws JMException If a write failed
+   */
+  void flush() throws JMException {
+    synchronized (lock_) {
+      while ((queued_ != null) || writing_)
+        await() ;
+      checkError() ;
+    } // synchronized
+  } // flush
+
+  /**
+   * Writes the pending buffers and stops the writer thread
+   * @throws JMException If a write failed
+   */
+  void close() throws JMException {
+    Thread thread ;
+    synchronized (lock_) {
+      closed_ = true ;
+      lock_.notifyAll() ;
+      thread = thread_ ;
+    } // synchronized
+    if (thread != null) {
+      try {
+        thread.join() ;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt() ;
+        throw new JMException(name_ + ": interrupted while closing") ;
+      } // catch
+    } // if
+    synchronized (lock_) {
+      checkError() ;
+    } // synchronized
+  } // close
+
+  private void writeLoop() {
+    while (true) {
+      ByteBuffer buffer ;
+      String path ;
+      synchronized (lock_) {
+        while ((queued_ == null) && !closed_) {
+          try {
+            lock_.wait() ;
+          } catch (InterruptedException e) {
+            // The thread only stops when the writer is closed
+          } // catch
+        } // while
+        if (queued_ == null)
+          return ;
+        buffer  = queued_ ;
+        path    = queuedPath_ ;
+        queued_ = null ;
+        writing_ = true ;
+        lock_.notifyAll() ;
+      } // synchronized
+
+      String error = null ;
+      try {
+        if (atomic_)
+          writeAtomically(buffer, path) ;
+        else
+          writeFile(buffer, path, false) ;
+      } catch (IOException e) {
+        error = "cannot write " + path + " (" + e.getMessage() + ")" ;
+        Configuration.logger_.severe(name_ + ": " + error) ;
+      } // catch
+
+      synchronized (lock_) {
+        if ((error != null) && (error_ == null))
+          error_ = error ;
+        free_[numberOfFree_++] = buffer ;
+        writing_ = false ;
+        lock_.notifyAll() ;
+      } // synchronized
+    } // while
+  } // writeLoop
+
+  private static void writeFile(ByteBuffer buffer, String path, boolean force)
+      throws IOException {
+    FileOutputStream out = new FileOutputStream(path) ;
+    try {
+      FileChannel channel = out.getChannel() ;
+      while (buffer.hasRemaining())
+        channel.write(buffer) ;
+      if (force)
+        channel.force(true) ;
+    } finally {
+      out.close() ;
+    } // finally
+  } // writeFile
+
+  private static void writeAtomically(ByteBuffer buffer, String path)
+      throws IOException {
+    File file      = new File(path) ;
+    File temporary = new File(path + TEMPORARY_SUFFIX) ;
+    writeFile(buffer, temporary.getPath(), true) ;
+    try {
+      Files.move(temporary.toPath(), file.toPath(),
+          StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING) ;
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temporary.toPath(), file.toPath(),
+          StandardCopyOption.REPLACE_EXISTING) ;
+    } // catch
+  } // writeAtomically
+
+  /**
+   * Waits on the lock, which must be held
+   */
+  private void await() throws JMException {
+    try {
+      lock_.wait() ;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt() ;
+      throw new JMException(name_ + ": interrupted") ;
+    } // catch
+  } // await
+
+  /**
+   * Throws the pending failure, if any; the lock must be held
+   */
+  private void checkError() throws JMException {
+    if (error_ != null) {
+      String error = error_ ;
+      error_ = null ;
+      throw new JMException(name_ + ": " + error) ;
+    } // if
+  } // checkError
+} // BackgroundWriter
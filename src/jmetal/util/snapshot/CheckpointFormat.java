@@ -0,0 +1,61 @@
+//  CheckpointFormat.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.snapshot;
+
+/**
+ * Layout of the checkpoints of an algorithm. All the numbers are
+ * little-endian.
+ * <pre>
+ *   4 bytes  magic number, "JMCP"
+ *   int      version (1)
+ *   short    length of the name of the algorithm, then its UTF-8 bytes
+ *   ...      state of the algorithm, written by CheckpointOutput
+ *   int      CRC-32 of all the previous bytes
+ * </pre>
+ * The state is a sequence of sections; each one starts with the hash of its
+ * name, so that a checkpoint read in another order than it was written is
+ * rejected instead of being misread. Its values have no tags: an algorithm
+ * reads them back in the order it wrote them.
+ * <p>
+ * Solutions are written with their objectives, their decision variables and
+ * all the values set on them by the algorithms (rank, crowding distance,
+ * region...). The matrices of <code>int</code> and <code>double</code> are
+ * written by rows: the length of a row, then either the number of its
+ * non-zero values followed by their indexes and values, or -1 followed by all
+ * its values, whichever is shorter.
+ */
+public class CheckpointFormat {
+  public static final byte[] MAGIC     = {'J', 'M', 'C', 'P'} ;
+  public static final int    VERSION   = 1 ;
+  public static final String EXTENSION = ".ckpt" ;
+
+  // Kinds of the decision variables
+  static final byte REAL        = 1 ;
+  static final byte INT         = 2 ;
+  static final byte ARRAY_REAL  = 3 ;
+  static final byte ARRAY_INT   = 4 ;
+  static final byte BINARY      = 5 ;
+  static final byte BINARY_REAL = 6 ;
+  static final byte PERMUTATION = 7 ;
+
+  // Kinds of the random generators
+  static final byte NO_GENERATOR     = 0 ;
+  static final byte RANDOM_GENERATOR = 1 ;
+  static final byte MERSENNE_TWISTER = 2 ;
+
+  // Number of listed values of a row written in full
+  static final int DENSE_ROW = -1 ;
+} // CheckpointFormat
@@ -0,0 +1,448 @@
+//  CheckpointInput.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+import jmetal.core.Operator;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.core.Variable;
+import jmetal.encodings.variable.ArrayInt;
+import jmetal.encodings.variable.ArrayReal;
+import jmetal.encodings.variable.Binary;
+import jmetal.encodings.variable.BinaryReal;
+import jmetal.encodings.variable.Int;
+import jmetal.encodings.variable.Permutation;
+import jmetal.encodings.variable.Real;
+import jmetal.util.IRandomGenerator;
+import jmetal.util.JMException;
+import jmetal.util.MersenneTwisterFast;
+import jmetal.util.PseudoRandom;
+import jmetal.util.RandomGenerator;
+
+/**
+ * Reads back the state of an algorithm from a checkpoint written by
+ * <code>CheckpointWriter</code>, in the order it was written. The whole
+ * file is read, and its checksum verified, when it is opened.
+ */
+public class CheckpointInput {
+  private final String path_ ;
+  private final ByteBuffer buffer_ ;  // The state, without the trailer
+
+  private CheckpointInput(String path, ByteBuffer buffer) {
+    path_   = path ;
+    buffer_ = buffer ;
+  } // CheckpointInput
+
+  /**
+   * Opens a checkpoint
+   * @param path The checkpoint file
+   * @param algorithm Name of the algorithm which must have written it
+   * @throws JMException If the file cannot be read, is corrupted or was
+   * written by another algorithm
+   */
+  public static CheckpointInput open(String path, String algorithm) throws JMException {
+    ByteBuffer buffer ;
+    try {
+      FileInputStream in = new FileInputStream(path) ;
+      try {
+        FileChannel channel = in.getChannel() ;
+        long size = channel.size() ;
+        if ((size < CheckpointFormat.MAGIC.length + 10) || (size > Integer.MAX_VALUE))
+          throw new JMException(path + " is not a checkpoint") ;
+        buffer = ByteBuffer.allocate((int) size) ;
+        while (buffer.hasRemaining())
+          if (channel.read(buffer) < 0)
+            throw new JMException(path + ": unexpected end of file") ;
+      } finally {
+        in.close() ;
+      } // finally
+    } catch (IOException e) {
+      throw new JMException("CheckpointInput: cannot read " + path + " (" +
+          e.getMessage() + ")") ;
+    } // catch
+    buffer.flip() ;
+    buffer.order(ByteOrder.LITTLE_ENDIAN) ;
+
+    for (int i = 0; i < CheckpointFormat.MAGIC.length; i++)
+      if (buffer.get(i) != CheckpointFormat.MAGIC[i])
+        throw new JMException(path + " is not a checkpoint") ;
+    int end = buffer.limit() - 4 ;
+    CRC32 crc = new CRC32() ;
+    crc.update(buffer.array(), 0, end) ;
+    if ((int) crc.getValue() != buffer.getInt(end))
+      throw new JMException(path + ": corrupted checkpoint (bad checksum)") ;
+    buffer.limit(end) ;
+    buffer.position(CheckpointFormat.MAGIC.length) ;
+
+    CheckpointInput input = new CheckpointInput(path, buffer) ;
+    int version = input.getInt() ;
+    if (version != CheckpointFormat.VERSION)
+      throw new JMException(path + ": unsupported checkpoint version " + version) ;
+    byte[] name = new byte[input.getShort()] ;
+    input.getBytes(name) ;
+    String writer = new String(name, CheckpointOutput.UTF8) ;
+    if (!writer.equals(algorithm))
+      throw new JMException(path + " is a checkpoint of " + writer + ", not of " +
+          algorithm) ;
+    return input ;
+  } // open
+
+  /**
+   * Checks that the next section is the given one
+   * @throws JMException If it is another one
+   */
+  public void section(String name) throws JMException {
+    if (getInt() != name.hashCode())
+      throw new JMException(path_ + ": section " + name + " expected") ;
+  } // section
+
+  /**
+   * Checks that the next value is an <code>int</code> of the given value
+   * @param what What the value is, for the message
+   * @throws JMException If it is another value
+   */
+  public void checkInt(int expected, String what) throws JMException {
+    int value = getInt() ;
+    if (value != expected)
+      throw new JMException(path_ + ": " + what + " is " + value + ", not " + expected) ;
+  } // checkInt
+
+  public boolean getBoolean() throws JMException {
+    return getByte() != 0 ;
+  } // getBoolean
+
+  private byte getByte() throws JMException {
+    try {
+      return buffer_.get() ;
+    } catch (BufferUnderflowException e) {
+      throw truncated() ;
+    } // catch
+  } // getByte
+
+  private short getShort() throws JMException {
+    try {
+      return buffer_.getShort() ;
+    } catch (BufferUnderflowException e) {
+      throw truncated() ;
+    } // catch
+  } // getShort
+
+  private void getBytes(byte[] bytes) throws JMException {
+    try {
+      buffer_.get(bytes) ;
+    } catch (BufferUnderflowException e) {
+      throw truncated() ;
+    } // catch
+  } // getBytes
+
+  public int getInt() throws JMException {
+    try {
+      return buffer_.getInt() ;
+    } catch (BufferUnderflowException e) {
+      throw truncated() ;
+    } // catch
+  } // getInt
+
+  public long getLong() throws JMException {
+    try {
+      return buffer_.getLong() ;
+    } catch (BufferUnderflowException e) {
+      throw truncated() ;
+    } // catch
+  } // getLong
+
+  public double getDouble() throws JMException {
+    try {
+      return buffer_.getDouble() ;
+    } catch (BufferUnderflowException e) {
+      throw truncated() ;
+    } // catch
+  } // getDouble
+
+  public String getString() throws JMException {
+    byte[] bytes = new byte[getLength()] ;
+    getBytes(bytes) ;
+    return new String(bytes, CheckpointOutput.UTF8) ;
+  } // getString
+
+  /**
+   * Reads an array written by <code>putInts</code>
+   */
+  public int[] getInts() throws JMException {
+    int[] values = new int[getLength()] ;
+    for (int i = 0; i < values.length; i++)
+      values[i] = getInt() ;
+    return values ;
+  } // getInts
+
+  /**
+   * Reads an array written by <code>putInts</code> into an array of the
+   * same length
+   */
+  public void getInts(int[] values) throws JMException {
+    checkInt(values.length, "length of the array") ;
+    for (int i = 0; i < values.length; i++)
+      values[i] = getInt() ;
+  } // getInts
+
+  /**
+   * Reads an array written by <code>putDoubles</code>
+   */
+  public double[] getDoubles() throws JMException {
+    double[] values = new double[getLength()] ;
+    for (int i = 0; i < values.length; i++)
+      values[i] = getDouble() ;
+    return values ;
+  } // getDoubles
+
+  /**
+   * Reads an array written by <code>putDoubles</code> into an array of the
+   * same length
+   */
+  public void getDoubles(double[] values) throws JMException {
+    checkInt(values.length, "length of the array") ;
+    for (int i = 0; i < values.length; i++)
+      values[i] = getDouble() ;
+  } // getDoubles
+
+  /**
+   * Reads a matrix written by <code>putIntMatrix</code> into a matrix of
+   * the same size
+   */
+  public void getIntMatrix(int[][] matrix) throws JMException {
+    checkInt(matrix.length, "number of rows") ;
+    for (int[] row : matrix) {
+      checkInt(row.length, "length of the row") ;
+      int count = getInt() ;
+      if (count == CheckpointFormat.DENSE_ROW) {
+        for (int j = 0; j < row.length; j++)
+          row[j] = getInt() ;
+      } else {
+        Arrays.fill(row, 0) ;
+        for (int k = 0; k < count; k++)
+          row[getIndex(row.length)] = getInt() ;
+      } // else
+    } // for
+  } // getIntMatrix
+
+  /**
+   * Reads a matrix written by <code>putDoubleMatrix</code> into a matrix of
+   * the same size
+   */
+  public void getDoubleMatrix(double[][] matrix) throws JMException {
+    checkInt(matrix.length, "number of rows") ;
+    for (double[] row : matrix) {
+      checkInt(row.length, "length of the row") ;
+      int count = getInt() ;
+      if (count == CheckpointFormat.DENSE_ROW) {
+        for (int j = 0; j < row.length; j++)
+          row[j] = getDouble() ;
+      } else {
+        Arrays.fill(row, 0.0) ;
+        for (int k = 0; k < count; k++)
+          row[getIndex(row.length)] = getDouble() ;
+      } // else
+    } // for
+  } // getDoubleMatrix
+
+  /**
+   * Reads a solution written by <code>putSolution</code>. The solution is
+   * created from the problem, which draws random numbers: the random
+   * generator must be read afterwards.
+   * @param problem The problem of the solution
+   */
+  public Solution getSolution(Problem problem) throws JMException {
+    Solution solution ;
+    try {
+      solution = new Solution(problem) ;
+    } catch (ClassNotFoundException e) {
+      throw new JMException("CheckpointInput: " + e.getMessage()) ;
+    } // catch
+
+    int numberOfObjectives = getInt() ;
+    if (numberOfObjectives != solution.getNumberOfObjectives())
+      throw new JMException(path_ + ": solution of " + numberOfObjectives +
+          " objectives instead of " + solution.getNumberOfObjectives()) ;
+    for (int i = 0; i < numberOfObjectives; i++)
+      solution.setObjective(i, getDouble()) ;
+    for (int i = 0; i < numberOfObjectives; i++)
+      solution.setNonTranslateObjecitve(i, getDouble()) ;
+    if (getBoolean())
+      solution.marked() ;
+    if (getBoolean())
+      solution.translated() ;
+
+    solution.setFitness(getDouble()) ;
+    solution.setRank(getInt()) ;
+    solution.setOverallConstraintViolation(getDouble()) ;
+    solution.setNumberOfViolatedConstraint(getInt()) ;
+    solution.setLocation(getInt()) ;
+    solution.setRegion(getInt()) ;
+    solution.Set_diversity(getDouble()) ;
+    solution.Set_associateDist(getDouble()) ;
+    solution.setKDistance(getDouble()) ;
+    solution.setCrowdingDistance(getDouble()) ;
+    solution.setDistanceToSolutionSet(getDouble()) ;
+
+    Variable[] variables = solution.getDecisionVariables() ;
+    checkInt((variables == null) ? 0 : variables.length, "number of variables") ;
+    if (variables != null)
+      for (int i = 0; i < variables.length; i++)
+        getVariable(variables[i]) ;
+    return solution ;
+  } // getSolution
+
+  private void getVariable(Variable variable) throws JMException {
+    byte kind = getByte() ;
+    Class<?> type = variable.getClass() ;
+    if ((kind == CheckpointFormat.REAL) && (type == Real.class)) {
+      variable.setValue(getDouble()) ;
+    } else if ((kind == CheckpointFormat.INT) && (type == Int.class)) {
+      variable.setValue(getDouble()) ;
+    } else if ((kind == CheckpointFormat.ARRAY_REAL) && (type == ArrayReal.class)) {
+      ArrayReal array = (ArrayReal) variable ;
+      checkInt(array.getLength(), "length of the variable") ;
+      for (int i = 0; i < array.getLength(); i++)
+        array.setValue(i, getDouble()) ;
+    } else if ((kind == CheckpointFormat.ARRAY_INT) && (type == ArrayInt.class)) {
+      ArrayInt array = (ArrayInt) variable ;
+      checkInt(array.getLength(), "length of the variable") ;
+      for (int i = 0; i < array.getLength(); i++)
+        array.setValue(i, getInt()) ;
+    } else if (((kind == CheckpointFormat.BINARY) && (type == Binary.class)) ||
+               ((kind == CheckpointFormat.BINARY_REAL) && (type == BinaryReal.class))) {
+      Binary binary = (Binary) variable ;
+      checkInt(binary.getNumberOfBits(), "number of bits") ;
+      long[] words = new long[getLength()] ;
+      for (int i = 0; i < words.length; i++)
+        words[i] = getLong() ;
+      binary.bits_ = BitSet.valueOf(words) ;
+      binary.decode() ;
+    } else if ((kind == CheckpointFormat.PERMUTATION) && (type == Permutation.class)) {
+      int[] vector = ((Permutation) variable).vector_ ;
+      checkInt(vector.length, "length of the permutation") ;
+      for (int i = 0; i < vector.length; i++)
+        vector[i] = getInt() ;
+    } else
+      throw new JMException(path_ + ": a variable of type " + type.getName() +
+          " cannot be read from a variable of kind " + kind) ;
+  } // getVariable
+
+  /**
+   * Reads the solutions written by <code>putSolutionSet</code> into an
+   * empty set
+   * @param problem The problem of the solutions
+   * @param solutions The set receiving them
+   */
+  public void getSolutionSet(Problem problem, SolutionSet solutions) throws JMException {
+    int size = getLength() ;
+    for (int i = 0; i < size; i++)
+      solutions.add(getSolution(problem)) ;
+  } // getSolutionSet
+
+  /**
+   * Restores the state of the generator of <code>PseudoRandom</code> written
+   * by <code>putRandomGenerator</code>: the generator of the calling thread
+   * is reloaded if it is of the same type, otherwise a new one is set as the
+   * shared generator. Nothing is restored if the state was not saved.
+   */
+  public void getRandomGenerator() throws JMException {
+    byte kind = getByte() ;
+    byte[] state = new byte[getLength()] ;
+    getBytes(state) ;
+    if (kind == CheckpointFormat.NO_GENERATOR)
+      return ;
+
+    IRandomGenerator generator = PseudoRandom.getRandomGenerator() ;
+    DataInputStream stream = new DataInputStream(new ByteArrayInputStream(state)) ;
+    try {
+      if (kind == CheckpointFormat.RANDOM_GENERATOR) {
+        if (!(generator instanceof RandomGenerator)) {
+          generator = new RandomGenerator() ;
+          PseudoRandom.setRandomGenerator(generator) ;
+        } // if
+        ((RandomGenerator) generator).readState(stream) ;
+      } else if (kind == CheckpointFormat.MERSENNE_TWISTER) {
+        if (!(generator instanceof MersenneTwisterFast)) {
+          generator = new MersenneTwisterFast() ;
+          PseudoRandom.setRandomGenerator(generator) ;
+        } // if
+        ((MersenneTwisterFast) generator).readState(stream) ;
+      } else
+        throw new JMException(path_ + ": unknown random generator " + kind) ;
+    } catch (IOException e) {
+      throw new JMException(path_ + ": corrupted random generator state") ;
+    } // catch
+  } // getRandomGenerator
+
+  /**
+   * Restores the state of an operator written by <code>putOperator</code>
+   * @throws JMException If the operator is not the one which was saved
+   */
+  public void getOperator(Operator operator) throws JMException {
+    boolean stateful = getBoolean() ;
+    if (stateful != (operator instanceof Checkpointable))
+      throw new JMException(path_ + ": the state of " +
+          operator.getClass().getName() + " does not match the checkpoint") ;
+    if (stateful)
+      ((Checkpointable) operator).readState(this) ;
+  } // getOperator
+
+  /**
+   * Checks that the whole state has been read
+   * @throws JMException If some values are left
+   */
+  public void close() throws JMException {
+    if (buffer_.hasRemaining())
+      throw new JMException(path_ + ": " + buffer_.remaining() +
+          " bytes of the checkpoint were not read") ;
+  } // close
+
+  private int getLength() throws JMException {
+    int length = getInt() ;
+    if ((length < 0) || (length > buffer_.remaining()))
+      throw new JMException(path_ + ": corrupted checkpoint (length " + length + ")") ;
+    return length ;
+  } // getLength
+
+  private int getIndex(int length) throws JMException {
+    int index = getInt() ;
+    if ((index < 0) || (index >= length))
+      throw new JMException(path_ + ": corrupted checkpoint (index " + index + ")") ;
+    return index ;
+  } // getIndex
+
+  private JMException truncated() {
+    return new JMException(path_ + ": truncated checkpoint") ;
+  } // truncated
+
+  public String toString() {
+    return path_ ;
+  } // toString
+} // CheckpointInput
@@ -0,0 +1,326 @@
+//  CheckpointOutput.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import jmetal.core.Operator;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.core.Variable;
+import jmetal.encodings.variable.ArrayInt;
+import jmetal.encodings.variable.ArrayReal;
+import jmetal.encodings.variable.Binary;
+import jmetal.encodings.variable.BinaryReal;
+import jmetal.encodings.variable.Int;
+import jmetal.encodings.variable.Permutation;
+import jmetal.encodings.variable.Real;
+import jmetal.util.Configuration;
+import jmetal.util.IRandomGenerator;
+import jmetal.util.JMException;
+import jmetal.util.MersenneTwisterFast;
+import jmetal.util.PseudoRandom;
+import jmetal.util.RandomGenerator;
+
+/**
+ * The state of an algorithm being written into a checkpoint (see
+ * <code>CheckpointFormat</code>). It is obtained from
+ * <code>CheckpointWriter.begin</code> and handed back to
+ * <code>CheckpointWriter.commit</code>; the values are copied into a buffer
+ * which grows as needed, so the algorithm may go on as soon as it is
+ * committed.
+ */
+public class CheckpointOutput {
+  static final Charset UTF8 = Charset.forName("UTF-8") ;
+
+  private static boolean warned_ = false ;  // Generator which cannot be saved
+
+  private final BackgroundWriter writer_ ;
+  private ByteBuffer buffer_ ;
+
+  CheckpointOutput(BackgroundWriter writer, ByteBuffer buffer) {
+    writer_ = writer ;
+    buffer_ = buffer ;
+  } // CheckpointOutput
+
+  ByteBuffer buffer() {
+    return buffer_ ;
+  } // buffer
+
+  /**
+   * Makes room for the given number of bytes
+   */
+  void ensure(long bytes) throws JMException {
+    if (buffer_.remaining() < bytes)
+      buffer_ = writer_.grow(buffer_, (long) buffer_.position() + bytes) ;
+  } // ensure
+
+  /**
+   * Starts a section of the state
+   * @param name Name of the section, checked when it is read
+   */
+  public void section(String name) throws JMException {
+    putInt(name.hashCode()) ;
+  } // section
+
+  public void putBoolean(boolean value) throws JMException {
+    ensure(1) ;
+    buffer_.put(value ? (byte) 1 : (byte) 0) ;
+  } // putBoolean
+
+  public void putInt(int value) throws JMException {
+    ensure(4) ;
+    buffer_.putInt(value) ;
+  } // putInt
+
+  public void putLong(long value) throws JMException {
+    ensure(8) ;
+    buffer_.putLong(value) ;
+  } // putLong
+
+  public void putDouble(double value) throws JMException {
+    ensure(8) ;
+    buffer_.putDouble(value) ;
+  } // putDouble
+
+  public void putString(String value) throws JMException {
+    byte[] bytes = value.getBytes(UTF8) ;
+    putInt(bytes.length) ;
+    ensure(bytes.length) ;
+    buffer_.put(bytes) ;
+  } // putString
+
+  /**
+   * Writes an array, preceded by its length
+   */
+  public void putInts(int[] values) throws JMException {
+    ensure(4 + 4L * values.length) ;
+    buffer_.putInt(values.length) ;
+    for (int i = 0; i < values.length; i++)
+      buffer_.putInt(values[i]) ;
+  } // putInts
+
+  /**
+   * Writes an array, preceded by its length
+   */
+  public void putDoubles(double[] values) throws JMException {
+    ensure(4 + 8L * values.length) ;
+    buffer_.putInt(values.length) ;
+    for (int i = 0; i < values.length; i++)
+      buffer_.putDouble(values[i]) ;
+  } // putDoubles
+
+  /**
+   * Writes a matrix by rows, the rows holding mostly zeros as lists of
+   * their other values
+   */
+  public void putIntMatrix(int[][] matrix) throws JMException {
+    putInt(matrix.length) ;
+    for (int[] row : matrix) {
+      int nonZero = 0 ;
+      for (int j = 0; j < row.length; j++)
+        if (row[j] != 0)
+          nonZero++ ;
+      ensure(8 + 8L * row.length) ;
+      buffer_.putInt(row.length) ;
+      if (2 * nonZero < row.length) {
+        buffer_.putInt(nonZero) ;
+        for (int j = 0; j < row.length; j++)
+          if (row[j] != 0) {
+            buffer_.putInt(j) ;
+            buffer_.putInt(row[j]) ;
+          } // if
+      } else {
+        buffer_.putInt(CheckpointFormat.DENSE_ROW) ;
+        for (int j = 0; j < row.length; j++)
+          buffer_.putInt(row[j]) ;
+      } // else
+    } // for
+  } // putIntMatrix
+
+  /**
+   * Writes a matrix by rows, the rows holding mostly zeros (positive zeros)
+   * as lists of their other values
+   */
+  public void putDoubleMatrix(double[][] matrix) throws JMException {
+    putInt(matrix.length) ;
+    for (double[] row : matrix) {
+      int nonZero = 0 ;
+      for (int j = 0; j < row.length; j++)
+        if (Double.doubleToRawLongBits(row[j]) != 0)
+          nonZero++ ;
+      ensure(8 + 12L * row.length) ;
+      buffer_.putInt(row.length) ;
+      if (3 * nonZero < 2 * row.length) {
+        buffer_.putInt(nonZero) ;
+        for (int j = 0; j < row.length; j++)
+          if (Double.doubleToRawLongBits(row[j]) != 0) {
+            buffer_.putInt(j) ;
+            buffer_.putDouble(row[j]) ;
+          } // if
+      } else {
+        buffer_.putInt(CheckpointFormat.DENSE_ROW) ;
+        for (int j = 0; j < row.length; j++)
+          buffer_.putDouble(row[j]) ;
+      } // else
+    } // for
+  } // putDoubleMatrix
+
+  /**
+   * Writes a solution: its objectives, its decision variables and the
+   * values set on it by the algorithms
+   * @throws JMException If a variable is of an unknown type
+   */
+  public void putSolution(Solution solution) throws JMException {
+    int numberOfObjectives = solution.getNumberOfObjectives() ;
+    putInt(numberOfObjectives) ;
+    ensure(16L * numberOfObjectives + 2) ;
+    for (int i = 0; i < numberOfObjectives; i++)
+      buffer_.putDouble(solution.getObjective(i)) ;
+    for (int i = 0; i < numberOfObjectives; i++)
+      buffer_.putDouble(solution.getNonTranslateObjective(i)) ;
+    buffer_.put(solution.isMarked() ? (byte) 1 : (byte) 0) ;
+    buffer_.put(solution.isTranslated() ? (byte) 1 : (byte) 0) ;
+
+    putDouble(solution.getFitness()) ;
+    putInt(solution.getRank()) ;
+    putDouble(solution.getOverallConstraintViolation()) ;
+    putInt(solution.getNumberOfViolatedConstraint()) ;
+    putInt(solution.getLocation()) ;
+    putInt(solution.readRegion()) ;
+    putDouble(solution.read_diversity()) ;
+    putDouble(solution.read_associateDist()) ;
+    putDouble(solution.getKDistance()) ;
+    putDouble(solution.getCrowdingDistance()) ;
+    putDouble(solution.getDistanceToSolutionSet()) ;
+
+    Variable[] variables = solution.getDecisionVariables() ;
+    putInt((variables == null) ? 0 : variables.length) ;
+    if (variables != null)
+      for (int i = 0; i < variables.length; i++)
+        putVariable(variables[i]) ;
+  } // putSolution
+
+  private void putVariable(Variable variable) throws JMException {
+    Class<?> type = variable.getClass() ;
+    if (type == Real.class) {
+      ensure(9) ;
+      buffer_.put(CheckpointFormat.REAL) ;
+      buffer_.putDouble(variable.getValue()) ;
+    } else if (type == Int.class) {
+      ensure(9) ;
+      buffer_.put(CheckpointFormat.INT) ;
+      buffer_.putDouble(variable.getValue()) ;
+    } else if (type == ArrayReal.class) {
+      ArrayReal array = (ArrayReal) variable ;
+      ensure(5 + 8L * array.getLength()) ;
+      buffer_.put(CheckpointFormat.ARRAY_REAL) ;
+      buffer_.putInt(array.getLength()) ;
+      for (int i = 0; i < array.getLength(); i++)
+        buffer_.putDouble(array.getValue(i)) ;
+    } else if (type == ArrayInt.class) {
+      ArrayInt array = (ArrayInt) variable ;
+      ensure(5 + 4L * array.getLength()) ;
+      buffer_.put(CheckpointFormat.ARRAY_INT) ;
+      buffer_.putInt(array.getLength()) ;
+      for (int i = 0; i < array.getLength(); i++)
+        buffer_.putInt(array.getValue(i)) ;
+    } else if ((type == Binary.class) || (type == BinaryReal.class)) {
+      Binary binary = (Binary) variable ;
+      long[] words = binary.bits_.toLongArray() ;
+      ensure(9 + 8L * words.length) ;
+      buffer_.put((type == Binary.class) ? CheckpointFormat.BINARY :
+                                           CheckpointFormat.BINARY_REAL) ;
+      buffer_.putInt(binary.getNumberOfBits()) ;
+      buffer_.putInt(words.length) ;
+      for (int i = 0; i < words.length; i++)
+        buffer_.putLong(words[i]) ;
+    } else if (type == Permutation.class) {
+      int[] vector = ((Permutation) variable).vector_ ;
+      ensure(5 + 4L * vector.length) ;
+      buffer_.put(CheckpointFormat.PERMUTATION) ;
+      buffer_.putInt(vector.length) ;
+      for (int i = 0; i < vector.length; i++)
+        buffer_.putInt(vector[i]) ;
+    } else
+      throw new JMException("CheckpointOutput: variables of type " +
+          type.getName() + " cannot be saved") ;
+  } // putVariable
+
+  /**
+   * Writes the solutions of a set, preceded by their number
+   */
+  public void putSolutionSet(SolutionSet solutions) throws JMException {
+    putInt(solutions.size()) ;
+    for (int i = 0; i < solutions.size(); i++)
+      putSolution(solutions.get(i)) ;
+  } // putSolutionSet
+
+  /**
+   * Writes the state of the generator of <code>PseudoRandom</code> used by
+   * the calling thread. A generator other than <code>RandomGenerator</code>
+   * and <code>MersenneTwisterFast</code> cannot be saved: a warning is
+   * logged, and a run resumed from the checkpoint goes on with the generator
+   * it has.
+   */
+  public void putRandomGenerator() throws JMException {
+    IRandomGenerator generator = PseudoRandom.getRandomGenerator() ;
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream() ;
+    DataOutputStream stream = new DataOutputStream(bytes) ;
+    byte kind ;
+    try {
+      if (generator instanceof RandomGenerator) {
+        kind = CheckpointFormat.RANDOM_GENERATOR ;
+        ((RandomGenerator) generator).writeState(stream) ;
+      } else if (generator instanceof MersenneTwisterFast) {
+        kind = CheckpointFormat.MERSENNE_TWISTER ;
+        ((MersenneTwisterFast) generator).writeState(stream) ;
+      } else {
+        kind = CheckpointFormat.NO_GENERATOR ;
+        if (!warned_) {
+          warned_ = true ;
+          Configuration.logger_.warning("CheckpointOutput: the state of " +
+              generator.getClass().getName() + " cannot be saved; a resumed " +
+              "run will not draw the same numbers") ;
+        } // if
+      } // else
+      stream.flush() ;
+    } catch (IOException e) {
+      throw new JMException("CheckpointOutput: " + e.getMessage()) ;
+    } // catch
+
+    ensure(1) ;
+    buffer_.put(kind) ;
+    putInt(bytes.size()) ;
+    ensure(bytes.size()) ;
+    buffer_.put(bytes.toByteArray()) ;
+  } // putRandomGenerator
+
+  /**
+   * Writes the state of an operator, if it has one (see
+   * <code>Checkpointable</code>)
+   */
+  public void putOperator(Operator operator) throws JMException {
+    boolean stateful = (operator instanceof Checkpointable) ;
+    putBoolean(stateful) ;
+    if (stateful)
+      ((Checkpointable) operator).writeState(this) ;
+  } // putOperator
+} // CheckpointOutput
@@ -0,0 +1,137 @@
+//  CheckpointWriter.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.snapshot;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import jmetal.core.Algorithm;
+import jmetal.util.JMException;
+
+/**
+ * Writes the checkpoints of an algorithm (see <code>CheckpointFormat</code>)
+ * on a background thread. The state is copied into a buffer between
+ * <code>begin</code> and <code>commit</code>, then written next to the
+ * checkpoint file and renamed over it: a crash leaves either the previous
+ * checkpoint or the new one, never a partial file.
+ * <p>
+ * An algorithm supporting checkpoints reads these input parameters:
+ * <ul>
+ * <li><code>checkpointFile</code>: the file (no checkpoints if not set);</li>
+ * <li><code>checkpointInterval</code>: the number of generations between two
+ * checkpoints (<code>DEFAULT_INTERVAL</code> if not set);</li>
+ * <li><code>resumeFrom</code>: a checkpoint to resume the run from.</li>
+ * </ul>
+ */
+public class CheckpointWriter {
+  public static final int DEFAULT_INTERVAL = 10 ;
+
+  private static final int INITIAL_SIZE = 1 << 16 ;
+
+  private final BackgroundWriter writer_ ;
+  private final String path_ ;
+  private final int interval_ ;
+  private long lastSize_ ;  // Size of the last checkpoint, to size the next buffer
+
+  /**
+   * Constructor
+   * @param path The checkpoint file
+   * @param interval Number of generations between two checkpoints
+   */
+  public CheckpointWriter(String path, int interval) {
+    if (interval < 1)
+      throw new IllegalArgumentException("CheckpointWriter: interval " + interval) ;
+    writer_   = new BackgroundWriter("CheckpointWriter", true) ;
+    path_     = path ;
+    interval_ = interval ;
+    lastSize_ = INITIAL_SIZE ;
+  } // CheckpointWriter
+
+  /**
+   * Creates the writer asked for by the input parameters
+   * <code>checkpointFile</code> and <code>checkpointInterval</code> of an
+   * algorithm
+   * @return The writer, or null if the algorithm has no checkpoint file
+   */
+  public static CheckpointWriter forAlgorithm(Algorithm algorithm) {
+    Object path = algorithm.getInputParameter("checkpointFile") ;
+    if (path == null)
+      return null ;
+    Object interval = algorithm.getInputParameter("checkpointInterval") ;
+    return new CheckpointWriter(path.toString(), (interval == null) ?
+        DEFAULT_INTERVAL : ((Integer) interval).intValue()) ;
+  } // forAlgorithm
+
+  /**
+   * Tells whether a checkpoint is due after a generation
+   * @param generation Number of generations done
+   */
+  public boolean isDue(int generation) {
+    return generation % interval_ == 0 ;
+  } // isDue
+
+  /**
+   * Starts a checkpoint; it is written once handed to <code>commit</code>
+   * @param algorithm Name of the algorithm, checked when it is read
+   * @throws JMException If the writer is closed or a previous write failed
+   */
+  public CheckpointOutput begin(String algorithm) throws JMException {
+    byte[] name = algorithm.getBytes(CheckpointOutput.UTF8) ;
+    ByteBuffer buffer = writer_.acquire(Math.max(lastSize_, 64 + name.length)) ;
+    buffer.put(CheckpointFormat.MAGIC) ;
+    buffer.putInt(CheckpointFormat.VERSION) ;
+    buffer.putShort((short) name.length) ;
+    buffer.put(name) ;
+    return new CheckpointOutput(writer_, buffer) ;
+  } // begin
+
+  /**
+   * Ends a checkpoint and hands it to the writer thread
+   * @param out The state, obtained from <code>begin</code>
+   */
+  public void commit(CheckpointOutput out) throws JMException {
+    out.ensure(4) ;
+    ByteBuffer buffer = out.buffer() ;
+    ByteBuffer written = buffer.duplicate() ;
+    written.flip() ;
+    CRC32 crc = new CRC32() ;
+    crc.update(written) ;
+    buffer.putInt((int) crc.getValue()) ;
+    buffer.flip() ;
+    lastSize_ = buffer.limit() ;
+    writer_.submit(buffer, path_) ;
+  } // commit
+
+  /**
+   * Waits until the submitted checkpoints are written
+   * @throws JMException If a write failed
+   */
+  public void flush() throws JMException {
+    writer_.flush() ;
+  } // flush
+
+  /**
+   * Writes the pending checkpoint and stops the writer thread
+   * @throws JMException If a write failed
+   */
+  public void close() throws JMException {
+    writer_.close() ;
+  } // close
+
+  public String getPath() {
+    return path_ ;
+  } // getPath
+} // CheckpointWriter
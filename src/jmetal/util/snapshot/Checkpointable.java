@@ -0,0 +1,35 @@
+//  Checkpointable.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.snapshot;
+
+import jmetal.util.JMException;
+
+/**
+ * An object (typically an operator) whose state changes along a run and
+ * must be saved in the checkpoints of the algorithms using it, so that a
+ * resumed run makes the same choices as an uninterrupted one.
+ */
+public interface Checkpointable {
+  /**
+   * Writes the state
+   */
+  public void writeState(CheckpointOutput out) throws JMException ;
+
+  /**
+   * Reads back the state written by <code>writeState</code>
+   */
+  public void readState(CheckpointInput in) throws JMException ;
+} // Checkpointable
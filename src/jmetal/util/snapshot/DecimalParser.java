@@ -0,0 +1,243 @@
+//  DecimalParser.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.snapshot;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Parses decimal numbers written in ASCII bytes, without allocating anything,
+ * into the same <code>double</code> values as <code>Double.parseDouble</code>.
+ * <p>
+ * A number of at most 19 significant digits is converted by the algorithm of
+ * Eisel and Lemire (as in the Go standard library), which multiplies the
+ * digits by a 128-bit approximation of the power of ten and returns the
+ * correctly rounded value, or reports the rare cases that it cannot decide.
+ * Those cases, and the other spellings accepted by <code>Double</code>
+ * ("NaN", "Infinity", hexadecimal numbers, more digits...), are handed to
+ * <code>Double.parseDouble</code>.
+ */
+class DecimalParser {
+  private static final int MIN_EXPONENT = -348 ;
+  private static final int MAX_EXPONENT =  347 ;
+
+  // 10^e = (HIGH_ * 2^64 + LOW_) * 2^k, rounded down, with the top bit of
+  // HIGH_ set
+  private static final long[] HIGH_ ;
+  private static final long[] LOW_ ;
+
+  static {
+    int size = MAX_EXPONENT - MIN_EXPONENT + 1 ;
+    HIGH_ = new long[size] ;
+    LOW_  = new long[size] ;
+    BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE) ;
+    for (int e = MIN_EXPONENT; e <= MAX_EXPONENT; e++) {
+      BigInteger mantissa ;
+      if (e >= 0) {
+        mantissa = BigInteger.TEN.pow(e) ;
+        int length = mantissa.bitLength() ;
+        mantissa = (length > 128) ? mantissa.shiftRight(length - 128) :
+                                    mantissa.shiftLeft(128 - length) ;
+      } else {
+        BigInteger divisor = BigInteger.TEN.pow(-e) ;
+        mantissa = BigInteger.ONE.shiftLeft(127 + divisor.bitLength()).divide(divisor) ;
+      } // else
+      HIGH_[e - MIN_EXPONENT] = mantissa.shiftRight(64).longValue() ;
+      LOW_[e - MIN_EXPONENT]  = mantissa.and(mask).longValue() ;
+    } // for
+  } // static
+
+  private final char[] chars_ ;  // Characters of the numbers handed to Double
+  private int end_ ;
+
+  /**
+   * Constructor
+   */
+  DecimalParser() {
+    chars_ = new char[64] ;
+  } // DecimalParser
+
+  /**
+   * Parses the number which starts at position from of a buffer (absolute
+   * positions); it ends at the first blank or at position limit, which is
+   * then returned by <code>end</code>
+   * @throws NumberFormatException If it is not a number
+   */
+  double parse(ByteBuffer buffer, int from, int limit) {
+    int i = from ;
+    boolean negative = false ;
+    byte b = buffer.get(i) ;
+    if ((b == '-') || (b == '+')) {
+      negative = (b == '-') ;
+      i++ ;
+    } // if
+
+    long mantissa = 0 ;
+    int digits    = 0 ;     // Significant digits in the mantissa
+    int exponent  = 0 ;
+    boolean any   = false ;
+
+    while ((i < limit) && ((b = buffer.get(i)) >= '0') && (b <= '9')) {
+      any = true ;
+      if ((mantissa != 0) || (b != '0')) {
+        if (digits == 19)
+          return fallback(buffer, from, i, limit) ;
+        mantissa = 10 * mantissa + (b - '0') ;
+        digits++ ;
+      } // if
+      i++ ;
+    } // while
+    if ((i < limit) && (buffer.get(i) == '.')) {
+      i++ ;
+      while ((i < limit) && ((b = buffer.get(i)) >= '0') && (b <= '9')) {
+        any = true ;
+        if ((mantissa != 0) || (b != '0')) {
+          if (digits == 19)
+            return fallback(buffer, from, i, limit) ;
+          mantissa = 10 * mantissa + (b - '0') ;
+          digits++ ;
+        } // if
+        exponent-- ;
+        i++ ;
+      } // while
+    } // if
+    if (!any)
+      return fallback(buffer, from, i, limit) ;
+
+    if ((i < limit) && (((b = buffer.get(i)) == 'e') || (b == 'E'))) {
+      i++ ;
+      boolean negativeExponent = false ;
+      if ((i < limit) && (((b = buffer.get(i)) == '-') || (b == '+'))) {
+        negativeExponent = (b == '-') ;
+        i++ ;
+      } // if
+      if ((i == limit) || ((b = buffer.get(i)) < '0') || (b > '9'))
+        return fallback(buffer, from, i, limit) ;
+      int value = 0 ;
+      while ((i < limit) && ((b = buffer.get(i)) >= '0') && (b <= '9')) {
+        if (value < 100000)
+          value = 10 * value + (b - '0') ;
+        i++ ;
+      } // while
+      exponent += negativeExponent ? -value : value ;
+    } // if
+    if ((i < limit) && !isBlank(buffer.get(i)))
+      return fallback(buffer, from, i, limit) ;
+    end_ = i ;
+
+    if (mantissa == 0)
+      return negative ? -0.0 : 0.0 ;
+    if ((exponent < MIN_EXPONENT) || (exponent > MAX_EXPONENT))
+      return fallback(buffer, from, i, limit) ;
+
+    long bits = eiselLemire(mantissa, exponent) ;
+    if (bits < 0)
+      return fallback(buffer, from, i, limit) ;
+    return negative ? -Double.longBitsToDouble(bits) : Double.longBitsToDouble(bits) ;
+  } // parse
+
+  /**
+   * Returns the end (exclusive) of the last parsed number
+   */
+  int end() {
+    return end_ ;
+  } // end
+
+  static boolean isBlank(byte b) {
+    return (b == ' ') || (b == '\t') || (b == '\n') || (b == '\r') || (b == '\f') ;
+  } // isBlank
+
+  /**
+   * Returns the bits of the double closest to mantissa * 10^exponent (the
+   * mantissa is not 0), or -1 if the approximation cannot decide
+   */
+  private static long eiselLemire(long mantissa, int exponent) {
+    int zeros = Long.numberOfLeadingZeros(mantissa) ;
+    mantissa <<= zeros ;
+    long exponent2 = ((217706L * exponent) >> 16) + 64 + 1023 - zeros ;
+
+    int  index = exponent - MIN_EXPONENT ;
+    long xHigh = multiplyHigh(mantissa, HIGH_[index]) ;
+    long xLow  = mantissa * HIGH_[index] ;
+
+    // The lower part of the power of ten may change the result
+    if (((xHigh & 0x1FF) == 0x1FF) && lessUnsigned(xLow + mantissa, mantissa)) {
+      long yHigh = multiplyHigh(mantissa, LOW_[index]) ;
+      long yLow  = mantissa * LOW_[index] ;
+      long mergedHigh = xHigh ;
+      long mergedLow  = xLow + yHigh ;
+      if (lessUnsigned(mergedLow, xLow))
+        mergedHigh++ ;
+      if (((mergedHigh & 0x1FF) == 0x1FF) && (mergedLow + 1 == 0) &&
+          lessUnsigned(yLow + mantissa, mantissa))
+        return -1 ;
+      xHigh = mergedHigh ;
+      xLow  = mergedLow ;
+    } // if
+
+    // 54 bits, then 53 bits rounded to nearest, ties to even
+    long msb = xHigh >>> 63 ;
+    long result = xHigh >>> (msb + 9) ;
+    exponent2 -= 1 ^ msb ;
+    if ((xLow == 0) && ((xHigh & 0x1FF) == 0) && ((result & 3) == 1))
+      return -1 ;
+    result += result & 1 ;
+    result >>>= 1 ;
+    if ((result >>> 53) > 0) {
+      result >>>= 1 ;
+      exponent2++ ;
+    } // if
+
+    // Subnormal numbers and infinities are left to Double
+    if ((exponent2 <= 0) || (exponent2 >= 0x7FF))
+      return -1 ;
+    return (exponent2 << 52) | (result & 0x000FFFFFFFFFFFFFL) ;
+  } // eiselLemire
+
+  /**
+   * High 64 bits of the unsigned product of a and b
+   */
+  private static long multiplyHigh(long a, long b) {
+    long aLow  = a & 0xFFFFFFFFL ;
+    long aHigh = a >>> 32 ;
+    long bLow  = b & 0xFFFFFFFFL ;
+    long bHigh = b >>> 32 ;
+    long lowLow   = aLow * bLow ;
+    long highLow  = aHigh * bLow ;
+    long lowHigh  = aLow * bHigh ;
+    long cross = (lowLow >>> 32) + (highLow & 0xFFFFFFFFL) + lowHigh ;
+    return aHigh * bHigh + (highLow >>> 32) + (cross >>> 32) ;
+  } // multiplyHigh
+
+  private static boolean lessUnsigned(long a, long b) {
+    return (a ^ Long.MIN_VALUE) < (b ^ Long.MIN_VALUE) ;
+  } // lessUnsigned
+
+  /**
+   * Hands the number to Double; position i is inside it
+   */
+  private double fallback(ByteBuffer buffer, int from, int i, int limit) {
+    while ((i < limit) && !isBlank(buffer.get(i)))
+      i++ ;
+    end_ = i ;
+
+    int length = i - from ;
+    char[] chars = (length <= chars_.length) ? chars_ : new char[length] ;
+    for (int k = 0; k < length; k++)
+      chars[k] = (char) (buffer.get(from + k) & 0xFF) ;
+    return Double.parseDouble(new String(chars, 0, length)) ;
+  } // fallback
+} // DecimalParser
@@ -0,0 +1,253 @@
+//  FrontReader.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.snapshot;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a matrix of numbers (a front, a set of weight vectors...) into a flat
+ * <code>double</code> array, one row after the other.
+ * <p>
+ * A text file has one row per line, with the values separated by blanks; the
+ * empty lines are skipped, and all the rows must have the same number of
+ * values. It is mapped in memory with <code>FileChannel.map</code> and its
+ * numbers are parsed in place by <code>DecimalParser</code>, with the same
+ * results as <code>Double.parseDouble</code>. Small files, and files too large
+ * to be mapped, are read through a buffer instead.
+ * <p>
+ * A binary snapshot (see <code>SnapshotFormat</code>) is recognized by its
+ * magic number; its objectives are read.
+ */
+public class FrontReader {
+  /**
+   * Text files smaller than this are read through a buffer
+   */
+  public static final long MIN_MAPPED_SIZE = 1 << 16 ;
+
+  /**
+   * Text files larger than this are read through a buffer
+   */
+  public static final long MAX_MAPPED_SIZE = Integer.MAX_VALUE ;
+
+  private static final int BUFFER_SIZE = 1 << 20 ;
+
+  private final String path_ ;
+  private double[] values_ ;
+  private int rows_ ;
+  private int columns_ ;
+
+  // State of the parse
+  private int valuesInLine_ ;
+  private int line_ ;
+
+  private FrontReader(String path) {
+    path_    = path ;
+    rows_    = 0 ;
+    columns_ = 0 ;
+  } // FrontReader
+
+  /**
+   * Reads a text file or a snapshot
+   * @param path The file
+   * @throws IOException If the file cannot be read, a number is not valid or
+   * the rows have different lengths
+   */
+  public static FrontReader read(String path) throws IOException {
+    FrontReader reader = new FrontReader(path) ;
+    if (SnapshotFormat.isSnapshot(path)) {
+      SnapshotReader snapshot = new SnapshotReader(path) ;
+      reader.rows_    = snapshot.getNumberOfRows() ;
+      reader.columns_ = snapshot.getNumberOfObjectives() ;
+      reader.values_  = snapshot.getObjectiveValues() ;
+      return reader ;
+    } // if
+
+    FileInputStream in = new FileInputStream(path) ;
+    try {
+      FileChannel channel = in.getChannel() ;
+      long size = channel.size() ;
+      if ((size >= MIN_MAPPED_SIZE) && (size <= MAX_MAPPED_SIZE))
+        reader.parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), null, size) ;
+      else
+        reader.parse(ByteBuffer.allocate((int) Math.min(size + 1, BUFFER_SIZE)), channel, size) ;
+    } finally {
+      in.close() ;
+    } // finally
+    return reader ;
+  } // read
+
+  /**
+   * Reads a text file through a buffer, without mapping it
+   * @param path The file
+   * @throws IOException If the file cannot be read, a number is not valid or
+   * the rows have different lengths
+   */
+  public static FrontReader readStreaming(String path) throws IOException {
+    FrontReader reader = new FrontReader(path) ;
+    FileInputStream in = new FileInputStream(path) ;
+    try {
+      FileChannel channel = in.getChannel() ;
+      reader.parse(ByteBuffer.allocate(BUFFER_SIZE), channel, channel.size()) ;
+    } finally {
+      in.close() ;
+    } // finally
+    return reader ;
+  } // readStreaming
+
+  /**
+   * Parses the numbers of a buffer; if a channel is given, the buffer is
+   * empty and refilled from the channel, otherwise it holds the whole file
+   */
+  private void parse(ByteBuffer buffer, FileChannel channel, long size)
+      throws IOException {
+    values_ = new double[(int) Math.max(16, Math.min(size / 16, 1 << 24))] ;
+    columns_ = -1 ;
+    valuesInLine_ = 0 ;
+    line_ = 1 ;
+    DecimalParser parser = new DecimalParser() ;
+
+    boolean end = (channel == null) ;
+    if (!end) {
+      buffer.limit(0) ;
+      end = fill(buffer, channel) ;
+    } // if
+    int limit = buffer.limit() ;
+    int i = 0 ;
+    while (true) {
+      // Blanks and line ends
+      while (i < limit) {
+        byte b = buffer.get(i) ;
+        if ((b == '\n') || (b == '\r')) {
+          endLine() ;
+          if (b == '\n')
+            line_++ ;
+        } else if ((b != ' ') && (b != '\t') && (b != '\f'))
+          break ;
+        i++ ;
+      } // while
+
+      if (i == limit) {
+        if (end)
+          break ;
+        buffer.position(i) ;
+        end = fill(buffer, channel) ;
+        limit = buffer.limit() ;
+        i = 0 ;
+        continue ;
+      } // if
+
+      // A number: it ends at a blank, or at the end of the file
+      int start = i ;
+      double value ;
+      try {
+        value = parser.parse(buffer, start, limit) ;
+      } catch (NumberFormatException e) {
+        value = 0 ;
+        if (end || (parser.end() < limit))
+          throw new IOException(path_ + ", line " + line_ + ": " + e.getMessage()) ;
+      } // catch
+      i = parser.end() ;
+      if ((i == limit) && !end) {
+        // The number may go on in the next part of the file
+        if (start == 0)
+          throw new IOException(path_ + ", line " + line_ + ": value too long") ;
+        buffer.position(start) ;
+        end = fill(buffer, channel) ;
+        limit = buffer.limit() ;
+        i = 0 ;
+        continue ;
+      } // if
+      if (rows_ * columns_ + valuesInLine_ >= values_.length) {
+        double[] values = new double[2 * values_.length] ;
+        System.arraycopy(values_, 0, values, 0, values_.length) ;
+        values_ = values ;
+      } // if
+      values_[rows_ * Math.max(columns_, 0) + valuesInLine_] = value ;
+      valuesInLine_++ ;
+    } // while
+    endLine() ;
+
+    if (columns_ < 0)
+      columns_ = 0 ;
+    if (values_.length != rows_ * columns_) {
+      double[] values = new double[rows_ * columns_] ;
+      System.arraycopy(values_, 0, values, 0, values.length) ;
+      values_ = values ;
+    } // if
+  } // parse
+
+  /**
+   * Moves the bytes from the position of the buffer to its beginning and
+   * reads the channel after them; returns true at the end of the file
+   */
+  private static boolean fill(ByteBuffer buffer, FileChannel channel) throws IOException {
+    buffer.compact() ;
+    int read = 0 ;
+    while (buffer.hasRemaining() && ((read = channel.read(buffer)) >= 0))
+      ;
+    buffer.flip() ;
+    return read < 0 ;
+  } // fill
+
+  private void endLine() throws IOException {
+    if (valuesInLine_ == 0)
+      return ;
+    if (columns_ < 0)
+      columns_ = valuesInLine_ ;
+    else if (valuesInLine_ != columns_)
+      throw new IOException(path_ + ", line " + line_ + ": " + valuesInLine_ +
+          " values instead of " + columns_) ;
+    rows_++ ;
+    valuesInLine_ = 0 ;
+  } // endLine
+
+  public int getNumberOfRows() {
+    return rows_ ;
+  } // getNumberOfRows
+
+  public int getNumberOfColumns() {
+    return columns_ ;
+  } // getNumberOfColumns
+
+  /**
+   * Returns the values, row after row; the value of column k of row i is at
+   * i * getNumberOfColumns() + k
+   */
+  public double[] getValues() {
+    return values_ ;
+  } // getValues
+
+  /**
+   * Returns the values as a matrix, one array per row
+   */
+  public double[][] toMatrix() {
+    double[][] matrix = new double[rows_][columns_] ;
+    copyTo(matrix) ;
+    return matrix ;
+  } // toMatrix
+
+  /**
+   * Copies the rows into the first rows of a matrix, which must be large
+   * enough
+   */
+  public void copyTo(double[][] matrix) {
+    for (int i = 0; i < rows_; i++)
+      System.arraycopy(values_, i * columns_, matrix[i], 0, columns_) ;
+  } // copyTo
+} // FrontReader
@@ -0,0 +1,81 @@
+//  SnapshotConverter.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.snapshot;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+
+/**
+ * Converts a snapshot into the text files written by
+ * <code>SolutionSet.printObjectivesToFile</code> and
+ * <code>SolutionSet.printVariablesToFile</code>: one line per solution, each
+ * value followed by a space.
+ * <p>
+ * Usage: <code>java jmetal.util.snapshot.SnapshotConverter snapshot FUN [VAR]</code>
+ */
+public class SnapshotConverter {
+
+  /**
+   * Writes the objectives of a snapshot to a text file
+   * @param snapshot The snapshot file
+   * @param objectivesFile The text file of the objectives
+   */
+  public static void toText(String snapshot, String objectivesFile) throws IOException {
+    toText(snapshot, objectivesFile, null) ;
+  } // toText
+
+  /**
+   * Writes the objectives and the variables of a snapshot to text files
+   * @param snapshot The snapshot file
+   * @param objectivesFile The text file of the objectives
+   * @param variablesFile The text file of the variables, or null; it is
+   * not written if the snapshot has no variables
+   */
+  public static void toText(String snapshot, String objectivesFile,
+                            String variablesFile) throws IOException {
+    SnapshotReader reader = new SnapshotReader(snapshot) ;
+    write(reader.getObjectives(), objectivesFile) ;
+    if ((variablesFile != null) && (reader.getNumberOfVariables() > 0))
+      write(reader.getVariables(), variablesFile) ;
+  } // toText
+
+  private static void write(double[][] rows, String path) throws IOException {
+    BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
+        new FileOutputStream(path))) ;
+    try {
+      StringBuilder line = new StringBuilder() ;
+      for (double[] row : rows) {
+        line.setLength(0) ;
+        for (double value : row)
+          line.append(value).append(' ') ;
+        bw.write(line.toString()) ;
+        bw.newLine() ;
+      } // for
+    } finally {
+      bw.close() ;
+    } // finally
+  } // write
+
+  public static void main(String[] args) throws IOException {
+    if ((args.length < 2) || (args.length > 3)) {
+      System.err.println("Usage: java jmetal.util.snapshot.SnapshotConverter snapshot FUN [VAR]") ;
+      System.exit(-1) ;
+    } // if
+    toText(args[0], args[1], (args.length == 3) ? args[2] : null) ;
+  } // main
+} // SnapshotConverter
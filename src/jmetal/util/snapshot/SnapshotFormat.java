@@ -0,0 +1,83 @@
+//  SnapshotFormat.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.snapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Layout of the binary snapshots of a solution set. All the numbers are
+ * little-endian.
+ * <pre>
+ *   offset  0  4 bytes  magic number, "JMSS"
+ *   offset  4  int      version (1)
+ *   offset  8  int      number of solutions (rows)
+ *   offset 12  int      number of objectives
+ *   offset 16  int      number of decision variables (0 if not stored)
+ *   offset 20  int      reserved (0)
+ *   offset 24  double   objective columns, then variable columns
+ * </pre>
+ * The values are stored by columns: all the values of the first objective,
+ * then all the values of the second one, and so on.
+ */
+public class SnapshotFormat {
+  public static final byte[] MAGIC        = {'J', 'M', 'S', 'S'} ;
+  public static final int    VERSION      = 1 ;
+  public static final int    HEADER_SIZE  = 24 ;
+  public static final String EXTENSION    = ".snap" ;
+
+  /**
+   * Returns the size in bytes of a snapshot
+   * @param rows Number of solutions
+   * @param objectives Number of objectives
+   * @param variables Number of stored variables
+   */
+  public static long size(int rows, int objectives, int variables) {
+    return HEADER_SIZE + 8L * rows * (objectives + variables) ;
+  } // size
+
+  /**
+   * Tells whether a file starts with the magic number of the snapshots
+   * @param path The file
+   */
+  public static boolean isSnapshot(String path) {
+    File file = new File(path) ;
+    if (!file.isFile() || (file.length() < HEADER_SIZE))
+      return false ;
+
+    RandomAccessFile in = null ;
+    try {
+      in = new RandomAccessFile(file, "r") ;
+      byte[] magic = new byte[MAGIC.length] ;
+      in.readFully(magic) ;
+      for (int i = 0; i < MAGIC.length; i++)
+        if (magic[i] != MAGIC[i])
+          return false ;
+      return true ;
+    } catch (IOException e) {
+      return false ;
+    } finally {
+      if (in != null) {
+        try {
+          in.close() ;
+        } catch (IOException e) {
+          // Nothing to do
+        } // catch
+      } // if
+    } // finally
+  } // isSnapshot
+} // SnapshotFormat
@@ -0,0 +1,145 @@
+//  SnapshotReader.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.snapshot;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a snapshot written by <code>SnapshotWriter</code>. The whole file is
+ * read through a <code>FileChannel</code> when the reader is created; the
+ * values are then returned by rows, as in the text files of the fronts.
+ */
+public class SnapshotReader {
+  private final String path_ ;
+  private final int rows_ ;
+  private final int numberOfObjectives_ ;
+  private final int numberOfVariables_ ;
+  private final ByteBuffer data_ ;  // Columns of values, little-endian
+
+  /**
+   * Constructor
+   * @param path The snapshot file
+   * @throws IOException If the file cannot be read or is not a snapshot
+   */
+  public SnapshotReader(String path) throws IOException {
+    path_ = path ;
+    FileInputStream in = new FileInputStream(path) ;
+    try {
+      FileChannel channel = in.getChannel() ;
+      long size = channel.size() ;
+      if ((size < SnapshotFormat.HEADER_SIZE) || (size > Integer.MAX_VALUE))
+        throw new IOException(path + " is not a snapshot") ;
+
+      ByteBuffer buffer = ByteBuffer.allocate((int) size) ;
+      while (buffer.hasRemaining())
+        if (channel.read(buffer) < 0)
+          throw new IOException(path + ": unexpected end of file") ;
+      buffer.flip() ;
+      buffer.order(ByteOrder.LITTLE_ENDIAN) ;
+
+      for (int i = 0; i < SnapshotFormat.MAGIC.length; i++)
+        if (buffer.get() != SnapshotFormat.MAGIC[i])
+          throw new IOException(path + " is not a snapshot") ;
+      int version = buffer.getInt() ;
+      if (version != SnapshotFormat.VERSION)
+        throw new IOException(path + ": unsupported snapshot version " + version) ;
+      rows_               = buffer.getInt() ;
+      numberOfObjectives_ = buffer.getInt() ;
+      numberOfVariables_  = buffer.getInt() ;
+      buffer.getInt() ;
+      if ((rows_ < 0) || (numberOfObjectives_ < 0) || (numberOfVariables_ < 0) ||
+          (size != SnapshotFormat.size(rows_, numberOfObjectives_, numberOfVariables_)))
+        throw new IOException(path + ": corrupted snapshot") ;
+
+      data_ = buffer.slice().order(ByteOrder.LITTLE_ENDIAN) ;
+    } finally {
+      in.close() ;
+    } // finally
+  } // SnapshotReader
+
+  public int getNumberOfRows() {
+    return rows_ ;
+  } // getNumberOfRows
+
+  public int getNumberOfObjectives() {
+    return numberOfObjectives_ ;
+  } // getNumberOfObjectives
+
+  public int getNumberOfVariables() {
+    return numberOfVariables_ ;
+  } // getNumberOfVariables
+
+  /**
+   * Returns the objectives, one row per solution
+   */
+  public double[][] getObjectives() {
+    return rows(0, numberOfObjectives_) ;
+  } // getObjectives
+
+  /**
+   * Returns the objectives in a single array, one solution after the other
+   */
+  public double[] getObjectiveValues() {
+    double[] values = new double[rows_ * numberOfObjectives_] ;
+    for (int k = 0; k < numberOfObjectives_; k++) {
+      int offset = 8 * k * rows_ ;
+      for (int i = 0; i < rows_; i++)
+        values[i * numberOfObjectives_ + k] = data_.getDouble(offset + 8 * i) ;
+    } // for
+    return values ;
+  } // getObjectiveValues
+
+  /**
+   * Returns the decision variables, one row per solution, or null if the
+   * snapshot does not contain them
+   */
+  public double[][] getVariables() {
+    if (numberOfVariables_ == 0)
+      return null ;
+    return rows(numberOfObjectives_, numberOfVariables_) ;
+  } // getVariables
+
+  /**
+   * Gathers columns first .. first + count - 1 into rows
+   */
+  private double[][] rows(int first, int count) {
+    double[][] rows = new double[rows_][count] ;
+    for (int k = 0; k < count; k++) {
+      int offset = 8 * (first + k) * rows_ ;
+      for (int i = 0; i < rows_; i++)
+        rows[i][k] = data_.getDouble(offset + 8 * i) ;
+    } // for
+    return rows ;
+  } // rows
+
+  /**
+   * Reads the objectives of a snapshot, in the layout of
+   * <code>MetricsUtil.readFront</code>
+   * @param path The snapshot file
+   */
+  public static double[][] readFront(String path) throws IOException {
+    return new SnapshotReader(path).getObjectives() ;
+  } // readFront
+
+  public String toString() {
+    return path_ + ": " + rows_ + " solutions, " + numberOfObjectives_ +
+        " objectives, " + numberOfVariables_ + " variables" ;
+  } // toString
+} // SnapshotReader
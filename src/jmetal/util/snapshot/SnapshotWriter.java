@@ -0,0 +1,119 @@
+//  SnapshotWriter.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.snapshot;
+
+import java.nio.ByteBuffer;
+
+import jmetal.core.SolutionSet;
+import jmetal.util.JMException;
+
+/**
+ * Writes snapshots of solution sets (see <code>SnapshotFormat</code>) on a
+ * background thread, so that an algorithm saving its population periodically
+ * is not stalled by the disk.
+ * <p>
+ * <code>write</code> copies the values of the solutions into one of two
+ * buffers and hands it to the writer thread, which writes it through a
+ * <code>FileChannel</code>; the caller only waits when both buffers are still
+ * in use, that is, when the snapshots are produced faster than they are
+ * written. Once <code>write</code> returns, the solutions may be modified.
+ * <p>
+ * A failed write is logged, and reported by the next call to
+ * <code>write</code>, <code>flush</code> or <code>close</code>. The writer
+ * thread is a daemon: <code>close</code> must be called to be sure that all
+ * the snapshots are on disk.
+ */
+public class SnapshotWriter {
+  private final BackgroundWriter writer_ ;
+
+  /**
+   * Constructor
+   */
+  public SnapshotWriter() {
+    writer_ = new BackgroundWriter("SnapshotWriter", false) ;
+  } // SnapshotWriter
+
+  /**
+   * Writes the objectives of a solution set
+   * @param solutions The solutions
+   * @param path The output file
+   * @throws JMException If the writer is closed or a previous write failed
+   */
+  public void write(SolutionSet solutions, String path) throws JMException {
+    write(solutions, path, false) ;
+  } // write
+
+  /**
+   * Writes the objectives, and optionally the decision variables, of a
+   * solution set
+   * @param solutions The solutions
+   * @param path The output file
+   * @param variables Whether the variables (which must have a
+   * <code>double</code> value) are written
+   * @throws JMException If the writer is closed, a previous write failed or
+   * a variable has no <code>double</code> value
+   */
+  public void write(SolutionSet solutions, String path, boolean variables)
+      throws JMException {
+    int rows = solutions.size() ;
+    int numberOfObjectives = 0 ;
+    int numberOfVariables  = 0 ;
+    if (rows > 0) {
+      numberOfObjectives = solutions.get(0).getNumberOfObjectives() ;
+      if (variables)
+        numberOfVariables = solutions.get(0).getDecisionVariables().length ;
+    } // if
+
+    ByteBuffer buffer = writer_.acquire(SnapshotFormat.size(rows,
+        numberOfObjectives, numberOfVariables)) ;
+    try {
+      buffer.put(SnapshotFormat.MAGIC) ;
+      buffer.putInt(SnapshotFormat.VERSION) ;
+      buffer.putInt(rows) ;
+      buffer.putInt(numberOfObjectives) ;
+      buffer.putInt(numberOfVariables) ;
+      buffer.putInt(0) ;
+      for (int k = 0; k < numberOfObjectives; k++)
+        for (int i = 0; i < rows; i++)
+          buffer.putDouble(solutions.get(i).getObjective(k)) ;
+      for (int k = 0; k < numberOfVariables; k++)
+        for (int i = 0; i < rows; i++)
+          buffer.putDouble(solutions.get(i).getDecisionVariables()[k].getValue()) ;
+      buffer.flip() ;
+      writer_.submit(buffer, path) ;
+    } catch (JMException e) {
+      writer_.release(buffer) ;
+      throw e ;
+    } // catch
+  } // write
+
+  /**
+   * Waits until all the submitted snapshots are written
+   * @throws JMException If a write failed
+   */
+  public void flush() throws JMException {
+    writer_.flush() ;
+  } // flush
+
+  /**
+   * Writes the pending snapshots and stops the writer thread; the writer
+   * cannot be used afterwards
+   * @throws JMException If a write failed
+   */
+  public void close() throws JMException {
+    writer_.close() ;
+  } // close
+} // SnapshotWriter
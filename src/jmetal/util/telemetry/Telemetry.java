@@ -0,0 +1,313 @@
+//  Telemetry.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.telemetry;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import jmetal.util.JMException;
+
+/**
+ * Measures where the time of a run goes. An algorithm brackets the phases of
+ * its main loop with <code>begin</code> and <code>end</code>, counts its
+ * evaluations and replacements with <code>count</code>, and calls
+ * <code>endGeneration</code> after each generation; the totals are then
+ * exported every few generations (see <code>TelemetryExporter</code>).
+ * <p>
+ * The times are exclusive: a phase begun inside another one pauses it, so
+ * that the phases of a generation add up to the time spent in them. The
+ * bytes allocated by the algorithm thread in each phase are measured in the
+ * same way with <code>com.sun.management.ThreadMXBean</code>, when the JVM
+ * supports it (the allocations of other threads, such as parallel
+ * evaluators, are not seen).
+ * <p>
+ * A disabled telemetry (<code>DISABLED</code>) does nothing but test a final
+ * field in each call. A telemetry is used by a single thread.
+ */
+public class Telemetry {
+  // Phases
+  public static final int EVALUATION  = 0 ;
+  public static final int VARIATION   = 1 ;  // Crossover and mutation
+  public static final int SELECTION   = 2 ;  // Mating selection
+  public static final int RANKING     = 3 ;  // Non-dominated sorting
+  public static final int ASSOCIATION = 4 ;  // Subproblems and solutions
+  public static final int UPDATE      = 5 ;  // Reference points and replacement
+  public static final int ARCHIVE     = 6 ;  // Archive and environmental selection
+
+  public static final String[] PHASES = {"evaluation", "variation",
+      "selection", "ranking", "association", "update", "archive"} ;
+
+  // Counters
+  public static final int EVALUATIONS  = 0 ;
+  public static final int REPLACEMENTS = 1 ;
+
+  public static final String[] COUNTERS = {"evaluations", "replacements"} ;
+
+  /**
+   * The telemetry of the algorithms which are not measured
+   */
+  public static final Telemetry DISABLED = new Telemetry() ;
+
+  private static final int MAX_DEPTH = 8 ;
+
+  private final boolean enabled_ ;
+  private final com.sun.management.ThreadMXBean threads_ ;  // null: no allocation counters
+  private final long threadId_ ;
+  private final TelemetryExporter exporter_ ;
+  private final int interval_ ;
+
+  private final long[] nanos_ ;
+  private final long[] bytes_ ;
+  private final long[] counters_ ;
+  private final int[] stack_ ;      // Phases paused by the current one
+  private int depth_ ;
+  private int current_ ;            // -1: no phase
+  private long markNanos_ ;         // Start of the current phase, or of its resumption
+  private long markBytes_ ;
+
+  private int generations_ ;
+  private final long startNanos_ ;
+  private final long startBytes_ ;
+  private long stopNanos_ ;         // End of the run, or -1 while it goes on
+  private long stopBytes_ ;
+
+  private Telemetry() {
+    enabled_  = false ;
+    threads_  = null ;
+    threadId_ = 0 ;
+    exporter_ = null ;
+    interval_ = 1 ;
+    nanos_ = bytes_ = counters_ = null ;
+    stack_ = null ;
+    startNanos_ = 0 ;
+    startBytes_ = 0 ;
+    stopNanos_  = 0 ;
+    stopBytes_  = 0 ;
+  } // Telemetry
+
+  /**
+   * Constructor of an enabled telemetry, measuring the calling thread
+   * @param exporter Where the totals are exported, or null
+   * @param interval Number of generations between two exports
+   */
+  public Telemetry(TelemetryExporter exporter, int interval) {
+    if (interval < 1)
+      throw new IllegalArgumentException("Telemetry: interval " + interval) ;
+    enabled_  = true ;
+    exporter_ = exporter ;
+    interval_ = interval ;
+    threadId_ = Thread.currentThread().getId() ;
+    threads_  = allocationCounter() ;
+
+    nanos_    = new long[PHASES.length] ;
+    bytes_    = new long[PHASES.length] ;
+    counters_ = new long[COUNTERS.length] ;
+    stack_    = new int[MAX_DEPTH] ;
+    depth_    = 0 ;
+    current_  = -1 ;
+    generations_ = 0 ;
+    startNanos_  = System.nanoTime() ;
+    startBytes_  = allocatedBytes() ;
+    stopNanos_   = -1 ;
+    stopBytes_   = -1 ;
+  } // Telemetry
+
+  /**
+   * Returns the bean counting the bytes allocated by a thread, or null if
+   * the JVM has none
+   */
+  public static com.sun.management.ThreadMXBean allocationCounter() {
+    try {
+      ThreadMXBean bean = ManagementFactory.getThreadMXBean() ;
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean ;
+        if (threads.isThreadAllocatedMemorySupported()) {
+          if (!threads.isThreadAllocatedMemoryEnabled())
+            threads.setThreadAllocatedMemoryEnabled(true) ;
+          return threads ;
+        } // if
+      } // if
+    } catch (LinkageError e) {
+      // Not a HotSpot-compatible JVM
+    } catch (UnsupportedOperationException e) {
+      // Allocation counters not supported
+    } catch (SecurityException e) {
+      // Not allowed to enable them
+    } // catch
+    return null ;
+  } // allocationCounter
+
+  public boolean isEnabled() {
+    return enabled_ ;
+  } // isEnabled
+
+  /**
+   * Starts a phase, pausing the current one
+   * @param phase One of the phase constants
+   */
+  public void begin(int phase) {
+    if (!enabled_)
+      return ;
+    long now   = System.nanoTime() ;
+    long bytes = allocatedBytes() ;
+    if (current_ >= 0) {
+      nanos_[current_] += now - markNanos_ ;
+      bytes_[current_] += bytes - markBytes_ ;
+      if (depth_ == MAX_DEPTH)
+        throw new IllegalStateException("Telemetry: phases nested too deeply") ;
+      stack_[depth_++] = current_ ;
+    } // if
+    current_   = phase ;
+    markNanos_ = now ;
+    markBytes_ = bytes ;
+  } // begin
+
+  /**
+   * Ends the current phase, resuming the one it paused
+   * @param phase The current phase
+   */
+  public void end(int phase) {
+    if (!enabled_)
+      return ;
+    if (phase != current_)
+      throw new IllegalStateException("Telemetry: end of " + PHASES[phase] +
+          " inside " + ((current_ < 0) ? "no phase" : PHASES[current_])) ;
+    long now   = System.nanoTime() ;
+    long bytes = allocatedBytes() ;
+    nanos_[phase] += now - markNanos_ ;
+    bytes_[phase] += bytes - markBytes_ ;
+    current_   = (depth_ > 0) ? stack_[--depth_] : -1 ;
+    markNanos_ = now ;
+    markBytes_ = bytes ;
+  } // end
+
+  private long allocatedBytes() {
+    return (threads_ == null) ? 0 : threads_.getThreadAllocatedBytes(threadId_) ;
+  } // allocatedBytes
+
+  /**
+   * Adds one to a counter
+   * @param counter One of the counter constants
+   */
+  public void count(int counter) {
+    if (enabled_)
+      counters_[counter]++ ;
+  } // count
+
+  /**
+   * Adds a number to a counter
+   * @param counter One of the counter constants
+   */
+  public void count(int counter, long value) {
+    if (enabled_)
+      counters_[counter] += value ;
+  } // count
+
+  /**
+   * Ends a generation; the totals are exported every <code>interval</code>
+   * generations
+   * @throws JMException If they cannot be exported
+   */
+  public void endGeneration() throws JMException {
+    if (!enabled_)
+      return ;
+    generations_++ ;
+    if ((exporter_ != null) && (generations_ % interval_ == 0))
+      exporter_.export(this) ;
+  } // endGeneration
+
+  /**
+   * Ends the run: the totals stop there. The last ones are exported, if they
+   * have not been, and the exporter is closed
+   * @throws JMException If they cannot be exported
+   */
+  public void close() throws JMException {
+    if (!enabled_ || (stopNanos_ >= 0))
+      return ;
+    stopNanos_ = System.nanoTime() ;
+    stopBytes_ = allocatedBytes() ;
+    if (exporter_ == null)
+      return ;
+    if (generations_ % interval_ != 0)
+      exporter_.export(this) ;
+    exporter_.close() ;
+  } // close
+
+  public int getGenerations() {
+    return generations_ ;
+  } // getGenerations
+
+  /**
+   * Returns the time since the telemetry was created, until it was closed
+   */
+  public long getElapsedNanos() {
+    if (!enabled_)
+      return 0 ;
+    return ((stopNanos_ < 0) ? System.nanoTime() : stopNanos_) - startNanos_ ;
+  } // getElapsedNanos
+
+  /**
+   * Returns the time spent in a phase (not counting the phases begun in it)
+   */
+  public long getNanos(int phase) {
+    return enabled_ ? nanos_[phase] : 0 ;
+  } // getNanos
+
+  /**
+   * Returns the bytes allocated by the algorithm thread in a phase, or -1 if
+   * the JVM cannot tell
+   */
+  public long getAllocatedBytes(int phase) {
+    if (!enabled_)
+      return 0 ;
+    return (threads_ == null) ? -1 : bytes_[phase] ;
+  } // getAllocatedBytes
+
+  /**
+   * Returns the bytes allocated by the algorithm thread since the telemetry
+   * was created, until it was closed, or -1 if the JVM cannot tell
+   */
+  public long getTotalAllocatedBytes() {
+    if (!enabled_)
+      return 0 ;
+    if (threads_ == null)
+      return -1 ;
+    return ((stopNanos_ < 0) ? allocatedBytes() : stopBytes_) - startBytes_ ;
+  } // getTotalAllocatedBytes
+
+  public long getCount(int counter) {
+    return enabled_ ? counters_[counter] : 0 ;
+  } // getCount
+
+  /**
+   * Returns a table of the totals
+   */
+  public String toString() {
+    if (!enabled_)
+      return "Telemetry disabled" ;
+    StringBuilder text = new StringBuilder() ;
+    long elapsed = getElapsedNanos() ;
+    text.append(String.format("%d generations in %.3f s%n", generations_, elapsed / 1e9)) ;
+    for (int i = 0; i < PHASES.length; i++)
+      if (nanos_[i] > 0)
+        text.append(String.format("  %-12s %10.3f s %6.1f %%  %12d bytes%n",
+            PHASES[i], nanos_[i] / 1e9, 100.0 * nanos_[i] / elapsed,
+            getAllocatedBytes(i))) ;
+    for (int i = 0; i < COUNTERS.length; i++)
+      text.append(String.format("  %-12s %10d%n", COUNTERS[i], counters_[i])) ;
+    return text.toString() ;
+  } // toString
+} // Telemetry
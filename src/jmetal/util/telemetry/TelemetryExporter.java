@@ -0,0 +1,161 @@
+//  TelemetryExporter.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.telemetry;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import jmetal.core.Algorithm;
+import jmetal.util.JMException;
+
+/**
+ * Exports the totals of a <code>Telemetry</code>, one row per export, to
+ * <code>prefix.csv</code> (with a header line) and to
+ * <code>prefix.jsonl</code> (one JSON object per line). The rows are
+ * cumulative: the totals of an interval are the differences between two
+ * rows. Each row is flushed, so the files can be followed during the run.
+ * <p>
+ * Columns: generation, evaluations, replacements, elapsed time, then the
+ * time (ns) and the allocated bytes of each phase, the bytes allocated by
+ * the algorithm thread and the used heap. The bytes are -1 when the JVM
+ * cannot count them.
+ * <p>
+ * An algorithm reads these input parameters (see <code>forAlgorithm</code>):
+ * <ul>
+ * <li><code>telemetryFile</code>: the prefix of the files; the telemetry is
+ * disabled if it is not set;</li>
+ * <li><code>telemetryInterval</code>: the number of generations between two
+ * exports (1 if not set);</li>
+ * <li><code>telemetry</code>: true to measure without exporting, when there
+ * is no file.</li>
+ * </ul>
+ */
+public class TelemetryExporter {
+  public static final String CSV_EXTENSION  = ".csv" ;
+  public static final String JSON_EXTENSION = ".jsonl" ;
+
+  private final Writer csv_ ;
+  private final Writer json_ ;
+  private final StringBuilder line_ ;
+
+  /**
+   * Constructor
+   * @param prefix Prefix of the files, which are overwritten
+   * @throws JMException If they cannot be created
+   */
+  public TelemetryExporter(String prefix) throws JMException {
+    try {
+      csv_  = open(prefix + CSV_EXTENSION) ;
+      json_ = open(prefix + JSON_EXTENSION) ;
+    } catch (IOException e) {
+      throw new JMException("TelemetryExporter: cannot create " + prefix +
+          " (" + e.getMessage() + ")") ;
+    } // catch
+    line_ = new StringBuilder() ;
+
+    line_.append("generation,evaluations,replacements,elapsed_ns") ;
+    for (String phase : Telemetry.PHASES)
+      line_.append(',').append(phase).append("_ns") ;
+    for (String phase : Telemetry.PHASES)
+      line_.append(',').append(phase).append("_bytes") ;
+    line_.append(",allocated_bytes,heap_used_bytes\n") ;
+    write(csv_) ;
+  } // TelemetryExporter
+
+  private static Writer open(String path) throws IOException {
+    return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path), "UTF-8")) ;
+  } // open
+
+  /**
+   * Creates the telemetry asked for by the input parameters
+   * <code>telemetryFile</code> and <code>telemetryInterval</code> of an
+   * algorithm
+   * @return The telemetry, or <code>Telemetry.DISABLED</code> if none is asked
+   * for
+   */
+  public static Telemetry forAlgorithm(Algorithm algorithm) throws JMException {
+    Object prefix = algorithm.getInputParameter("telemetryFile") ;
+    if (prefix == null)
+      return Boolean.TRUE.equals(algorithm.getInputParameter("telemetry")) ?
+          new Telemetry(null, 1) : Telemetry.DISABLED ;
+    Object interval = algorithm.getInputParameter("telemetryInterval") ;
+    return new Telemetry(new TelemetryExporter(prefix.toString()),
+        (interval == null) ? 1 : ((Integer) interval).intValue()) ;
+  } // forAlgorithm
+
+  /**
+   * Writes a row of the current totals
+   */
+  void export(Telemetry telemetry) throws JMException {
+    Runtime runtime = Runtime.getRuntime() ;
+    long heap = runtime.totalMemory() - runtime.freeMemory() ;
+    long elapsed = telemetry.getElapsedNanos() ;
+
+    line_.setLength(0) ;
+    line_.append(telemetry.getGenerations())
+         .append(',').append(telemetry.getCount(Telemetry.EVALUATIONS))
+         .append(',').append(telemetry.getCount(Telemetry.REPLACEMENTS))
+         .append(',').append(elapsed) ;
+    for (int i = 0; i < Telemetry.PHASES.length; i++)
+      line_.append(',').append(telemetry.getNanos(i)) ;
+    for (int i = 0; i < Telemetry.PHASES.length; i++)
+      line_.append(',').append(telemetry.getAllocatedBytes(i)) ;
+    line_.append(',').append(telemetry.getTotalAllocatedBytes())
+         .append(',').append(heap).append('\n') ;
+    write(csv_) ;
+
+    line_.setLength(0) ;
+    line_.append("{\"generation\":").append(telemetry.getGenerations())
+         .append(",\"evaluations\":").append(telemetry.getCount(Telemetry.EVALUATIONS))
+         .append(",\"replacements\":").append(telemetry.getCount(Telemetry.REPLACEMENTS))
+         .append(",\"elapsed_ns\":").append(elapsed)
+         .append(",\"phases\":{") ;
+    for (int i = 0; i < Telemetry.PHASES.length; i++) {
+      if (i > 0)
+        line_.append(',') ;
+      line_.append('"').append(Telemetry.PHASES[i]).append("\":{\"ns\":")
+           .append(telemetry.getNanos(i)).append(",\"bytes\":")
+           .append(telemetry.getAllocatedBytes(i)).append('}') ;
+    } // for
+    line_.append("},\"allocated_bytes\":").append(telemetry.getTotalAllocatedBytes())
+         .append(",\"heap_used_bytes\":").append(heap).append("}\n") ;
+    write(json_) ;
+  } // export
+
+  private void write(Writer writer) throws JMException {
+    try {
+      writer.write(line_.toString()) ;
+      writer.flush() ;
+    } catch (IOException e) {
+      throw new JMException("TelemetryExporter: " + e.getMessage()) ;
+    } // catch
+  } // write
+
+  /**
+   * Closes the files
+   */
+  void close() throws JMException {
+    try {
+      csv_.close() ;
+      json_.close() ;
+    } catch (IOException e) {
+      throw new JMException("TelemetryExporter: " + e.getMessage()) ;
+    } // catch
+  } // close
+} // TelemetryExporter
@@ -0,0 +1,160 @@
+//  pMOCellTest.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.mocell;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jmetal.core.Operator;
+import jmetal.core.Problem;
+import jmetal.core.SolutionSet;
+import jmetal.operators.crossover.CrossoverFactory;
+import jmetal.operators.mutation.MutationFactory;
+import jmetal.operators.selection.SelectionFactory;
+import jmetal.problems.DTLZ.DTLZ2;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import jmetal.util.comparators.DominanceComparator;
+
+/**
+ * Runs of <code>pMOCell</code> with several worker threads. It checks that
+ * <ul>
+ * <li>the generator of a worker keeps the contract of
+ * <code>PseudoRandom.randInt(a, b)</code>, which includes b: the draws in
+ * [0, 8] reach 8 and <code>randInt(3, 3)</code> returns 3;</li>
+ * <li>the binary tournament of a cell picks the cell itself (the last
+ * solution of its neighborhood);</li>
+ * <li>the run ends, with an archive of at most archiveSize non-dominated
+ * solutions.</li>
+ * </ul>
+ * Usage: <code>java jmetal.metaheuristics.mocell.pMOCellTest [threads]</code>
+ * (default 4); the exit status is 1 if a check fails.
+ */
+public class pMOCellTest {
+  private static final int ARCHIVE_SIZE = 100 ;
+
+  private static int failures_ = 0 ;
+
+  static void check(boolean condition, String message) {
+    if (!condition) {
+      System.out.println("FAILED: " + message) ;
+      failures_++ ;
+    } // if
+  } // check
+
+  /**
+   * Mutation drawing from the generator of the calling worker before
+   * mutating: it records the largest draw of randInt(0, 8) and the draws of
+   * randInt(3, 3) which are not 3 (or throw)
+   */
+  static class ProbeMutation extends Operator {
+    private final Operator mutation_ ;
+    final AtomicInteger largest_ = new AtomicInteger(-1) ;
+    final AtomicInteger wrong_ = new AtomicInteger() ;
+
+    ProbeMutation(Operator mutation) {
+      super(new HashMap<String, Object>()) ;
+      mutation_ = mutation ;
+    } // ProbeMutation
+
+    public Object execute(Object object) throws JMException {
+      for (int i = 0; i < 4; i++) {
+        int value = PseudoRandom.randInt(0, 8) ;
+        if (value > largest_.get())
+          largest_.set(value) ;
+      } // for
+      try {
+        if (PseudoRandom.randInt(3, 3) != 3)
+          wrong_.incrementAndGet() ;
+      } catch (RuntimeException e) {
+        wrong_.incrementAndGet() ;
+      } // catch
+      return mutation_.execute(object) ;
+    } // execute
+  } // ProbeMutation
+
+  /**
+   * Selection counting the times the binary tournament of a neighborhood
+   * (nine solutions) returns its last one, the cell
+   */
+  static class ProbeSelection extends Operator {
+    private final Operator selection_ ;
+    final AtomicInteger cell_ = new AtomicInteger() ;
+
+    ProbeSelection(Operator selection) {
+      super(new HashMap<String, Object>()) ;
+      selection_ = selection ;
+    } // ProbeSelection
+
+    public Object execute(Object object) throws JMException {
+      SolutionSet set = (SolutionSet) object ;
+      Object selected = selection_.execute(set) ;
+      if ((set.size() == 9) && (selected == set.get(8)))
+        cell_.incrementAndGet() ;
+      return selected ;
+    } // execute
+  } // ProbeSelection
+
+  static void checkRun(int threads) throws JMException, ClassNotFoundException {
+    String id = "pMOCell(threads=" + threads + ")" ;
+    Problem problem = new DTLZ2("Real", Integer.valueOf(12), Integer.valueOf(3)) ;
+    pMOCell algorithm = new pMOCell(problem) ;
+    algorithm.setInputParameter("populationSize", 100) ;
+    algorithm.setInputParameter("archiveSize", ARCHIVE_SIZE) ;
+    algorithm.setInputParameter("maxEvaluations", 20000) ;
+    algorithm.setInputParameter("numberOfThreads", threads) ;
+
+    HashMap<String, Object> parameters = new HashMap<String, Object>() ;
+    parameters.put("probability", 0.9) ;
+    parameters.put("distributionIndex", 20.0) ;
+    algorithm.addOperator("crossover",
+        CrossoverFactory.getCrossoverOperator("SBXCrossover", parameters)) ;
+    parameters = new HashMap<String, Object>() ;
+    parameters.put("probability", 1.0 / problem.getNumberOfVariables()) ;
+    parameters.put("distributionIndex", 20.0) ;
+    ProbeMutation mutation = new ProbeMutation(
+        MutationFactory.getMutationOperator("PolynomialMutation", parameters)) ;
+    algorithm.addOperator("mutation", mutation) ;
+    ProbeSelection selection = new ProbeSelection(
+        SelectionFactory.getSelectionOperator("BinaryTournament", null)) ;
+    algorithm.addOperator("selection", selection) ;
+
+    SolutionSet archive = algorithm.execute() ;
+
+    check(mutation.largest_.get() == 8, id + ": randInt(0, 8) reached only " +
+        mutation.largest_.get()) ;
+    check(mutation.wrong_.get() == 0, id + ": randInt(3, 3) was not 3 " +
+        mutation.wrong_.get() + " times") ;
+    check(selection.cell_.get() > 0, id + ": the tournament never picked the cell") ;
+    check((archive.size() > 0) && (archive.size() <= ARCHIVE_SIZE), id + ": " +
+        archive.size() + " members") ;
+    DominanceComparator dominance = new DominanceComparator() ;
+    for (int i = 0; i < archive.size(); i++)
+      for (int j = i + 1; j < archive.size(); j++)
+        if (dominance.compare(archive.get(i), archive.get(j)) != 0)
+          check(false, id + ": members " + i + " and " + j + " dominate each other") ;
+  } // checkRun
+
+  public static void main(String[] args) throws JMException, ClassNotFoundException {
+    int threads = (args.length > 0) ? Integer.parseInt(args[0]) : 4 ;
+    checkRun(threads) ;
+
+    System.out.println("pMOCell with " + threads + " threads, " + failures_ +
+        " failures") ;
+    if (failures_ > 0)
+      System.exit(1) ;
+  } // main
+} // pMOCellTest
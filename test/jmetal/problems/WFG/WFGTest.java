@@ -0,0 +1,192 @@
+//  WFGTest.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+
+package jmetal.problems.WFG;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+
+/**
+ * Checks WFG1..WFG9 against the objectives computed by the float reference
+ * implementation before the allocation-free pipeline was added, on fixed
+ * vectors: the default evaluation must give them exactly, the fused one up
+ * to the float rounding of the reference (amplified by s_decept in WFG5 and
+ * WFG9). It also checks that a problem still serializes after a fused
+ * evaluation.
+ * <p>
+ * Usage: <code>java jmetal.problems.WFG.WFGTest</code>; the exit status is 1
+ * if a check fails.
+ */
+public class WFGTest {
+  private static final int[][] SETTINGS = {{4, 20, 3}, {6, 10, 4}, {2, 4, 2}} ;  // k, l, M
+  private static final int VECTORS = 6 ;
+
+  // Tolerances of the fused evaluation, relative to 1 + |f|
+  private static final double TOLERANCE = 1e-4 ;
+  private static final double DECEPTIVE_TOLERANCE = 1e-2 ;  // WFG5, WFG9
+
+  /**
+   * The objectives of the VECTORS vectors, for each setting and problem
+   */
+  private static final float[][] EXPECTED = {
+    // k=4, l=20, M=3
+      {1.0f, 1.0f, 7.0f, 3.0f, 1.0f, 1.0000004f, 2.8867927f, 0.97326845f, 0.9749049f, 2.8327694f, 0.98406136f, 0.9859461f, 2.9178314f, 0.9829791f, 0.9823013f, 2.8643737f, 0.98259443f, 0.9962452f}, // WFG1
+      {0.6666666f, 0.6666666f, 6.6666665f, 2.6666665f, 0.6666666f, 0.6666666f, 0.32541904f, 0.49699193f, 6.1538463f, 0.81196237f, 1.2993424f, 4.4154906f, 0.9903928f, 1.2669811f, 6.2604265f, 0.70561165f, 0.68216217f, 6.606992f}, // WFG2
+      {0.6666666f, 0.6666666f, 6.6666665f, 2.3333333f, 1.3333334f, 0.6666666f, 0.65384614f, 1.1538461f, 3.1538463f, 1.1567988f, 1.9706376f, 3.3125477f, 1.3648694f, 2.0229015f, 2.6031f, 0.9531395f, 1.1135894f, 4.8265934f}, // WFG3
+      {3.0f, 1.0f, 1.0f, 3.0f, 1.0f, 1.0f, 0.05758984f, 0.33979923f, 6.030595f, 0.9868301f, 2.0427377f, 5.483251f, 0.7182985f, 2.4326186f, 5.406826f, 1.0653596f, 1.9578913f, 5.4124885f}, // WFG4
+      {0.062257014f, 0.3626049f, 6.0314946f, 0.062296476f, 0.36279556f, 6.031501f, 2.556183f, 2.0475543f, 2.797526f, 1.4247494f, 2.866907f, 4.6333f, 1.771807f, 1.961082f, 4.619381f, 1.6768507f, 2.4157195f, 4.52439f}, // WFG5
+      {0.0952381f, 0.0952381f, 6.095238f, 1.5952382f, 1.8272889f, 3.095238f, 0.521978f, 1.7540288f, 5.21813f, 2.305853f, 2.6627417f, 2.8831587f, 2.1908398f, 2.766266f, 3.1710138f, 1.9360046f, 1.4483652f, 5.051617f}, // WFG6
+      {1.0f, 1.0f, 7.0f, 3.0f, 1.0f, 1.0f, 1.2307692f, 2.2307692f, 4.4734097f, 0.68653333f, 2.3377306f, 5.7697096f, 0.94591993f, 2.7335463f, 5.345914f, 0.5312636f, 0.5872679f, 6.49951f}, // WFG7
+      {1.0f, 1.0f, 7.0f, 3.0f, 1.0f, 1.0f, 1.2307692f, 2.2307692f, 4.4734097f, 1.5793204f, 3.2191062f, 4.508314f, 1.9471701f, 3.1407921f, 3.5906403f, 1.4169409f, 1.6665342f, 6.0254173f}, // WFG8
+      {0.10070818f, 0.3041423f, 6.0870275f, 0.10071397f, 0.30425254f, 6.087019f, 1.0717425f, 2.0005357f, 4.1036005f, 2.2714336f, 1.8919692f, 4.469828f, 1.7136079f, 1.2999408f, 5.8855896f, 1.0057943f, 1.4354811f, 6.6793966f}, // WFG9
+    // k=6, l=10, M=4
+      {1.0f, 1.0f, 1.0f, 9.0f, 3.0f, 1.0f, 1.0f, 1.0000005f, 2.845395f, 0.97324866f, 0.97372603f, 0.9757554f, 2.8152053f, 0.98270476f, 0.9886741f, 0.9904996f, 2.841897f, 0.98460984f, 0.9830954f, 0.98203194f, 2.7979546f, 0.9832549f, 0.98220015f, 1.0002642f}, // WFG1
+      {0.6666667f, 0.6666667f, 0.6666667f, 8.666667f, 2.6666667f, 0.6666667f, 0.6666667f, 0.6666667f, 0.2040987f, 0.25435123f, 0.6685648f, 8.153846f, 0.72597945f, 0.6759528f, 1.579766f, 5.6313734f, 0.7239234f, 0.99096036f, 1.5641029f, 8.12396f, 0.713763f, 0.75642973f, 0.79837495f, 8.686163f}, // WFG2
+      {0.6666667f, 0.6666667f, 0.6666667f, 8.666667f, 2.0555558f, 1.2222221f, 1.6666665f, 0.6666667f, 0.40384614f, 0.65384614f, 1.6538461f, 4.1538463f, 0.9589428f, 0.99474084f, 2.5758028f, 4.160783f, 0.9479768f, 1.5211302f, 2.6978927f, 3.247524f, 0.8539041f, 1.061497f, 1.4275208f, 6.312299f}, // WFG3
+      {3.0f, 1.0f, 1.0f, 1.0f, 3.0f, 1.0f, 1.0f, 1.0f, 0.04759306f, 0.06832078f, 0.48629853f, 8.025193f, 0.72861975f, 1.3041669f, 2.853862f, 7.161647f, 0.501727f, 1.0095348f, 3.4605956f, 7.082656f, 0.78754604f, 1.4594722f, 2.752244f, 7.0906754f}, // WFG4
+      {0.0509272f, 0.07447499f, 0.51892567f, 8.025338f, 0.05095519f, 0.07452729f, 0.5191984f, 8.025338f, 2.453068f, 1.9739988f, 2.680385f, 3.4694035f, 1.1201686f, 1.8550496f, 4.0230503f, 5.99034f, 1.4936323f, 2.1311688f, 2.699069f, 6.001416f, 1.2894318f, 2.2764664f, 3.3716202f, 5.8679686f}, // WFG5
+      {0.18181819f, 0.18181819f, 0.18181819f, 8.181818f, 1.4808564f, 1.6818182f, 2.7798944f, 4.181818f, 0.29195803f, 0.9079834f, 2.6400342f, 6.970161f, 2.167007f, 1.8878653f, 3.614074f, 3.583396f, 1.7765994f, 2.8346348f, 3.8269498f, 4.0210843f, 1.8698263f, 1.9223648f, 1.9330566f, 6.602894f}, // WFG6
+      {1.0f, 1.0f, 1.0f, 9.0f, 3.0f, 1.0f, 1.0f, 1.0f, 0.937876f, 1.6449828f, 3.2307692f, 5.8876233f, 0.85500497f, 1.2943475f, 3.9040415f, 6.712532f, 0.60932124f, 2.23061f, 3.8661528f, 6.1488905f, 0.50783813f, 0.5520203f, 0.6210909f, 8.487667f}, // WFG7
+      {1.0f, 1.0f, 1.0f, 9.0f, 3.0f, 1.0f, 1.0f, 1.0f, 0.937876f, 1.6449828f, 3.2307692f, 5.8876233f, 1.4891882f, 1.4479833f, 4.4777985f, 5.77565f, 1.3342487f, 2.8682158f, 4.3732796f, 4.565256f, 1.180214f, 1.8229858f, 2.1881223f, 7.8335066f}, // WFG8
+      {0.18210426f, 0.19274338f, 0.4951745f, 8.170871f, 0.1821047f, 0.19275492f, 0.49533987f, 8.170859f, 0.7886083f, 1.4669285f, 3.0028474f, 5.474344f, 0.9391278f, 2.0576406f, 1.8973094f, 8.2086315f, 1.1359456f, 1.5322506f, 3.149199f, 8.022304f, 0.9967839f, 1.0784408f, 2.0098386f, 8.715254f}, // WFG9
+    // k=2, l=4, M=2
+      {1.0f, 5.0f, 3.0f, 1.0000002f, 2.9291055f, 0.9740544f, 2.930759f, 0.99244404f, 2.9611347f, 0.98196924f, 2.902975f, 0.99027663f}, // WFG1
+      {0.6666667f, 4.6666665f, 2.6666667f, 0.6666667f, 0.7396326f, 4.1538463f, 1.4057801f, 3.1681602f, 1.5576534f, 4.2444916f, 0.8588326f, 4.642539f}, // WFG2
+      {0.6666667f, 4.6666665f, 2.6666667f, 0.6666667f, 1.1538461f, 2.1538463f, 1.8001173f, 2.432865f, 1.8817303f, 1.8062739f, 1.2392669f, 3.4556065f}, // WFG3
+      {3.0f, 1.0f, 3.0f, 1.0f, 0.19369668f, 4.035997f, 1.4633592f, 3.8314292f, 1.3161507f, 3.5856657f, 1.5196958f, 3.8191843f}, // WFG4
+      {0.20676678f, 4.0376506f, 0.20687613f, 4.037664f, 2.6656604f, 2.1256483f, 1.9004952f, 3.1675494f, 2.0707452f, 3.3542523f, 1.9992919f, 3.1751943f}, // WFG5
+      {0.4f, 4.4f, 2.132051f, 2.3999999f, 1.0923077f, 3.5564094f, 2.526417f, 2.1067355f, 2.3315039f, 2.161979f, 2.0731368f, 3.6572483f}, // WFG6
+      {1.0f, 5.0f, 3.0f, 1.0f, 1.6449828f, 3.0591962f, 1.8365378f, 3.7230053f, 1.8892897f, 3.0948946f, 0.57302016f, 4.5170145f}, // WFG7
+      {1.0f, 5.0f, 3.0f, 1.0f, 1.6449828f, 3.0591962f, 2.2846646f, 3.28506f, 2.4796557f, 2.6593728f, 1.6379333f, 4.3093452f}, // WFG8
+      {0.5045952f, 4.394526f, 0.5046506f, 4.3945203f, 1.4816307f, 2.7533855f, 1.6603534f, 4.6148014f, 2.0508993f, 3.9894118f, 1.1398104f, 4.66129f}, // WFG9
+  } ;
+
+  private static int failures_ = 0 ;
+
+  /**
+   * The variable i of the fixed vector v: the lower bounds, the upper
+   * bounds, the middles of the ranges, then three spread vectors
+   */
+  static double value(int v, int i) {
+    if (v == 0)
+      return 0.0 ;
+    if (v == 1)
+      return 2.0 * (i + 1) ;
+    if (v == 2)
+      return i + 1 ;
+    return 2.0 * (i + 1) * ((v * 0.6180339887498949 + i * 0.4142135623730951) % 1.0) ;
+  } // value
+
+  static WFG problem(int p, int[] setting) throws ClassNotFoundException {
+    Integer k = Integer.valueOf(setting[0]), l = Integer.valueOf(setting[1]),
+        m = Integer.valueOf(setting[2]) ;
+    switch (p) {
+    case 1: return new WFG1("Real", k, l, m) ;
+    case 2: return new WFG2("Real", k, l, m) ;
+    case 3: return new WFG3("Real", k, l, m) ;
+    case 4: return new WFG4("Real", k, l, m) ;
+    case 5: return new WFG5("Real", k, l, m) ;
+    case 6: return new WFG6("Real", k, l, m) ;
+    case 7: return new WFG7("Real", k, l, m) ;
+    case 8: return new WFG8("Real", k, l, m) ;
+    default: return new WFG9("Real", k, l, m) ;
+    } // switch
+  } // problem
+
+  static Solution solution(Problem problem, int v) throws Exception {
+    Solution solution = new Solution(problem) ;
+    for (int i = 0; i < problem.getNumberOfVariables(); i++)
+      solution.getDecisionVariables()[i].setValue(value(v, i)) ;
+    return solution ;
+  } // solution
+
+  static void check(boolean condition, String message) {
+    if (!condition) {
+      System.out.println("FAILED: " + message) ;
+      failures_++ ;
+    } // if
+  } // check
+
+  /**
+   * Evaluates the fixed vectors of a problem and compares them with the
+   * expected objectives, exactly or within a tolerance
+   */
+  static void checkProblem(WFG problem, float[] expected, double tolerance, String id)
+      throws Exception {
+    int m = problem.getNumberOfObjectives() ;
+    for (int v = 0; v < VECTORS; v++) {
+      Solution solution = solution(problem, v) ;
+      problem.evaluate(solution) ;
+      for (int j = 0; j < m; j++) {
+        double f = expected[v * m + j] ;
+        double error = Math.abs(solution.getObjective(j) - f) ;
+        check((tolerance == 0) ? (solution.getObjective(j) == f) : (error <= tolerance * (1 + Math.abs(f))),
+            id + ", vector " + v + ", f" + (j + 1) + ": " + solution.getObjective(j) +
+            " instead of " + f) ;
+      } // for
+    } // for
+  } // checkProblem
+
+  static void checkSerialization(WFG problem, String id) throws Exception {
+    problem.setFusedEvaluation(true) ;
+    problem.evaluate(solution(problem, 3)) ;
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream() ;
+    ObjectOutputStream out = new ObjectOutputStream(bytes) ;
+    out.writeObject(problem) ;
+    out.close() ;
+    WFG copy = (WFG) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject() ;
+
+    Solution s1 = solution(problem, 4) ;
+    Solution s2 = solution(problem, 4) ;
+    problem.evaluate(s1) ;
+    copy.evaluate(s2) ;
+    for (int j = 0; j < problem.getNumberOfObjectives(); j++)
+      check(s1.getObjective(j) == s2.getObjective(j), id + ": deserialized copy, f" + (j + 1)) ;
+  } // checkSerialization
+
+  public static void main(String[] args) throws Exception {
+    int cases = 0 ;
+    for (int s = 0; s < SETTINGS.length; s++) {
+      for (int p = 1; p <= 9; p++) {
+        String id = "WFG" + p + " (k=" + SETTINGS[s][0] + ", l=" + SETTINGS[s][1] +
+            ", M=" + SETTINGS[s][2] + ")" ;
+        float[] expected = EXPECTED[s * 9 + p - 1] ;
+
+        checkProblem(problem(p, SETTINGS[s]), expected, 0, id) ;
+
+        WFG fused = problem(p, SETTINGS[s]) ;
+        fused.setFusedEvaluation(true) ;
+        double tolerance = ((p == 5) || (p == 9)) ? DECEPTIVE_TOLERANCE : TOLERANCE ;
+        checkProblem(fused, expected, tolerance, id + " fused") ;
+        fused.setDoublePrecision(true) ;
+        checkProblem(fused, expected, tolerance, id + " fused, double precision") ;
+
+        checkSerialization(problem(p, SETTINGS[s]), id) ;
+        cases++ ;
+      } // for
+    } // for
+
+    System.out.println(cases + " problems checked, " + failures_ + " failures") ;
+    if (failures_ > 0)
+      System.exit(1) ;
+  } // main
+} // WFGTest
@@ -0,0 +1,242 @@
+//  ConcurrentCrowdingArchiveTest.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+
+package jmetal.util.archive;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.NDTreeSolutionList;
+import jmetal.util.comparators.DominanceComparator;
+
+/**
+ * Multi-producer stress test of <code>ConcurrentCrowdingArchive</code>:
+ * several threads add random solutions at the same time, while a reader
+ * watches the snapshots. It checks that
+ * <ul>
+ * <li>the snapshots never exceed the threshold, and the archive returned by
+ * <code>getArchive</code> never exceeds the maximum size;</li>
+ * <li>the members never dominate each other;</li>
+ * <li>no update is lost: with a maximum size large enough for no truncation
+ * to happen, the archive is exactly the Pareto set of all the solutions
+ * produced;</li>
+ * <li>with a single producer and a threshold equal to the maximum size, the
+ * archive holds the same solutions as a <code>CrowdingArchive</code>.</li>
+ * </ul>
+ * The points lie near the unit sphere, so a good part of them are
+ * non-dominated.
+ * <p>
+ * Usage: <code>java jmetal.util.archive.ConcurrentCrowdingArchiveTest
+ * [threads]</code> (default 8); the exit status is 1 if a check fails.
+ */
+public class ConcurrentCrowdingArchiveTest {
+  private static final int OBJECTIVES = 3 ;
+  private static final int PER_THREAD = 5000 ;   // Solutions added by a producer
+  private static final int ROUNDS     = 5 ;
+  private static final long TIMEOUT   = 120000 ; // ms given to the producers of a round
+
+  private static int failures_ = 0 ;
+
+  static void check(boolean condition, String message) {
+    if (!condition) {
+      System.out.println("FAILED: " + message) ;
+      failures_++ ;
+    } // if
+  } // check
+
+  /**
+   * Returns n objective-only solutions near the unit sphere
+   */
+  static Solution[] points(int n, long seed) {
+    Random random = new Random(seed) ;
+    Solution[] points = new Solution[n] ;
+    for (int i = 0; i < n; i++) {
+      double[] f = new double[OBJECTIVES] ;
+      double norm = 0 ;
+      for (int j = 0; j < OBJECTIVES; j++) {
+        f[j] = random.nextDouble() ;
+        norm += f[j] * f[j] ;
+      } // for
+      norm = Math.sqrt(norm) / (1.0 + 0.05 * random.nextDouble()) ;
+      points[i] = new Solution(OBJECTIVES) ;
+      for (int j = 0; j < OBJECTIVES; j++)
+        points[i].setObjective(j, f[j] / norm) ;
+    } // for
+    return points ;
+  } // points
+
+  /**
+   * Adds the solutions of each producer from its own thread, all starting
+   * together, while a reader checks the size of the snapshots
+   */
+  static void produce(final ConcurrentCrowdingArchive archive, final Solution[][] batches,
+      final int threshold, final String id) throws InterruptedException {
+    final CountDownLatch start = new CountDownLatch(1) ;
+    final AtomicInteger running = new AtomicInteger(batches.length) ;
+    final int[] largestSnapshot = new int[1] ;
+    final Throwable[] error = new Throwable[1] ;
+    List<Thread> threads = new ArrayList<Thread>() ;
+    for (final Solution[] batch : batches) {
+      threads.add(new Thread() {
+        public void run() {
+          try {
+            start.await() ;
+          } catch (InterruptedException e) {
+            return ;
+          } // catch
+          try {
+            for (Solution solution : batch) {
+              archive.add(solution) ;
+              if ((solution.hashCode() & 63) == 0)
+                Thread.yield() ;   // More interleavings on few cores
+            } // for
+          } catch (RuntimeException e) {
+            synchronized (error) {
+              error[0] = e ;
+            } // synchronized
+          } finally {
+            running.decrementAndGet() ;
+          } // finally
+        } // run
+      }) ;
+    } // for
+    Thread reader = new Thread() {
+      public void run() {
+        while (running.get() > 0) {
+          largestSnapshot[0] = Math.max(largestSnapshot[0], archive.getSnapshot().size()) ;
+          Thread.yield() ;
+        } // while
+      } // run
+    } ;
+    for (Thread thread : threads) {
+      thread.setDaemon(true) ;
+      thread.start() ;
+    } // for
+    reader.setDaemon(true) ;
+    reader.start() ;
+    start.countDown() ;
+    long deadline = System.currentTimeMillis() + TIMEOUT ;
+    for (Thread thread : threads)
+      thread.join(Math.max(1, deadline - System.currentTimeMillis())) ;
+    if (running.get() > 0) {
+      check(false, id + ": " + running.get() + " producers still running after " +
+          TIMEOUT + " ms") ;
+      System.exit(1) ;
+    } // if
+    reader.join() ;
+    synchronized (error) {
+      check(error[0] == null, id + ": a producer failed with " + error[0]) ;
+    } // synchronized
+    check(largestSnapshot[0] <= threshold, id + ": snapshot of " + largestSnapshot[0] +
+        " solutions, threshold " + threshold) ;
+  } // produce
+
+  static void checkNonDominated(SolutionSet set, String id) {
+    DominanceComparator dominance = new DominanceComparator() ;
+    for (int i = 0; i < set.size(); i++)
+      for (int j = i + 1; j < set.size(); j++)
+        if (dominance.compare(set.get(i), set.get(j)) != 0) {
+          check(false, id + ": members " + i + " and " + j + " dominate each other") ;
+          return ;
+        } // if
+  } // checkNonDominated
+
+  static Set<Solution> members(SolutionSet set) {
+    Set<Solution> members = new HashSet<Solution>() ;
+    for (int i = 0; i < set.size(); i++)
+      members.add(set.get(i)) ;
+    return members ;
+  } // members
+
+  static Solution[][] batches(int threads, long seed) {
+    Solution[][] batches = new Solution[threads][] ;
+    for (int t = 0; t < threads; t++)
+      batches[t] = points(PER_THREAD, seed * 1000 + t) ;
+    return batches ;
+  } // batches
+
+  /**
+   * No truncation: the archive must be the Pareto set of all the solutions
+   */
+  static void checkNoLostUpdates(int threads, long seed) throws InterruptedException {
+    String id = "no truncation, " + threads + " threads, seed " + seed ;
+    Solution[][] batches = batches(threads, seed) ;
+    int total = threads * PER_THREAD ;
+    ConcurrentCrowdingArchive archive = new ConcurrentCrowdingArchive(total, OBJECTIVES) ;
+    produce(archive, batches, total, id) ;
+
+    NDTreeSolutionList front = new NDTreeSolutionList() ;
+    for (Solution[] batch : batches)
+      for (Solution solution : batch)
+        front.add(solution) ;
+
+    SolutionSet result = archive.getArchive() ;
+    checkNonDominated(result, id) ;
+    check(result.size() == front.size(), id + ": " + result.size() +
+        " members instead of the " + front.size() + " of the Pareto set") ;
+    check(members(result).equals(members(front)), id + ": the members are not the Pareto set") ;
+  } // checkNoLostUpdates
+
+  /**
+   * Truncation to a small maximum size, with the default threshold
+   */
+  static void checkBounded(int threads, long seed) throws InterruptedException {
+    String id = "maximum size 100, " + threads + " threads, seed " + seed ;
+    ConcurrentCrowdingArchive archive = new ConcurrentCrowdingArchive(100, OBJECTIVES) ;
+    produce(archive, batches(threads, seed), 200, id) ;
+
+    SolutionSet result = archive.getArchive() ;
+    check(result.size() <= 100, id + ": " + result.size() + " members") ;
+    check(result.size() == 100, id + ": only " + result.size() + " members") ;
+    checkNonDominated(result, id) ;
+  } // checkBounded
+
+  /**
+   * A single producer with threshold == maxSize must match CrowdingArchive
+   */
+  static void checkSequential(long seed) {
+    String id = "sequential, seed " + seed ;
+    ConcurrentCrowdingArchive archive = new ConcurrentCrowdingArchive(100, OBJECTIVES, 100) ;
+    CrowdingArchive reference = new CrowdingArchive(100, OBJECTIVES) ;
+    for (Solution solution : points(4 * PER_THREAD, seed)) {
+      archive.add(solution) ;
+      reference.add(solution) ;
+    } // for
+    check(members(archive.getArchive()).equals(members(reference)), id +
+        ": the members differ from those of CrowdingArchive") ;
+  } // checkSequential
+
+  public static void main(String[] args) throws InterruptedException {
+    int threads = (args.length > 0) ? Integer.parseInt(args[0]) : 8 ;
+    for (int round = 1; round <= ROUNDS; round++) {
+      checkNoLostUpdates(threads, round) ;
+      checkBounded(threads, round) ;
+      checkSequential(round) ;
+    } // for
+
+    System.out.println(ROUNDS + " rounds with " + threads + " producers, " +
+        failures_ + " failures") ;
+    if (failures_ > 0)
+      System.exit(1) ;
+  } // main
+} // ConcurrentCrowdingArchiveTest